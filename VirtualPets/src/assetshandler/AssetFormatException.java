@@ -0,0 +1,39 @@
+package assetshandler;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an asset file is not laid out correctly, giving the line and column the problem was found at.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetFormatException extends IOException {
+	private static final long serialVersionUID = 1L;
+	
+	private int line;
+	private int column;
+	
+	/**
+	 * Creates an exception for a problem in an asset file.
+	 * @param line
+	 * The line the problem was found on, counting from 1.
+	 * @param column
+	 * The column the problem was found at, counting from 1.
+	 * @param message
+	 * What the problem is.
+	 */
+	public AssetFormatException(int line, int column, String message) {
+		super(String.format("Line %d, column %d: %s", line, column, message));
+		this.line = line;
+		this.column = column;
+	}
+	
+	// Getters
+	public int getLine() {
+		return line;
+	}
+	
+	public int getColumn() {
+		return column;
+	}
+	// End Getters
+}
@@ -0,0 +1,418 @@
+package assetshandler;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+
+/**
+ * A compiled pack of assets, which is quicker to load than the text files AssetsLoader reads. A pack is compiled from
+ * an asset folder, as written by AssetsSaver, or from the default assets, and is memory-mapped when opened. The assets'
+ * numbers are read straight from the mapped file, and their icons are only decoded when they are first shown.
+ *
+ * The file starts with a header: its magic number, version, the number of strings, species, food types, toy types and
+ * images, then the offset of each section. The sections are:
+ *   Strings     - an index of each string's offset and length in bytes, then the strings in UTF-8.
+ *   Species     - one fixed size record each: name, icon, optimumWeight, hungerGain, energyLoss, happinessLoss,
+ *                 minToyDamage and maxToyDamage.
+ *   Food types  - one fixed size record each: name, icon, price, nutrition, tastiness and weight.
+ *   Toy types   - one fixed size record each: name, icon, price and happinessGain.
+ *   Images      - an index of each image's offset and length in bytes, then the encoded images.
+ * Every value is a 4 byte int. Names are indices into the strings, and icons are indices into the images.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetPack {
+	private static final int MAGIC = 0x5650414B;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 52;
+	private static final int INDEX_ENTRY_SIZE = 8;
+	private static final int SPECIES_SIZE = 32;
+	private static final int FOOD_TYPE_SIZE = 24;
+	private static final int TOY_TYPE_SIZE = 16;
+	
+	private MappedByteBuffer pack;
+	private int stringCount, speciesCount, foodTypeCount, toyTypeCount, imageCount;
+	private int stringsOffset, speciesOffset, foodTypesOffset, toyTypesOffset, imagesOffset, imageDataOffset;
+	
+	private AssetPack(MappedByteBuffer pack) {
+		this.pack = pack;
+	}
+	
+	/**
+	 * Opens a pack by mapping it into memory. Nothing is decoded until the assets are asked for.
+	 * @param file
+	 * The pack file.
+	 * @return
+	 * The opened pack.
+	 * @throws IOException
+	 * If the file cannot be read, or is not an asset pack.
+	 */
+	public static AssetPack open(File file) throws IOException {
+		MappedByteBuffer buffer;
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+				throw new IOException(file.getName() + " is not an asset pack.");
+			// The mapping stays valid once the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally {
+			channel.close();
+		}
+		
+		if (buffer.getInt(0) != MAGIC)
+			throw new IOException(file.getName() + " is not an asset pack.");
+		int version = buffer.getInt(4);
+		if (version != VERSION)
+			throw new IOException(file.getName() + " is version " + version + " of the asset pack format, expected version " + VERSION + ".");
+		AssetPack pack = new AssetPack(buffer);
+		pack.stringCount = buffer.getInt(8);
+		pack.speciesCount = buffer.getInt(12);
+		pack.foodTypeCount = buffer.getInt(16);
+		pack.toyTypeCount = buffer.getInt(20);
+		pack.imageCount = buffer.getInt(24);
+		pack.stringsOffset = buffer.getInt(28);
+		pack.speciesOffset = buffer.getInt(32);
+		pack.foodTypesOffset = buffer.getInt(36);
+		pack.toyTypesOffset = buffer.getInt(40);
+		pack.imagesOffset = buffer.getInt(44);
+		pack.imageDataOffset = buffer.getInt(48);
+		if (!pack.isInPack(pack.stringsOffset, pack.stringCount, INDEX_ENTRY_SIZE)
+				|| !pack.isInPack(pack.speciesOffset, pack.speciesCount, SPECIES_SIZE)
+				|| !pack.isInPack(pack.foodTypesOffset, pack.foodTypeCount, FOOD_TYPE_SIZE)
+				|| !pack.isInPack(pack.toyTypesOffset, pack.toyTypeCount, TOY_TYPE_SIZE)
+				|| !pack.isInPack(pack.imagesOffset, pack.imageCount, INDEX_ENTRY_SIZE)
+				|| !pack.isInPack(pack.imageDataOffset, 0, 0))
+			throw new IOException(file.getName() + " is corrupt: a section is outside the file.");
+		return pack;
+	}
+	
+	// Getters
+	/**
+	 * @return
+	 * The species in the pack, in the order they were compiled.
+	 * @throws IOException
+	 * If a species refers to a name or icon missing from the pack.
+	 */
+	public Species[] getSpecies() throws IOException {
+		Species[] species = new Species[speciesCount];
+		for (int i=0; i<speciesCount; i++) {
+			int record = speciesOffset + i*SPECIES_SIZE;
+			species[i] = new Species(getString(pack.getInt(record)), getIcon(pack.getInt(record + 4)), pack.getInt(record + 8),
+					pack.getInt(record + 12), pack.getInt(record + 16), pack.getInt(record + 20), pack.getInt(record + 24),
+					pack.getInt(record + 28));
+		}
+		return species;
+	}
+	
+	/**
+	 * @return
+	 * The food types in the pack, in the order they were compiled.
+	 * @throws IOException
+	 * If a food type refers to a name or icon missing from the pack.
+	 */
+	public FoodType[] getFoodTypes() throws IOException {
+		FoodType[] foodTypes = new FoodType[foodTypeCount];
+		for (int i=0; i<foodTypeCount; i++) {
+			int record = foodTypesOffset + i*FOOD_TYPE_SIZE;
+			foodTypes[i] = new FoodType(getString(pack.getInt(record)), getIcon(pack.getInt(record + 4)), pack.getInt(record + 8),
+					pack.getInt(record + 12), pack.getInt(record + 16), pack.getInt(record + 20));
+		}
+		return foodTypes;
+	}
+	
+	/**
+	 * @return
+	 * The toy types in the pack, in the order they were compiled.
+	 * @throws IOException
+	 * If a toy type refers to a name or icon missing from the pack.
+	 */
+	public ToyType[] getToyTypes() throws IOException {
+		ToyType[] toyTypes = new ToyType[toyTypeCount];
+		for (int i=0; i<toyTypeCount; i++) {
+			int record = toyTypesOffset + i*TOY_TYPE_SIZE;
+			toyTypes[i] = new ToyType(getString(pack.getInt(record)), getIcon(pack.getInt(record + 4)), pack.getInt(record + 8),
+					pack.getInt(record + 12));
+		}
+		return toyTypes;
+	}
+	// End Getters
+	
+	private String getString(int index) throws IOException {
+		if (index < 0 || index >= stringCount)
+			throw new IOException("The asset pack is corrupt: found a reference to missing string " + index + ".");
+		int entry = stringsOffset + index*INDEX_ENTRY_SIZE;
+		ByteBuffer bytes = getRange(pack.getInt(entry), pack.getInt(entry + 4));
+		return StandardCharsets.UTF_8.decode(bytes).toString();
+	}
+	
+	private ImageIcon getIcon(int index) throws IOException {
+		if (index < 0 || index >= imageCount)
+			throw new IOException("The asset pack is corrupt: found a reference to missing image " + index + ".");
+		int entry = imagesOffset + index*INDEX_ENTRY_SIZE;
+		return new LazyIcon(getRange(imageDataOffset + pack.getInt(entry), pack.getInt(entry + 4)));
+	}
+	
+	/**
+	 * Gets a view of part of the pack, without copying it.
+	 */
+	private ByteBuffer getRange(int offset, int length) throws IOException {
+		if (!isInPack(offset, 1, length))
+			throw new IOException("The asset pack is corrupt: found data outside the file.");
+		ByteBuffer range = pack.duplicate();
+		range.position(offset);
+		range.limit(offset + length);
+		return range.slice();
+	}
+	
+	private boolean isInPack(int offset, int count, int size) {
+		return offset >= 0 && count >= 0 && size >= 0 && offset + (long)count*size <= pack.capacity();
+	}
+	
+	/**
+	 * Compiles the assets in a folder, as written by AssetsSaver.writeAssetsToFile, into a pack.
+	 * @param assetFolder
+	 * The folder holding config.txt and the images it refers to.
+	 * @param packFile
+	 * The file to write the pack to.
+	 * @throws IOException
+	 * If the assets cannot be read or are invalid, or the pack cannot be written.
+	 */
+	public static void compile(File assetFolder, File packFile) throws IOException {
+		ParsedFormat species = new ParsedFormat(new SpeciesLoadFormat(null));
+		ParsedFormat foodTypes = new ParsedFormat(new FoodTypeLoadFormat(null));
+		ParsedFormat toyTypes = new ParsedFormat(new ToyTypeLoadFormat(null));
+		HashMap<String, LoadFormat> sectionFormats = new HashMap<String, LoadFormat>();
+		sectionFormats.put("Species", species);
+		sectionFormats.put("FoodTypes", foodTypes);
+		sectionFormats.put("ToyTypes", toyTypes);
+		InputStream configStream = new FileInputStream(new File(assetFolder.getPath() + "/config.txt"));
+		HashMap<LoadFormat, ArrayList<Object>> parsed = AssetsLoader.parseAssets(configStream, null, sectionFormats);
+		new Compiler(assetFolder.getPath(), parsed.get(species), parsed.get(foodTypes), parsed.get(toyTypes)).write(packFile);
+	}
+	
+	/**
+	 * Compiles the default assets the game is packaged with into a pack.
+	 * @param packFile
+	 * The file to write the pack to.
+	 * @throws IOException
+	 * If the default assets cannot be found or read, or the pack cannot be written.
+	 */
+	public static void compileDefaults(File packFile) throws IOException {
+		ParsedFormat species = new ParsedFormat(new SpeciesLoadFormat(null));
+		ParsedFormat foodTypes = new ParsedFormat(new FoodTypeLoadFormat(null));
+		ParsedFormat toyTypes = new ParsedFormat(new ToyTypeLoadFormat(null));
+		new Compiler(null, parseDefaults("/default_species.txt", species), parseDefaults("/default_foodtypes.txt", foodTypes),
+				parseDefaults("/default_toytypes.txt", toyTypes)).write(packFile);
+	}
+	
+	private static ArrayList<Object> parseDefaults(String resource, ParsedFormat format) throws IOException {
+		InputStream stream = AssetPack.class.getResourceAsStream(resource);
+		if (stream == null)
+			throw new FileNotFoundException("The default asset resource " + resource + " could not be found.");
+		return AssetsLoader.parseAssets(stream, format, new HashMap<String, LoadFormat>()).get(format);
+	}
+	
+	/**
+	 * Compiles an asset pack from the command line.
+	 * @param args
+	 * The asset folder and the pack file to write, or "--defaults" and the pack file to compile the default assets.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.out.println("Usage: AssetPack (<asset folder> | --defaults) <pack file>");
+			return;
+		}
+		try {
+			if (args[0].equals("--defaults"))
+				compileDefaults(new File(args[1]));
+			else
+				compile(new File(args[0]), new File(args[1]));
+			AssetPack pack = open(new File(args[1]));
+			System.out.println(String.format("Compiled %d species, %d food types and %d toy types into %s.",
+					pack.speciesCount, pack.foodTypeCount, pack.toyTypeCount, args[1]));
+		}
+		catch (IOException exc) {
+			System.out.println("Compiling the asset pack failed: " + exc.getMessage());
+		}
+	}
+	
+	/**
+	 * Keeps the attribute values of every block parsed with a format, without creating the assets.
+	 */
+	private static class ParsedFormat implements LoadFormat {
+		private AttributeSchema schema;
+		
+		private ParsedFormat(LoadFormat format) {
+			schema = format.getSchema();
+		}
+		
+		@Override
+		public AttributeSchema getSchema() {
+			return schema;
+		}
+		
+		@Override
+		public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, AttributeValues attributes) {
+			customObjects.add(attributes.copy());
+			return customObjects;
+		}
+	}
+	
+	/**
+	 * Lays out the records, strings and images of parsed assets, and writes them as a pack.
+	 */
+	private static class Compiler {
+		// The path of the asset folder, or null to read images from the game's resources
+		private String path;
+		private ArrayList<String> strings = new ArrayList<String>();
+		private HashMap<String, Integer> stringIndices = new HashMap<String, Integer>();
+		private ArrayList<byte[]> images = new ArrayList<byte[]>();
+		private HashMap<String, Integer> imageIndices = new HashMap<String, Integer>();
+		private int[][] species, foodTypes, toyTypes;
+		
+		private Compiler(String path, ArrayList<Object> species, ArrayList<Object> foodTypes, ArrayList<Object> toyTypes) throws IOException {
+			this.path = path;
+			// The records are laid out in the order of each format's schema: name, icon, then the numbers
+			this.species = toRecords("Species", species);
+			this.foodTypes = toRecords("Food type", foodTypes);
+			this.toyTypes = toRecords("Toy type", toyTypes);
+		}
+		
+		/**
+		 * Turns the attribute values of each block into a record of its name, icon, and numbers.
+		 */
+		private int[][] toRecords(String kind, ArrayList<Object> blocks) throws IOException {
+			if (blocks == null)
+				return new int[0][];
+			int[][] records = new int[blocks.size()][];
+			for (int i=0; i<records.length; i++) {
+				AttributeValues attributes = (AttributeValues)blocks.get(i);
+				String name = attributes.getText(0);
+				if (!attributes.isComplete())
+					throw new IOException(kind + " " + (name == null ? Integer.toString(i + 1) : "'" + name + "'")
+							+ " is missing or has invalid values for: " + attributes.getMissing() + ".");
+				AttributeSchema schema = attributes.getSchema();
+				int[] record = new int[schema.getCount()];
+				record[0] = addString(name);
+				record[1] = addImage(attributes.getText(1));
+				for (int j=schema.getTextCount(); j<record.length; j++)
+					record[j] = attributes.getNumber(j);
+				records[i] = record;
+			}
+			return records;
+		}
+		
+		private int addString(String string) {
+			Integer index = stringIndices.get(string);
+			if (index == null) {
+				index = strings.size();
+				strings.add(string);
+				stringIndices.put(string, index);
+			}
+			return index;
+		}
+		
+		/**
+		 * Reads an icon's encoded image into the pack, once however many assets use it.
+		 */
+		private int addImage(String icon) throws IOException {
+			Integer index = imageIndices.get(icon);
+			if (index != null)
+				return index;
+			byte[] image;
+			if (path == null) {
+				InputStream stream = AssetPack.class.getResourceAsStream(icon);
+				if (stream == null)
+					throw new FileNotFoundException("The icon " + icon + " could not be found.");
+				try {
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = stream.read(buffer)) > 0)
+						bytes.write(buffer, 0, read);
+					image = bytes.toByteArray();
+				}
+				finally {
+					stream.close();
+				}
+			}
+			else
+				image = Files.readAllBytes(Paths.get((path + icon).replaceAll("\\\\", "/")));
+			index = images.size();
+			images.add(image);
+			imageIndices.put(icon, index);
+			return index;
+		}
+		
+		private void write(File packFile) throws IOException {
+			byte[][] encoded = new byte[strings.size()][];
+			int stringBytes = 0;
+			for (int i=0; i<encoded.length; i++) {
+				encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+				stringBytes += encoded[i].length;
+			}
+			// Pad the strings so the records after them start on a multiple of 4 bytes
+			int padding = (4 - stringBytes % 4) % 4;
+			int stringsOffset = HEADER_SIZE;
+			int speciesOffset = stringsOffset + strings.size()*INDEX_ENTRY_SIZE + stringBytes + padding;
+			int foodTypesOffset = speciesOffset + species.length*SPECIES_SIZE;
+			int toyTypesOffset = foodTypesOffset + foodTypes.length*FOOD_TYPE_SIZE;
+			int imagesOffset = toyTypesOffset + toyTypes.length*TOY_TYPE_SIZE;
+			int imageDataOffset = imagesOffset + images.size()*INDEX_ENTRY_SIZE;
+			
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(packFile)));
+			try {
+				for (int value : new int[] {MAGIC, VERSION, strings.size(), species.length, foodTypes.length, toyTypes.length,
+						images.size(), stringsOffset, speciesOffset, foodTypesOffset, toyTypesOffset, imagesOffset, imageDataOffset})
+					out.writeInt(value);
+				
+				int offset = stringsOffset + strings.size()*INDEX_ENTRY_SIZE;
+				for (byte[] string : encoded) {
+					out.writeInt(offset);
+					out.writeInt(string.length);
+					offset += string.length;
+				}
+				for (byte[] string : encoded)
+					out.write(string);
+				out.write(new byte[padding]);
+				
+				for (int[][] records : new int[][][] {species, foodTypes, toyTypes})
+					for (int[] record : records)
+						for (int value : record)
+							out.writeInt(value);
+				
+				offset = 0;
+				for (byte[] image : images) {
+					out.writeInt(offset);
+					out.writeInt(image.length);
+					offset += image.length;
+				}
+				for (byte[] image : images)
+					out.write(image);
+			}
+			finally {
+				out.close();
+			}
+		}
+	}
+}
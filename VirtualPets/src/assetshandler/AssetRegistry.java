@@ -0,0 +1,272 @@
+package assetshandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+
+/**
+ * The species, food types and toy types loaded in the game, looked up by the keys saved games refer to them by, or by
+ * name. Saved games do not hold icons, so the icons of saved assets come from the registry when a game is loaded.
+ * <p>
+ * Each asset's id is its index in the registry's arrays. A registry never changes: merging in more assets makes a new
+ * registry, and the arrays it hands out are copies, so changing one cannot change which asset an id refers to.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetRegistry {
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	
+	private HashMap<String, Species> speciesByKey = new HashMap<String, Species>();
+	private HashMap<String, FoodType> foodTypesByKey = new HashMap<String, FoodType>();
+	private HashMap<String, ToyType> toyTypesByKey = new HashMap<String, ToyType>();
+	// The id of the first asset with each name
+	private HashMap<String, Integer> speciesIds = new HashMap<String, Integer>();
+	private HashMap<String, Integer> foodTypeIds = new HashMap<String, Integer>();
+	private HashMap<String, Integer> toyTypeIds = new HashMap<String, Integer>();
+	// The names of the custom assets left out by the merge which made this registry
+	private ArrayList<String> leftOut = new ArrayList<String>();
+	
+	/**
+	 * Creates a registry of loaded assets. If more than one asset of a kind has the same name, the first is found by
+	 * name.
+	 * @param species
+	 * The species loaded.
+	 * @param foodTypes
+	 * The food types loaded.
+	 * @param toyTypes
+	 * The toy types loaded.
+	 */
+	public AssetRegistry(Species[] species, FoodType[] foodTypes, ToyType[] toyTypes) {
+		this.species = species;
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		for (int id=0; id<species.length; id++) {
+			speciesByKey.putIfAbsent(species[id].getKey(), species[id]);
+			speciesIds.putIfAbsent(species[id].getName(), id);
+		}
+		for (int id=0; id<foodTypes.length; id++) {
+			foodTypesByKey.putIfAbsent(foodTypes[id].getKey(), foodTypes[id]);
+			foodTypeIds.putIfAbsent(foodTypes[id].getName(), id);
+		}
+		for (int id=0; id<toyTypes.length; id++) {
+			toyTypesByKey.putIfAbsent(toyTypes[id].getKey(), toyTypes[id]);
+			toyTypeIds.putIfAbsent(toyTypes[id].getName(), id);
+		}
+	}
+	
+	// Getters (each call gives a new copy of the array)
+	public Species[] getSpecies() {
+		return species.clone();
+	}
+	
+	public FoodType[] getFoodTypes() {
+		return foodTypes.clone();
+	}
+	
+	public ToyType[] getToyTypes() {
+		return toyTypes.clone();
+	}
+	
+	public List<String> getLeftOut() {
+		return Collections.unmodifiableList(leftOut);
+	}
+	// End Getters
+	
+	/**
+	 * Makes a registry with custom assets added to these. Custom assets with the same name as an asset already in the
+	 * registry, or as an earlier custom asset, are left out. Takes time in proportion to the number of assets, however
+	 * many names are shared. The names of the custom assets left out are given by the new registry's getLeftOut().
+	 * @param customSpecies
+	 * The species to add.
+	 * @param customFoodTypes
+	 * The food types to add.
+	 * @param customToyTypes
+	 * The toy types to add.
+	 * @return
+	 * A new registry holding these assets, followed by the custom assets whose names were not taken.
+	 */
+	public AssetRegistry merge(Species[] customSpecies, FoodType[] customFoodTypes, ToyType[] customToyTypes) {
+		ArrayList<String> leftOut = new ArrayList<String>();
+		Species[] mergedSpecies = Arrays.copyOf(species, species.length + customSpecies.length);
+		HashMap<String, Integer> names = new HashMap<String, Integer>(speciesIds);
+		int count = species.length;
+		for (Species custom : customSpecies) {
+			if (names.putIfAbsent(custom.getName(), count) == null)
+				mergedSpecies[count++] = custom;
+			else
+				leftOut.add(custom.getName());
+		}
+		mergedSpecies = Arrays.copyOf(mergedSpecies, count);
+		
+		FoodType[] mergedFoodTypes = Arrays.copyOf(foodTypes, foodTypes.length + customFoodTypes.length);
+		names = new HashMap<String, Integer>(foodTypeIds);
+		count = foodTypes.length;
+		for (FoodType custom : customFoodTypes) {
+			if (names.putIfAbsent(custom.getName(), count) == null)
+				mergedFoodTypes[count++] = custom;
+			else
+				leftOut.add(custom.getName());
+		}
+		mergedFoodTypes = Arrays.copyOf(mergedFoodTypes, count);
+		
+		ToyType[] mergedToyTypes = Arrays.copyOf(toyTypes, toyTypes.length + customToyTypes.length);
+		names = new HashMap<String, Integer>(toyTypeIds);
+		count = toyTypes.length;
+		for (ToyType custom : customToyTypes) {
+			if (names.putIfAbsent(custom.getName(), count) == null)
+				mergedToyTypes[count++] = custom;
+			else
+				leftOut.add(custom.getName());
+		}
+		mergedToyTypes = Arrays.copyOf(mergedToyTypes, count);
+		
+		AssetRegistry merged = new AssetRegistry(mergedSpecies, mergedFoodTypes, mergedToyTypes);
+		merged.leftOut = leftOut;
+		return merged;
+	}
+	
+	/**
+	 * Gets the species with an id.
+	 * @param id
+	 * The id of the species, its index in getSpecies().
+	 * @return
+	 * The species.
+	 */
+	public Species getSpecies(int id) {
+		return species[id];
+	}
+	
+	/**
+	 * Gets the food type with an id.
+	 * @param id
+	 * The id of the food type, its index in getFoodTypes().
+	 * @return
+	 * The food type.
+	 */
+	public FoodType getFoodType(int id) {
+		return foodTypes[id];
+	}
+	
+	/**
+	 * Gets the toy type with an id.
+	 * @param id
+	 * The id of the toy type, its index in getToyTypes().
+	 * @return
+	 * The toy type.
+	 */
+	public ToyType getToyType(int id) {
+		return toyTypes[id];
+	}
+	
+	/**
+	 * Gets the id of the species with a name.
+	 * @param name
+	 * The name of the species.
+	 * @return
+	 * The id of the first species with the name, or -1 if none has it.
+	 */
+	public int getSpeciesId(String name) {
+		Integer id = speciesIds.get(name);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Gets the id of the food type with a name.
+	 * @param name
+	 * The name of the food type.
+	 * @return
+	 * The id of the first food type with the name, or -1 if none has it.
+	 */
+	public int getFoodTypeId(String name) {
+		Integer id = foodTypeIds.get(name);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Gets the id of the toy type with a name.
+	 * @param name
+	 * The name of the toy type.
+	 * @return
+	 * The id of the first toy type with the name, or -1 if none has it.
+	 */
+	public int getToyTypeId(String name) {
+		Integer id = toyTypeIds.get(name);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Gets the species with a key.
+	 * @param key
+	 * The key of the species.
+	 * @return
+	 * The species, or null if none has the key.
+	 */
+	public Species getSpecies(String key) {
+		return speciesByKey.get(key);
+	}
+	
+	/**
+	 * Gets the food type with a key.
+	 * @param key
+	 * The key of the food type.
+	 * @return
+	 * The food type, or null if none has the key.
+	 */
+	public FoodType getFoodType(String key) {
+		return foodTypesByKey.get(key);
+	}
+	
+	/**
+	 * Gets the toy type with a key.
+	 * @param key
+	 * The key of the toy type.
+	 * @return
+	 * The toy type, or null if none has the key.
+	 */
+	public ToyType getToyType(String key) {
+		return toyTypesByKey.get(key);
+	}
+	
+	/**
+	 * Gets the species with a name.
+	 * @param name
+	 * The name of the species.
+	 * @return
+	 * The species, or null if none has the name.
+	 */
+	public Species getSpeciesNamed(String name) {
+		int id = getSpeciesId(name);
+		return id < 0 ? null : species[id];
+	}
+	
+	/**
+	 * Gets the food type with a name.
+	 * @param name
+	 * The name of the food type.
+	 * @return
+	 * The food type, or null if none has the name.
+	 */
+	public FoodType getFoodTypeNamed(String name) {
+		int id = getFoodTypeId(name);
+		return id < 0 ? null : foodTypes[id];
+	}
+	
+	/**
+	 * Gets the toy type with a name.
+	 * @param name
+	 * The name of the toy type.
+	 * @return
+	 * The toy type, or null if none has the name.
+	 */
+	public ToyType getToyTypeNamed(String name) {
+		int id = getToyTypeId(name);
+		return id < 0 ? null : toyTypes[id];
+	}
+}
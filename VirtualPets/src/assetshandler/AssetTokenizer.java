@@ -0,0 +1,241 @@
+package assetshandler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits an asset file into tokens in a single pass as it is read, so only the line being read is held in memory.
+ * Asset files are made of lines, with leading and trailing whitespace ignored:
+ *   "@Section" - starts or ends a section of blocks of one type, such as "@Species".
+ *   "$label"   - starts a block defining one asset.
+ *   "name=value" - sets an attribute of the asset in the block being read.
+ *   "/label"   - ends the block started with the same label.
+ * Other lines, and attributes outside a block, are ignored. Blocks must be closed before another block or section
+ * starts, and before the file ends; if not, an AssetFormatException gives the line and column of the problem.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetTokenizer {
+	// Types of tokens
+	public static final int END = 0;
+	public static final int SECTION = 1;
+	public static final int BLOCK_START = 2;
+	public static final int ATTRIBUTE = 3;
+	public static final int BLOCK_END = 4;
+	
+	private Reader reader;
+	private char[] buffer = new char[8192];
+	private int position, limit;
+	private boolean skipLineFeed;
+	// The line being read, which grows to fit the longest line
+	private char[] text = new char[256];
+	private int length;
+	
+	private int line, column;
+	private String name, value;
+	// Where the name and value of the last attribute are in the line, which are only made into strings if asked for
+	private int nameStart, nameEnd, valueStart, valueEnd;
+	// The label of the block being read, and where it started, or null outside a block
+	private String block;
+	private int blockLine, blockColumn;
+	
+	/**
+	 * Creates a tokenizer which reads from a reader. The reader is read in chunks, so need not be buffered.
+	 * @param reader
+	 * The reader of the asset file.
+	 */
+	public AssetTokenizer(Reader reader) {
+		this.reader = reader;
+	}
+	
+	// Getters
+	/**
+	 * @return
+	 * The line of the last token, counting from 1.
+	 */
+	public int getLine() {
+		return line;
+	}
+	
+	/**
+	 * @return
+	 * The column the last token starts at, counting from 1.
+	 */
+	public int getColumn() {
+		return column;
+	}
+	
+	/**
+	 * @return
+	 * The name of the last section or attribute, or the label of the last block started or ended.
+	 */
+	public String getName() {
+		if (name == null)
+			name = new String(text, nameStart, nameEnd - nameStart);
+		return name;
+	}
+	
+	/**
+	 * @return
+	 * The value of the last attribute, as written in the file.
+	 */
+	public String getValue() {
+		if (value == null)
+			value = new String(text, valueStart, valueEnd - valueStart);
+		return value;
+	}
+	
+	/**
+	 * @return
+	 * The characters of the line of the last token, which are overwritten when the next token is read.
+	 */
+	public char[] getChars() {
+		return text;
+	}
+	
+	/**
+	 * @return
+	 * The index in getChars() of the first character of the last attribute's name.
+	 */
+	public int getNameStart() {
+		return nameStart;
+	}
+	
+	/**
+	 * @return
+	 * The index in getChars() after the last character of the last attribute's name.
+	 */
+	public int getNameEnd() {
+		return nameEnd;
+	}
+	
+	/**
+	 * @return
+	 * The index in getChars() of the first character of the last attribute's value.
+	 */
+	public int getValueStart() {
+		return valueStart;
+	}
+	
+	/**
+	 * @return
+	 * The index in getChars() after the last character of the last attribute's value.
+	 */
+	public int getValueEnd() {
+		return valueEnd;
+	}
+	// End Getters
+	
+	/**
+	 * Reads the next token.
+	 * @return
+	 * The type of the token: SECTION, BLOCK_START, ATTRIBUTE or BLOCK_END, or END once the file has been read.
+	 * @throws AssetFormatException
+	 * If a block is not closed where it should be, or an attribute has no name or value.
+	 * @throws IOException
+	 * If reading fails.
+	 */
+	public int next() throws IOException {
+		while (readLine()) {
+			int start = 0;
+			int end = length;
+			while (start < end && text[start] <= ' ')
+				start++;
+			while (end > start && text[end - 1] <= ' ')
+				end--;
+			if (start == end)
+				continue;
+			column = start + 1;
+			char first = text[start];
+			
+			if (first == '@') {
+				if (block != null)
+					throw notClosed("section '" + new String(text, start, end - start) + "'");
+				name = new String(text, start + 1, end - start - 1);
+				return SECTION;
+			}
+			if (first == '$') {
+				if (block != null)
+					throw notClosed("block '" + new String(text, start + 1, end - start - 1) + "'");
+				block = name = new String(text, start + 1, end - start - 1);
+				blockLine = line;
+				blockColumn = column;
+				return BLOCK_START;
+			}
+			if (first == '/') {
+				name = new String(text, start + 1, end - start - 1);
+				if (block == null)
+					throw new AssetFormatException(line, column, "Found the end of block '" + name + "', which was not started.");
+				if (!name.equals(block))
+					throw new AssetFormatException(line, column, "Expected the end of block '" + block + "', found the end of block '" + name + "'.");
+				block = null;
+				return BLOCK_END;
+			}
+			
+			// Attributes are only read inside a block, and lines without an assignment are ignored
+			if (block == null)
+				continue;
+			int equals = start;
+			while (equals < end && text[equals] != '=')
+				equals++;
+			if (equals == end)
+				continue;
+			if (equals == start)
+				throw new AssetFormatException(line, column, "Found an attribute with no name.");
+			name = null;
+			value = null;
+			nameStart = start;
+			nameEnd = equals;
+			valueStart = equals + 1;
+			valueEnd = end;
+			if (equals == end - 1)
+				throw new AssetFormatException(line, equals + 2, "Attribute '" + getName() + "' has no value.");
+			return ATTRIBUTE;
+		}
+		if (block != null)
+			throw new AssetFormatException(blockLine, blockColumn, "Block '" + block + "' is not closed before the end of the file.");
+		return END;
+	}
+	
+	private AssetFormatException notClosed(String next) {
+		return new AssetFormatException(line, column, "Block '" + block + "', started at line " + blockLine + ", column "
+				+ blockColumn + ", is not closed before " + next + ".");
+	}
+	
+	/**
+	 * Reads the next line into the text buffer. Lines may end with "\n", "\r\n" or "\r".
+	 * @return
+	 * True if a line was read, or false if the file has ended.
+	 */
+	private boolean readLine() throws IOException {
+		length = 0;
+		boolean read = false;
+		while (true) {
+			if (position == limit) {
+				limit = reader.read(buffer, 0, buffer.length);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					if (read)
+						line++;
+					return read;
+				}
+			}
+			char c = buffer[position++];
+			if (skipLineFeed) {
+				skipLineFeed = false;
+				if (c == '\n')
+					continue;
+			}
+			read = true;
+			if (c == '\n' || c == '\r') {
+				skipLineFeed = (c == '\r');
+				line++;
+				return true;
+			}
+			if (length == text.length)
+				text = Arrays.copyOf(text, 2*length);
+			text[length++] = c;
+		}
+	}
+}
@@ -2,7 +2,6 @@ package assetshandler;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -10,7 +9,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 
 import model.FoodType;
 import model.Species;
@@ -25,118 +23,121 @@ public class AssetsLoader {
 	// Generic Static Methods
 	
 	/**
-	 * Reads all the lines of a given InputStream (generally made from a file) into a String array.
+	 * Parses the blocks of an asset file in a single pass as it is read, creating each asset as soon as its block ends.
+	 * Each block begins with a line "$label" and ends with a line "/label", and in between are attribute defines of the
+	 * form "attribute=value". Blocks may be grouped into sections between two markers such as "@Species".
 	 * @param inputStream
-	 * The InputStream that provides the content of the file.
+	 * The InputStream that provides the content of the file, which is closed once it has been read.
+	 * @param defaultFormat
+	 * The format to create assets from blocks outside a section, or in a section with no format. May be null to ignore them.
+	 * @param sectionFormats
+	 * The format to create assets from the blocks in each section, by the section's name.
 	 * @return
-	 * An array made up of String items where each String is a line of the file.
+	 * The assets created by each format, in the order their blocks appear in the file.
+	 * @throws AssetFormatException
+	 * Throws an AssetFormatException, giving the line and column, if the blocks or sections are not laid out correctly.
 	 * @throws IOException
-	 * Throws an IOException if an error occurs while reading/closing the InputStream.
+	 * Throws an IOException if an error occurs while reading the InputStream.
 	 */
-	private static String[] readAllLines(InputStream inputStream) throws IOException {
-		BufferedReader buffer = null;
-		ArrayList<String> lines = new ArrayList<String>();
-
-		// Firstly, try to open a BufferedReader on the InputStream, allowing us to read line-by-line
-		// Then continue to read the file line-by-line into the ArrayList, trimming whitespace
+	static HashMap<LoadFormat, ArrayList<Object>> parseAssets(InputStream inputStream, LoadFormat defaultFormat, 
+			HashMap<String, LoadFormat> sectionFormats) throws IOException {
+		HashMap<LoadFormat, ArrayList<Object>> customObjects = new HashMap<LoadFormat, ArrayList<Object>>();
+		// The attribute values of each format, which are cleared and reused for every block
+		HashMap<LoadFormat, AttributeValues> formatValues = new HashMap<LoadFormat, AttributeValues>();
+		AttributeValues attributes = null;
+		
 		try {
-			buffer = new BufferedReader(new InputStreamReader(inputStream));
-			String line = buffer.readLine();
-			while (line != null) {
-				lines.add(line.trim());
-				line = buffer.readLine();
+			AssetTokenizer tokenizer = new AssetTokenizer(new InputStreamReader(inputStream));
+			String section = null;
+			int sectionLine = 0;
+			LoadFormat format = null;
+			int blockLine = 0;
+			int token;
+			while ((token = tokenizer.next()) != AssetTokenizer.END) {
+				switch (token) {
+				case AssetTokenizer.SECTION:
+					// Sections are started and ended by the same marker, and cannot overlap
+					if (section == null) {
+						section = tokenizer.getName();
+						sectionLine = tokenizer.getLine();
+					}
+					else if (section.equals(tokenizer.getName()))
+						section = null;
+					else
+						throw new AssetFormatException(tokenizer.getLine(), tokenizer.getColumn(), String.format(
+								"Section '%s', started at line %d, is not closed before section '%s'.", section, sectionLine, tokenizer.getName()));
+					break;
+				case AssetTokenizer.BLOCK_START:
+					// Choose the format for the block's section, and start collecting its attributes.
+					format = (section != null && sectionFormats.containsKey(section)) ? sectionFormats.get(section) : defaultFormat;
+					if (format != null) {
+						attributes = formatValues.get(format);
+						if (attributes == null) {
+							attributes = new AttributeValues(format.getSchema());
+							formatValues.put(format, attributes);
+							customObjects.put(format, new ArrayList<Object>());
+						}
+						attributes.clear();
+					}
+					blockLine = tokenizer.getLine();
+					break;
+				case AssetTokenizer.ATTRIBUTE:
+					// The format's schema finds the attribute and parses its value straight from the line, ignoring
+					// attributes which are not valid for the format
+					if (format != null && !attributes.set(tokenizer.getChars(), tokenizer.getNameStart(), tokenizer.getNameEnd(), 
+							tokenizer.getValueStart(), tokenizer.getValueEnd()))
+						System.err.println(String.format("Line %d: The value of attribute '%s' is invalid.", 
+								tokenizer.getLine(), tokenizer.getName()));
+					break;
+				case AssetTokenizer.BLOCK_END:
+					// At end of block, try to create new object with given attributes & values.
+					if (format != null) {
+						ArrayList<Object> loaded = customObjects.get(format);
+						int count = loaded.size();
+						format.addCustomObject(loaded, attributes);
+						if (loaded.size() == count)
+							System.err.println(String.format("Could not load the '%s' block at line %d.", tokenizer.getName(), blockLine));
+					}
+					break;
+				}
 			}
+			if (section != null)
+				throw new AssetFormatException(sectionLine, 1, String.format("Section '%s' is not closed before the end of the file.", section));
+		}
+		catch (AssetFormatException exc) {
+			throw exc;
 		}
-		catch (IOException e) {
+		catch (IOException exc) {
 			throw new IOException("An error occured while reading the custom asset file.");
 		}
 		finally {
-			// Whether an exception was raised during reading or not, now try to close both the stream and the reader.
+			// Whether an exception was raised during reading or not, now try to close the stream.
 			try {
-				if (inputStream != null)
-					inputStream.close();
-				if (buffer != null)
-					buffer.close();
+				inputStream.close();
 			}
 			catch (IOException exc) {
 				System.err.println("Error while attempting to close custom asset file.");
 			}
 		}
-		// Convert the ArrayList into an Array, and return
-		return lines.toArray(new String[lines.size()]);
-	}
-
-	/**
-	 * Parses an 'attributes block', which is essentially just a list of properties belonging to a particular object.
-	 * Each valid line of the block is of the form: "attribute=value"
-	 * @param validAttributes
-	 * This defines the valid properties of the object being parsed.
-	 * @param block
-	 * The lines of the file corresponding to this block, as a String array.
-	 * @return
-	 * A HashMap where the key is the *valid* attribute name, and its value is as defined in the block.
-	 */
-	private static HashMap<String, String> parseAttributesBlock(String[] validAttributes, List<String> block) {
-		// Initialise new attributes HashMap for this object
-		HashMap<String, String> attributes = new HashMap<String, String>();
-
-		for (String line : block)
-			// Check if line is proper attribute assignment
-			if (line.contains("=")) {
-				String[] lineParts = line.split("=");
-				// Check through valid attributes to see if valid assignment line
-				for (String validAttribute : validAttributes)
-					if (lineParts[0].equals(validAttribute))
-						attributes.put(lineParts[0], lineParts[1]);
-			}
-
-		return attributes;
+		return customObjects;
 	}
-
+	
 	/**
-	 * Parses a number of custom 'blocks'. Each 'block' is a series of lines defining a single object.
-	 * Blocks begin with a line "$label" and end with a line "/label", and in between are attribute defines.
-	 * @param lines
-	 * The lines of the file corresponding to the custom blocks to be parsed.
-	 * @param loadFormat
-	 * The interface with which to create an object out of each block.
+	 * Gets the assets a format created while parsing a file, as an array of their type.
+	 * @param customObjects
+	 * The assets created by each format.
+	 * @param format
+	 * The format to get the assets of.
+	 * @param type
+	 * The class of array to return.
 	 * @return
-	 * Returns an array of objects defined by the custom blocks given.
+	 * The assets created by the format, or an empty array if it created none.
 	 */
-	private static Object[] parseCustomBlocks(String[] lines, LoadFormat loadFormat) {
-		ArrayList<Object> customObjects = new ArrayList<Object>();
-
-		int i = 0;
-		while (i < lines.length) {
-			if (lines[i].length() > 0 && lines[i].startsWith("$")) {
-				// Record the index and label at the start of the block.
-				int blockStartIndex = i + 1;
-				String label = lines[i].substring(1);
-				
-				// Check through lines until end of block found.
-				try {
-					while (!lines[i].equals("/" + label))
-						i++;
-				}
-				catch (ArrayIndexOutOfBoundsException e) {
-					System.err.println(String.format("Could not find end of '%s' block while parsing file.", label));
-				}
-
-				// Creates a list reference to the lines which comprise the block found.
-				List<String> block = Arrays.asList(lines).subList(blockStartIndex, i);
-				
-				// Then pass that list reference to the parseAttributesBlock method which will return
-				// the attributes defined by that block.
-				HashMap<String, String> attributes = parseAttributesBlock(loadFormat.getValidAttributes(), block);
-				
-				// At end of block, try to create new object with given attributes & values.
-				customObjects = loadFormat.addCustomObject(customObjects, attributes);
-			}
-			// Increment line counter after processing any block.
-			i++;
-		}
-		// Processing of all blocks done, return custom objects defined in file as Object array.
-		return customObjects.toArray(new Object[customObjects.size()]);
+	private static <T> T[] getLoaded(HashMap<LoadFormat, ArrayList<Object>> customObjects, LoadFormat format, Class<T[]> type) {
+		ArrayList<Object> loaded = customObjects.get(format);
+		if (loaded == null)
+			loaded = new ArrayList<Object>();
+		return Arrays.copyOf(loaded.toArray(), loaded.size(), type);
 	}
 	// End Generic Static Methods
 	
@@ -152,69 +153,27 @@ public class AssetsLoader {
 	 * @throws FileNotFoundException
 	 * Will throw FileNotFoundException if the File given is invalid (e.g. its parent directory does not exist).
 	 * @throws IOException
-	 * Will throw IOException if an error occurs during reading of the File given.
+	 * Will throw IOException if an error occurs during reading of the File given, or an AssetFormatException if its
+	 * blocks or sections are not laid out correctly.
 	 */
 	public static Object[][] loadCustomAssetsFile(File customAssetFolder) throws FileNotFoundException, IOException {
 		// Create an InputStream to read the config file.
 		InputStream configStream = new FileInputStream(new File(customAssetFolder.getPath() + "/config.txt"));
-		final String[] lines = readAllLines(configStream);
-		
-		// Initialise all local variables to null values.
-		String[] selectedBlocks = null;
-		Object[] customObjects = null;
-		Species[] customSpecies = {};
-		FoodType[] customFoodTypes = {};
-		ToyType[] customToyTypes = {};
 		
-		// Search through lines of the config file to find markers of each type
-		HashMap<String, int[]> markers = new HashMap<String, int[]>();
-		int lineNum = 0;
-		while (lineNum < lines.length) {
-			if (lines[lineNum].length() > 0 && lines[lineNum].startsWith("@")) {
-				String key = lines[lineNum].substring(1);
-				if (!markers.containsKey(key)) {
-					markers.put(key, new int[]{lineNum+1, -1});
-				}
-				else if (markers.get(key)[1] == -1) {
-					markers.get(key)[1] = lineNum;
-				}
-			}
-			lineNum++;
-		}
+		// Each type, such as Species, is parsed from the blocks between its markers, such as "@Species".
+		// Blocks outside these sections are ignored.
+		LoadFormat speciesFormat = new SpeciesLoadFormat(customAssetFolder.getPath());
+		LoadFormat foodTypeFormat = new FoodTypeLoadFormat(customAssetFolder.getPath());
+		LoadFormat toyTypeFormat = new ToyTypeLoadFormat(customAssetFolder.getPath());
+		HashMap<String, LoadFormat> sectionFormats = new HashMap<String, LoadFormat>();
+		sectionFormats.put("Species", speciesFormat);
+		sectionFormats.put("FoodTypes", foodTypeFormat);
+		sectionFormats.put("ToyTypes", toyTypeFormat);
+		HashMap<LoadFormat, ArrayList<Object>> customObjects = parseAssets(configStream, null, sectionFormats);
 		
-		// If file contains Species types, parse those blocks between the markers "@Species"
-		if (markers.containsKey("Species") && 
-			 markers.get("Species")[0] != -1 &&
-			 markers.get("Species")[1] != -1) {
-			selectedBlocks = Arrays.copyOfRange(lines, markers.get("Species")[0], markers.get("Species")[1]);
-			customObjects = parseCustomBlocks(selectedBlocks, new SpeciesLoadFormat(customAssetFolder.getPath()));
-			customSpecies = Arrays.copyOf(
-					customObjects, 
-					customObjects.length, 
-					Species[].class);
-		}
-		// If file contains FoodTypes, parse those blocks between the markers "@FoodTypes"
-		if (markers.containsKey("FoodTypes") && 
-			 markers.get("FoodTypes")[0] != -1 &&
-			 markers.get("FoodTypes")[1] != -1) {
-			selectedBlocks = Arrays.copyOfRange(lines, markers.get("FoodTypes")[0], markers.get("FoodTypes")[1]);
-			customObjects = parseCustomBlocks(selectedBlocks, new FoodTypeLoadFormat(customAssetFolder.getPath()));
-			customFoodTypes = Arrays.copyOf(
-					customObjects, 
-					customObjects.length, 
-					FoodType[].class);
-		}
-		// If file contains ToyTypes, parse those blocks between the markers "@ToyTypes"
-		if (markers.containsKey("ToyTypes") && 
-			 markers.get("ToyTypes")[0] != -1 &&
-			 markers.get("ToyTypes")[1] != -1) {
-			selectedBlocks = Arrays.copyOfRange(lines, markers.get("ToyTypes")[0], markers.get("ToyTypes")[1]);
-			customObjects = parseCustomBlocks(selectedBlocks, new ToyTypeLoadFormat(customAssetFolder.getPath()));
-			customToyTypes = Arrays.copyOf(
-					customObjects, 
-					customObjects.length, 
-					ToyType[].class);
-		}
+		Species[] customSpecies = getLoaded(customObjects, speciesFormat, Species[].class);
+		FoodType[] customFoodTypes = getLoaded(customObjects, foodTypeFormat, FoodType[].class);
+		ToyType[] customToyTypes = getLoaded(customObjects, toyTypeFormat, ToyType[].class);
 		
 		// Finally, return all the custom assets defined in the array of their respective type.
 		Object[][] customAssets = {customSpecies, customFoodTypes, customToyTypes};
@@ -228,15 +187,12 @@ public class AssetsLoader {
 	 * @return
 	 * Returns an array of species.
 	 * @throws IOException
-	 * Throws IOException if an error occurs while reading the InputStream, or when closing it.
+	 * Throws IOException if an error occurs while reading the InputStream, or an AssetFormatException if its blocks are
+	 * not laid out correctly.
 	 */
 	public static Species[] loadCustomSpeciesFile(InputStream inputStream) throws IOException {
-		final String[] lines = readAllLines(inputStream);
-		Object[] customObjects = parseCustomBlocks(lines, new SpeciesLoadFormat(null));
-		return Arrays.copyOf(
-				customObjects, 
-				customObjects.length, 
-				Species[].class);
+		LoadFormat format = new SpeciesLoadFormat(null);
+		return getLoaded(parseAssets(inputStream, format, new HashMap<String, LoadFormat>()), format, Species[].class);
 	}
 	
 	/**
@@ -246,15 +202,12 @@ public class AssetsLoader {
 	 * @return
 	 * Returns an array of ToyTypes.
 	 * @throws IOException
-	 * Throws IOException if an error occurs while reading the InputStream, or when closing it.
+	 * Throws IOException if an error occurs while reading the InputStream, or an AssetFormatException if its blocks are
+	 * not laid out correctly.
 	 */
 	public static ToyType[] loadCustomToyTypesFile(InputStream inputStream) throws IOException {
-		final String[] lines = readAllLines(inputStream);
-		Object[] customObjects = parseCustomBlocks(lines, new ToyTypeLoadFormat(null));
-		return Arrays.copyOf(
-				customObjects, 
-				customObjects.length, 
-				ToyType[].class);
+		LoadFormat format = new ToyTypeLoadFormat(null);
+		return getLoaded(parseAssets(inputStream, format, new HashMap<String, LoadFormat>()), format, ToyType[].class);
 	}
 	
 	/**
@@ -264,15 +217,12 @@ public class AssetsLoader {
 	 * @return
 	 * Returns an array of FoodTypes.
 	 * @throws IOException
-	 * Throws IOException if an error occurs while reading the InputStream, or when closing it.
+	 * Throws IOException if an error occurs while reading the InputStream, or an AssetFormatException if its blocks are
+	 * not laid out correctly.
 	 */
 	public static FoodType[] loadCustomFoodTypesFile(InputStream inputStream) throws IOException {
-		final String[] lines = readAllLines(inputStream);
-		Object[] customObjects = parseCustomBlocks(lines, new FoodTypeLoadFormat(null));
-		return Arrays.copyOf(
-				customObjects, 
-				customObjects.length, 
-				FoodType[].class);
+		LoadFormat format = new FoodTypeLoadFormat(null);
+		return getLoaded(parseAssets(inputStream, format, new HashMap<String, LoadFormat>()), format, FoodType[].class);
 	}
 	// End Loading Custom Methods
 }
@@ -0,0 +1,157 @@
+package assetshandler;
+
+/**
+ * The attributes a LoadFormat reads from each block of an asset file: some text attributes, such as a name, followed
+ * by some whole number attributes. Each attribute has an index, counting from 0 in the order they are given, and every
+ * attribute must be given in each block.
+ * <p>
+ * The names are laid out in a hash table with no collisions, so an attribute line is matched to its attribute with one
+ * hash of its name and one comparison, straight from the characters of the line.
+ * @author Andrew Davidson (ada130)
+ */
+public class AttributeSchema {
+	// The most attributes a schema can have, so which have been set in a block fits in a long
+	private static final int MAX_ATTRIBUTES = 64;
+	// How many seeds to try for each table size before making the table larger
+	private static final int SEED_ATTEMPTS = 256;
+	
+	private char[][] names;
+	private int textCount;
+	// The attribute index in each slot of the table, or -1 if the slot is empty
+	private int[] slots;
+	private int seed;
+	
+	/**
+	 * Creates a schema of attributes.
+	 * @param texts
+	 * The names of the text attributes, which are given indices from 0.
+	 * @param numbers
+	 * The names of the whole number attributes, which are given indices following the text attributes.
+	 * @throws IllegalArgumentException
+	 * If a name is given twice, or there are more than 64 attributes.
+	 */
+	public AttributeSchema(String[] texts, String[] numbers) {
+		if (texts.length + numbers.length > MAX_ATTRIBUTES)
+			throw new IllegalArgumentException("A schema can have at most " + MAX_ATTRIBUTES + " attributes.");
+		textCount = texts.length;
+		names = new char[texts.length + numbers.length][];
+		for (int i=0; i<names.length; i++)
+			names[i] = (i < textCount ? texts[i] : numbers[i - textCount]).toCharArray();
+		for (int i=0; i<names.length; i++)
+			for (int j=0; j<i; j++)
+				if (matches(j, names[i], 0, names[i].length))
+					throw new IllegalArgumentException("The attribute '" + new String(names[i]) + "' is given twice.");
+		buildTable();
+	}
+	
+	// Getters
+	public int getCount() {
+		return names.length;
+	}
+	
+	public int getTextCount() {
+		return textCount;
+	}
+	// End Getters
+	
+	/**
+	 * Gets whether an attribute is a text attribute.
+	 * @param attribute
+	 * The index of the attribute.
+	 * @return
+	 * True if it is text, or false if it is a whole number.
+	 */
+	public boolean isText(int attribute) {
+		return attribute < textCount;
+	}
+	
+	/**
+	 * Gets the name of an attribute.
+	 * @param attribute
+	 * The index of the attribute.
+	 * @return
+	 * The attribute's name.
+	 */
+	public String getName(int attribute) {
+		return new String(names[attribute]);
+	}
+	
+	/**
+	 * Gets which attributes must be set in each block.
+	 * @return
+	 * A mask with the bit of each attribute's index set.
+	 */
+	public long getRequired() {
+		return names.length == MAX_ATTRIBUTES ? -1L : (1L << names.length) - 1;
+	}
+	
+	/**
+	 * Finds the attribute with a name.
+	 * @param chars
+	 * The characters holding the name.
+	 * @param start
+	 * The index of the name's first character.
+	 * @param end
+	 * The index after the name's last character.
+	 * @return
+	 * The index of the attribute, or -1 if no attribute has the name.
+	 */
+	public int find(char[] chars, int start, int end) {
+		int attribute = slots[hash(chars, start, end, seed) & (slots.length - 1)];
+		if (attribute < 0 || !matches(attribute, chars, start, end))
+			return -1;
+		return attribute;
+	}
+	
+	/**
+	 * Lays the names out in the smallest table, at least twice as large as the number of attributes, where a seed
+	 * can be found which puts every name in a different slot.
+	 */
+	private void buildTable() {
+		int size = 1;
+		while (size < 2*names.length)
+			size <<= 1;
+		while (true) {
+			for (int attempt=0; attempt<SEED_ATTEMPTS; attempt++) {
+				int[] table = new int[size];
+				for (int i=0; i<size; i++)
+					table[i] = -1;
+				boolean collided = false;
+				for (int i=0; i<names.length && !collided; i++) {
+					int slot = hash(names[i], 0, names[i].length, attempt) & (size - 1);
+					if (table[slot] >= 0)
+						collided = true;
+					else
+						table[slot] = i;
+				}
+				if (!collided) {
+					slots = table;
+					seed = attempt;
+					return;
+				}
+			}
+			size <<= 1;
+		}
+	}
+	
+	private boolean matches(int attribute, char[] chars, int start, int end) {
+		char[] name = names[attribute];
+		if (name.length != end - start)
+			return false;
+		for (int i=0; i<name.length; i++)
+			if (name[i] != chars[start + i])
+				return false;
+		return true;
+	}
+	
+	private static int hash(char[] chars, int start, int end, int seed) {
+		int hash = seed * 0x9E3779B9;
+		for (int i=start; i<end; i++)
+			hash = 31*hash + chars[i];
+		// Mix the high bits into the low bits the slot is taken from
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		return hash;
+	}
+}
@@ -0,0 +1,168 @@
+package assetshandler;
+
+/**
+ * The values of the attributes read from one block of an asset file, as laid out by an AttributeSchema. The same values
+ * are cleared and reused for each block, so reading a block only creates the strings of its text attributes.
+ * @author Andrew Davidson (ada130)
+ */
+public class AttributeValues {
+	private AttributeSchema schema;
+	private String[] texts;
+	private int[] numbers;
+	// The attributes set in the block, and those which were set to a value that could not be read
+	private long set, invalid;
+	
+	/**
+	 * Creates empty values for a schema.
+	 * @param schema
+	 * The attributes which can be set.
+	 */
+	public AttributeValues(AttributeSchema schema) {
+		this.schema = schema;
+		texts = new String[schema.getTextCount()];
+		numbers = new int[schema.getCount()];
+	}
+	
+	// Getters
+	public AttributeSchema getSchema() {
+		return schema;
+	}
+	// End Getters
+	
+	/**
+	 * Gets the value of a text attribute, without the quotes it was written in.
+	 * @param attribute
+	 * The index of the attribute in the schema.
+	 * @return
+	 * The attribute's value, or null if it was not set.
+	 */
+	public String getText(int attribute) {
+		return texts[attribute];
+	}
+	
+	/**
+	 * Gets the value of a whole number attribute.
+	 * @param attribute
+	 * The index of the attribute in the schema.
+	 * @return
+	 * The attribute's value, or 0 if it was not set.
+	 */
+	public int getNumber(int attribute) {
+		return numbers[attribute];
+	}
+	
+	/**
+	 * Gets whether every attribute in the schema was set to a valid value.
+	 * @return
+	 * True if the values are complete.
+	 */
+	public boolean isComplete() {
+		return set == schema.getRequired() && invalid == 0;
+	}
+	
+	/**
+	 * Describes which attributes are missing or could not be read.
+	 * @return
+	 * The names of the attributes, separated by commas, or an empty string if the values are complete.
+	 */
+	public String getMissing() {
+		StringBuilder missing = new StringBuilder();
+		long wrong = (schema.getRequired() & ~set) | invalid;
+		for (int i=0; i<schema.getCount(); i++) {
+			if ((wrong & (1L << i)) != 0) {
+				if (missing.length() > 0)
+					missing.append(", ");
+				missing.append(schema.getName(i));
+			}
+		}
+		return missing.toString();
+	}
+	
+	/**
+	 * Clears the values, ready to read another block.
+	 */
+	public void clear() {
+		set = 0;
+		invalid = 0;
+		for (int i=0; i<texts.length; i++)
+			texts[i] = null;
+	}
+	
+	/**
+	 * Sets an attribute from a line of an asset file. A text value must be written in quotes, and a number must be a
+	 * whole number which fits in an int. Attributes not in the schema are ignored.
+	 * @param chars
+	 * The characters of the line.
+	 * @param nameStart
+	 * The index of the first character of the attribute's name.
+	 * @param nameEnd
+	 * The index after the last character of the attribute's name.
+	 * @param valueStart
+	 * The index of the first character of the value.
+	 * @param valueEnd
+	 * The index after the last character of the value.
+	 * @return
+	 * False if the attribute is in the schema but its value could not be read, otherwise true.
+	 */
+	public boolean set(char[] chars, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+		int attribute = schema.find(chars, nameStart, nameEnd);
+		if (attribute < 0)
+			return true;
+		long bit = 1L << attribute;
+		set |= bit;
+		boolean valid;
+		if (schema.isText(attribute)) {
+			valid = valueEnd - valueStart >= 2;
+			texts[attribute] = valid ? new String(chars, valueStart + 1, valueEnd - valueStart - 2) : null;
+		}
+		else
+			valid = parseNumber(attribute, chars, valueStart, valueEnd);
+		if (valid)
+			invalid &= ~bit;
+		else
+			invalid |= bit;
+		return valid;
+	}
+	
+	/**
+	 * Parses a whole number, with an optional sign, into a number attribute.
+	 * @return
+	 * True if the characters are a whole number which fits in an int.
+	 */
+	private boolean parseNumber(int attribute, char[] chars, int start, int end) {
+		boolean negative = false;
+		if (start < end && (chars[start] == '-' || chars[start] == '+')) {
+			negative = chars[start] == '-';
+			start++;
+		}
+		if (start == end)
+			return false;
+		// Add up the digits as a negative number, so the most negative int can be read too
+		long limit = negative ? Integer.MIN_VALUE : -(long)Integer.MAX_VALUE;
+		long value = 0;
+		for (int i=start; i<end; i++) {
+			int digit = chars[i] - '0';
+			if (digit < 0 || digit > 9)
+				return false;
+			value = value*10 - digit;
+			if (value < limit)
+				return false;
+		}
+		numbers[attribute] = (int)(negative ? value : -value);
+		return true;
+	}
+	
+	/**
+	 * Copies the values, so they can be kept after these are cleared for the next block.
+	 * @return
+	 * A copy of these values.
+	 */
+	public AttributeValues copy() {
+		AttributeValues copy = new AttributeValues(schema);
+		System.arraycopy(texts, 0, copy.texts, 0, texts.length);
+		System.arraycopy(numbers, 0, copy.numbers, 0, numbers.length);
+		copy.set = set;
+		copy.invalid = invalid;
+		return copy;
+	}
+}
@@ -1,7 +1,7 @@
 package assetshandler;
 
+import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import javax.swing.ImageIcon;
 
 import model.FoodType;
@@ -11,7 +11,10 @@ import model.FoodType;
  * @author Alex Tompkins (ato47)
  */
 public class FoodTypeLoadFormat implements LoadFormat {
-	private static String[] validAttributes = {"name", "icon", "price", "nutrition", "tastiness", "weight"};
+	private static final AttributeSchema schema = new AttributeSchema(new String[] {"name", "icon"}, 
+			new String[] {"price", "nutrition", "tastiness", "weight"});
+	// The index of each attribute in the schema
+	private static final int NAME = 0, ICON = 1, PRICE = 2, NUTRITION = 3, TASTINESS = 4, WEIGHT = 5;
 	private String path;
 	private ImageIcon icon;
 	
@@ -28,39 +31,36 @@ public class FoodTypeLoadFormat implements LoadFormat {
 	 * Refer to interface LoadFormat
 	 */
 	@Override
-	public String[] getValidAttributes() {
-		return validAttributes;
+	public AttributeSchema getSchema() {
+		return schema;
 	}
 
 	/**
 	 * Refer to interface LoadFormat
 	 */
 	@Override
-	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, HashMap<String, String> attributes) {
-		try {
-			// Parse each attribute's given value to check if valid 
-			// and pass correct type to constructor.
-			
-			String name = attributes.get("name").substring(1, attributes.get("name").length() - 1);
-			if (path == null)
-				icon = new ImageIcon(this.getClass().getResource(attributes.get("icon").substring(1, attributes.get("icon").length() - 1)));
-			else
-				icon = new ImageIcon((path + attributes.get("icon").substring(1, attributes.get("icon").length() - 1)).replaceAll("\\\\", "/"));
-			int price = Integer.parseInt(attributes.get("price"));
-			int nutrition = Integer.parseInt(attributes.get("nutrition"));
-			int tastiness = Integer.parseInt(attributes.get("tastiness"));
-			int weight = Integer.parseInt(attributes.get("weight"));
-			
-			FoodType newFoodType = new FoodType(name, icon, price, nutrition, tastiness, weight);
-			customObjects.add(newFoodType);
+	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, AttributeValues attributes) {
+		// Check every attribute was given a valid value, which the schema has already parsed to the correct type.
+		if (!attributes.isComplete()) {
+			System.err.println("FoodType attribute value either missing or invalid: " + attributes.getMissing());
+			return customObjects;
 		}
-		catch (NumberFormatException e) {
-			System.err.println("Incorrect number format when parsing custom file.");
-		}
-		catch (NullPointerException e) {
-			System.err.println("FoodType attribute value either missing or invalid.");
-			e.printStackTrace();
+
+		String name = attributes.getText(NAME);
+		if (path == null) {
+			URL iconResource = this.getClass().getResource(attributes.getText(ICON));
+			if (iconResource == null) {
+				System.err.println("FoodType icon could not be found: " + attributes.getText(ICON));
+				return customObjects;
+			}
+			icon = new LazyIcon(iconResource);
 		}
+		else
+			icon = new LazyIcon((path + attributes.getText(ICON)).replaceAll("\\\\", "/"));
+
+		FoodType newFoodType = new FoodType(name, icon, attributes.getNumber(PRICE), attributes.getNumber(NUTRITION), 
+				attributes.getNumber(TASTINESS), attributes.getNumber(WEIGHT));
+		customObjects.add(newFoodType);
 		return customObjects;
 	}
 
@@ -0,0 +1,174 @@
+package assetshandler;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import javax.swing.ImageIcon;
+
+/**
+ * An icon whose image is only decoded the first time it is painted or its image is asked for, rather than when the
+ * icon is created. The size of a PNG is read from its header without decoding it, so laying out a label with the icon
+ * does not decode it either. The decoded image is kept, so it is only decoded once.
+ * @author Andrew Davidson (ada130)
+ */
+public class LazyIcon extends ImageIcon {
+	private static final long serialVersionUID = 1L;
+	
+	// The bytes at the start of every PNG, before the length and type of its first chunk, which is its header
+	private static final byte[] PNG_SIGNATURE = {(byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+	private static final int PNG_SIZE_END = 24;
+	
+	// Where the encoded image is, either of which is let go once it has been decoded
+	private transient ByteBuffer data;
+	private transient URL url;
+	private transient boolean decoded;
+	// The size read from the image's header, -2 if it has not been read, or -1 if it could not be
+	private transient int width = -2, height = -2;
+	
+	/**
+	 * Creates an icon from an encoded image, such as a PNG, which is decoded when the icon is first used.
+	 * @param data
+	 * The encoded image, from its position to its limit. It is read when the image is decoded, so must not change.
+	 */
+	public LazyIcon(ByteBuffer data) {
+		this.data = data.slice();
+	}
+	
+	/**
+	 * Creates an icon from an image at a URL, such as a resource, which is decoded when the icon is first used.
+	 * @param url
+	 * The URL of the image.
+	 */
+	public LazyIcon(URL url) {
+		if (url == null)
+			throw new NullPointerException("The icon's image could not be found.");
+		this.url = url;
+		setDescription(url.toExternalForm());
+	}
+	
+	/**
+	 * Creates an icon from an image file, which is decoded when the icon is first used.
+	 * @param filename
+	 * The path of the image file.
+	 */
+	public LazyIcon(String filename) {
+		try {
+			url = new File(filename).toURI().toURL();
+		}
+		catch (MalformedURLException exc) {
+			throw new IllegalArgumentException("The icon's path is invalid: " + filename);
+		}
+		setDescription(filename);
+	}
+	
+	/**
+	 * Decodes the image, if it has not been decoded yet.
+	 */
+	private synchronized void decode() {
+		if (decoded)
+			return;
+		decoded = true;
+		if (data != null) {
+			byte[] bytes = new byte[data.remaining()];
+			data.duplicate().get(bytes);
+			setImage(Toolkit.getDefaultToolkit().createImage(bytes));
+		}
+		else
+			setImage(Toolkit.getDefaultToolkit().createImage(url));
+		data = null;
+		url = null;
+	}
+	
+	/**
+	 * Reads the size of the image from its header, if it is a PNG and has not been decoded yet.
+	 * @return
+	 * True if the size was read.
+	 */
+	private synchronized boolean readSize() {
+		if (decoded)
+			return false;
+		if (width == -2) {
+			width = height = -1;
+			byte[] header = new byte[PNG_SIZE_END];
+			int length = 0;
+			if (data != null) {
+				length = Math.min(data.remaining(), header.length);
+				data.duplicate().get(header, 0, length);
+			}
+			else {
+				try {
+					InputStream stream = url.openStream();
+					try {
+						int read;
+						while (length < header.length && (read = stream.read(header, length, header.length - length)) > 0)
+							length += read;
+					}
+					finally {
+						stream.close();
+					}
+				}
+				catch (IOException exc) {
+					// Leave the image to fail when it is decoded, as an ImageIcon would
+					return false;
+				}
+			}
+			if (length < PNG_SIZE_END)
+				return false;
+			for (int i=0; i<PNG_SIGNATURE.length; i++)
+				if (header[i] != PNG_SIGNATURE[i])
+					return false;
+			ByteBuffer size = ByteBuffer.wrap(header, PNG_SIGNATURE.length, 8);
+			width = size.getInt();
+			height = size.getInt();
+		}
+		return width >= 0 && height >= 0;
+	}
+	
+	@Override
+	public Image getImage() {
+		decode();
+		return super.getImage();
+	}
+	
+	@Override
+	public int getImageLoadStatus() {
+		decode();
+		return super.getImageLoadStatus();
+	}
+	
+	@Override
+	public int getIconWidth() {
+		if (readSize())
+			return width;
+		decode();
+		return super.getIconWidth();
+	}
+	
+	@Override
+	public int getIconHeight() {
+		if (readSize())
+			return height;
+		decode();
+		return super.getIconHeight();
+	}
+	
+	@Override
+	public void paintIcon(Component c, Graphics g, int x, int y) {
+		decode();
+		super.paintIcon(c, g, x, y);
+	}
+	
+	/**
+	 * Serialises the icon as a plain ImageIcon holding the decoded image.
+	 */
+	private Object writeReplace() {
+		return new ImageIcon(getImage(), getDescription());
+	}
+}
@@ -1,20 +1,19 @@
 package assetshandler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 
 /**
- * A format for loading assets. Defines a list of final attributes (strings) for a type
+ * A format for loading assets. Defines a schema of the attributes (text and whole numbers) for a type
  * and must implement a way to add a custom object of that type to a given ArrayList.
  * @author Alex Tompkins (ato47)
  */
 public interface LoadFormat {
 	/**
-	 * Simply returns the array of valid attributes for a given type.
+	 * Simply returns the schema of valid attributes for a given type.
 	 * @return
-	 * The array of valid attributes for this type.
+	 * The schema of valid attributes for this type.
 	 */
-	public String[] getValidAttributes();
+	public AttributeSchema getSchema();
 	
 	/**
 	 * A method for adding a custom object of this type to the ArrayList given. Must generate
@@ -22,9 +21,10 @@ public interface LoadFormat {
 	 * @param customObjects
 	 * The ArrayList of previous custom objects given to this method.
 	 * @param attributes
-	 * The attribute definitions given (all should be valid).
+	 * The attribute values given, laid out by this format's schema. They are reused for the next block,
+	 * so must be copied to be kept. Some may be missing or invalid, which isComplete() checks.
 	 * @return
-	 * The same ArrayList but with an extra custom object added on.
+	 * The same ArrayList, with an extra custom object added on if the attribute values were complete.
 	 */
-	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, HashMap<String, String> attributes);
+	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, AttributeValues attributes);
 }
@@ -1,7 +1,7 @@
 package assetshandler;
 
+import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import javax.swing.ImageIcon;
 
 import model.Species;
@@ -11,8 +11,11 @@ import model.Species;
  * @author Alex Tompkins (ato47)
  */
 public class SpeciesLoadFormat implements LoadFormat {
-	private static String[] validAttributes = {"name", "icon", "optimumWeight", "hungerGain", 
-			"energyLoss", "happinessLoss", "minToyDamage", "maxToyDamage"};
+	private static final AttributeSchema schema = new AttributeSchema(new String[] {"name", "icon"}, 
+			new String[] {"optimumWeight", "hungerGain", "energyLoss", "happinessLoss", "minToyDamage", "maxToyDamage"});
+	// The index of each attribute in the schema
+	private static final int NAME = 0, ICON = 1, OPTIMUM_WEIGHT = 2, HUNGER_GAIN = 3, ENERGY_LOSS = 4,
+			HAPPINESS_LOSS = 5, MIN_TOY_DAMAGE = 6, MAX_TOY_DAMAGE = 7;
 	private String path;
 	private ImageIcon icon;
 	
@@ -29,40 +32,37 @@ public class SpeciesLoadFormat implements LoadFormat {
 	 * Refer to interface LoadFormat
 	 */
 	@Override
-	public String[] getValidAttributes() {
-		return validAttributes;
+	public AttributeSchema getSchema() {
+		return schema;
 	}
 
 	/**
 	 * Refer to interface LoadFormat
 	 */
 	@Override
-	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, HashMap<String, String> attributes) {
-		try {
-			// Parse each attribute's given value to check if valid 
-			// and pass correct type to constructor.
-			
-			String name = attributes.get("name").substring(1, attributes.get("name").length() - 1);
-			if (path == null)
-				icon = new ImageIcon(this.getClass().getResource(attributes.get("icon").substring(1, attributes.get("icon").length() - 1)));
-			else
-				icon = new ImageIcon((path + attributes.get("icon").substring(1, attributes.get("icon").length() - 1)).replaceAll("\\\\", "/"));
-			int optimumWeight = Integer.parseInt(attributes.get("optimumWeight"));
-			int hungerGain = Integer.parseInt(attributes.get("hungerGain"));
-			int energyLoss = Integer.parseInt(attributes.get("energyLoss"));
-			int happinessLoss = Integer.parseInt(attributes.get("happinessLoss"));
-			int minToyDamage = Integer.parseInt(attributes.get("minToyDamage"));
-			int maxToyDamage = Integer.parseInt(attributes.get("maxToyDamage"));
-			
-			Species newSpecies = new Species(name, icon, optimumWeight, hungerGain, energyLoss, happinessLoss, minToyDamage, maxToyDamage);
-			customObjects.add(newSpecies);
+	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, AttributeValues attributes) {
+		// Check every attribute was given a valid value, which the schema has already parsed to the correct type.
+		if (!attributes.isComplete()) {
+			System.err.println("Species attribute value either missing or invalid: " + attributes.getMissing());
+			return customObjects;
 		}
-		catch (NumberFormatException exc) {
-			System.err.println("Incorrect number format when parsing custom file.");
-		}
-		catch (NullPointerException exc) {
-			System.err.println("Species attribute value either missing or invalid.");
+
+		String name = attributes.getText(NAME);
+		if (path == null) {
+			URL iconResource = this.getClass().getResource(attributes.getText(ICON));
+			if (iconResource == null) {
+				System.err.println("Species icon could not be found: " + attributes.getText(ICON));
+				return customObjects;
+			}
+			icon = new LazyIcon(iconResource);
 		}
+		else
+			icon = new LazyIcon((path + attributes.getText(ICON)).replaceAll("\\\\", "/"));
+
+		Species newSpecies = new Species(name, icon, attributes.getNumber(OPTIMUM_WEIGHT), attributes.getNumber(HUNGER_GAIN), 
+				attributes.getNumber(ENERGY_LOSS), attributes.getNumber(HAPPINESS_LOSS), attributes.getNumber(MIN_TOY_DAMAGE), 
+				attributes.getNumber(MAX_TOY_DAMAGE));
+		customObjects.add(newSpecies);
 		return customObjects;
 	}
 
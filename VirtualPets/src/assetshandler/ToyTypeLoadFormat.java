@@ -1,7 +1,7 @@
 package assetshandler;
 
+import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import javax.swing.ImageIcon;
 
 import model.ToyType;
@@ -11,7 +11,10 @@ import model.ToyType;
  * @author Alex Tompkins (ato47)
  */
 public class ToyTypeLoadFormat implements LoadFormat {
-	private static String[] validAttributes = {"name", "icon", "price", "happinessGain"};
+	private static final AttributeSchema schema = new AttributeSchema(new String[] {"name", "icon"}, 
+			new String[] {"price", "happinessGain"});
+	// The index of each attribute in the schema
+	private static final int NAME = 0, ICON = 1, PRICE = 2, HAPPINESS_GAIN = 3;
 	private String path;
 	private ImageIcon icon;
 	
@@ -28,36 +31,35 @@ public class ToyTypeLoadFormat implements LoadFormat {
 	 * Refer to interface LoadFormat
 	 */
 	@Override
-	public String[] getValidAttributes() {
-		return validAttributes;
+	public AttributeSchema getSchema() {
+		return schema;
 	}
 
 	/**
 	 * Refer to interface LoadFormat
 	 */
 	@Override
-	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, HashMap<String, String> attributes) {
-		try {
-			// Parse each attribute's given value to check if valid 
-			// and pass correct type to constructor.
-			
-			String name = attributes.get("name").substring(1, attributes.get("name").length() - 1);
-			if (path == null)
-				icon = new ImageIcon(this.getClass().getResource(attributes.get("icon").substring(1, attributes.get("icon").length() - 1)));
-			else
-				icon = new ImageIcon((path + attributes.get("icon").substring(1, attributes.get("icon").length() - 1)).replaceAll("\\\\", "/"));
-			int price = Integer.parseInt(attributes.get("price"));
-			int happinessGain = Integer.parseInt(attributes.get("happinessGain"));
-			
-			ToyType newToyType = new ToyType(name, icon, price, happinessGain);
-			customObjects.add(newToyType);
+	public ArrayList<Object> addCustomObject(ArrayList<Object> customObjects, AttributeValues attributes) {
+		// Check every attribute was given a valid value, which the schema has already parsed to the correct type.
+		if (!attributes.isComplete()) {
+			System.err.println("ToyType attribute value either missing or invalid: " + attributes.getMissing());
+			return customObjects;
 		}
-		catch (NumberFormatException e) {
-			System.err.println("Incorrect number format when parsing custom file.");
-		}
-		catch (NullPointerException e) {
-			System.err.println("ToyType attribute value either missing or invalid.");
+
+		String name = attributes.getText(NAME);
+		if (path == null) {
+			URL iconResource = this.getClass().getResource(attributes.getText(ICON));
+			if (iconResource == null) {
+				System.err.println("ToyType icon could not be found: " + attributes.getText(ICON));
+				return customObjects;
+			}
+			icon = new LazyIcon(iconResource);
 		}
+		else
+			icon = new LazyIcon((path + attributes.getText(ICON)).replaceAll("\\\\", "/"));
+
+		ToyType newToyType = new ToyType(name, icon, attributes.getNumber(PRICE), attributes.getNumber(HAPPINESS_GAIN));
+		customObjects.add(newToyType);
 		return customObjects;
 	}
 
@@ -0,0 +1,58 @@
+package benchmarks;
+
+/**
+ * A single benchmark run by BenchmarkRunner. Each invocation of run is timed and has its allocations measured, while
+ * setUp is called before every invocation to restore any state used up by the last one, and is not measured.
+ * @author Andrew Davidson (ada130)
+ */
+public abstract class Benchmark {
+	// Written to by benchmarks so that the JIT cannot remove the work being measured
+	private static volatile long sink;
+	
+	private String name;
+	private int size;
+	
+	/**
+	 * Creates a new benchmark.
+	 * @param name
+	 * The name the benchmark is reported under.
+	 * @param size
+	 * The population size the benchmark works on, or 0 if it does not depend on one.
+	 */
+	protected Benchmark(String name, int size) {
+		this.name = name;
+		this.size = size;
+	}
+	
+	// Getters
+	public String getName() {
+		return name;
+	}
+	
+	public int getSize() {
+		return size;
+	}
+	// End Getters
+	
+	/**
+	 * Prepares the benchmark for the next invocation of run. Not included in any measurements.
+	 */
+	public void setUp() {
+	}
+	
+	/**
+	 * Performs the operations being measured.
+	 * @return
+	 * The number of operations performed, which the measured time and allocations are divided by.
+	 */
+	public abstract int run();
+	
+	/**
+	 * Consumes a result of the measured operations so that they cannot be optimised away.
+	 * @param value
+	 * The result to consume.
+	 */
+	protected static void consume(long value) {
+		sink += value;
+	}
+}
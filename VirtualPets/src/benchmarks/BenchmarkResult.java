@@ -0,0 +1,104 @@
+package benchmarks;
+
+/**
+ * The measurements taken for one benchmark: the mean time per operation with its error across iterations, and the
+ * mean number of bytes allocated per operation.
+ * @author Andrew Davidson (ada130)
+ */
+public class BenchmarkResult {
+	private String name;
+	private int size;
+	private double nanosPerOperation;
+	private double error;
+	private double bytesPerOperation;
+	
+	/**
+	 * Creates a new result.
+	 * @param name
+	 * The name of the benchmark.
+	 * @param size
+	 * The population size the benchmark was run with.
+	 * @param nanosPerOperation
+	 * The mean time taken per operation, in nanoseconds.
+	 * @param error
+	 * The standard deviation of the time per operation across measurement iterations, in nanoseconds.
+	 * @param bytesPerOperation
+	 * The mean number of bytes allocated per operation, or -1 if allocations could not be measured.
+	 */
+	public BenchmarkResult(String name, int size, double nanosPerOperation, double error, double bytesPerOperation) {
+		this.name = name;
+		this.size = size;
+		this.nanosPerOperation = nanosPerOperation;
+		this.error = error;
+		this.bytesPerOperation = bytesPerOperation;
+	}
+	
+	// Getters
+	public String getName() {
+		return name;
+	}
+	
+	public int getSize() {
+		return size;
+	}
+	
+	public double getNanosPerOperation() {
+		return nanosPerOperation;
+	}
+	
+	public double getError() {
+		return error;
+	}
+	
+	public double getBytesPerOperation() {
+		return bytesPerOperation;
+	}
+	
+	/**
+	 * @return
+	 * The rate memory was allocated at while the benchmark ran, in megabytes per second.
+	 */
+	public double getAllocationRate() {
+		return bytesPerOperation / nanosPerOperation * 1e9 / (1024 * 1024);
+	}
+	// End Getters
+	
+	/**
+	 * @return
+	 * The key identifying this benchmark in a results file, made up of its name and size.
+	 */
+	public String getKey() {
+		return name + "," + size;
+	}
+	
+	/**
+	 * Converts this result to a line of a results file.
+	 * @return
+	 * The comma separated name, size, time per operation, error and bytes per operation.
+	 */
+	public String toCsv() {
+		return String.format("%s,%d,%.3f,%.3f,%.3f", name, size, nanosPerOperation, error, bytesPerOperation);
+	}
+	
+	/**
+	 * Reads a result from a line of a results file written by toCsv.
+	 * @param line
+	 * The line to read.
+	 * @return
+	 * The result on the line.
+	 * @throws IllegalArgumentException
+	 * If the line is not a valid result.
+	 */
+	public static BenchmarkResult fromCsv(String line) {
+		String[] values = line.split(",");
+		if (values.length != 5)
+			throw new IllegalArgumentException("Invalid benchmark result '" + line + "'.");
+		try {
+			return new BenchmarkResult(values[0], Integer.parseInt(values[1]), Double.parseDouble(values[2]),
+					Double.parseDouble(values[3]), Double.parseDouble(values[4]));
+		}
+		catch (NumberFormatException exc) {
+			throw new IllegalArgumentException("Invalid benchmark result '" + line + "'.");
+		}
+	}
+}
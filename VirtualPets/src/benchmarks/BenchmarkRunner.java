@@ -0,0 +1,290 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import assetshandler.AssetsLoader;
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+
+/**
+ * A command line tool which runs the model and save benchmarks and reports the time and memory allocated per
+ * operation. Each benchmark is warmed up for a number of iterations so that it has been compiled before it is
+ * measured, then run for a number of measured iterations. Allocations are measured per thread using the JVM's thread
+ * allocation counters, which are available on HotSpot based JVMs. The size of each benchmarked save with each
+ * compression codec is reported after the benchmarks, next to the throughput measured for it.
+ *
+ * Results can be saved to a file and later used as a baseline, in which case any benchmark that has become slower by
+ * more than the threshold, or that allocates more than it did, is reported as a regression and the tool exits with a
+ * non-zero status so that it can be run as a check on every change to the model.
+ *
+ * Usage: BenchmarkRunner [--warmup n] [--iterations n] [--time ms] [--sizes n,n,...] [--filter text] [--save file]
+ *                        [--baseline file] [--threshold percent]
+ * @author Andrew Davidson (ada130)
+ */
+public class BenchmarkRunner {
+	// Allocations smaller than this per operation are treated as measurement noise when comparing against a baseline
+	private static final double ALLOCATION_TOLERANCE = 1;
+	
+	private int warmupIterations = 5;
+	private int measurementIterations = 10;
+	private long iterationNanos = 200000000L;
+	
+	private com.sun.management.ThreadMXBean threadBean;
+	private long allocationOverhead = 0;
+	
+	/**
+	 * Creates a runner, checking whether allocations can be measured on this JVM.
+	 */
+	public BenchmarkRunner() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			threadBean = (com.sun.management.ThreadMXBean)bean;
+			if (threadBean.isThreadAllocatedMemorySupported()) {
+				threadBean.setThreadAllocatedMemoryEnabled(true);
+				// Reading the counter can allocate itself, so measure how much that is so it can be taken off
+				long threadId = Thread.currentThread().getId();
+				long smallest = Long.MAX_VALUE;
+				for (int i=0; i<1000; i++) {
+					long before = threadBean.getThreadAllocatedBytes(threadId);
+					long after = threadBean.getThreadAllocatedBytes(threadId);
+					smallest = Math.min(smallest, after - before);
+				}
+				allocationOverhead = smallest;
+			}
+			else
+				threadBean = null;
+		}
+	}
+	
+	// Setters
+	public void setWarmupIterations(int warmupIterations) {
+		this.warmupIterations = warmupIterations;
+	}
+	
+	public void setMeasurementIterations(int measurementIterations) {
+		this.measurementIterations = measurementIterations;
+	}
+	
+	public void setIterationMillis(long iterationMillis) {
+		this.iterationNanos = iterationMillis * 1000000L;
+	}
+	// End Setters
+	
+	/**
+	 * Runs a benchmark through its warmup and measurement iterations.
+	 * @param benchmark
+	 * The benchmark to run.
+	 * @return
+	 * The measurements taken during the measurement iterations.
+	 */
+	public BenchmarkResult run(Benchmark benchmark) {
+		for (int i=0; i<warmupIterations; i++)
+			runIteration(benchmark, null);
+		
+		double[] nanosPerOperation = new double[measurementIterations];
+		long totalOperations = 0;
+		long totalBytes = 0;
+		for (int i=0; i<measurementIterations; i++) {
+			long[] totals = new long[3];
+			runIteration(benchmark, totals);
+			nanosPerOperation[i] = (double)totals[0] / totals[1];
+			totalOperations += totals[1];
+			totalBytes += totals[2];
+		}
+		
+		double mean = 0;
+		for (double value : nanosPerOperation)
+			mean += value;
+		mean /= measurementIterations;
+		double variance = 0;
+		for (double value : nanosPerOperation)
+			variance += (value - mean) * (value - mean);
+		double error = measurementIterations > 1 ? Math.sqrt(variance / (measurementIterations - 1)) : 0;
+		double bytesPerOperation = threadBean == null ? -1 : (double)totalBytes / totalOperations;
+		
+		return new BenchmarkResult(benchmark.getName(), benchmark.getSize(), mean, error, bytesPerOperation);
+	}
+	
+	/**
+	 * Invokes a benchmark repeatedly for one iteration's worth of time, measuring only the invocations of run.
+	 * @param benchmark
+	 * The benchmark to invoke.
+	 * @param totals
+	 * An array receiving the total nanoseconds, operations and bytes allocated, or null if nothing is being measured.
+	 */
+	private void runIteration(Benchmark benchmark, long[] totals) {
+		long threadId = Thread.currentThread().getId();
+		long end = System.nanoTime() + iterationNanos;
+		long nanos = 0, operations = 0, bytes = 0;
+		do {
+			benchmark.setUp();
+			long bytesBefore = threadBean == null ? 0 : threadBean.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			int performed = benchmark.run();
+			long finish = System.nanoTime();
+			long bytesAfter = threadBean == null ? 0 : threadBean.getThreadAllocatedBytes(threadId);
+			
+			nanos += finish - start;
+			operations += performed;
+			bytes += Math.max(bytesAfter - bytesBefore - allocationOverhead, 0);
+		} while (System.nanoTime() < end);
+		
+		if (totals != null) {
+			totals[0] = nanos;
+			totals[1] = operations;
+			totals[2] = bytes;
+		}
+	}
+	
+	/**
+	 * Reads a results file written by the save option.
+	 * @param file
+	 * The file to read.
+	 * @return
+	 * The results in the file, keyed by benchmark name and size.
+	 * @throws IOException
+	 * If the file cannot be read.
+	 */
+	private static HashMap<String, BenchmarkResult> readResults(File file) throws IOException {
+		HashMap<String, BenchmarkResult> results = new HashMap<String, BenchmarkResult>();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty())
+					continue;
+				BenchmarkResult result = BenchmarkResult.fromCsv(line);
+				results.put(result.getKey(), result);
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return results;
+	}
+	
+	/**
+	 * Compares a result against its baseline.
+	 * @return
+	 * A description of how the benchmark has regressed, or null if it has not.
+	 */
+	private static String findRegression(BenchmarkResult result, BenchmarkResult baseline, double threshold) {
+		if (baseline == null)
+			return null;
+		// Slowdowns within the combined error of both runs are noise, so are not counted as regressions
+		double slowdown = result.getNanosPerOperation() - baseline.getNanosPerOperation();
+		if (slowdown > baseline.getNanosPerOperation() * threshold && slowdown > result.getError() + baseline.getError())
+			return String.format("%.0f%% slower", slowdown / baseline.getNanosPerOperation() * 100);
+		if (result.getBytesPerOperation() > baseline.getBytesPerOperation() + ALLOCATION_TOLERANCE && baseline.getBytesPerOperation() >= 0)
+			return String.format("%+.1f B/op", result.getBytesPerOperation() - baseline.getBytesPerOperation());
+		return null;
+	}
+	
+	/**
+	 * Runs the benchmarks from the command line, printing the results to standard output.
+	 * @param args
+	 * The options described in the class documentation.
+	 */
+	public static void main(String[] args) {
+		try {
+			BenchmarkRunner runner = new BenchmarkRunner();
+			int[] sizes = {1, 16, 256, 4096};
+			String filter = null;
+			File saveFile = null;
+			File baselineFile = null;
+			double threshold = 0.1;
+			for (int i=0; i+1<args.length; i+=2) {
+				String value = args[i+1];
+				switch (args[i]) {
+				case "--warmup":
+					runner.setWarmupIterations(Integer.parseInt(value));
+					break;
+				case "--iterations":
+					runner.setMeasurementIterations(Integer.parseInt(value));
+					break;
+				case "--time":
+					runner.setIterationMillis(Long.parseLong(value));
+					break;
+				case "--sizes":
+					String[] values = value.split(",");
+					sizes = new int[values.length];
+					for (int j=0; j<values.length; j++)
+						sizes[j] = Integer.parseInt(values[j].trim());
+					break;
+				case "--filter":
+					filter = value;
+					break;
+				case "--save":
+					saveFile = new File(value);
+					break;
+				case "--baseline":
+					baselineFile = new File(value);
+					break;
+				case "--threshold":
+					threshold = Double.parseDouble(value) / 100;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option '" + args[i] + "'.");
+				}
+			}
+			
+			Species[] species = AssetsLoader.loadCustomSpeciesFile(BenchmarkRunner.class.getResourceAsStream("/default_species.txt"));
+			ToyType[] toyTypes = AssetsLoader.loadCustomToyTypesFile(BenchmarkRunner.class.getResourceAsStream("/default_toytypes.txt"));
+			FoodType[] foodTypes = AssetsLoader.loadCustomFoodTypesFile(BenchmarkRunner.class.getResourceAsStream("/default_foodtypes.txt"));
+			HashMap<String, BenchmarkResult> baseline = baselineFile == null ? new HashMap<String, BenchmarkResult>() : readResults(baselineFile);
+			
+			ArrayList<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+			int regressions = 0;
+			System.out.println(String.format("%-28s %6s %12s %10s %10s %10s  %s",
+					"benchmark", "size", "ns/op", "error", "B/op", "MB/s", ""));
+			SaveBenchmarks saveBenchmarks = new SaveBenchmarks(species, foodTypes, toyTypes);
+			ArrayList<Benchmark> benchmarks = new ModelBenchmarks(species, foodTypes, toyTypes).createBenchmarks(sizes);
+			benchmarks.addAll(saveBenchmarks.createBenchmarks(sizes));
+			for (Benchmark benchmark : benchmarks) {
+				if (filter != null && !benchmark.getName().contains(filter))
+					continue;
+				BenchmarkResult result = runner.run(benchmark);
+				results.add(result);
+				
+				String regression = findRegression(result, baseline.get(result.getKey()), threshold);
+				if (regression != null)
+					regressions++;
+				System.out.println(String.format("%-28s %6s %12.2f %10.2f %10.1f %10.1f  %s", result.getName(),
+						result.getSize() == 0 ? "-" : Integer.toString(result.getSize()), result.getNanosPerOperation(),
+						result.getError(), result.getBytesPerOperation(), result.getAllocationRate(),
+						regression == null ? "" : "REGRESSION: " + regression));
+			}
+			
+			System.out.println();
+			saveBenchmarks.printSizes(results, System.out);
+			
+			if (saveFile != null) {
+				PrintWriter writer = new PrintWriter(saveFile);
+				for (BenchmarkResult result : results)
+					writer.println(result.toCsv());
+				writer.close();
+			}
+			if (regressions > 0) {
+				System.out.println();
+				System.out.println(regressions + " benchmark(s) regressed against " + baselineFile);
+				System.exit(2);
+			}
+		}
+		catch (IOException exc) {
+			System.err.println("Could not load files: " + exc.getMessage());
+			System.exit(1);
+		}
+		catch (IllegalArgumentException exc) {
+			System.err.println(exc.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,337 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RandomSource;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+import simulation.PetPopulation;
+
+/**
+ * The benchmarks for the hot paths of the model package: the pet interactions, the player's inventory handling, and
+ * end of turn processing for whole populations of pets. All pets are generated from a fixed seed, so every run
+ * benchmarks the same states.
+ * @author Andrew Davidson (ada130)
+ */
+public class ModelBenchmarks {
+	// The number of operations done by each invocation of the single operation benchmarks
+	private static final int BATCH = 1024;
+	// The number of pets owned by each player in the round benchmarks, the most a player can have in the game
+	private static final int PETS_PER_PLAYER = 3;
+	private static final int INCOME_PER_TURN = 35;
+	private static final long SEED = 201;
+	
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	
+	/**
+	 * Creates the benchmarks for the given catalogs.
+	 * @param species
+	 * The species pets are generated from.
+	 * @param foodTypes
+	 * The food types pets are fed.
+	 * @param toyTypes
+	 * The toy types pets are played with.
+	 */
+	public ModelBenchmarks(Species[] species, FoodType[] foodTypes, ToyType[] toyTypes) {
+		this.species = species;
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+	}
+	
+	/**
+	 * Creates every benchmark, with the round benchmarks created once for each population size.
+	 * @param sizes
+	 * The population sizes to run the round benchmarks at.
+	 * @return
+	 * The benchmarks, in the order they should be run.
+	 */
+	public ArrayList<Benchmark> createBenchmarks(int[] sizes) {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new PetEat());
+		benchmarks.add(new PetPlay());
+		benchmarks.add(new PetFinishTurn());
+		benchmarks.add(new PlayerFeed());
+		benchmarks.add(new PlayerPlayWith());
+		benchmarks.add(new PlayerAddFood());
+		for (int size : sizes) {
+			benchmarks.add(new EndTurnRound(size));
+			benchmarks.add(new PopulationRound(size));
+		}
+		return benchmarks;
+	}
+	
+	/**
+	 * Generates pets of every species in a spread of states, from healthy and content to sick, starving or exhausted.
+	 * @param count
+	 * The number of pets to generate.
+	 * @param random
+	 * The random source to generate the pets' states from.
+	 * @return
+	 * The generated pets, each with a random source of its own.
+	 */
+	Pet[] generatePets(int count, RandomSource random) {
+		Pet[] pets = new Pet[count];
+		for (int i=0; i<count; i++) {
+			Species petSpecies = species[i % species.length];
+			int optimumWeight = petSpecies.getOptimumWeight();
+			pets[i] = new Pet("Pet "+i, petSpecies, random.nextInt(0, 10) != 0, random.nextInt(0, 5) != 0, true, true,
+					random.nextInt(0, 101), random.nextInt(0, 101), random.nextInt(0, 101),
+					random.nextInt(optimumWeight*2/3, optimumWeight*4/3 + 1), 2,
+					toyTypes[random.nextInt(0, toyTypes.length)], foodTypes[random.nextInt(0, foodTypes.length)]);
+			pets[i].setRandomSource(random.split());
+		}
+		return pets;
+	}
+	
+	/**
+	 * Copies the state of each pet into a new pet, so that benchmarks which use pets up can start again from the same
+	 * states. Each copy is given its own random source split from the given one.
+	 */
+	private static void copyPets(Pet[] from, int offset, Pet[] to, RandomSource random) {
+		for (int i=0; i<to.length; i++) {
+			Pet pet = from[offset + i];
+			to[i] = new Pet(pet.getName(), pet.getSpecies(), pet.isHealthy(), pet.isBehaving(), pet.isAlive(),
+					pet.isRevivable(), pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight(),
+					pet.getActionPoints(), pet.getFavouriteToy(), pet.getFavouriteFood());
+			to[i].setRandomSource(random.split());
+		}
+	}
+	
+	/**
+	 * Pet.eat, cycling through every food type so that favourite and other foods are both eaten.
+	 */
+	private class PetEat extends Benchmark {
+		private Pet[] pets = generatePets(BATCH, new SeededRandom(SEED));
+		
+		PetEat() {
+			super("Pet.eat", 0);
+		}
+		
+		@Override
+		public int run() {
+			for (int i=0; i<pets.length; i++)
+				pets[i].eat(foodTypes[i % foodTypes.length]);
+			consume(pets[0].getHunger());
+			return pets.length;
+		}
+	}
+	
+	/**
+	 * Pet.play, with every toy repaired before each invocation.
+	 */
+	private class PetPlay extends Benchmark {
+		private Pet[] pets = generatePets(BATCH, new SeededRandom(SEED));
+		private Toy[] toys = new Toy[BATCH];
+		
+		PetPlay() {
+			super("Pet.play", 0);
+			for (int i=0; i<toys.length; i++)
+				toys[i] = new Toy(toyTypes[i % toyTypes.length]);
+		}
+		
+		@Override
+		public void setUp() {
+			for (Toy toy : toys)
+				toy.changeDurability(100 - toy.getDurability());
+		}
+		
+		@Override
+		public int run() {
+			for (int i=0; i<pets.length; i++)
+				pets[i].play(toys[i]);
+			consume(toys[0].getDurability());
+			return pets.length;
+		}
+	}
+	
+	/**
+	 * Pet.finishTurn, with every pet restored to its original state before each invocation so that the pets do not
+	 * all end up dead.
+	 */
+	private class PetFinishTurn extends Benchmark {
+		private RandomSource random = new SeededRandom(SEED);
+		private Pet[] originals = generatePets(BATCH, random);
+		private Pet[] pets = new Pet[BATCH];
+		
+		PetFinishTurn() {
+			super("Pet.finishTurn", 0);
+		}
+		
+		@Override
+		public void setUp() {
+			copyPets(originals, 0, pets, random);
+		}
+		
+		@Override
+		public int run() {
+			long total = 0;
+			for (Pet pet : pets)
+				total += pet.finishTurn();
+			consume(total);
+			return pets.length;
+		}
+	}
+	
+	/**
+	 * Player.feed, with the player's food restocked before each invocation.
+	 */
+	private class PlayerFeed extends Benchmark {
+		private Pet[] pets = generatePets(BATCH, new SeededRandom(SEED));
+		private Player player = new Player("Player", pets, 0);
+		
+		PlayerFeed() {
+			super("Player.feed", 0);
+		}
+		
+		@Override
+		public void setUp() {
+			HashMap<FoodType, Integer> food = player.getFood();
+			for (int i=0; i<foodTypes.length; i++)
+				food.put(foodTypes[i], (BATCH - i + foodTypes.length - 1) / foodTypes.length);
+		}
+		
+		@Override
+		public int run() {
+			for (int i=0; i<pets.length; i++)
+				player.feed(pets[i], foodTypes[i % foodTypes.length]);
+			consume(pets[0].getHunger());
+			return pets.length;
+		}
+	}
+	
+	/**
+	 * Player.playWith, playing with each of the player's toys until it breaks. The toys are repaired and given back to
+	 * the player before each invocation.
+	 */
+	private class PlayerPlayWith extends Benchmark {
+		private Pet[] pets = generatePets(BATCH, new SeededRandom(SEED));
+		private Player player = new Player("Player", pets, 0);
+		private Toy[] toys = new Toy[64];
+		
+		PlayerPlayWith() {
+			super("Player.playWith", 0);
+			for (int i=0; i<toys.length; i++)
+				toys[i] = new Toy(toyTypes[i % toyTypes.length]);
+		}
+		
+		@Override
+		public void setUp() {
+			ArrayList<Toy> inventory = player.getToys();
+			inventory.clear();
+			for (Toy toy : toys) {
+				toy.changeDurability(100 - toy.getDurability());
+				inventory.add(toy);
+			}
+		}
+		
+		@Override
+		public int run() {
+			int operations = 0;
+			for (Toy toy : toys) {
+				boolean intact = true;
+				while (intact)
+					intact = player.playWith(pets[operations++ % pets.length], toy);
+			}
+			consume(player.getToys().size());
+			return operations;
+		}
+	}
+	
+	/**
+	 * Player.addFood, starting from an empty inventory each invocation.
+	 */
+	private class PlayerAddFood extends Benchmark {
+		private Player player = new Player("Player", new Pet[0], 0);
+		
+		PlayerAddFood() {
+			super("Player.addFood", 0);
+		}
+		
+		@Override
+		public void setUp() {
+			player.getFood().clear();
+		}
+		
+		@Override
+		public int run() {
+			for (int i=0; i<BATCH; i++)
+				player.addFood(foodTypes[i % foodTypes.length]);
+			consume(player.getFood().size());
+			return BATCH;
+		}
+	}
+	
+	/**
+	 * A full round of turns ended the same way as Game.endTurn: each player is paid their income, then every pet's turn
+	 * is finished and its score added to its owner. Operations are pets, so sizes can be compared directly. Pets are
+	 * restored to their original states before each invocation.
+	 */
+	private class EndTurnRound extends Benchmark {
+		private RandomSource random = new SeededRandom(SEED);
+		private Pet[] originals;
+		private Player[] players;
+		
+		EndTurnRound(int size) {
+			super("Game.endTurn round", size);
+			originals = generatePets(size, random);
+			players = new Player[(size + PETS_PER_PLAYER - 1) / PETS_PER_PLAYER];
+			for (int i=0; i<players.length; i++) {
+				Pet[] pets = new Pet[Math.min(PETS_PER_PLAYER, size - i * PETS_PER_PLAYER)];
+				players[i] = new Player("Player "+(i+1), pets, 0);
+			}
+		}
+		
+		@Override
+		public void setUp() {
+			for (int i=0; i<players.length; i++)
+				copyPets(originals, i * PETS_PER_PLAYER, players[i].getPets(), random);
+		}
+		
+		@Override
+		public int run() {
+			for (Player player : players) {
+				player.changeMoney(INCOME_PER_TURN);
+				for (Pet pet : player.getPets())
+					player.changeScore(pet.finishTurn());
+			}
+			consume(players[0].getScore());
+			return getSize();
+		}
+	}
+	
+	/**
+	 * The same round of turns processed by PetPopulation, for comparison with EndTurnRound. The population is rebuilt
+	 * from the original pets before each invocation.
+	 */
+	private class PopulationRound extends Benchmark {
+		private RandomSource random = new SeededRandom(SEED);
+		private Pet[] originals;
+		private PetPopulation population;
+		private int[] scores;
+		
+		PopulationRound(int size) {
+			super("PetPopulation.finishTurn", size);
+			originals = generatePets(size, random);
+			scores = new int[size];
+		}
+		
+		@Override
+		public void setUp() {
+			population = PetPopulation.fromPets(originals);
+		}
+		
+		@Override
+		public int run() {
+			consume(population.finishTurn(scores, random));
+			return getSize();
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RandomSource;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+import saves.GameSnapshot;
+import saves.SaveCompression;
+import saves.SnapshotCodec;
+
+/**
+ * The benchmarks for writing and reading saved games with each compression codec, so the time a codec costs can be
+ * weighed against the disk it saves. Games are generated from a fixed seed with players of three pets, each with a
+ * stocked inventory, and are written to and read from memory so that only the codec is measured, not the disk.
+ * Operations are pets, so sizes can be compared directly.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveBenchmarks {
+	private static final int PETS_PER_PLAYER = 3;
+	private static final long SEED = 202;
+	
+	private ModelBenchmarks model;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private AssetRegistry assets;
+	
+	// The bytes each game is saved as with each codec, keyed by the game's size then the codec
+	private HashMap<Integer, HashMap<SaveCompression, byte[]>> saves = new HashMap<Integer, HashMap<SaveCompression, byte[]>>();
+	
+	/**
+	 * Creates the benchmarks for the given catalogs.
+	 * @param species
+	 * The species pets are generated from.
+	 * @param foodTypes
+	 * The food types in the shop and players' inventories.
+	 * @param toyTypes
+	 * The toy types in the shop and players' inventories.
+	 */
+	public SaveBenchmarks(Species[] species, FoodType[] foodTypes, ToyType[] toyTypes) {
+		this.model = new ModelBenchmarks(species, foodTypes, toyTypes);
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		this.assets = new AssetRegistry(species, foodTypes, toyTypes);
+	}
+	
+	/**
+	 * Creates a write and a read benchmark for every codec at every size.
+	 * @param sizes
+	 * The numbers of pets in the games to save.
+	 * @return
+	 * The benchmarks, in the order they should be run.
+	 */
+	public ArrayList<Benchmark> createBenchmarks(int[] sizes) {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (int size : sizes) {
+			GameSnapshot snapshot = generateGame(size);
+			for (SaveCompression compression : SaveCompression.values()) {
+				benchmarks.add(new SnapshotWrite(snapshot, compression, size));
+				benchmarks.add(new SnapshotRead(getSave(snapshot, compression, size), compression, size));
+			}
+		}
+		return benchmarks;
+	}
+	
+	/**
+	 * Prints how large each benchmarked game is with each codec, with the write and read throughput measured for it.
+	 * Throughput is in megabytes of uncompressed save per second, so codecs can be compared directly.
+	 * @param results
+	 * The results of the benchmarks which have been run.
+	 * @param out
+	 * The stream to print to.
+	 */
+	public void printSizes(ArrayList<BenchmarkResult> results, PrintStream out) {
+		out.println(String.format("%-10s %6s %12s %8s %12s %12s", "codec", "size", "bytes", "ratio", "write MB/s", "read MB/s"));
+		for (BenchmarkResult result : results) {
+			HashMap<SaveCompression, byte[]> sizeSaves = saves.get(result.getSize());
+			if (sizeSaves == null || !result.getName().startsWith(SnapshotWrite.NAME))
+				continue;
+			SaveCompression compression = SaveCompression.valueOf(result.getName().substring(SnapshotWrite.NAME.length() + 1).toUpperCase());
+			int uncompressed = sizeSaves.get(SaveCompression.NONE).length;
+			int compressed = sizeSaves.get(compression).length;
+			BenchmarkResult read = null;
+			for (BenchmarkResult other : results)
+				if (other.getSize() == result.getSize() && other.getName().equals(SnapshotRead.NAME + " " + compression.name().toLowerCase()))
+					read = other;
+			out.println(String.format("%-10s %6d %12d %8.2f %12.1f %12s", compression.name().toLowerCase(), result.getSize(),
+					compressed, (double)uncompressed / compressed, getThroughput(uncompressed, result),
+					(read == null) ? "-" : String.format("%.1f", getThroughput(uncompressed, read))));
+		}
+	}
+	
+	/**
+	 * Gets how many megabytes of uncompressed save a benchmark handled per second.
+	 */
+	private static double getThroughput(int uncompressed, BenchmarkResult result) {
+		return uncompressed / (result.getNanosPerOperation() * result.getSize()) * 1e9 / (1 << 20);
+	}
+	
+	/**
+	 * Generates a game with the given number of pets, shared between as many players as needed, each with food of
+	 * every type and a few partly used toys.
+	 */
+	private GameSnapshot generateGame(int size) {
+		RandomSource random = new SeededRandom(SEED);
+		Pet[] pets = model.generatePets(size, random);
+		Player[] players = new Player[(size + PETS_PER_PLAYER - 1) / PETS_PER_PLAYER];
+		int[] previousScores = new int[Math.max(players.length, 3)];
+		for (int i=0; i<players.length; i++) {
+			Pet[] playerPets = new Pet[Math.min(PETS_PER_PLAYER, size - i * PETS_PER_PLAYER)];
+			System.arraycopy(pets, i * PETS_PER_PLAYER, playerPets, 0, playerPets.length);
+			HashMap<FoodType, Integer> food = new HashMap<FoodType, Integer>();
+			for (FoodType foodType : foodTypes)
+				food.put(foodType, random.nextInt(1, 6));
+			ArrayList<Toy> toys = new ArrayList<Toy>();
+			for (int j=random.nextInt(1, 5); j>0; j--)
+				toys.add(new Toy(toyTypes[random.nextInt(0, toyTypes.length)], random.nextInt(1, 101)));
+			players[i] = new Player("Player "+(i+1), playerPets, food, toys, random.nextInt(0, 300), random.nextInt(0, 2000));
+			previousScores[i] = players[i].getScore();
+		}
+		return new GameSnapshot(players, foodTypes, toyTypes, 30, 35, 12, 0, previousScores);
+	}
+	
+	/**
+	 * Gets the bytes a game is saved as with a codec, saving it the first time.
+	 */
+	private byte[] getSave(GameSnapshot snapshot, SaveCompression compression, int size) {
+		HashMap<SaveCompression, byte[]> sizeSaves = saves.get(size);
+		if (sizeSaves == null) {
+			sizeSaves = new HashMap<SaveCompression, byte[]>();
+			saves.put(size, sizeSaves);
+		}
+		// The uncompressed save is always kept, as compression ratios are measured against it
+		for (SaveCompression needed : new SaveCompression[] {SaveCompression.NONE, compression}) {
+			if (!sizeSaves.containsKey(needed)) {
+				try {
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					SnapshotCodec.write(snapshot, Channels.newChannel(bytes), needed);
+					sizeSaves.put(needed, bytes.toByteArray());
+				}
+				catch (IOException exc) {
+					throw new UncheckedIOException(exc);
+				}
+			}
+		}
+		return sizeSaves.get(compression);
+	}
+	
+	/**
+	 * SnapshotCodec.write into memory, with the buffer emptied before each invocation.
+	 */
+	private class SnapshotWrite extends Benchmark {
+		static final String NAME = "SnapshotCodec.write";
+		
+		private GameSnapshot snapshot;
+		private SaveCompression compression;
+		private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		SnapshotWrite(GameSnapshot snapshot, SaveCompression compression, int size) {
+			super(NAME + " " + compression.name().toLowerCase(), size);
+			this.snapshot = snapshot;
+			this.compression = compression;
+		}
+		
+		@Override
+		public void setUp() {
+			bytes.reset();
+		}
+		
+		@Override
+		public int run() {
+			try {
+				SnapshotCodec.write(snapshot, Channels.newChannel(bytes), compression);
+			}
+			catch (IOException exc) {
+				throw new UncheckedIOException(exc);
+			}
+			consume(bytes.size());
+			return getSize();
+		}
+	}
+	
+	/**
+	 * SnapshotCodec.read from memory, looking every type up in the registry of loaded assets as the game does.
+	 */
+	private class SnapshotRead extends Benchmark {
+		static final String NAME = "SnapshotCodec.read";
+		
+		private byte[] save;
+		
+		SnapshotRead(byte[] save, SaveCompression compression, int size) {
+			super(NAME + " " + compression.name().toLowerCase(), size);
+			this.save = save;
+		}
+		
+		@Override
+		public int run() {
+			try {
+				GameSnapshot snapshot = SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(save)), assets);
+				consume(snapshot.getPlayers().length);
+			}
+			catch (IOException exc) {
+				throw new UncheckedIOException(exc);
+			}
+			return getSize();
+		}
+	}
+}
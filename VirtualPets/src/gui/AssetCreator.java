@@ -520,7 +520,7 @@ public class AssetCreator extends JPanel {
 		add(buttonBack);
 		
 		JLabel backgroundImage = new JLabel("");
-		backgroundImage.setIcon(new ImageIcon(AssetCreator.class.getResource("/images/gameBackground.png")));
+		backgroundImage.setIcon(ImageCache.getIcon("/images/gameBackground.png"));
 		backgroundImage.setBounds(0, 0, 800, 600);
 		add(backgroundImage);
 		
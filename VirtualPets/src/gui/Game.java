@@ -10,24 +10,41 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.border.MatteBorder;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
 import javax.swing.JScrollPane;
 import javax.swing.ScrollPaneConstants;
 
+import model.ActionLog;
 import model.FoodType;
 import model.Pet;
+import model.PetAction;
 import model.Player;
+import model.RandomSource;
 import model.Toy;
 import model.ToyType;
+import planning.AutoPilot;
+import planning.CareAction;
+import planning.PlannedStep;
+import planning.PolicyLibrary;
+import saves.AutoSaver;
+import saves.GameSnapshot;
+import saves.LoggedAction;
+import saves.RecoveryLog;
+import saves.ReplayRecorder;
+import saves.SaveJournal;
 
 /**
  * The main game panel. Displays pet and player info, and allows the player to interact with pets and visit the store.
@@ -66,6 +83,15 @@ public class Game extends JPanel implements Serializable {
 	private ShopPanel shopPanel;
 	
 	private Font semiBoldFont, boldFont, regularFont;
+	
+	// Plans the turns of computer players. Created when first needed, as it caches what it has searched
+	private transient AutoPilot autoPilot;
+	private long computerTimeBudget = 200;
+	private transient ActionLog actionLog;
+	private transient AutoSaver autoSaver;
+	private transient SaveJournal saveJournal;
+	private transient ReplayRecorder replayRecorder;
+	private transient RecoveryLog recoveryLog;
 
 	/**
 	 * Create the panel - the panel that the main game is played in. Players can interact with pets and visit the store.
@@ -300,6 +326,7 @@ public class Game extends JPanel implements Serializable {
 		petInteract.getButtonRest().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				activePet.sleep();
+				logAction(PetAction.SLEEP, 0);
 				refreshPetInfo();
 			}
 		});
@@ -308,6 +335,7 @@ public class Game extends JPanel implements Serializable {
 		petInteract.getButtonToilet().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				activePet.goToToilet();
+				logAction(PetAction.TOILET, 0);
 				refreshPetInfo();
 			}
 		});
@@ -316,9 +344,10 @@ public class Game extends JPanel implements Serializable {
 		petInteract.getButtonCure().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				// Only available if player has enough money to buy cure
-				if (activePlayer.getMoney() >= 50) {
+				if (activePlayer.getMoney() >= Player.CURE_COST) {
 					activePet.cure();
-					activePlayer.changeMoney(-50);
+					activePlayer.changeMoney(-Player.CURE_COST);
+					logAction(PetAction.CURE, 0);
 					inventoryMoney.setText("Money: $"+activePlayer.getMoney());
 					refreshPetInfo();
 				}
@@ -341,6 +370,7 @@ public class Game extends JPanel implements Serializable {
 		petInteract.getButtonDiscipline().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				activePet.discipline();
+				logAction(PetAction.DISCIPLINE, 0);
 				refreshPetInfo();
 			}
 		});
@@ -348,9 +378,10 @@ public class Game extends JPanel implements Serializable {
 		// Revive Button
 		petInteract.getButtonRevive().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if (activePlayer.getMoney() >= 100) {
+				if (activePlayer.getMoney() >= Player.REVIVE_COST) {
 					activePet.revive();
-					activePlayer.changeMoney(-100);
+					activePlayer.changeMoney(-Player.REVIVE_COST);
+					logAction(PetAction.REVIVE, 0);
 					inventoryMoney.setText("Money: $"+activePlayer.getMoney());
 					refreshPetInfo();
 				}
@@ -370,7 +401,7 @@ public class Game extends JPanel implements Serializable {
 		});
 		
 		// Shop Button
-		buttonShop = new JButton(new ImageIcon(Game.class.getResource("/images/shop.png")));
+		buttonShop = new JButton(ImageCache.getIcon("/images/shop.png"));
 		buttonShop.addActionListener(new ActionListener() {
 			// When clicked, display shop screen
 			public void actionPerformed(ActionEvent e) {
@@ -382,7 +413,7 @@ public class Game extends JPanel implements Serializable {
 		add(buttonShop);
 		
 		// End Turn Button
-		buttonEndTurn = new JButton(new ImageIcon(Game.class.getResource("/images/endTurn.png")));
+		buttonEndTurn = new JButton(ImageCache.getIcon("/images/endTurn.png"));
 		buttonEndTurn.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				// Goes through checks to see if any pets have remaining action points.
@@ -421,7 +452,7 @@ public class Game extends JPanel implements Serializable {
 		buttonEndTurn.setToolTipText("End your turn.");
 		add(buttonEndTurn);
 		
-		buttonMenu = new JButton(new ImageIcon(Game.class.getResource("/images/menu.png")));
+		buttonMenu = new JButton(ImageCache.getIcon("/images/menu.png"));
 		buttonMenu.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				setButtonsEnabled(false);
@@ -446,19 +477,19 @@ public class Game extends JPanel implements Serializable {
 		inventoryMoney.setBounds(506, 233, 294, 20);
 		add(inventoryMoney);
 		
-		JLabel inventoryBackground = new JLabel(new ImageIcon(Game.class.getResource("/images/backs/inventory.png")));
+		JLabel inventoryBackground = new JLabel(ImageCache.getIcon("/images/backs/inventory.png"));
 		inventoryBackground.setBounds(506, 255, 294, 345);
 		add(inventoryBackground);
 		
 		JLabel inventoryLabelBackground = new JLabel("");
-		inventoryLabelBackground.setIcon(new ImageIcon(Game.class.getResource("/images/backs/inventoryTitle.png")));
+		inventoryLabelBackground.setIcon(ImageCache.getIcon("/images/backs/inventoryTitle.png"));
 		inventoryLabelBackground.setHorizontalAlignment(SwingConstants.CENTER);
 		inventoryLabelBackground.setFont(null);
 		inventoryLabelBackground.setBounds(589, 210, 130, 45);
 		add(inventoryLabelBackground);
 		
 		//Overall background
-		JLabel background = new JLabel(new ImageIcon(Game.class.getResource("/images/gameBackground.png")));
+		JLabel background = new JLabel(ImageCache.getIcon("/images/gameBackground.png"));
 		background.setBounds(0, 0, 800, 600);
 		add(background);
 
@@ -501,6 +532,78 @@ public class Game extends JPanel implements Serializable {
 	}
 	//End getters
 	
+	/**
+	 * Sets how long computer players may spend planning each turn, shared between their pets.
+	 * @param computerTimeBudget
+	 * The time in milliseconds
+	 */
+	public void setComputerTimeBudget(long computerTimeBudget) {
+		this.computerTimeBudget = computerTimeBudget;
+	}
+	
+	/**
+	 * Sets the policies used to suggest what to do with the selected pet.
+	 * @param policies
+	 * The policies to suggest actions from, or null to not show suggestions
+	 */
+	public void setPolicyLibrary(PolicyLibrary policies) {
+		petInteract.setPolicyLibrary(policies);
+	}
+	
+	/**
+	 * Sets the log to record every change made to the players and their pets in. The log is flushed at the end of
+	 * every turn.
+	 * @param actionLog
+	 * The log to record in, or null to stop recording
+	 */
+	public void setActionLog(ActionLog actionLog) {
+		if (players != null) {
+			if (actionLog != null)
+				actionLog.attach(players);
+			else
+				ActionLog.detach(players);
+		}
+		this.actionLog = actionLog;
+	}
+	
+	/**
+	 * Sets the autosaver the game is saved with at the start of every round.
+	 * @param autoSaver
+	 * The autosaver to use, or null to not autosave
+	 */
+	public void setAutoSaver(AutoSaver autoSaver) {
+		this.autoSaver = autoSaver;
+	}
+	
+	/**
+	 * Sets the journal the game is saved to at the end of every turn.
+	 * @param saveJournal
+	 * The journal to use, or null to not save every turn
+	 */
+	public void setSaveJournal(SaveJournal saveJournal) {
+		this.saveJournal = saveJournal;
+	}
+	
+	/**
+	 * Sets the recorder the game is recorded with, from when it is started or resumed. The recorder attaches its own
+	 * action log to the players, in place of any log set with setActionLog.
+	 * @param replayRecorder
+	 * The recorder to use, or null to not record replays
+	 */
+	public void setReplayRecorder(ReplayRecorder replayRecorder) {
+		this.replayRecorder = replayRecorder;
+	}
+	
+	/**
+	 * Sets the log the actions of each turn are written to, so the turn can be recovered if the game stops before it
+	 * ends. The log is begun again at the start of every turn, which is saved to the save journal.
+	 * @param recoveryLog
+	 * The log to use, or null to not log actions
+	 */
+	public void setRecoveryLog(RecoveryLog recoveryLog) {
+		this.recoveryLog = recoveryLog;
+	}
+	
 	/**
 	 * Initialise the game environment for a new game.
 	 * @param players
@@ -509,49 +612,70 @@ public class Game extends JPanel implements Serializable {
 	 * The number of days the game will go for
 	 * @param incomePerTurn
 	 * The player's income per day in the game
+	 * @param random
+	 * The game's random source, which is split to give each pet its own source of random events
 	 */
-	public void initialise(Player[] players, int numberOfDays, int incomePerTurn) {
+	public void initialise(Player[] players, int numberOfDays, int incomePerTurn, RandomSource random) {
+		for (Player player : players)
+			for (Pet pet : player.getPets())
+				pet.setRandomSource(random.split());
 		this.players = players;
 		this.numberOfDays = numberOfDays;
 		this.incomePerTurn = incomePerTurn;
+		if (actionLog != null)
+			actionLog.attach(players);
 		currentDay = 1;
 		dayLabel.setText("Day "+currentDay+" of "+numberOfDays);
 		setTurn(0);
+		startReplay();
+		saveTurn();
+		startTurn();
 	}
 	
 	/**
-	 * Initialise the game from a saved game file.
-	 * @param foodTypes
-	 * The food types that were in the saved game
-	 * @param toyTypes
-	 * The toy types that were in the saved game
-	 * @param players
-	 * The players that were in the saved game
-	 * @param currentDay
-	 * The day the saved game was at
-	 * @param currentPlayerIndex
-	 * The player the saved game was at
-	 * @param numberOfDays
-	 * The total number of days the saved game is to go for
-	 * @param incomePerTurn
-	 * The income per turn for each player
-	 * @param previousScores
-	 * The scores of the players for the previous round, used in round overview
+	 * Initialise the game from a saved game.
+	 * @param savedGame
+	 * The snapshot of the game that was saved
 	 */
-	public void resume(Game savedGame) {
-		this.foodTypes = savedGame.foodTypes;
-		this.toyTypes = savedGame.toyTypes;
-		this.players = savedGame.players;
-		this.numberOfDays = savedGame.numberOfDays;
-		this.incomePerTurn = savedGame.incomePerTurn;
-		this.currentDay = savedGame.currentDay;
-		this.activePlayer = savedGame.activePlayer;
-		this.roundOverview.setPreviousRoundScores(savedGame.roundOverview.getPreviousScores());
+	public void resume(GameSnapshot savedGame) {
+		this.foodTypes = savedGame.getFoodTypes();
+		this.toyTypes = savedGame.getToyTypes();
+		this.players = savedGame.getPlayers();
+		this.numberOfDays = savedGame.getNumberOfDays();
+		this.incomePerTurn = savedGame.getIncomePerTurn();
+		this.currentDay = savedGame.getCurrentDay();
+		this.roundOverview.setPreviousRoundScores(savedGame.getPreviousScores());
+		if (actionLog != null)
+			actionLog.attach(players);
 
 		dayLabel.setText("Day "+currentDay+" of "+numberOfDays);
-		for (int i = 0; i<players.length; i++)
-			if (players[i].equals(activePlayer))
-				setTurn(i);
+		setTurn(savedGame.getActivePlayerIndex());
+		startReplay();
+		saveTurn();
+		startTurn();
+	}
+	
+	/**
+	 * Takes a snapshot of the game's state to save. The snapshot shares the game's players, so must be written before
+	 * the game continues.
+	 * @return
+	 * The snapshot of the game
+	 */
+	public GameSnapshot createSnapshot() {
+		int activePlayerIndex = 0;
+		for (int i=0; i<players.length; i++)
+			if (players[i] == activePlayer)
+				activePlayerIndex = i;
+		return new GameSnapshot(players, foodTypes, toyTypes, numberOfDays, incomePerTurn, currentDay,
+				activePlayerIndex, roundOverview.getPreviousScores());
+	}
+	
+	/**
+	 * Starts recording the game's replay, if it is being recorded.
+	 */
+	private void startReplay() {
+		if (replayRecorder != null)
+			replayRecorder.start(createSnapshot());
 	}
 	
 	/**
@@ -599,14 +723,33 @@ public class Game extends JPanel implements Serializable {
 		activePlayer.changeMoney(incomePerTurn);
 		for (Pet pet: activePlayer.getPets())
 			activePlayer.changeScore(pet.finishTurn());
+		if (actionLog != null) {
+			try {
+				actionLog.flush();
+			}
+			catch (IOException exc) {
+				System.err.println("Writing the action log failed: "+exc.getMessage());
+			}
+		}
+		int dayEnded = currentDay;
+		if (replayRecorder != null) {
+			try {
+				replayRecorder.endTurn(currentDay);
+			}
+			catch (IOException exc) {
+				System.err.println("Writing the replay failed: "+exc.getMessage());
+			}
+		}
 		
 		int currentPlayerIndex = 0;
 		for (int i=0; i<players.length; i++)
 			if (players[i] == activePlayer)
 				currentPlayerIndex = i;
 		currentPlayerIndex = (currentPlayerIndex+1)%players.length;
+		boolean gameOver = false;
 		if (currentPlayerIndex == 0) {
 			if (currentDay == numberOfDays) {
+				gameOver = true;
 				roundOverview.displayEndOfGame(currentDay, players);
 				setVisible(false);
 				roundOverview.setVisible(true);
@@ -621,6 +764,244 @@ public class Game extends JPanel implements Serializable {
 		}
 		
 		setTurn(currentPlayerIndex);
+		if (replayRecorder != null && currentPlayerIndex == 0)
+			replayRecorder.endDay(dayEnded, createSnapshot());
+		// Save a copy of the game, which is written while the next turn is played
+		if (!gameOver && currentPlayerIndex == 0 && autoSaver != null)
+			autoSaver.save(createSnapshot().copy());
+		if (!gameOver) {
+			saveTurn();
+			startTurn();
+		}
+		else if (recoveryLog != null)
+			recoveryLog.end();
+	}
+	
+	/**
+	 * Saves a copy of the game to the save journal as the turn starts, which is written while the turn is played.
+	 */
+	private void saveTurn() {
+		if (saveJournal != null)
+			saveJournal.save(createSnapshot().copy());
+	}
+	
+	/**
+	 * Starts the active player's turn, letting the computer take it if the player is a computer.
+	 */
+	private void startTurn() {
+		if (recoveryLog != null)
+			recoveryLog.begin(createSnapshot());
+		if (activePlayer.isComputer())
+			playComputerTurn();
+		else
+			setButtonsEnabled(true);
+	}
+	
+	/**
+	 * Plans the active computer player's turn in the background, then takes the planned actions and ends the turn.
+	 * The game's buttons are disabled while the turn is planned.
+	 */
+	private void playComputerTurn() {
+		if (autoPilot == null)
+			autoPilot = new AutoPilot(foodTypes, toyTypes);
+		autoPilot.setTimeBudget(computerTimeBudget);
+		setButtonsEnabled(false);
+		
+		final Player player = activePlayer;
+		final int daysLeft = numberOfDays - currentDay + 1;
+		new SwingWorker<List<PlannedStep>, Void>() {
+			@Override
+			protected List<PlannedStep> doInBackground() {
+				return autoPilot.planTurn(player, daysLeft, ForkJoinPool.commonPool());
+			}
+			
+			@Override
+			protected void done() {
+				// Stop if the game was left while the turn was being planned
+				if (activePlayer != player || (!isVisible() && !roundOverview.isVisible()))
+					return;
+				try {
+					for (PlannedStep step : get())
+						takeStep(player, step);
+				}
+				catch (InterruptedException | ExecutionException exc) {
+					System.err.println("Computer player failed to plan its turn: "+exc.getMessage());
+				}
+				inventoryMoney.setText("Money: $"+player.getMoney());
+				refreshFoodInventory();
+				refreshToyInventory();
+				refreshPetInfo();
+				endTurn();
+			}
+		}.execute();
+	}
+	
+	/**
+	 * Takes a step planned for a computer player, buying from the shop and paying for cures and revives in the same
+	 * way as the buttons do. Steps the player can no longer afford are skipped.
+	 * @param player
+	 * The computer player
+	 * @param step
+	 * The step to take
+	 */
+	private void takeStep(Player player, PlannedStep step) {
+		Pet pet = player.getPets()[step.getPetIndex()];
+		CareAction action = step.getAction();
+		switch (action.getAction()) {
+		case FEED:
+			FoodType food = action.getFoodType();
+			if (step.isBuy() && player.getMoney() >= food.getPrice()) {
+				player.changeMoney(-food.getPrice());
+				player.addFood(food);
+			}
+			if (player.getFood().containsKey(food))
+				player.feed(pet, food);
+			break;
+		case PLAY:
+			Toy toy = null;
+			for (Toy owned : player.getToys())
+				if (owned.getToyType() == action.getToyType() && (toy == null || owned.getDurability() > toy.getDurability()))
+					toy = owned;
+			if (toy == null && player.getMoney() >= action.getToyType().getPrice()) {
+				player.changeMoney(-action.getToyType().getPrice());
+				toy = new Toy(action.getToyType());
+				player.addToy(toy);
+			}
+			if (toy != null)
+				player.playWith(pet, toy);
+			break;
+		case SLEEP:
+			pet.sleep();
+			break;
+		case TOILET:
+			pet.goToToilet();
+			break;
+		case DISCIPLINE:
+			pet.discipline();
+			break;
+		case CURE:
+			if (player.getMoney() >= Player.CURE_COST) {
+				pet.cure();
+				player.changeMoney(-Player.CURE_COST);
+			}
+			break;
+		case REVIVE:
+			if (player.getMoney() >= Player.REVIVE_COST) {
+				pet.revive();
+				player.changeMoney(-Player.REVIVE_COST);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+	
+	/**
+	 * Takes the actions logged in a turn which was not finished, after the game has been resumed from the save made
+	 * when the turn started. Actions are taken in the same way as the buttons take them, and are logged again.
+	 * @param actions
+	 * The actions read from the recovery log
+	 */
+	public void recover(LoggedAction[] actions) {
+		for (LoggedAction action : actions) {
+			if (!takeLoggedAction(action))
+				System.err.println("Recovering the turn skipped a "+action.getAction().getLabel()+" action which could not be taken.");
+			else if (recoveryLog != null)
+				recoveryLog.append(action);
+		}
+		inventoryMoney.setText("Money: $"+activePlayer.getMoney());
+		refreshFoodInventory();
+		refreshToyInventory();
+		refreshPetInfo();
+	}
+	
+	/**
+	 * Takes an action read from the recovery log as the active player.
+	 * @param action
+	 * The action to take
+	 * @return
+	 * True if the action was taken, or false if it does not apply to the game
+	 */
+	private boolean takeLoggedAction(LoggedAction action) {
+		if (action.isPurchase()) {
+			if (action.getAction() == PetAction.FEED) {
+				if (action.getItem() < 0 || action.getItem() >= foodTypes.length || activePlayer.getMoney() < foodTypes[action.getItem()].getPrice())
+					return false;
+				activePlayer.changeMoney(-foodTypes[action.getItem()].getPrice());
+				activePlayer.addFood(foodTypes[action.getItem()]);
+			}
+			else {
+				if (action.getItem() < 0 || action.getItem() >= toyTypes.length || activePlayer.getMoney() < toyTypes[action.getItem()].getPrice())
+					return false;
+				activePlayer.changeMoney(-toyTypes[action.getItem()].getPrice());
+				activePlayer.addToy(new Toy(toyTypes[action.getItem()]));
+			}
+			return true;
+		}
+		
+		if (action.getPetIndex() >= activePlayer.getPets().length)
+			return false;
+		Pet pet = activePlayer.getPets()[action.getPetIndex()];
+		switch (action.getAction()) {
+		case FEED:
+			if (action.getItem() < 0 || action.getItem() >= foodTypes.length || !activePlayer.getFood().containsKey(foodTypes[action.getItem()]))
+				return false;
+			activePlayer.feed(pet, foodTypes[action.getItem()]);
+			break;
+		case PLAY:
+			if (action.getItem() < 0 || action.getItem() >= activePlayer.getToys().size())
+				return false;
+			activePlayer.playWith(pet, activePlayer.getToys().get(action.getItem()));
+			break;
+		case SLEEP:
+			pet.sleep();
+			break;
+		case TOILET:
+			pet.goToToilet();
+			break;
+		case DISCIPLINE:
+			pet.discipline();
+			break;
+		case CURE:
+			if (activePlayer.getMoney() < Player.CURE_COST)
+				return false;
+			pet.cure();
+			activePlayer.changeMoney(-Player.CURE_COST);
+			break;
+		case REVIVE:
+			if (activePlayer.getMoney() < Player.REVIVE_COST)
+				return false;
+			pet.revive();
+			activePlayer.changeMoney(-Player.REVIVE_COST);
+			break;
+		default:
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Logs an action taken with the selected pet, so it can be recovered if the game stops before the turn ends.
+	 * @param action
+	 * The action taken
+	 * @param item
+	 * The index of the food type fed or of the toy played with, otherwise 0
+	 */
+	private void logAction(PetAction action, int item) {
+		if (recoveryLog != null)
+			recoveryLog.append(new LoggedAction(action, Arrays.asList(activePlayer.getPets()).indexOf(activePet), item));
+	}
+	
+	/**
+	 * Logs a purchase from the shop, so it can be recovered if the game stops before the turn ends.
+	 * @param action
+	 * FEED for food, or PLAY for a toy
+	 * @param typeIndex
+	 * The index of the type bought in the shop
+	 */
+	private void logPurchase(PetAction action, int typeIndex) {
+		if (recoveryLog != null)
+			recoveryLog.append(LoggedAction.purchase(action, typeIndex));
 	}
 	
 	/**
@@ -651,6 +1032,7 @@ public class Game extends JPanel implements Serializable {
 					// to feed their pet, the food the icon represents will be chosen to be fed to the pet.
 					if (selectingFood) {
 						activePlayer.feed(activePet, food);
+						logAction(PetAction.FEED, Arrays.asList(foodTypes).indexOf(food));
 						selectingFood = false;
 						setButtonsEnabled(true);
 						currentDialog.setVisible(false);
@@ -679,7 +1061,9 @@ public class Game extends JPanel implements Serializable {
 					// Add a listener to each icon so that when the icon is clicked, if the player is selecting a 
 					// toy to play with with their pet, the toy the icon represents will be chosen to be played with.
 					if (selectingToy) {
+						int toyIndex = activePlayer.getToys().indexOf(icon.getSpecificToy());
 						activePlayer.playWith(activePet, icon.getSpecificToy());
+						logAction(PetAction.PLAY, toyIndex);
 						selectingToy = false;
 						setButtonsEnabled(true);
 						currentDialog.setVisible(false);
@@ -725,6 +1109,7 @@ public class Game extends JPanel implements Serializable {
 					if (activePlayer.getMoney() >= foodDisplay.getFoodType().getPrice()) {
 						activePlayer.changeMoney(-foodDisplay.getFoodType().getPrice());
 						activePlayer.addFood(foodDisplay.getFoodType());
+						logPurchase(PetAction.FEED, Arrays.asList(foodTypes).indexOf(foodDisplay.getFoodType()));
 						inventoryMoney.setText("Money: $"+activePlayer.getMoney());
 						
 						Point buyFoodScrollPosition = shopPanel.getBuyFoodScrollPane().getViewport().getViewPosition();
@@ -749,6 +1134,7 @@ public class Game extends JPanel implements Serializable {
 					if (activePlayer.getMoney() >= toyDisplay.getToyType().getPrice()) {
 						activePlayer.changeMoney(-toyDisplay.getToyType().getPrice());
 						activePlayer.addToy(new Toy(toyDisplay.getToyType()));
+						logPurchase(PetAction.PLAY, Arrays.asList(toyTypes).indexOf(toyDisplay.getToyType()));
 						inventoryMoney.setText("Money: $"+activePlayer.getMoney());
 						
 						Point buyFoodScrollPosition = shopPanel.getBuyFoodScrollPane().getViewport().getViewPosition();
@@ -5,7 +5,6 @@ import java.awt.Font;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 import javax.swing.JPanel;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JComboBox;
 import javax.swing.DefaultComboBoxModel;
@@ -20,6 +19,7 @@ import java.util.ArrayList;
 import model.FoodType;
 import model.Pet;
 import model.Player;
+import model.SeededRandom;
 import model.Species;
 import model.ToyType;
 
@@ -247,11 +247,11 @@ public class GameSetup extends JPanel {
 		add(buttonSpeciesInfo);
 		
 		//Semi-transparent settings background, and overall window background
-		JLabel settingsBack = new JLabel(new ImageIcon(GameSetup.class.getResource("/images/backs/settings.png")));
+		JLabel settingsBack = new JLabel(ImageCache.getIcon("/images/backs/settings.png"));
 		settingsBack.setBounds(40, 82, 493, 52);
 		add(settingsBack);
 		
-		JLabel backgroundImage = new JLabel(new ImageIcon(GameSetup.class.getResource("/images/gameBackground.png")));
+		JLabel backgroundImage = new JLabel(ImageCache.getIcon("/images/gameBackground.png"));
 		backgroundImage.setBounds(0, 0, 800, 600);
 		add(backgroundImage);
 	}
@@ -274,9 +274,11 @@ public class GameSetup extends JPanel {
 	 * Whether the game was initilised or if there was invalid inputs
 	 */
 	public boolean setGamePlayers(Game game) {
+		//Every random event in the game is drawn from a single seeded source, so the game can be reproduced from its save
+		SeededRandom random = new SeededRandom(System.nanoTime());
 		Player[] players = new Player[numberOfPlayers];
 		for (int i=0; i<numberOfPlayers; i++)
-			players[i] = playerSetups[i].generatePlayer(startingMoney);
+			players[i] = playerSetups[i].generatePlayer(startingMoney, random);
 		
 		//Check that there are no duplicate names
 		ArrayList<String> usedPlayerNames = new ArrayList<String>();
@@ -297,7 +299,7 @@ public class GameSetup extends JPanel {
 				usedPetNames.add(pet.getName());
 			}
 		}
-		game.initialise(players, numberOfDays, incomePerTurn);
+		game.initialise(players, numberOfDays, incomePerTurn, random);
 		return true;
 	}
 	
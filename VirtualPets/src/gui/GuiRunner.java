@@ -1,5 +1,7 @@
 package gui;
 
+import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Font;
@@ -12,16 +14,40 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
+import javax.swing.JButton;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JWindow;
+import javax.swing.SwingConstants;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
+import assetshandler.AssetPack;
+import assetshandler.AssetRegistry;
 import assetshandler.AssetsLoader;
 import assetshandler.AssetsSaver;
 import model.FoodType;
 import model.Species;
 import model.ToyType;
+import planning.PolicyLibrary;
+import saves.AutoSaver;
+import saves.LoggedAction;
+import saves.RecoveryLog;
+import saves.ReplayReader;
+import saves.ReplayRecorder;
+import saves.SaveJournal;
+import saves.SaveSummary;
+import saves.GameSnapshot;
 
 /**
  * A controller and viewer for the application. Loads and shows the various game panels.
@@ -29,43 +55,295 @@ import model.ToyType;
  */
 public class GuiRunner {
 	private Font poppins, sourceSansPro, sourceSansProSemibold, sourceSansProBold;
-	private Species[] species;
-	private ToyType[] toyTypes;
-	private FoodType[] foodTypes;
+	// The resources loaded in the background when the application starts
+	private ExecutorService loader;
+	private Future<Font> poppinsTask, sourceSansProTask, sourceSansProSemiboldTask, sourceSansProBoldTask;
+	private Future<AssetRegistry> assetsTask;
+	private Future<PolicyLibrary> policiesTask;
+	// What the main menu needs before it is shown, and the rest
+	private Future<?>[] mainMenuTasks, remainingTasks;
+	private static final File AUTOSAVE_FOLDER = new File("autosaves");
+	private static final File REPLAY_FOLDER = new File("replays");
+	private static final File LATEST_TURN_FILE = new File(AUTOSAVE_FOLDER, "latest-turn.sav");
 	
+	private AssetRegistry assets;
+	private PolicyLibrary policies;
+	private AutoSaver autoSaver = new AutoSaver(AUTOSAVE_FOLDER, 5);
+	// The latest turn of the game being played, saved as a journal so each turn only writes what changed
+	private SaveJournal saveJournal = new SaveJournal(LATEST_TURN_FILE, 1 << 16);
+	// The actions taken since the latest turn started, committed to disk together every 50ms
+	private RecoveryLog recoveryLog = new RecoveryLog(new File(AUTOSAVE_FOLDER, "latest-turn.log"), 50);
+	// Games are only recorded when replays are turned on, with a keyframe every 25 days so any day can be reviewed
+	// quickly, and only the last 10 replays are kept
+	private ReplayRecorder replayRecorder = ReplayRecorder.isEnabled() ? new ReplayRecorder(REPLAY_FOLDER, 25, 10) : null;
+	
+	private JWindow splash;
 	private JFrame frame;
 	private MainMenu mainMenu;
 	private GameSetup gameSetup;
 	private AssetCreator assetCreator;
 	private Game game;
 	private HelpPanel helpPanel;
+	private SaveBrowser saveBrowser;
+	private ReplayViewer replayViewer;
 
 	/**
-	 * Launch the application.
+	 * Launch the application. A splash is shown while fonts, assets and images are loaded in parallel, and the main
+	 * menu is shown as soon as the resources it needs are ready. The time until it is shown is printed.
 	 * @param args
 	 * Arguments to run the application with. Not used
 	 */
 	public static void main(String[] args) {
-		EventQueue.invokeLater(new Runnable() {
-			public void run() {
-				try {
-					GuiRunner window = new GuiRunner();
-					window.frame.setVisible(true);
-				} catch (Exception e) {
-					e.printStackTrace();
+		final long startTime = System.nanoTime();
+		final GuiRunner window = new GuiRunner(createLoader());
+		try {
+			EventQueue.invokeAndWait(new Runnable() {
+				public void run() {
+					window.showSplash();
 				}
+			});
+			// Wait here rather than on the event thread, so the splash keeps being painted
+			waitFor(window.mainMenuTasks);
+			EventQueue.invokeAndWait(new Runnable() {
+				public void run() {
+					window.showMainMenu();
+					System.out.println(String.format("First frame shown in %d ms", (System.nanoTime() - startTime) / 1000000));
+				}
+			});
+			waitFor(window.remainingTasks);
+			EventQueue.invokeLater(new Runnable() {
+				public void run() {
+					window.finishLoading();
+					window.offerRecovery();
+				}
+			});
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Load fonts, species, toy types, and food types. Initialises the gui and loads the main menu and the other screens,
+	 * waiting until everything is loaded.
+	 */
+	public GuiRunner() {
+		this(createLoader());
+		showMainMenu();
+		finishLoading();
+	}
+	
+	/**
+	 * Starts loading fonts, assets and images in the background. Nothing is shown until showMainMenu is called.
+	 * @param loader
+	 * The threads to load with, which are shut down once everything has been loaded.
+	 */
+	private GuiRunner(ExecutorService loader) {
+		this.loader = loader;
+		Future<Font> poppinsTask = loadFont(loader, "/fonts/Poppins/Poppins-Regular.ttf");
+		Future<Font> sourceSansProSemiboldTask = loadFont(loader, "/fonts/Source_Sans_Pro/SourceSansPro-Semibold.ttf");
+		// The images are decoded into the shared image cache, where the screens find them
+		mainMenuTasks = new Future<?>[] {poppinsTask, sourceSansProSemiboldTask,
+				loadImage(loader, "/images/FrameIcon.png"), loadImage(loader, "/images/menuBackground.png")};
+		
+		assetsTask = loader.submit(new Callable<AssetRegistry>() {
+			public AssetRegistry call() throws IOException {
+				return loadAssets();
+			}
+		});
+		// Care suggestions are only shown if policies have been solved with PolicySolver and saved next to the game
+		policiesTask = loader.submit(new Callable<PolicyLibrary>() {
+			public PolicyLibrary call() throws Exception {
+				File policyFile = new File("policies.bin");
+				if (!policyFile.exists())
+					return null;
+				AssetRegistry loadedAssets = assetsTask.get();
+				return PolicyLibrary.load(policyFile, loadedAssets.getFoodTypes(), loadedAssets.getToyTypes());
+			}
+		});
+		Future<Font> sourceSansProTask = loadFont(loader, "/fonts/Source_Sans_Pro/SourceSansPro-Regular.ttf");
+		Future<Font> sourceSansProBoldTask = loadFont(loader, "/fonts/Source_Sans_Pro/SourceSansPro-Bold.ttf");
+		remainingTasks = new Future<?>[] {assetsTask, policiesTask, sourceSansProTask, sourceSansProBoldTask,
+				loadImage(loader, "/images/backs/helpBack.png"), loadImage(loader, "/images/sliders/help.png")};
+		
+		this.poppinsTask = poppinsTask;
+		this.sourceSansProTask = sourceSansProTask;
+		this.sourceSansProSemiboldTask = sourceSansProSemiboldTask;
+		this.sourceSansProBoldTask = sourceSansProBoldTask;
+	}
+	
+	/**
+	 * Creates the threads resources are loaded with at startup, one for each processor.
+	 * @return
+	 * The threads, which stop once they have been idle for a second.
+	 */
+	private static ExecutorService createLoader() {
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		ThreadPoolExecutor loader = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		loader.allowCoreThreadTimeOut(true);
+		return loader;
+	}
+	
+	/**
+	 * Starts loading a font resource.
+	 * @param loader
+	 * The threads to load it with
+	 * @param resource
+	 * The path of the font resource
+	 * @return
+	 * The font being loaded, which is null if loading it fails
+	 */
+	private Future<Font> loadFont(ExecutorService loader, final String resource) {
+		return loader.submit(new Callable<Font>() {
+			public Font call() {
+				return loadFont(GuiRunner.class.getResourceAsStream(resource));
 			}
 		});
 	}
 
 	/**
-	 * Load fonts, species, toy types, and food types. Initialises the gui and loads the main menu.
+	 * Starts decoding an image resource.
+	 * @param loader
+	 * The threads to decode it with
+	 * @param resource
+	 * The path of the image resource
+	 * @return
+	 * The decoded image
+	 */
+	private static Future<ImageIcon> loadImage(ExecutorService loader, final String resource) {
+		return loader.submit(new Callable<ImageIcon>() {
+			public ImageIcon call() {
+				return ImageCache.getIcon(resource);
+			}
+		});
+	}
+	
+	/**
+	 * Loads the species, food types and toy types, from the asset pack if there is one, otherwise from the default
+	 * asset files.
+	 * @return
+	 * The assets loaded
+	 * @throws IOException
+	 * If the default asset files could not be read
 	 */
-	public GuiRunner() {
+	private static AssetRegistry loadAssets() throws IOException {
+		// Assets compiled with AssetPack are mapped from the pack, and their icons only decoded when they are first shown
+		File assetPackFile = new File("assets.pack");
+		if (assetPackFile.exists()) {
+			try {
+				AssetPack assetPack = AssetPack.open(assetPackFile);
+				return new AssetRegistry(assetPack.getSpecies(), assetPack.getFoodTypes(), assetPack.getToyTypes());
+			}
+			catch (IOException exc) {
+				System.out.println("Failed to load the asset pack, loading the default assets instead: " + exc.getMessage());
+			}
+		}
+		Species[] defaultSpecies = AssetsLoader.loadCustomSpeciesFile(GuiRunner.class.getResourceAsStream("/default_species.txt"));
+		ToyType[] defaultToyTypes = AssetsLoader.loadCustomToyTypesFile(GuiRunner.class.getResourceAsStream("/default_toytypes.txt"));
+		FoodType[] defaultFoodTypes = AssetsLoader.loadCustomFoodTypesFile(GuiRunner.class.getResourceAsStream("/default_foodtypes.txt"));
+		return new AssetRegistry(defaultSpecies, defaultFoodTypes, defaultToyTypes);
+	}
+	
+	/**
+	 * Waits for resources to finish loading. Whether they loaded is found when they are taken with getLoaded.
+	 * @param tasks
+	 * The resources being loaded
+	 */
+	private static void waitFor(Future<?>[] tasks) {
+		for (Future<?> task : tasks) {
+			try {
+				task.get();
+			}
+			catch (ExecutionException exc) {
+			}
+			catch (InterruptedException exc) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Gets a resource loaded in the background, waiting for it if it has not finished loading.
+	 * @param task
+	 * The resource being loaded
+	 * @return
+	 * The resource
+	 * @throws IOException
+	 * If the resource could not be read
+	 */
+	private static <T> T getLoaded(Future<T> task) throws IOException {
+		try {
+			return task.get();
+		}
+		catch (ExecutionException exc) {
+			if (exc.getCause() instanceof IOException)
+				throw (IOException)exc.getCause();
+			throw new IllegalStateException("Loading a resource failed.", exc.getCause());
+		}
+		catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading a resource.", exc);
+		}
+	}
+	
+	/**
+	 * Gets a font loaded in the background, waiting for it if it has not finished loading.
+	 * @param task
+	 * The font being loaded
+	 * @return
+	 * The font, or null if it could not be loaded
+	 */
+	private static Font getLoadedFont(Future<Font> task) {
+		try {
+			return getLoaded(task);
+		}
+		catch (IOException exc) {
+			// loadFont reports its own errors and gives null instead
+			return null;
+		}
+	}
+	
+	/**
+	 * Shows a plain splash window until the main menu is ready. It uses no loaded fonts or images, so it can be shown
+	 * straight away.
+	 */
+	private void showSplash() {
+		splash = new JWindow();
+		JLabel label = new JLabel("Virtual Pets", SwingConstants.CENTER);
+		label.setFont(label.getFont().deriveFont(Font.BOLD, 28f));
+		JLabel loading = new JLabel("Loading...", SwingConstants.CENTER);
+		loading.setBorder(BorderFactory.createEmptyBorder(0, 0, 16, 0));
+		splash.getContentPane().add(label, BorderLayout.CENTER);
+		splash.getContentPane().add(loading, BorderLayout.SOUTH);
+		splash.setSize(320, 160);
+		splash.setLocationRelativeTo(null);
+		splash.setVisible(true);
+	}
+	
+	/**
+	 * Shows the window with the main menu in it, closing the splash. The main menu's buttons are disabled until
+	 * finishLoading has loaded the other screens.
+	 */
+	private void showMainMenu() {
+		poppins = getLoadedFont(poppinsTask);
+		sourceSansProSemibold = getLoadedFont(sourceSansProSemiboldTask);
+		initialise();
+		loadMainMenu();
+		mainMenu.setVisible(true);
+		setMainMenuEnabled(false);
+		frame.setVisible(true);
+		if (splash != null) {
+			splash.dispose();
+			splash = null;
+		}
+	}
+	
+	/**
+	 * Takes the assets and fonts loaded in the background, loads the other screens, and enables the main menu.
+	 */
+	private void finishLoading() {
 		try {
-			species = AssetsLoader.loadCustomSpeciesFile(GuiRunner.class.getResourceAsStream("/default_species.txt"));
-			toyTypes = AssetsLoader.loadCustomToyTypesFile(GuiRunner.class.getResourceAsStream("/default_toytypes.txt"));
-			foodTypes = AssetsLoader.loadCustomFoodTypesFile(GuiRunner.class.getResourceAsStream("/default_foodtypes.txt"));
+			assets = getLoaded(assetsTask);
 		}
 		catch (FileNotFoundException exc) {
 			JOptionPane.showMessageDialog(frame, 
@@ -78,16 +356,67 @@ public class GuiRunner {
 					"Loading Default Assets Error", JOptionPane.ERROR_MESSAGE);
 		}
 		
-		poppins = loadFont(GuiRunner.class.getResourceAsStream("/fonts/Poppins/Poppins-Regular.ttf"));
-		sourceSansPro = loadFont(GuiRunner.class.getResourceAsStream("/fonts/Source_Sans_Pro/SourceSansPro-Regular.ttf"));
-		sourceSansProSemibold = loadFont(GuiRunner.class.getResourceAsStream("/fonts/Source_Sans_Pro/SourceSansPro-Semibold.ttf"));
-		sourceSansProBold = loadFont(GuiRunner.class.getResourceAsStream("/fonts/Source_Sans_Pro/SourceSansPro-Bold.ttf"));
+		try {
+			policies = getLoaded(policiesTask);
+		}
+		catch (IOException exc) {
+			System.out.println("Failed to load care policies: " + exc.getMessage());
+		}
+		catch (IllegalStateException exc) {
+			// The policies are read for the loaded assets, so a failure to load those has already been reported
+			if (assets != null)
+				System.out.println("Failed to load care policies: " + exc.getCause());
+		}
 		
-		initialise();
-		loadMainMenu();
+		sourceSansPro = getLoadedFont(sourceSansProTask);
+		sourceSansProBold = getLoadedFont(sourceSansProBoldTask);
+		loader.shutdown();
+		
+		loadSaveBrowser();
+		loadReplayViewer();
 		helpPanel = new HelpPanel(sourceSansProBold.deriveFont(15f), sourceSansPro.deriveFont(15f));
 		frame.add(helpPanel);
-		mainMenu.setVisible(true);
+		setMainMenuEnabled(true);
+	}
+	
+	/**
+	 * Enables or disables the main menu's buttons.
+	 * @param enabled
+	 * Whether the buttons can be clicked
+	 */
+	private void setMainMenuEnabled(boolean enabled) {
+		for (Component button : mainMenu.getComponents())
+			if (button instanceof JButton)
+				button.setEnabled(enabled);
+	}
+	
+	/**
+	 * If the last game stopped part way through a turn, offers to recover it by resuming the game from the start of
+	 * the turn and taking the actions in the recovery log again.
+	 */
+	private void offerRecovery() {
+		if (!LATEST_TURN_FILE.isFile() || !recoveryLog.getFile().isFile())
+			return;
+		try {
+			GameSnapshot savedGame = SaveGameHandler.readGameFromFile(LATEST_TURN_FILE, assets);
+			LoggedAction[] actions = RecoveryLog.read(recoveryLog.getFile(), savedGame);
+			if (actions.length == 0)
+				return;
+			int choice = JOptionPane.showConfirmDialog(frame,
+					"The last game stopped during "+savedGame.getPlayers()[savedGame.getActivePlayerIndex()].getName()+"'s turn on day "
+					+savedGame.getCurrentDay()+", with "+actions.length+" actions not saved. \nRecover the game?",
+					"Recover Game", JOptionPane.YES_NO_OPTION);
+			if (choice != JOptionPane.YES_OPTION)
+				return;
+			loadGame();
+			game.setVisible(true);
+			mainMenu.setVisible(false);
+			game.resume(savedGame);
+			game.recover(actions);
+		}
+		catch (IOException exc) {
+			System.err.println("Recovering the last game failed: "+exc.getMessage());
+		}
 	}
 	
 	/**
@@ -101,7 +430,7 @@ public class GuiRunner {
 		frame.getContentPane().setPreferredSize(new Dimension(800, 600));
 		frame.pack();
 		frame.setTitle("Virtual Pets");
-		frame.setIconImage(new ImageIcon(GuiRunner.class.getResource("/images/FrameIcon.png")).getImage());
+		frame.setIconImage(ImageCache.getIcon("/images/FrameIcon.png").getImage());
 	};
 	
 	/**
@@ -149,40 +478,12 @@ public class GuiRunner {
 			}
 		});
 		
-		// Load a game if the 'Load Game' button is clicked.
+		// Show the saved games to choose from if the 'Load Game' button is clicked.
 		mainMenu.getLoadGameButton().addActionListener(new ActionListener(){
 			public void actionPerformed(ActionEvent e) {
-				// Open up a open file dialog for choosing a save file to load
-				JFileChooser openFileDialog = new JFileChooser();
-				openFileDialog.setCurrentDirectory(new File("."));
-				openFileDialog.setDialogTitle("Load Game");
-				if (openFileDialog.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
-					try {
-						// If file selected, try to read game from that file and resume.
-						File saveFile = openFileDialog.getSelectedFile();
-						loadGame();
-						Game savedGame = SaveGameHandler.readGameFromFile(saveFile);
-						game.setVisible(true);
-						mainMenu.setVisible(false);
-						game.resume(savedGame);
-					}
-					// If failed, show popup error with the reason why.
-					catch (NullPointerException exc) {
-						JOptionPane.showMessageDialog(frame, 
-								"Loading game failed due to an invalid/missing save file being provided.", 
-								"Save File Loading Error", JOptionPane.ERROR_MESSAGE);
-					}
-					catch (IOException exc) {
-						JOptionPane.showMessageDialog(frame, 
-								"Loading game failed due to the save file being invalid or a problem occurring while reading it.", 
-								"Save File Loading Error", JOptionPane.ERROR_MESSAGE);
-					}
-					catch (ClassNotFoundException exc) {
-						JOptionPane.showMessageDialog(frame, 
-								"Loading game failed as the version of the save file does not match this version of the game.", 
-								"Save File Loading Error", JOptionPane.ERROR_MESSAGE);
-					}
-				}
+				saveBrowser.setSaves(SaveSummary.list(new File("."), AUTOSAVE_FOLDER));
+				saveBrowser.setVisible(true);
+				mainMenu.setVisible(false);
 			}
 		});
 
@@ -207,7 +508,7 @@ public class GuiRunner {
 				if (saveFileDialog.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
 					try {
 						File customAssetFile = saveFileDialog.getSelectedFile();
-						AssetsSaver.writeAssetsToFile(customAssetFile, species, foodTypes, toyTypes);
+						AssetsSaver.writeAssetsToFile(customAssetFile, assets.getSpecies(), assets.getFoodTypes(), assets.getToyTypes());
 					}
 					catch (IOException exc) {
 						JOptionPane.showMessageDialog(frame, 
@@ -237,44 +538,8 @@ public class GuiRunner {
 						FoodType[] customFoodTypes = Arrays.copyOf(customAssets[1], customAssets[1].length, FoodType[].class);
 						ToyType[] customToyTypes = Arrays.copyOf(customAssets[2], customAssets[2].length, ToyType[].class);
 						
-						// Check if any Species loaded from the file conflict with those already in the game, and if so, disregard them.
-						// Otherwise, add them to the list of species.
-						ArrayList<Species> newSpeciesList = new ArrayList<Species>(Arrays.asList(species));
-						for (Species custom : customSpecies) {
-							boolean conflict = false;
-							for (Species old : species)
-								if (custom.getName().equals(old.getName()))
-									conflict = true;
-							if (!conflict)
-								newSpeciesList.add(custom);
-						}
-						// Check if any FoodTypes loaded from the file conflict with those already in the game, and if so, disregard them.
-						// Otherwise, add them to the list of FoodTypes.
-						ArrayList<FoodType> newFoodTypesList = new ArrayList<FoodType>(Arrays.asList(foodTypes));
-						for (FoodType custom : customFoodTypes) {
-							boolean conflict = false;
-							for (FoodType old : foodTypes)
-								if (custom.getName().equals(old.getName()))
-									conflict = true;
-							if (!conflict)
-								newFoodTypesList.add(custom);
-						}
-						// Check if any ToyTypes loaded from the file conflict with those already in the game, and if so, disregard them.
-						// Otherwise, add them to the list of ToyTypes.
-						ArrayList<ToyType> newToyTypesList = new ArrayList<ToyType>(Arrays.asList(toyTypes));
-						for (ToyType custom : customToyTypes) {
-							boolean conflict = false;
-							for (ToyType old : toyTypes)
-								if (custom.getName().equals(old.getName()))
-									conflict = true;
-							if (!conflict)
-								newToyTypesList.add(custom);
-						}
-						
-						// Finally, set private variables to the newly combined lists to update them.
-						species = newSpeciesList.toArray(new Species[newSpeciesList.size()]);
-						foodTypes = newFoodTypesList.toArray(new FoodType[newFoodTypesList.size()]);
-						toyTypes = newToyTypesList.toArray(new ToyType[newToyTypesList.size()]);
+						// Add the custom assets to those in the game, disregarding any whose names conflict with those already in the game.
+						assets = assets.merge(customSpecies, customFoodTypes, customToyTypes);
 					}
 					// If loading saved asset files failed, show popup error with the reason why.
 					catch (FileNotFoundException exc) {
@@ -316,11 +581,115 @@ public class GuiRunner {
 		frame.getContentPane().add(mainMenu);
 	}
 	
+	/**
+	 * Load the save browser screen and store it. The save browser lists saved games, and loads the one chosen.
+	 */
+	private void loadSaveBrowser() {
+		saveBrowser = new SaveBrowser(poppins.deriveFont(48f), sourceSansProSemibold.deriveFont(16f), sourceSansPro.deriveFont(14f));
+		
+		// Load the selected save
+		saveBrowser.getLoadButton().addActionListener(new ActionListener(){
+			public void actionPerformed(ActionEvent e) {
+				SaveSummary save = saveBrowser.getSelectedSave();
+				if (save == null)
+					return;
+				try {
+					// Try to read game from the save and resume.
+					GameSnapshot savedGame = SaveGameHandler.readGameFromFile(save.getFile(), assets);
+					loadGame();
+					game.setVisible(true);
+					saveBrowser.setVisible(false);
+					game.resume(savedGame);
+				}
+				// If failed, show popup error with the reason why.
+				catch (IOException exc) {
+					JOptionPane.showMessageDialog(frame, 
+							"Loading game failed due to the save file being invalid or a problem occurring while reading it.", 
+							"Save File Loading Error", JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		});
+		
+		// List the saves in another folder
+		saveBrowser.getOtherFolderButton().addActionListener(new ActionListener(){
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser openFolderDialog = new JFileChooser();
+				openFolderDialog.setCurrentDirectory(new File("."));
+				openFolderDialog.setDialogTitle("Choose Folder of Saved Games");
+				openFolderDialog.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+				if (openFolderDialog.showOpenDialog(null) == JFileChooser.APPROVE_OPTION)
+					saveBrowser.setSaves(SaveSummary.list(openFolderDialog.getSelectedFile()));
+			}
+		});
+		
+		// Choose a recorded game to review
+		saveBrowser.getReplaysButton().addActionListener(new ActionListener(){
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser openReplayDialog = new JFileChooser();
+				openReplayDialog.setCurrentDirectory(REPLAY_FOLDER.isDirectory() ? REPLAY_FOLDER : new File("."));
+				openReplayDialog.setDialogTitle("Choose Replay");
+				openReplayDialog.setFileFilter(new FileNameExtensionFilter("Replays", "replay"));
+				if (openReplayDialog.showOpenDialog(null) != JFileChooser.APPROVE_OPTION)
+					return;
+				try {
+					ReplayReader replay = new ReplayReader(openReplayDialog.getSelectedFile(), assets);
+					if (replay.getLastDay() < 0) {
+						replay.close();
+						JOptionPane.showMessageDialog(frame, "No days were finished in the replay.",
+								"Replay Loading Error", JOptionPane.ERROR_MESSAGE);
+						return;
+					}
+					replayViewer.setReplay(replay);
+					replayViewer.setVisible(true);
+					saveBrowser.setVisible(false);
+				}
+				catch (IOException exc) {
+					JOptionPane.showMessageDialog(frame, 
+							"Loading the replay failed: \n" + exc.getMessage(), 
+							"Replay Loading Error", JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		});
+		
+		//Go back to the main menu if back is clicked
+		saveBrowser.getBackButton().addActionListener(new ActionListener(){
+			public void actionPerformed(ActionEvent e) {
+				saveBrowser.setVisible(false);
+				mainMenu.setVisible(true);
+			}
+		});
+		
+		frame.getContentPane().add(saveBrowser);
+	}
+	
+	/**
+	 * Load the replay viewer screen and store it. The replay viewer shows the round overview of any day of a recorded game.
+	 */
+	private void loadReplayViewer() {
+		replayViewer = new ReplayViewer(poppins.deriveFont(36f), poppins.deriveFont(22f), sourceSansProBold.deriveFont(16f));
+		
+		//Close the replay and go back to the save browser if back is clicked
+		replayViewer.getBackButton().addActionListener(new ActionListener(){
+			public void actionPerformed(ActionEvent e) {
+				try {
+					replayViewer.getReplay().close();
+				}
+				catch (IOException exc) {
+					System.err.println("Closing the replay failed: " + exc.getMessage());
+				}
+				replayViewer.setVisible(false);
+				saveBrowser.setVisible(true);
+			}
+		});
+		
+		frame.getContentPane().add(replayViewer);
+	}
+	
 	/**
 	 * Load the game setup screen and store it. The game setup screen allows the user to specify players and their pets, and the attributes of all of these. Game variables such as number of days are also set.
 	 */
 	private void loadGameSetup() {
-		gameSetup = new GameSetup(species, toyTypes, foodTypes, poppins.deriveFont(48f), sourceSansProBold.deriveFont(14f), sourceSansProSemibold.deriveFont(14f), sourceSansPro.deriveFont(14f));
+		gameSetup = new GameSetup(assets.getSpecies(), assets.getToyTypes(), assets.getFoodTypes(), poppins.deriveFont(48f), sourceSansProBold.deriveFont(14f), sourceSansProSemibold.deriveFont(14f), sourceSansPro.deriveFont(14f));
 
 		//If all fields are filled, use the inputs to create and start a new game
 		gameSetup.getDoneButton().addActionListener(new ActionListener(){
@@ -360,34 +729,15 @@ public class GuiRunner {
 				//Load newly created species, toy types, and food types
 				
 				ArrayList<Species> newSpecies = assetCreator.getNewSpecies();
-				if (newSpecies.size() > 0) {
-					Species[] updatedSpecies = new Species[species.length+newSpecies.size()];
-					for (int i=0; i<species.length; i++)
-						updatedSpecies[i] = species[i];
-					for (int i=0; i<newSpecies.size(); i++)
-						updatedSpecies[species.length+i] = newSpecies.get(i);
-					species = updatedSpecies;
-				}
-				
 				ArrayList<ToyType> newToyTypes = assetCreator.getNewToyTypes();
-				if (newToyTypes.size() > 0) {
-					ToyType[] updatedToyTypes = new ToyType[toyTypes.length+newToyTypes.size()];
-					for (int i=0; i<toyTypes.length; i++)
-						updatedToyTypes[i] = toyTypes[i];
-					for (int i=0; i<newToyTypes.size(); i++)
-						updatedToyTypes[toyTypes.length+i] = newToyTypes.get(i);
-					toyTypes = updatedToyTypes;
-				}
-				
 				ArrayList<FoodType> newFoodTypes = assetCreator.getNewFoodTypes();
-				if (newFoodTypes.size() > 0) {
-					FoodType[] updatedFoodTypes = new FoodType[foodTypes.length+newFoodTypes.size()];
-					for (int i=0; i<foodTypes.length; i++)
-						updatedFoodTypes[i] = foodTypes[i];
-					for (int i=0; i<newFoodTypes.size(); i++)
-						updatedFoodTypes[foodTypes.length+i] = newFoodTypes.get(i);
-					foodTypes = updatedFoodTypes;
-				}
+				assets = assets.merge(newSpecies.toArray(new Species[newSpecies.size()]), 
+						newFoodTypes.toArray(new FoodType[newFoodTypes.size()]), newToyTypes.toArray(new ToyType[newToyTypes.size()]));
+				// Assets are found by name, so any created with a name already in the game could not be added
+				if (!assets.getLeftOut().isEmpty())
+					JOptionPane.showMessageDialog(frame, 
+							"These assets were not added, as their names are already in use: \n" + String.join(", ", assets.getLeftOut()),
+							"Creating Assets Error", JOptionPane.ERROR_MESSAGE);
 				
 				mainMenu.setVisible(true);
 			}
@@ -428,8 +778,13 @@ public class GuiRunner {
 			}
 		};
 		
-		game = new Game(toyTypes, foodTypes, poppins.deriveFont(48f), poppins.deriveFont(18f), sourceSansProBold.deriveFont(14f), 
+		game = new Game(assets.getToyTypes(), assets.getFoodTypes(), poppins.deriveFont(48f), poppins.deriveFont(18f), sourceSansProBold.deriveFont(14f), 
 				sourceSansProSemibold.deriveFont(14f), sourceSansPro.deriveFont(14f), roundOverview, exitToMainMenu, exitToDesktop);
+		game.setPolicyLibrary(policies);
+		game.setAutoSaver(autoSaver);
+		game.setSaveJournal(saveJournal);
+		game.setReplayRecorder(replayRecorder);
+		game.setRecoveryLog(recoveryLog);
 		
 		//Open help panel if help pressed
 		game.getHelpButton().addActionListener(new ActionListener(){
@@ -3,7 +3,6 @@ package gui;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.event.ActionListener;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -35,7 +34,7 @@ public class HelpPanel extends JPanel {
 		add(buttonClose);
 		
 		PetStatDisplayer helpSlider = new PetStatDisplayer(boldFont, helpFont, "Example Slider", 
-				new ImageIcon(MainMenu.class.getResource("/images/sliders/help.png")), "An example slider.",
+				ImageCache.getIcon("/images/sliders/help.png"), "An example slider.",
 				new Color(127, 127, 127), 0, 100, 3, 8);
 		helpSlider.setBounds(560, 330, 250, 50);
 		helpSlider.setStat(50);
@@ -55,12 +54,12 @@ public class HelpPanel extends JPanel {
 		add(helpLabel);
 
 		JLabel helpBack = new JLabel("");
-		helpBack.setIcon(new ImageIcon(HelpPanel.class.getResource("/images/backs/helpBack.png")));
+		helpBack.setIcon(ImageCache.getIcon("/images/backs/helpBack.png"));
 		helpBack.setBounds(0, 0, 800, 600);
 		add(helpBack);
 
 		JLabel helpBackground = new JLabel("");
-		helpBackground.setIcon(new ImageIcon(HelpPanel.class.getResource("/images/menuBackground.png")));
+		helpBackground.setIcon(ImageCache.getIcon("/images/menuBackground.png"));
 		helpBackground.setBounds(0, 0, 800, 600);
 		add(helpBackground);
 	}
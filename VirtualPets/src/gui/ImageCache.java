@@ -0,0 +1,159 @@
+package gui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * The images used by the gui's screens, decoded once and shared by every screen that shows them. Images are kept by
+ * their resource path and the size they are shown at. Once the images kept take up more memory than the cache's
+ * limit, the images used least recently are let go.
+ * @author Andrew Davidson (ada130)
+ */
+public class ImageCache {
+	// Enough for every image the screens use, several times over
+	private static final long DEFAULT_LIMIT = 32 << 20;
+	
+	private static ImageCache shared = new ImageCache(DEFAULT_LIMIT);
+	
+	private long limit;
+	private long size;
+	// Ordered from least to most recently used
+	private LinkedHashMap<String, ImageIcon> icons = new LinkedHashMap<String, ImageIcon>(64, 0.75f, true);
+	
+	/**
+	 * Creates an empty image cache.
+	 * @param limit
+	 * The most bytes of decoded images to keep.
+	 */
+	public ImageCache(long limit) {
+		this.limit = limit;
+	}
+	
+	// Getters
+	public synchronized long getSize() {
+		return size;
+	}
+	
+	public synchronized int getCount() {
+		return icons.size();
+	}
+	// End Getters
+	
+	/**
+	 * Gets an image resource at its own size from the cache shared by the whole gui.
+	 * @param resource
+	 * The path of the image resource, such as "/images/gameBackground.png".
+	 * @return
+	 * The image.
+	 */
+	public static ImageIcon getIcon(String resource) {
+		return shared.get(resource, -1, -1);
+	}
+	
+	/**
+	 * Gets an image resource scaled to a size from the cache shared by the whole gui.
+	 * @param resource
+	 * The path of the image resource, such as "/images/gameBackground.png".
+	 * @param width
+	 * The width to scale the image to.
+	 * @param height
+	 * The height to scale the image to.
+	 * @return
+	 * The scaled image.
+	 */
+	public static ImageIcon getIcon(String resource, int width, int height) {
+		return shared.get(resource, width, height);
+	}
+	
+	/**
+	 * Gets an image resource, decoding and scaling it if it is not in the cache.
+	 * @param resource
+	 * The path of the image resource.
+	 * @param width
+	 * The width to scale the image to, or -1 to keep its own size.
+	 * @param height
+	 * The height to scale the image to, or -1 to keep its own size.
+	 * @return
+	 * The image.
+	 * @throws IllegalArgumentException
+	 * If the resource does not exist or is not an image.
+	 */
+	public ImageIcon get(String resource, int width, int height) {
+		String key = resource + "@" + width + "x" + height;
+		synchronized (this) {
+			ImageIcon icon = icons.get(key);
+			if (icon != null)
+				return icon;
+		}
+		// Decode outside the lock, so several threads can decode different images at once
+		ImageIcon icon = new ImageIcon(load(resource, width, height), resource);
+		synchronized (this) {
+			ImageIcon decoded = icons.get(key);
+			if (decoded != null)
+				return decoded;
+			icons.put(key, icon);
+			size += getBytes(icon);
+			Iterator<Map.Entry<String, ImageIcon>> oldest = icons.entrySet().iterator();
+			while (size > limit && icons.size() > 1) {
+				size -= getBytes(oldest.next().getValue());
+				oldest.remove();
+			}
+		}
+		return icon;
+	}
+	
+	/**
+	 * Decodes an image resource into an image that is quick to draw.
+	 * @param resource
+	 * The path of the image resource.
+	 * @param width
+	 * The width to scale the image to, or -1 to keep its own size.
+	 * @param height
+	 * The height to scale the image to, or -1 to keep its own size.
+	 * @return
+	 * The decoded image.
+	 */
+	private static BufferedImage load(String resource, int width, int height) {
+		URL url = ImageCache.class.getResource(resource);
+		if (url == null)
+			throw new IllegalArgumentException("The image " + resource + " could not be found.");
+		BufferedImage decoded;
+		try {
+			decoded = ImageIO.read(url);
+		}
+		catch (IOException exc) {
+			throw new IllegalArgumentException("The image " + resource + " could not be read: " + exc.getMessage());
+		}
+		if (decoded == null)
+			throw new IllegalArgumentException("The resource " + resource + " is not an image.");
+		if (width < 0 || height < 0) {
+			width = decoded.getWidth();
+			height = decoded.getHeight();
+		}
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+		graphics.drawImage(decoded, 0, 0, width, height, null);
+		graphics.dispose();
+		return image;
+	}
+	
+	/**
+	 * Gets how much memory a decoded image takes up.
+	 * @param icon
+	 * The decoded image.
+	 * @return
+	 * The size of its pixels, in bytes.
+	 */
+	private static long getBytes(ImageIcon icon) {
+		return 4L * icon.getIconWidth() * icon.getIconHeight();
+	}
+}
@@ -3,7 +3,6 @@ package gui;
 import java.awt.Font;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.SwingConstants;
 
@@ -81,7 +80,7 @@ public class MainMenu extends JPanel {
 		add(buttonQuit);
 		
 		JLabel backgroundImage = new JLabel("");
-		backgroundImage.setIcon(new ImageIcon(MainMenu.class.getResource("/images/menuBackground.png")));
+		backgroundImage.setIcon(ImageCache.getIcon("/images/menuBackground.png"));
 		backgroundImage.setBounds(0, 0, 800, 600);
 		add(backgroundImage);
 	}
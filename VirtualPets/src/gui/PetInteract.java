@@ -2,13 +2,16 @@ package gui;
 
 import java.awt.Color;
 import java.awt.Font;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 
 import model.Pet;
+import model.RiskForecast;
+import model.RiskForecaster;
+import planning.CareAction;
+import planning.PolicyLibrary;
 
 /**
  * Displays pet statistics and allows the player to interact with the pet.
@@ -19,7 +22,7 @@ public class PetInteract extends JPanel {
 	
 	private Pet activePet;
 	private JLabel speciesLabel, favouriteToyLabel, favouriteToyIcon, favouriteFoodLabel, favouriteFoodIcon;
-	private JLabel behavingLabel, healthyLabel;
+	private JLabel behavingLabel, healthyLabel, riskLabel, suggestionLabel;
 	private JButton buttonCure, buttonDiscipline;
 	private PetStatDisplayer hungerSlider, energySlider, happinessSlider, weightSlider;
 	private JButton buttonPlay, buttonFeed, buttonRest, buttonToilet;
@@ -28,6 +31,9 @@ public class PetInteract extends JPanel {
 	private JButton buttonRevive;
 	private JLabel reviveLabel, reviveLabel2;
 	
+	// Policies are loaded separately from saved games, so are not saved with them
+	private transient PolicyLibrary policies;
+	
 	/**
 	 * Create the panel - initialise all components but do not set values until setPet is called. Players must be able to view all pet statistics.
 	 * @param boldFont
@@ -141,6 +147,20 @@ public class PetInteract extends JPanel {
 		favouriteFoodIcon.setBounds(151, 185, 75, 75);
 		add(favouriteFoodIcon);
 		
+		riskLabel = new JLabel("");
+		riskLabel.setHorizontalAlignment(SwingConstants.CENTER);
+		riskLabel.setFont(semiBoldFont);
+		riskLabel.setToolTipText("The chance of each event happening to this pet when the turn ends, if nothing more is done with it.");
+		riskLabel.setBounds(12, 261, 476, 18);
+		add(riskLabel);
+		
+		suggestionLabel = new JLabel("");
+		suggestionLabel.setHorizontalAlignment(SwingConstants.CENTER);
+		suggestionLabel.setFont(semiBoldFont);
+		suggestionLabel.setToolTipText("The best thing to do with this pet next, according to the solved care policies.");
+		suggestionLabel.setBounds(12, 279, 476, 18);
+		add(suggestionLabel);
+		
 		//Pet action buttons
 		buttonPlay = new JButton("Play");
 		buttonPlay.setToolTipText("Play with the selected pet. You will need to select a toy. This will use 1 action point.");
@@ -163,32 +183,32 @@ public class PetInteract extends JPanel {
 		add(buttonToilet);
 		
 		//Pet status sliders
-		hungerSlider = new PetStatDisplayer(boldFont, semiBoldFont, "Hunger", new ImageIcon(Game.class.getResource("/images/sliders/hunger.png")), 
+		hungerSlider = new PetStatDisplayer(boldFont, semiBoldFont, "Hunger", ImageCache.getIcon("/images/sliders/hunger.png"), 
 				"How hungry this pet is. Once hunger reaches the orange region, the pet will begin to starve.", new Color(227, 66, 52), 0, 100, 0, 8);
 		hungerSlider.setBounds(257, 12, 232, 50);
 		add(hungerSlider);
 		
-		energySlider = new PetStatDisplayer(boldFont, semiBoldFont, "Energy", new ImageIcon(Game.class.getResource("/images/sliders/energy.png")), 
+		energySlider = new PetStatDisplayer(boldFont, semiBoldFont, "Energy", ImageCache.getIcon("/images/sliders/energy.png"), 
 				"How much energy this pet has. Once energy reaches the red region, the pet will have a chance to die at the end of each turn.", new Color(30, 224, 220), 0, 100, 6, 0);
 		energySlider.setBounds(257, 77, 232, 50);
 		add(energySlider);
 		
-		happinessSlider = new PetStatDisplayer(boldFont, semiBoldFont, "Happiness", new ImageIcon(Game.class.getResource("/images/sliders/happiness.png")), 
+		happinessSlider = new PetStatDisplayer(boldFont, semiBoldFont, "Happiness", ImageCache.getIcon("/images/sliders/happiness.png"), 
 				"How happy this pet is.", new Color(255, 180, 0), 0, 100, 3, 0);
 		happinessSlider.setBounds(257, 142, 232, 50);
 		add(happinessSlider);
 		
-		weightSlider = new PetStatDisplayer(boldFont, semiBoldFont, "Weight", new ImageIcon(Game.class.getResource("/images/sliders/weight.png")), 
+		weightSlider = new PetStatDisplayer(boldFont, semiBoldFont, "Weight", ImageCache.getIcon("/images/sliders/weight.png"), 
 				"How much this pet weighs.", new Color(127, 127, 127), 0, 100, 6, 6);
 		weightSlider.setBounds(257, 207, 232, 50);
 		add(weightSlider);
 		
 		//Semi-transparent background
-		JLabel petInfoBackground = new JLabel(new ImageIcon(Game.class.getResource("/images/backs/petInteract.png")));
+		JLabel petInfoBackground = new JLabel(ImageCache.getIcon("/images/backs/petInteract.png"));
 		petInfoBackground.setBounds(0, 0, 500, 345);
 		add(petInfoBackground);
 	}
-
+	
 	//Getters
 	public JButton getButtonPlay() {
 		return buttonPlay;
@@ -197,7 +217,7 @@ public class PetInteract extends JPanel {
 	public JButton getButtonFeed() {
 		return buttonFeed;
 	}
-
+	
 	public JButton getButtonRest() {
 		return buttonRest;
 	}
@@ -219,6 +239,15 @@ public class PetInteract extends JPanel {
 	}
 	//End Getters
 	
+	/**
+	 * Sets the policies used to suggest what to do with the pet.
+	 * @param policies
+	 * The policies to suggest actions from, or null to not show suggestions
+	 */
+	public void setPolicyLibrary(PolicyLibrary policies) {
+		this.policies = policies;
+	}
+	
 	/**
 	 * Sets the pet to display information about
 	 * @param activePet
@@ -248,10 +277,17 @@ public class PetInteract extends JPanel {
 		
 		favouriteToyLabel.setText(activePet.getFavouriteToy().getName());
 		favouriteFoodLabel.setText(activePet.getFavouriteFood().getName());
-
+		
 		favouriteToyIcon.setIcon(activePet.getFavouriteToy().getIcon());
 		favouriteFoodIcon.setIcon(activePet.getFavouriteFood().getIcon());
 		
+		RiskForecast risk = RiskForecaster.forecast(activePet);
+		riskLabel.setText("At end of turn: "+risk.getDeathChance()+"% death, "+risk.getSicknessChance()+"% sickness, "
+				+risk.getMisbehavingChance()+"% misbehaving");
+		
+		CareAction suggestion = (policies == null) ? null : policies.suggest(activePet);
+		suggestionLabel.setText((suggestion == null) ? "" : "Suggested: "+suggestion);
+		
 		revivePrompt.setVisible(!activePet.isAlive());
 		if (activePet.isRevivable()) {
 			reviveLabel.setText("This pet is dead but may be");
@@ -286,5 +322,5 @@ public class PetInteract extends JPanel {
 			buttonDiscipline.setEnabled(false);
 		}
 	}
-	
+
 }
@@ -8,13 +8,13 @@ import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
-import javax.swing.ImageIcon;
 import javax.swing.DefaultComboBoxModel;
-import java.util.concurrent.ThreadLocalRandom;
 
 import model.FoodType;
 import model.Pet;
+import model.RandomSource;
 import model.Species;
+import model.ThreadLocalRandomSource;
 import model.ToyType;
 
 /**
@@ -88,7 +88,7 @@ public class PetSetup extends JPanel {
 		add(speciesIcon);
 		
 		//A semi-transparent background
-		JLabel background = new JLabel(new ImageIcon(PetSetup.class.getResource("/images/backs/petSetup.png")));
+		JLabel background = new JLabel(ImageCache.getIcon("/images/backs/petSetup.png"));
 		background.setVerticalAlignment(SwingConstants.TOP);
 		background.setBounds(0, 0, 235, 108);
 		add(background);
@@ -100,13 +100,24 @@ public class PetSetup extends JPanel {
 	}
 	
 	/**
-	 * Generates a new pet based off the user's inputs.
+	 * Generates a new pet based off the user's inputs, choosing its favourites with an unseeded random source.
 	 * @return
 	 * The generated pet
 	 */
 	public Pet generatePet() {
-		ToyType favouriteToy = toyTypes[ThreadLocalRandom.current().nextInt(0, toyTypes.length)];
-		FoodType favouriteFood = foodTypes[ThreadLocalRandom.current().nextInt(0, foodTypes.length)];
+		return generatePet(ThreadLocalRandomSource.INSTANCE);
+	}
+	
+	/**
+	 * Generates a new pet based off the user's inputs.
+	 * @param random
+	 * The random source used to choose the pet's favourite toy and food
+	 * @return
+	 * The generated pet
+	 */
+	public Pet generatePet(RandomSource random) {
+		ToyType favouriteToy = toyTypes[random.nextInt(0, toyTypes.length)];
+		FoodType favouriteFood = foodTypes[random.nextInt(0, foodTypes.length)];
 		return new Pet(petNameField.getText(), species[speciesChooser.getSelectedIndex()], favouriteToy, favouriteFood); 
 	}
 	
@@ -5,7 +5,6 @@ import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.SwingConstants;
 
@@ -34,26 +33,26 @@ public class PetTab extends JPanel {
 		
 		//Status effect icons
 		deadOverlay = new JLabel("");
-		deadOverlay.setIcon(new ImageIcon(PetTab.class.getResource("/images/Dead.png")));
+		deadOverlay.setIcon(ImageCache.getIcon("/images/Dead.png"));
 		deadOverlay.setBounds(0, 0, 150, 149);
 		deadOverlay.setVisible(false);
 		add(deadOverlay);
 		
 		sickIcon = new JLabel("");
 		sickIcon.setToolTipText("This pet is sick.");
-		sickIcon.setIcon(new ImageIcon(PetTab.class.getResource("/images/statuses/Sick.png")));
+		sickIcon.setIcon(ImageCache.getIcon("/images/statuses/Sick.png"));
 		sickIcon.setBounds(120, 36, 20, 20);
 		add(sickIcon);
 		
 		misbehavingIcon = new JLabel("");
 		misbehavingIcon.setToolTipText("This pet is misbehaving.");
-		misbehavingIcon.setIcon(new ImageIcon(PetTab.class.getResource("/images/statuses/Misbehaving.png")));
+		misbehavingIcon.setIcon(ImageCache.getIcon("/images/statuses/Misbehaving.png"));
 		misbehavingIcon.setBounds(120, 60, 20, 20);
 		add(misbehavingIcon);
 		
 		starvingIcon = new JLabel("");
 		starvingIcon.setToolTipText("This pet is starving!");
-		starvingIcon.setIcon(new ImageIcon(PetTab.class.getResource("/images/statuses/Starving.png")));
+		starvingIcon.setIcon(ImageCache.getIcon("/images/statuses/Starving.png"));
 		starvingIcon.setBounds(120, 84, 20, 20);
 		add(starvingIcon);
 		//End status effect icons
@@ -77,7 +76,7 @@ public class PetTab extends JPanel {
 		//End pet info
 		
 		//Button to detect clicks on this tab
-		clickDetector = new JButton(new ImageIcon(PetTab.class.getResource("/images/backs/petTab.png")));
+		clickDetector = new JButton(ImageCache.getIcon("/images/backs/petTab.png"));
 		clickDetector.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 			}
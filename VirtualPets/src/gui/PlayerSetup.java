@@ -3,10 +3,10 @@ package gui;
 import java.awt.Font;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
+import javax.swing.JCheckBox;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
 import javax.swing.JTextField;
-import javax.swing.ImageIcon;
 import javax.swing.JComboBox;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.SwingConstants;
@@ -14,7 +14,9 @@ import javax.swing.SwingConstants;
 import model.FoodType;
 import model.Pet;
 import model.Player;
+import model.RandomSource;
 import model.Species;
+import model.ThreadLocalRandomSource;
 import model.ToyType;
 
 /**
@@ -26,6 +28,7 @@ public class PlayerSetup extends JPanel {
 	
 	private JTextField playerNameField;
 	private JComboBox<String> petAmountChooser;
+	private JCheckBox computerCheckBox;
 	private PetSetup[] petSetups;
 	private int numberOfPets = 1;
 	
@@ -97,24 +100,47 @@ public class PlayerSetup extends JPanel {
 		petAmountChooser.setBounds(134, 27, 40, 21);
 		add(petAmountChooser);
 		
+		//Computer player check box
+		computerCheckBox = new JCheckBox("Bot");
+		computerCheckBox.setToolTipText("Let the computer take this player's turns.");
+		computerCheckBox.setFont(regularFont);
+		computerCheckBox.setOpaque(false);
+		computerCheckBox.setBounds(178, 27, 55, 21);
+		add(computerCheckBox);
+		
 		//A semi-transparent background
-		JLabel label = new JLabel(new ImageIcon(PlayerSetup.class.getResource("/images/backs/playerSetup.png")));
+		JLabel label = new JLabel(ImageCache.getIcon("/images/backs/playerSetup.png"));
 		label.setBounds(0, 0, 235, 58);
 		add(label);
 	}
 	
 	/**
-	 * Generates a new player based on user inputs.
+	 * Generates a new player based on user inputs, generating pets with an unseeded random source.
 	 * @param startingMoney
 	 * The amount of money this player should be initialised with
 	 * @return
 	 * The new player
 	 */
 	public Player generatePlayer(int startingMoney) {
+		return generatePlayer(startingMoney, ThreadLocalRandomSource.INSTANCE);
+	}
+	
+	/**
+	 * Generates a new player based on user inputs.
+	 * @param startingMoney
+	 * The amount of money this player should be initialised with
+	 * @param random
+	 * The random source used to generate this player's pets
+	 * @return
+	 * The new player
+	 */
+	public Player generatePlayer(int startingMoney, RandomSource random) {
 		Pet[] pets = new Pet[numberOfPets];
 		for (int i=0; i<numberOfPets; i++)
-			pets[i] = petSetups[i].generatePet();
-		return new Player(playerNameField.getText(), pets, startingMoney);
+			pets[i] = petSetups[i].generatePet(random);
+		Player player = new Player(playerNameField.getText(), pets, startingMoney);
+		player.setComputer(computerCheckBox.isSelected());
+		return player;
 	}
 	
 	/**
@@ -143,6 +169,7 @@ public class PlayerSetup extends JPanel {
 	public void setFieldsEnabled(boolean enabled) {
 		playerNameField.setEnabled(enabled);
 		petAmountChooser.setEnabled(enabled);
+		computerCheckBox.setEnabled(enabled);
 		for (PetSetup petSetup: petSetups)
 			petSetup.setFieldsEnabled(enabled);
 	}
@@ -0,0 +1,127 @@
+package gui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.io.IOException;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.SwingConstants;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import saves.GameSnapshot;
+import saves.ReplayReader;
+
+/**
+ * A panel for reviewing a recorded game, showing the round overview for any day chosen with a slider. Each day is
+ * rebuilt from the replay's nearest keyframe, so jumping to any day of a long game is quick.
+ * @author Andrew Davidson (ada130)
+ */
+public class ReplayViewer extends JPanel {
+	private static final long serialVersionUID = 1L;
+	
+	private RoundOverview roundOverview;
+	private JSlider daySlider;
+	private JLabel dayLabel;
+	private JButton buttonBack;
+	private ReplayReader replay;
+	
+	/**
+	 * Create the replay viewer panel: a round overview, with a slider to choose the day and a back button.
+	 * @param titleFont
+	 * The font to use for the round overview's title
+	 * @param subtitleFont
+	 * The font to use for player names
+	 * @param boldFont
+	 * The font to use for scores and buttons
+	 */
+	public ReplayViewer(Font titleFont, Font subtitleFont, Font boldFont) {
+		setLayout(null);
+		setSize(800, 600);
+		setVisible(false);
+		
+		//Choose the day to show, which is only rebuilt once the slider is released
+		daySlider = new JSlider();
+		daySlider.setOpaque(false);
+		daySlider.setBounds(150, 440, 500, 30);
+		daySlider.addChangeListener(new ChangeListener() {
+			public void stateChanged(ChangeEvent e) {
+				if (replay == null)
+					return;
+				dayLabel.setText("Day "+daySlider.getValue()+" of "+replay.getNumberOfDays());
+				if (!daySlider.getValueIsAdjusting())
+					showDay(daySlider.getValue());
+			}
+		});
+		add(daySlider);
+		
+		dayLabel = new JLabel("");
+		dayLabel.setForeground(Color.WHITE);
+		dayLabel.setFont(boldFont);
+		dayLabel.setHorizontalAlignment(SwingConstants.CENTER);
+		dayLabel.setBounds(300, 470, 200, 25);
+		add(dayLabel);
+		
+		buttonBack = new JButton("Back");
+		buttonBack.setFont(boldFont);
+		buttonBack.setBounds(300, 510, 200, 50);
+		add(buttonBack);
+		
+		//The round overview fills the panel behind the controls, without its own buttons
+		roundOverview = new RoundOverview(titleFont, subtitleFont, boldFont);
+		roundOverview.setLocation(0, 0);
+		roundOverview.setVisible(true);
+		add(roundOverview);
+	}
+	
+	// Getters (GuiRunner must be able to access these buttons to add relevant ActionListeners to them)
+	public JButton getBackButton() {
+		return buttonBack;
+	}
+	
+	public ReplayReader getReplay() {
+		return replay;
+	}
+	// End Getters
+	
+	/**
+	 * Shows a replay, starting at the last day recorded.
+	 * @param replay
+	 * The replay to show, which must have at least one day recorded
+	 */
+	public void setReplay(ReplayReader replay) {
+		this.replay = null;
+		daySlider.getModel().setRangeProperties(replay.getLastDay(), 0, replay.getFirstDay(), replay.getLastDay(), false);
+		this.replay = replay;
+		dayLabel.setText("Day "+replay.getLastDay()+" of "+replay.getNumberOfDays());
+		showDay(replay.getLastDay());
+	}
+	
+	/**
+	 * Rebuilds the game at the end of a day and shows its round overview.
+	 * @param day
+	 * The day to show
+	 */
+	private void showDay(int day) {
+		try {
+			GameSnapshot game = replay.seek(day);
+			roundOverview.initialise();
+			if (day == game.getNumberOfDays())
+				roundOverview.displayEndOfGame(day, game.getPlayers());
+			else {
+				roundOverview.setPreviousRoundScores(game.getPreviousScores());
+				roundOverview.displayEndOfRound(day, game.getPlayers());
+			}
+			roundOverview.getButtonContinue().setVisible(false);
+			roundOverview.getButtonEndGame().setVisible(false);
+		}
+		catch (IOException exc) {
+			JOptionPane.showMessageDialog(this,
+					"Day "+day+" could not be read from the replay: \n" + exc.getMessage(),
+					"Replay Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+}
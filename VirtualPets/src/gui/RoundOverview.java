@@ -2,7 +2,6 @@ package gui;
 
 import java.awt.Color;
 import java.awt.Font;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JButton;
@@ -82,7 +81,7 @@ public class RoundOverview extends JPanel {
 		add(buttonEndGame);
 		
 		//An image background
-		JLabel background = new JLabel(new ImageIcon(Game.class.getResource("/images/gameBackground.png")));
+		JLabel background = new JLabel(ImageCache.getIcon("/images/gameBackground.png"));
 		background.setBounds(0, 0, 800, 600);
 		add(background);
 	}
@@ -0,0 +1,145 @@
+package gui;
+
+import java.awt.Font;
+import java.text.DateFormat;
+import java.util.Date;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableModel;
+
+import saves.SaveSummary;
+
+/**
+ * A panel that lists saved games with who is playing, the day they are on, their scores and when they were saved, so
+ * the user can choose a game to load. Only the summary at the start of each save is read to list it.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveBrowser extends JPanel {
+	private static final long serialVersionUID = 1L;
+	
+	private JButton buttonLoad, buttonOtherFolder, buttonReplays, buttonBack;
+	private JTable savesTable;
+	private DefaultTableModel savesModel;
+	private SaveSummary[] saves = new SaveSummary[0];
+	
+	/**
+	 * Create the save browser panel: title, table of saves, and buttons.
+	 * @param titleFont
+	 * The font to use for the title
+	 * @param buttonFont
+	 * The font to use for the buttons
+	 * @param tableFont
+	 * The font to use for the table of saves
+	 */
+	public SaveBrowser(Font titleFont, Font buttonFont, Font tableFont) {
+		setLayout(null);
+		setSize(800, 600);
+		setVisible(false);
+		
+		JLabel title = new JLabel("Load Game");
+		title.setFont(titleFont);
+		title.setHorizontalAlignment(SwingConstants.CENTER);
+		title.setBounds(150, 20, 500, 70);
+		add(title);
+		
+		savesModel = new DefaultTableModel(new String[] {"Save", "Players", "Day", "Scores", "Saved"}, 0) {
+			private static final long serialVersionUID = 1L;
+			
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		savesTable = new JTable(savesModel);
+		savesTable.setFont(tableFont);
+		savesTable.setRowHeight(22);
+		savesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		savesTable.getColumnModel().getColumn(2).setMaxWidth(70);
+		JScrollPane savesScrollPane = new JScrollPane(savesTable);
+		savesScrollPane.setBounds(40, 100, 720, 400);
+		add(savesScrollPane);
+		
+		buttonLoad = new JButton("Load");
+		buttonLoad.setFont(buttonFont);
+		buttonLoad.setBounds(117, 520, 130, 40);
+		add(buttonLoad);
+		
+		buttonOtherFolder = new JButton("Other Folder...");
+		buttonOtherFolder.setFont(buttonFont);
+		buttonOtherFolder.setBounds(262, 520, 130, 40);
+		add(buttonOtherFolder);
+		
+		buttonReplays = new JButton("Replays...");
+		buttonReplays.setFont(buttonFont);
+		buttonReplays.setBounds(407, 520, 130, 40);
+		add(buttonReplays);
+		
+		buttonBack = new JButton("Back");
+		buttonBack.setFont(buttonFont);
+		buttonBack.setBounds(552, 520, 130, 40);
+		add(buttonBack);
+		
+		JLabel backgroundImage = new JLabel("");
+		backgroundImage.setIcon(ImageCache.getIcon("/images/menuBackground.png"));
+		backgroundImage.setBounds(0, 0, 800, 600);
+		add(backgroundImage);
+	}
+	
+	// Getters (GuiRunner must be able to access these buttons to add relevant ActionListeners to them)
+	public JButton getLoadButton() {
+		return buttonLoad;
+	}
+	
+	public JButton getOtherFolderButton() {
+		return buttonOtherFolder;
+	}
+	
+	public JButton getReplaysButton() {
+		return buttonReplays;
+	}
+	
+	public JButton getBackButton() {
+		return buttonBack;
+	}
+	// End Getters
+	
+	/**
+	 * Shows a list of saves in the table, replacing the saves shown before.
+	 * @param saves
+	 * The summaries of the saves to show, in the order to show them
+	 */
+	public void setSaves(SaveSummary[] saves) {
+		this.saves = saves;
+		savesModel.setRowCount(0);
+		DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+		for (SaveSummary save : saves) {
+			String players = String.join(", ", save.getPlayerNames());
+			StringBuilder scores = new StringBuilder();
+			for (int score : save.getScores())
+				scores.append((scores.length() == 0) ? "" : ", ").append(score);
+			if (save.getNumberOfPlayers() > save.getPlayerNames().length) {
+				players += ", ...";
+				scores.append(", ...");
+			}
+			savesModel.addRow(new Object[] {save.getFile().getName(), players,
+					save.getCurrentDay() + " of " + save.getNumberOfDays(), scores.toString(),
+					dateFormat.format(new Date(save.getTimestamp()))});
+		}
+		if (saves.length > 0)
+			savesTable.setRowSelectionInterval(0, 0);
+	}
+	
+	/**
+	 * Gets the save selected in the table.
+	 * @return
+	 * The summary of the selected save, or null if none is selected
+	 */
+	public SaveSummary getSelectedSave() {
+		int row = savesTable.getSelectedRow();
+		return (row < 0) ? null : saves[row];
+	}
+}
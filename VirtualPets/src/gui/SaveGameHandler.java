@@ -1,11 +1,12 @@
 package gui;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+
+import assetshandler.AssetRegistry;
+import saves.GameSnapshot;
+import saves.SaveJournal;
+import saves.SnapshotCodec;
 
 /**
  * A class with purely static methods for the purposes of reading and writing saved game files.
@@ -13,58 +14,34 @@ import java.io.ObjectInputStream;
  */
 public class SaveGameHandler {
 	/**
-	 * Writes the given game to a file by simply serializing it into byte form and storing it.
+	 * Writes the given game to a file as a snapshot of its players, pets and progress. None of the gui is saved.
 	 * @param game
 	 * The game to be saved in a file.
 	 * @param saveFile
 	 * The file to save the game in.
 	 * @throws IOException
-	 * An IOException may be thrown if the output stream is interrupted when writing the game to a file, 
-	 * or when closing the save game file fails unexpectedly.
+	 * An IOException may be thrown if writing the game to the file fails, or when closing the save game file fails
+	 * unexpectedly.
 	 */
 	public static void writeGameToFile(Game game, File saveFile) throws IOException {
-		ObjectOutputStream gameOut = null;
-		gameOut = new ObjectOutputStream(new FileOutputStream(saveFile));
-		gameOut.writeObject(game);
-		
-		if (gameOut != null) {
-			try {
-				gameOut.close();
-			}
-			catch (IOException e) {
-				System.err.println("Closing the save game file failed unexpectedly.");
-			}
-		}
+		SnapshotCodec.write(game.createSnapshot(), saveFile);
 	}
 	
 	/**
-	 * Reads the given game from a save file by reading it out of its byte form and making an object out of it.
+	 * Reads a snapshot of a game from a save file, which may be a snapshot or the base of a save journal.
 	 * @param saveFile
 	 * The file that the game is saved in.
+	 * @param assets
+	 * The assets loaded in the game, which give the saved pets, food and toys their icons.
 	 * @return
-	 * Returns a Game object to be used in resuming the game logic elsewhere.
+	 * Returns a snapshot of the saved game to be used in resuming the game logic elsewhere.
 	 * @throws IOException
-	 * May throw IOException when the input stream is interrupted while the game is being reading from the file, 
-	 * or when closing the save game file afterwards fails unexpectedly.
-	 * @throws ClassNotFoundException
-	 * May throw ClassNotFoundException if the Game object saved in the file contains objects of classes that
-	 * this version of the game does not recognise. Hence it may occur if new versions of the game with new
-	 * classes are released.
+	 * May throw IOException when reading the file fails, or when the file is not a saved game or was saved by a
+	 * version of the game with a different save format.
 	 */
-	public static Game readGameFromFile(File saveFile) throws IOException, ClassNotFoundException {
-		ObjectInputStream gameIn = null;
-		Game savedGame = null;
-		gameIn = new ObjectInputStream(new FileInputStream(saveFile));
-		savedGame = (Game) gameIn.readObject();
-
-		if (gameIn != null) {
-			try {
-				gameIn.close();
-			}
-			catch (IOException e) {
-				System.err.println("Closing the save game file failed unexpectedly.");
-			}
-		}
-		return savedGame;
+	public static GameSnapshot readGameFromFile(File saveFile, AssetRegistry assets) throws IOException {
+		if (SaveJournal.isJournalled(saveFile))
+			return SaveJournal.load(saveFile, assets);
+		return SnapshotCodec.read(saveFile, assets);
 	}
 }
@@ -0,0 +1,460 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Records every change made to a game's players and pets as a stream of fixed-width binary events, so that the state
+ * of the game at any point can be rebuilt by replaying the events onto the players as they were when recording began.
+ *
+ * Events are kept in a ring buffer allocated up front, so recording one never allocates. Logs which write to a file
+ * write the buffered events in one batch when the buffer fills up or is flushed; logs which do not keep only the most
+ * recent events. Logs can also write to a channel given to them, with no header, so their events can be kept as part
+ * of another file, such as a replay.
+ *
+ * Each event is EVENT_SIZE bytes: the event type and the indices of the player and pet it happened to, two arguments
+ * whose meaning depends on the type (e.g. the food type eaten, or the damage done to a toy) and a sequence number.
+ * Food and toy types are stored as indices into the game's types, whose names are written at the start of log files.
+ * @author Andrew Davidson (ada130)
+ */
+public class ActionLog {
+	public static final int EVENT_SIZE = 16;
+	private static final int MAGIC = 0x5650414C;
+	private static final int VERSION = 1;
+	
+	// Event types
+	static final int EAT = 1;
+	static final int PLAY = 2;
+	static final int SLEEP = 3;
+	static final int TOILET = 4;
+	static final int CURE = 5;
+	static final int DISCIPLINE = 6;
+	static final int REVIVE = 7;
+	static final int FINISH_TURN = 8;
+	static final int CHANGE_MONEY = 9;
+	static final int CHANGE_SCORE = 10;
+	static final int ADD_FOOD = 11;
+	static final int ADD_TOY = 12;
+	static final int FEED = 13;
+	static final int PLAY_WITH = 14;
+	
+	// Random events which happened when a pet finished its turn
+	static final int DIED = 1;
+	static final int GOT_SICK = 2;
+	static final int STARTED_MISBEHAVING = 4;
+	
+	// Pet index of events which happened to a player rather than one of its pets
+	private static final int NO_PET = 0xFF;
+	
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	
+	// Four ints per event, with event number n at (n % capacity)*4
+	private int[] events;
+	private int capacity;
+	private long recorded = 0;
+	private long written = 0;
+	
+	private WritableByteChannel channel;
+	private ByteBuffer buffer;
+	private IOException failure;
+	
+	/**
+	 * Creates a log which keeps the most recent events in memory.
+	 * @param foodTypes
+	 * The food types in the game.
+	 * @param toyTypes
+	 * The toy types in the game.
+	 * @param capacity
+	 * The number of events to keep.
+	 */
+	public ActionLog(FoodType[] foodTypes, ToyType[] toyTypes, int capacity) {
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		this.capacity = capacity;
+		events = new int[capacity*4];
+	}
+	
+	/**
+	 * Creates a log which writes every event to a file, replacing anything already in it.
+	 * @param file
+	 * The file to write to.
+	 * @param foodTypes
+	 * The food types in the game.
+	 * @param toyTypes
+	 * The toy types in the game.
+	 * @param capacity
+	 * The number of events to buffer before writing them to the file.
+	 * @throws IOException
+	 * If the file cannot be written.
+	 */
+	public ActionLog(File file, FoodType[] foodTypes, ToyType[] toyTypes, int capacity) throws IOException {
+		this(foodTypes, toyTypes, capacity);
+		RandomAccessFile out = new RandomAccessFile(file, "rw");
+		out.setLength(0);
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(foodTypes.length);
+			for (FoodType foodType : foodTypes)
+				out.writeUTF(foodType.getName());
+			out.writeInt(toyTypes.length);
+			for (ToyType toyType : toyTypes)
+				out.writeUTF(toyType.getName());
+		}
+		catch (IOException exc) {
+			out.close();
+			throw exc;
+		}
+		channel = out.getChannel();
+		buffer = ByteBuffer.allocateDirect(capacity*EVENT_SIZE);
+	}
+	
+	/**
+	 * Creates a log which writes every event to a channel, without the header a log file starts with. The food and
+	 * toy types must be recorded with the events by whoever reads them back, as events refer to them by index.
+	 * @param channel
+	 * The channel to write to.
+	 * @param foodTypes
+	 * The food types in the game.
+	 * @param toyTypes
+	 * The toy types in the game.
+	 * @param capacity
+	 * The number of events to buffer before writing them to the channel.
+	 */
+	public ActionLog(WritableByteChannel channel, FoodType[] foodTypes, ToyType[] toyTypes, int capacity) {
+		this(foodTypes, toyTypes, capacity);
+		this.channel = channel;
+		buffer = ByteBuffer.allocateDirect(capacity*EVENT_SIZE);
+	}
+	
+	// Getters
+	/**
+	 * Gets the number of events recorded since the log was created.
+	 */
+	public synchronized long getEventCount() {
+		return recorded;
+	}
+	// End Getters
+	
+	/**
+	 * Starts recording the changes made to players and their pets. Only one log can record a player at a time.
+	 * @param players
+	 * The players in the game, in turn order. The order must be the same when the events are replayed.
+	 */
+	public void attach(Player[] players) {
+		for (int i=0; i<players.length; i++) {
+			players[i].setActionLog(this, i << 8 | NO_PET);
+			Pet[] pets = players[i].getPets();
+			for (int j=0; j<pets.length; j++)
+				pets[j].setActionLog(this, i << 8 | j);
+		}
+	}
+	
+	/**
+	 * Stops recording the changes made to players and their pets.
+	 */
+	public static void detach(Player[] players) {
+		for (Player player : players) {
+			player.setActionLog(null, 0);
+			for (Pet pet : player.getPets())
+				pet.setActionLog(null, 0);
+		}
+	}
+	
+	/**
+	 * Gets the index of a food type in the game, or -1 if it is not one of the game's food types.
+	 */
+	int getIndex(FoodType foodType) {
+		for (int i=0; i<foodTypes.length; i++)
+			if (foodTypes[i] == foodType)
+				return i;
+		return -1;
+	}
+	
+	/**
+	 * Gets the index of a toy type in the game, or -1 if it is not one of the game's toy types.
+	 */
+	int getIndex(ToyType toyType) {
+		for (int i=0; i<toyTypes.length; i++)
+			if (toyTypes[i] == toyType)
+				return i;
+		return -1;
+	}
+	
+	/**
+	 * Records an event. If the buffer is full the buffered events are written to the file, or the oldest event is
+	 * dropped if there is no file or writing to it has failed.
+	 * @param type
+	 * The event type.
+	 * @param subject
+	 * The player and pet the event happened to, given when the log was attached.
+	 * @param first
+	 * The first argument of the event.
+	 * @param second
+	 * The second argument of the event.
+	 */
+	synchronized void record(int type, int subject, int first, int second) {
+		if (recorded - written == capacity) {
+			if (channel != null && failure == null) {
+				try {
+					write();
+				}
+				catch (IOException exc) {
+					failure = exc;
+				}
+			}
+			if (recorded - written == capacity)
+				written++;
+		}
+		int offset = (int)(recorded % capacity)*4;
+		events[offset] = type << 16 | subject;
+		events[offset+1] = first;
+		events[offset+2] = second;
+		events[offset+3] = (int)recorded;
+		recorded++;
+	}
+	
+	/**
+	 * Writes every buffered event to the log's file.
+	 * @throws IOException
+	 * If writing to the file fails, now or when the buffer last filled up.
+	 */
+	public synchronized void flush() throws IOException {
+		if (failure != null)
+			throw failure;
+		if (channel != null)
+			write();
+	}
+	
+	/**
+	 * Writes every buffered event to the log's file and closes it.
+	 * @throws IOException
+	 * If writing to the file fails, now or when the buffer last filled up.
+	 */
+	public synchronized void close() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			if (channel != null)
+				channel.close();
+		}
+	}
+	
+	private void write() throws IOException {
+		buffer.clear();
+		for (long event=written; event<recorded; event++) {
+			int offset = (int)(event % capacity)*4;
+			for (int i=0; i<4; i++)
+				buffer.putInt(events[offset+i]);
+		}
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		written = recorded;
+	}
+	
+	/**
+	 * Replays every event recorded onto the players as they were when the log was attached. The players must not have
+	 * a log attached.
+	 * @param players
+	 * The players to replay onto, in turn order.
+	 * @throws IllegalStateException
+	 * If some events are no longer buffered, or the events do not match the players.
+	 */
+	public synchronized void replay(Player[] players) {
+		if (written > 0)
+			throw new IllegalStateException("The first " + written + " events are no longer buffered.");
+		for (int event=0; event<recorded; event++)
+			apply(events[event*4], events[event*4+1], events[event*4+2], players, foodTypes, toyTypes);
+	}
+	
+	/**
+	 * Replays the events in a log file onto the players as they were when the log was attached. The players must not
+	 * have a log attached.
+	 * @param file
+	 * The log file.
+	 * @param players
+	 * The players to replay onto, in turn order.
+	 * @param foodTypes
+	 * The food types in the game, matched to those in the log by name.
+	 * @param toyTypes
+	 * The toy types in the game, matched to those in the log by name.
+	 * @return
+	 * The number of events replayed.
+	 * @throws IOException
+	 * If the file cannot be read, is not a log file, or refers to a food or toy type that is not in the game.
+	 * @throws IllegalStateException
+	 * If the events do not match the players.
+	 */
+	public static long replay(File file, Player[] players, FoodType[] foodTypes, ToyType[] toyTypes) throws IOException {
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file.getName() + " is not an action log.");
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException(file.getName() + " is version " + version + " of the action log format, expected version " + VERSION + ".");
+			
+			FoodType[] loggedFoodTypes = new FoodType[in.readInt()];
+			for (int i=0; i<loggedFoodTypes.length; i++) {
+				String name = in.readUTF();
+				for (FoodType foodType : foodTypes)
+					if (foodType.getName().equals(name))
+						loggedFoodTypes[i] = foodType;
+				if (loggedFoodTypes[i] == null)
+					throw new IOException("The log refers to the food type " + name + ", which is not in this game.");
+			}
+			ToyType[] loggedToyTypes = new ToyType[in.readInt()];
+			for (int i=0; i<loggedToyTypes.length; i++) {
+				String name = in.readUTF();
+				for (ToyType toyType : toyTypes)
+					if (toyType.getName().equals(name))
+						loggedToyTypes[i] = toyType;
+				if (loggedToyTypes[i] == null)
+					throw new IOException("The log refers to the toy type " + name + ", which is not in this game.");
+			}
+			
+			FileChannel channel = in.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(1024*EVENT_SIZE);
+			long event = 0;
+			while (channel.read(buffer) >= 0 || buffer.position() > 0) {
+				buffer.flip();
+				if (buffer.remaining() < EVENT_SIZE) {
+					if (channel.position() == channel.size())
+						throw new IOException(file.getName() + " ends part way through an event.");
+					buffer.compact();
+					continue;
+				}
+				while (buffer.remaining() >= EVENT_SIZE) {
+					int header = buffer.getInt();
+					int first = buffer.getInt();
+					int second = buffer.getInt();
+					if (buffer.getInt() != (int)event)
+						throw new IOException(file.getName() + " is missing events before event " + event + ".");
+					apply(header, first, second, players, loggedFoodTypes, loggedToyTypes);
+					event++;
+				}
+				buffer.compact();
+			}
+			return event;
+		}
+		finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Replays events written to a channel by a log onto the players as they were before the first of them. The players
+	 * must not have a log attached.
+	 * @param events
+	 * The events, from the buffer's position to its limit.
+	 * @param players
+	 * The players to replay onto, in turn order.
+	 * @param foodTypes
+	 * The food types the log was created with.
+	 * @param toyTypes
+	 * The toy types the log was created with.
+	 * @return
+	 * The number of events replayed.
+	 * @throws IOException
+	 * If the events end part way through an event, or some are missing.
+	 * @throws IllegalStateException
+	 * If the events do not match the players.
+	 */
+	public static int replay(ByteBuffer events, Player[] players, FoodType[] foodTypes, ToyType[] toyTypes) throws IOException {
+		if (events.remaining() % EVENT_SIZE != 0)
+			throw new IOException("The events end part way through an event.");
+		int first = events.hasRemaining() ? events.getInt(events.position() + 12) : 0;
+		int count = 0;
+		while (events.hasRemaining()) {
+			int header = events.getInt();
+			int firstArgument = events.getInt();
+			int secondArgument = events.getInt();
+			if (events.getInt() != first + count)
+				throw new IOException("Events are missing before event " + (first + count) + ".");
+			apply(header, firstArgument, secondArgument, players, foodTypes, toyTypes);
+			count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Applies an event to the player or pet it happened to.
+	 */
+	private static void apply(int header, int first, int second, Player[] players, FoodType[] foodTypes, ToyType[] toyTypes) {
+		int type = header >>> 16;
+		Player player = players[header >> 8 & 0xFF];
+		int petIndex = header & 0xFF;
+		Pet pet = (petIndex == NO_PET) ? null : player.getPets()[petIndex];
+		switch (type) {
+		case EAT:
+			pet.eat(foodTypes[first]);
+			break;
+		case PLAY:
+			RandomSource random = pet.getRandomSource();
+			pet.setRandomSource(new ScriptedRandom(second));
+			pet.play(new Toy(toyTypes[first]));
+			pet.setRandomSource(random);
+			break;
+		case SLEEP:
+			pet.sleep();
+			break;
+		case TOILET:
+			pet.goToToilet();
+			break;
+		case CURE:
+			pet.cure();
+			break;
+		case DISCIPLINE:
+			pet.discipline();
+			break;
+		case REVIVE:
+			pet.revive();
+			break;
+		case FINISH_TURN:
+			// Force the same random events by scripting each roll the pet makes to succeed or fail
+			int[] draws = new int[3];
+			int count = 0;
+			draws[count++] = ((first & DIED) != 0) ? 0 : 99;
+			if ((first & DIED) == 0 && pet.isHealthy())
+				draws[count++] = ((first & GOT_SICK) != 0) ? 0 : 99;
+			if ((first & DIED) == 0 && pet.isBehaving())
+				draws[count++] = ((first & STARTED_MISBEHAVING) != 0) ? 0 : 99;
+			random = pet.getRandomSource();
+			pet.setRandomSource(new ScriptedRandom(draws));
+			int score = pet.finishTurn();
+			pet.setRandomSource(random);
+			if (score != second)
+				throw new IllegalStateException(pet.getName() + " scored " + score + " when replayed, but " + second + " was recorded.");
+			break;
+		case CHANGE_MONEY:
+			player.changeMoney(first);
+			break;
+		case CHANGE_SCORE:
+			player.changeScore(first);
+			break;
+		case ADD_FOOD:
+			player.addFood(foodTypes[first]);
+			break;
+		case ADD_TOY:
+			player.addToy(new Toy(toyTypes[first], second));
+			break;
+		case FEED:
+			// The pet eating is recorded separately
+			player.removeFood(foodTypes[second]);
+			break;
+		case PLAY_WITH:
+			// The pet playing is recorded separately
+			player.damageToy(first, second);
+			break;
+		default:
+			throw new IllegalStateException("Unknown event type " + type + ".");
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Builds the keys species, food types and toy types are identified by in saved games: the asset's name, then a hash of
+ * its name and attributes. Two assets have the same key exactly when they behave the same way in the game, whatever
+ * their icons look like.
+ * @author Andrew Davidson (ada130)
+ */
+class AssetKeys {
+	/**
+	 * Builds the key for an asset.
+	 * @param name
+	 * The asset's name.
+	 * @param attributes
+	 * The asset's attributes, in a fixed order.
+	 * @return
+	 * The name, a '#', then the hash as eight hexadecimal digits.
+	 */
+	static String of(String name, int... attributes) {
+		CRC32 crc = new CRC32();
+		crc.update(name.getBytes(StandardCharsets.UTF_8));
+		for (int attribute : attributes)
+			for (int shift=24; shift>=0; shift-=8)
+				crc.update(attribute >>> shift);
+		return name + "#" + String.format("%08x", crc.getValue());
+	}
+}
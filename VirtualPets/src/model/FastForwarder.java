@@ -0,0 +1,302 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skips idle pets forward a number of days at once, as if their turns had been finished that many times with nothing
+ * done to them in between. Can either give the exact distribution of states a pet could be in after those days, or
+ * move a pet into one sampled state.
+ *
+ * An idle pet's next state depends only on its current state and the random events rolled for it, so the transition
+ * from each state is worked out once, by finishing the turn of a pet in that state with each combination of events,
+ * and cached for its species. Pets soon settle into a state which never changes, as they starve and run out of
+ * energy and die, so skipping stops as soon as every possible state has settled and the rest of the days are added
+ * on at once. The transitions are shared by every pet of the same species and can be used from any number of threads.
+ * @author Andrew Davidson (ada130)
+ */
+public class FastForwarder {
+	// Layout of a pet's state packed into a long: four 12 bit stats, then action points and the status flags
+	private static final int STAT_BITS = 12;
+	private static final int STAT_MAX = (1 << STAT_BITS) - 1;
+	private static final int HUNGER_SHIFT = 0;
+	private static final int ENERGY_SHIFT = 12;
+	private static final int HAPPINESS_SHIFT = 24;
+	private static final int WEIGHT_SHIFT = 36;
+	private static final int ACTION_POINTS_SHIFT = 48;
+	private static final int FLAGS_SHIFT = 56;
+	private static final long HEALTHY = 1L << FLAGS_SHIFT;
+	private static final long BEHAVING = 2L << FLAGS_SHIFT;
+	private static final long ALIVE = 4L << FLAGS_SHIFT;
+	private static final long REVIVABLE = 8L << FLAGS_SHIFT;
+	
+	// Index of the state reached by dying in a transition's next states, with the states reached by surviving after it
+	private static final int DIED = 0;
+	private static final int SURVIVED = 1;
+	private static final int GOT_SICK = 1;
+	private static final int STARTED_MISBEHAVING = 2;
+	
+	private ConcurrentHashMap<Species, ConcurrentHashMap<Long, Transition>> transitions = new ConcurrentHashMap<Species, ConcurrentHashMap<Long, Transition>>();
+	
+	/**
+	 * Works out every state a pet could be in after finishing its turn the given number of times, and how likely
+	 * each one is. The pet itself is not changed.
+	 * @param pet
+	 * The pet to skip forward.
+	 * @param days
+	 * The number of turns to finish.
+	 * @return
+	 * The possible states of the pet, with the score the pet is expected to get over those days.
+	 */
+	public StateDistribution forecast(Pet pet, int days) {
+		Species species = pet.getSpecies();
+		HashMap<Long, Double> distribution = new HashMap<Long, Double>();
+		distribution.put(pack(pet), 1.0);
+		double expectedScore = 0;
+		
+		for (int day=0; day<days; day++) {
+			HashMap<Long, Double> next = new HashMap<Long, Double>();
+			double dayScore = 0;
+			boolean settled = true;
+			for (Map.Entry<Long, Double> entry : distribution.entrySet()) {
+				Transition transition = getTransition(species, entry.getKey());
+				double probability = entry.getValue();
+				dayScore += probability * transition.score;
+				settled &= transition.settled;
+				
+				for (int outcome=0; outcome<transition.next.length; outcome++) {
+					double outcomeProbability = probability * transition.getProbability(outcome);
+					if (outcomeProbability > 0) {
+						Double existing = next.get(transition.next[outcome]);
+						next.put(transition.next[outcome], existing == null ? outcomeProbability : existing + outcomeProbability);
+					}
+				}
+			}
+			expectedScore += dayScore;
+			distribution = next;
+			
+			// Once nothing can change any more, every remaining day scores the same as this one
+			if (settled) {
+				expectedScore += dayScore * (days - day - 1);
+				break;
+			}
+		}
+		
+		long[] states = new long[distribution.size()];
+		double[] probabilities = new double[distribution.size()];
+		int i = 0;
+		for (Map.Entry<Long, Double> entry : distribution.entrySet()) {
+			states[i] = entry.getKey();
+			probabilities[i] = entry.getValue();
+			i++;
+		}
+		return new StateDistribution(pet, states, probabilities, expectedScore);
+	}
+	
+	/**
+	 * Finishes a pet's turn the given number of times, drawing its random events from its own random source. Random
+	 * numbers are drawn in exactly the same way as Pet.finishTurn draws them, so this leaves the pet and its random
+	 * source in exactly the same state as calling finishTurn that many times would. Once the pet has died no more
+	 * random numbers are drawn, so the remaining days are skipped at once.
+	 * @param pet
+	 * The pet to skip forward.
+	 * @param days
+	 * The number of turns to finish.
+	 * @return
+	 * The total score the pet got over those days.
+	 */
+	public int skipDays(Pet pet, int days) {
+		Species species = pet.getSpecies();
+		RandomSource random = pet.getRandomSource();
+		long state = pack(pet);
+		int score = 0;
+		
+		for (int day=0; day<days; day++) {
+			// Dead pets score nothing and draw no random numbers, so there is nothing left to do
+			if ((state & ALIVE) == 0)
+				break;
+			Transition transition = getTransition(species, state);
+			score += transition.score;
+			
+			if (random.nextInt(0, 100) < transition.deathChance)
+				state = transition.next[DIED];
+			else {
+				int outcome = SURVIVED;
+				if (transition.sicknessChance >= 0 && random.nextInt(0, 100) < transition.sicknessChance)
+					outcome += GOT_SICK;
+				if (transition.misbehavingChance >= 0 && random.nextInt(0, 100) < transition.misbehavingChance)
+					outcome += STARTED_MISBEHAVING;
+				state = transition.next[outcome];
+			}
+		}
+		
+		pet.setState((state & HEALTHY) != 0, (state & BEHAVING) != 0, (state & ALIVE) != 0, (state & REVIVABLE) != 0,
+				getStat(state, HUNGER_SHIFT), getStat(state, ENERGY_SHIFT), getStat(state, HAPPINESS_SHIFT),
+				getStat(state, WEIGHT_SHIFT), getActionPoints(state));
+		return score;
+	}
+	
+	/**
+	 * Gets the transition from a state for a species, working it out if it has not been cached yet. If two threads
+	 * work out the same transition at once they get identical results, so it does not matter which one is kept.
+	 */
+	private Transition getTransition(Species species, long state) {
+		ConcurrentHashMap<Long, Transition> speciesTransitions = transitions.get(species);
+		if (speciesTransitions == null) {
+			speciesTransitions = new ConcurrentHashMap<Long, Transition>();
+			ConcurrentHashMap<Long, Transition> existing = transitions.putIfAbsent(species, speciesTransitions);
+			if (existing != null)
+				speciesTransitions = existing;
+		}
+		
+		Transition transition = speciesTransitions.get(state);
+		if (transition == null) {
+			transition = new Transition(species, state);
+			speciesTransitions.putIfAbsent(state, transition);
+		}
+		return transition;
+	}
+	
+	/**
+	 * Packs the state of a pet into a long.
+	 * @param pet
+	 * The pet to pack.
+	 * @return
+	 * The packed state.
+	 * @throws IllegalArgumentException
+	 * If one of the pet's stats is too large to be packed.
+	 */
+	static long pack(Pet pet) {
+		int[] stats = {pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight()};
+		for (int stat : stats)
+			if (stat < 0 || stat > STAT_MAX)
+				throw new IllegalArgumentException("Pet '" + pet.getName() + "' has a stat of " + stat + ", which cannot be skipped forward.");
+		if (pet.getActionPoints() < Byte.MIN_VALUE || pet.getActionPoints() > Byte.MAX_VALUE)
+			throw new IllegalArgumentException("Pet '" + pet.getName() + "' has " + pet.getActionPoints() + " action points, which cannot be skipped forward.");
+		
+		long state = (long)pet.getHunger() << HUNGER_SHIFT | (long)pet.getEnergy() << ENERGY_SHIFT
+				| (long)pet.getHappiness() << HAPPINESS_SHIFT | (long)pet.getWeight() << WEIGHT_SHIFT
+				| (long)(pet.getActionPoints() & 0xFF) << ACTION_POINTS_SHIFT;
+		if (pet.isHealthy())
+			state |= HEALTHY;
+		if (pet.isBehaving())
+			state |= BEHAVING;
+		if (pet.isAlive())
+			state |= ALIVE;
+		if (pet.isRevivable())
+			state |= REVIVABLE;
+		return state;
+	}
+	
+	/**
+	 * Creates a pet in a packed state.
+	 * @param state
+	 * The packed state.
+	 * @param pet
+	 * The pet to take the name, species and favourites from.
+	 * @return
+	 * A new pet in the state.
+	 */
+	static Pet unpack(long state, Pet pet) {
+		return new Pet(pet.getName(), pet.getSpecies(), (state & HEALTHY) != 0, (state & BEHAVING) != 0,
+				(state & ALIVE) != 0, (state & REVIVABLE) != 0, getStat(state, HUNGER_SHIFT), getStat(state, ENERGY_SHIFT),
+				getStat(state, HAPPINESS_SHIFT), getStat(state, WEIGHT_SHIFT), getActionPoints(state),
+				pet.getFavouriteToy(), pet.getFavouriteFood());
+	}
+	
+	/**
+	 * Checks whether a pet is alive in a packed state.
+	 */
+	static boolean isAlive(long state) {
+		return (state & ALIVE) != 0;
+	}
+	
+	private static int getStat(long state, int shift) {
+		return (int)(state >>> shift) & STAT_MAX;
+	}
+	
+	private static int getActionPoints(long state) {
+		return (byte)(state >>> ACTION_POINTS_SHIFT);
+	}
+	
+	/**
+	 * The result of finishing the turn of an idle pet in one state: the score it gets, the chance of each random event,
+	 * and the state it ends up in for each combination of events.
+	 */
+	private static class Transition {
+		private int score;
+		private int deathChance;
+		// The chances of getting sick and starting to misbehave, or -1 if there is no roll for them
+		private int sicknessChance = -1;
+		private int misbehavingChance = -1;
+		// The state reached by dying, then by surviving with each combination of getting sick and starting to misbehave
+		private long[] next = new long[5];
+		// Whether the state is certain to stay the same forever
+		private boolean settled;
+		
+		Transition(Species species, long state) {
+			Pet pet = new Pet(null, species, (state & HEALTHY) != 0, (state & BEHAVING) != 0, (state & ALIVE) != 0,
+					(state & REVIVABLE) != 0, getStat(state, HUNGER_SHIFT), getStat(state, ENERGY_SHIFT),
+					getStat(state, HAPPINESS_SHIFT), getStat(state, WEIGHT_SHIFT), getActionPoints(state), null, null);
+			if (!pet.isAlive()) {
+				// Dead pets score nothing and never change
+				Arrays.fill(next, state);
+				settled = true;
+				return;
+			}
+			
+			deathChance = RiskForecaster.getDeathChance(species, pet.getEnergy(), pet.getWeight());
+			if (pet.isHealthy())
+				sicknessChance = RiskForecaster.getSicknessChance(species, pet.getHunger(), pet.getEnergy(), pet.getWeight());
+			if (pet.isBehaving())
+				misbehavingChance = RiskForecaster.getMisbehavingChance(pet.getHunger(), pet.getHappiness());
+			
+			// Finish the turn of a copy of the pet with random numbers chosen to cause each possible combination of events
+			for (int outcome=0; outcome<next.length; outcome++) {
+				if (getProbability(outcome) == 0)
+					continue;
+				boolean died = outcome == DIED;
+				boolean sick = !died && ((outcome - SURVIVED) & GOT_SICK) != 0;
+				boolean misbehaving = !died && ((outcome - SURVIVED) & STARTED_MISBEHAVING) != 0;
+				
+				int[] draws = new int[3];
+				int count = 0;
+				draws[count++] = died ? 0 : 99;
+				if (!died && sicknessChance >= 0)
+					draws[count++] = sick ? 0 : 99;
+				if (!died && misbehavingChance >= 0)
+					draws[count++] = misbehaving ? 0 : 99;
+				
+				Pet copy = unpack(state, pet);
+				copy.setRandomSource(new ScriptedRandom(draws));
+				score = copy.finishTurn();
+				next[outcome] = pack(copy);
+				if (getProbability(outcome) == 1 && next[outcome] == state)
+					settled = true;
+			}
+		}
+		
+		/**
+		 * Gets the probability of one of the combinations of events.
+		 * @param outcome
+		 * The index of the combination in next.
+		 * @return
+		 * The probability of the combination, from 0 to 1.
+		 */
+		double getProbability(int outcome) {
+			if (outcome == DIED)
+				return deathChance / 100.0;
+			int events = outcome - SURVIVED;
+			return (100 - deathChance) / 100.0 * getProbability(sicknessChance, (events & GOT_SICK) != 0)
+					* getProbability(misbehavingChance, (events & STARTED_MISBEHAVING) != 0);
+		}
+		
+		private static double getProbability(int chance, boolean happens) {
+			if (chance < 0)
+				return happens ? 0 : 1;
+			return (happens ? chance : 100 - chance) / 100.0;
+		}
+	}
+}
@@ -11,11 +11,12 @@ public class FoodType implements Serializable, Comparable<FoodType> {
 	private static final long serialVersionUID = 1L;
 	
 	private String name;
-	private ImageIcon icon;
+	private transient ImageIcon icon;
 	private int price;
 	private int nutrition;
 	private int tastiness;
 	private int weight;
+	private transient String key;
 	
 	/**
 	 * Initialises all variables used by a FoodType instance.
@@ -68,6 +69,17 @@ public class FoodType implements Serializable, Comparable<FoodType> {
 	}
 	// End Getters
 	
+	/**
+	 * Gets the key this food type is identified by in saved games, made up of its name and a hash of its attributes.
+	 * @return
+	 * The key, which is the same for every food type with the same name and attributes.
+	 */
+	public String getKey() {
+		if (key == null)
+			key = AssetKeys.of(name, price, nutrition, tastiness, weight);
+		return key;
+	}
+	
 	/**
 	 * Facilitates ordering of FoodTypes based on alphabetical order of name.
 	 */
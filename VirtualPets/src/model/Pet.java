@@ -1,7 +1,6 @@
 package model;
 
 import java.io.Serializable;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Instances of this class represent a pet. The pet has a species and name, and has attributes
@@ -30,6 +29,12 @@ public class Pet implements Serializable {
 	private ToyType favouriteToy;
 	private FoodType favouriteFood;
 	
+	private RandomSource random;
+	
+	// The log recording this pet's actions, if any, and which player's pet this is in it
+	private transient ActionLog log;
+	private transient int logSubject;
+	
 	/**
 	 * Initialises all variables used by a pet instance.
 	 * @param name
@@ -150,6 +155,17 @@ public class Pet implements Serializable {
 	public FoodType getFavouriteFood() {
 		return favouriteFood;
 	}
+	
+	/**
+	 * Gets the source of this pet's random events.
+	 * @return
+	 * The random source given to this pet, or an unseeded source if none has been given.
+	 */
+	public RandomSource getRandomSource() {
+		if (random == null)
+			return ThreadLocalRandomSource.INSTANCE;
+		return random;
+	}
 	// End Getters
 	
 	// Private variable modifiers
@@ -183,6 +199,41 @@ public class Pet implements Serializable {
 		this.favouriteFood = food;
 	}
 	
+	/**
+	 * Sets the source this pet draws its random events from (getting sick, misbehaving, dying and damaging toys).
+	 * The source is saved along with the pet, so it should be serializable if the game is to be saved.
+	 * @param random
+	 * The random source to use, generally split from the game's seeded source. Null to use an unseeded source.
+	 */
+	public void setRandomSource(RandomSource random) {
+		this.random = random;
+	}
+	
+	/**
+	 * Sets the log to record this pet's actions in. Set by ActionLog when it is attached to the pet's owner.
+	 */
+	void setActionLog(ActionLog log, int subject) {
+		this.log = log;
+		this.logSubject = subject;
+	}
+	
+	/**
+	 * Sets every status attribute and stat of the pet at once. Used by FastForwarder to move a pet straight to the
+	 * state it is in after a number of turns.
+	 */
+	void setState(boolean healthy, boolean behaving, boolean alive, boolean revivable, int hunger, int energy,
+			int happiness, int weight, int actionPoints) {
+		this.healthy = healthy;
+		this.behaving = behaving;
+		this.alive = alive;
+		this.revivable = revivable;
+		this.hunger = hunger;
+		this.energy = energy;
+		this.happiness = happiness;
+		this.weight = weight;
+		this.actionPoints = actionPoints;
+	}
+	
 	/**
 	 * Changes the hunger level of the pet.
 	 * @param amount
@@ -268,6 +319,8 @@ public class Pet implements Serializable {
 		if (food == favouriteFood)
 			changeHappiness(food.getTastiness()/2);
 		actionPoints -= 1;
+		if (log != null)
+			log.record(ActionLog.EAT, logSubject, log.getIndex(food), 0);
 	}
 	
 	/**
@@ -278,13 +331,16 @@ public class Pet implements Serializable {
 	 * The toy to be played with
 	 */
 	public void play(Toy toy) {
-		toy.changeDurability(-species.genToyDamage());
+		int damage = species.genToyDamage(getRandomSource());
+		toy.changeDurability(-damage);
 		changeHappiness(toy.getToyType().getHappinessGain());
 		changeEnergy(-10);
 		changeHunger(5);
 		if (toy.getToyType() == favouriteToy)
 			changeHappiness(toy.getToyType().getHappinessGain()/2);
 		actionPoints -= 1;
+		if (log != null)
+			log.record(ActionLog.PLAY, logSubject, log.getIndex(toy.getToyType()), damage);
 	}
 	
 	/**
@@ -293,6 +349,8 @@ public class Pet implements Serializable {
 	public void goToToilet() {
 		changeWeight(-(int)Math.round(((double)species.getOptimumWeight()/6)), false);
 		actionPoints -= 1;
+		if (log != null)
+			log.record(ActionLog.TOILET, logSubject, 0, 0);
 	}
 	
 	/**
@@ -301,6 +359,8 @@ public class Pet implements Serializable {
 	public void sleep() {
 		changeEnergy(30);
 		actionPoints -= 1;
+		if (log != null)
+			log.record(ActionLog.SLEEP, logSubject, 0, 0);
 	}
 	
 	/**
@@ -311,6 +371,8 @@ public class Pet implements Serializable {
 		healthy = true;
 		changeHappiness(20);
 		actionPoints -= 1;
+		if (log != null)
+			log.record(ActionLog.CURE, logSubject, 0, 0);
 	}
 	
 	/**
@@ -320,6 +382,8 @@ public class Pet implements Serializable {
 		behaving = true;
 		changeHappiness(-30);
 		actionPoints -= 1;
+		if (log != null)
+			log.record(ActionLog.DISCIPLINE, logSubject, 0, 0);
 	}
 	
 	/**
@@ -335,6 +399,8 @@ public class Pet implements Serializable {
 		healthy = true;
 		behaving = true;
 		alive = true;
+		if (log != null)
+			log.record(ActionLog.REVIVE, logSubject, 0, 0);
 	}
 	
 	// End pet actions
@@ -377,15 +443,18 @@ public class Pet implements Serializable {
 				score -= 50;
 			
 			//Generate random events - if stats are sufficiently low, pet may get sick, start to misbehave, or die
+			RandomSource random = getRandomSource();
 			double optWeight = species.getOptimumWeight();
 			int chance = 0;
+			int events = 0;
 			
 			//Chance to die
 			if (energy < 10)
 				chance += (10-energy)*10;
 			if (Math.abs(weight-optWeight) > optWeight/2)
 				chance += ((double)Math.abs(weight-optWeight) - optWeight/2)/(optWeight/6)*100;
-			if (ThreadLocalRandom.current().nextInt(0, 100) < chance) {
+			if (random.nextInt(0, 100) < chance) {
+				events |= ActionLog.DIED;
 				alive = false;
 				behaving = true;
 				healthy = true;
@@ -406,7 +475,8 @@ public class Pet implements Serializable {
 						chance += (30-energy)*10;
 					if (Math.abs(weight-optWeight) > optWeight/3)
 						chance += ((double)Math.abs(weight-optWeight) - optWeight/3)/(optWeight/6)*100;
-					if (ThreadLocalRandom.current().nextInt(0, 100) < chance) {
+					if (random.nextInt(0, 100) < chance) {
+						events |= ActionLog.GOT_SICK;
 						healthy = false;
 					}
 				}
@@ -418,7 +488,8 @@ public class Pet implements Serializable {
 						chance += (90-hunger)*5;
 					if (happiness < 40)
 						chance += (40-happiness)*5;
-					if (ThreadLocalRandom.current().nextInt(0, 100) < chance) {
+					if (random.nextInt(0, 100) < chance) {
+						events |= ActionLog.STARTED_MISBEHAVING;
 						behaving = false;
 					}
 				}
@@ -446,6 +517,8 @@ public class Pet implements Serializable {
 				if (!behaving)
 					changeHappiness(-20);
 			}
+			if (log != null)
+				log.record(ActionLog.FINISH_TURN, logSubject, events, score);
 			return score;
 		}
 		//Dead pets generate no score
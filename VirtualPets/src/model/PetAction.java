@@ -0,0 +1,30 @@
+package model;
+
+/**
+ * The actions a player can take with a pet during their turn, as well as ending the turn.
+ * @author Andrew Davidson (ada130)
+ */
+public enum PetAction {
+	FEED("Feed"),
+	PLAY("Play"),
+	SLEEP("Rest"),
+	TOILET("Toilet"),
+	CURE("Cure"),
+	DISCIPLINE("Discipline"),
+	REVIVE("Revive"),
+	END_TURN("End turn");
+	
+	private String label;
+	
+	private PetAction(String label) {
+		this.label = label;
+	}
+	
+	/**
+	 * @return
+	 * The name of the action as shown on its button in the game.
+	 */
+	public String getLabel() {
+		return label;
+	}
+}
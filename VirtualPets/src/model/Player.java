@@ -11,6 +11,10 @@ import java.util.HashMap;
 public class Player implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	// The amounts charged to a player for curing and reviving a pet
+	public static final int CURE_COST = 50;
+	public static final int REVIVE_COST = 100;
+	
 	private String name;
 	
 	private Pet[] pets;
@@ -19,7 +23,11 @@ public class Player implements Serializable {
 	
 	private int money;
 	private int score = 0;
+	private boolean computer = false;
 	
+	// The log recording this player's actions, if any, and which player this is in it
+	private transient ActionLog log;
+	private transient int logSubject;
 	
 	/**
 	 * Initialises a new Player instance with the given name and array of pets.
@@ -93,8 +101,29 @@ public class Player implements Serializable {
 	public int getScore() {
 		return this.score;
 	}
+	
+	public boolean isComputer() {
+		return this.computer;
+	}
 	// End Getters
 	
+	/**
+	 * Sets whether the player's turns are taken by the computer.
+	 * @param computer
+	 * True if the computer plays for this player, false if a person does.
+	 */
+	public void setComputer(boolean computer) {
+		this.computer = computer;
+	}
+	
+	/**
+	 * Sets the log to record this player's actions in. Set by ActionLog when it is attached to the player.
+	 */
+	void setActionLog(ActionLog log, int subject) {
+		this.log = log;
+		this.logSubject = subject;
+	}
+	
 	/**
 	 * Changes the amount of money the player has by a given amount.
 	 * @param amount
@@ -102,6 +131,8 @@ public class Player implements Serializable {
 	 */
 	public void changeMoney(int amount) {
 		money += amount;
+		if (log != null)
+			log.record(ActionLog.CHANGE_MONEY, logSubject, amount, 0);
 	}
 	
 	/**
@@ -111,6 +142,8 @@ public class Player implements Serializable {
 	 */
 	public void changeScore(int value) {
 		score += value;
+		if (log != null)
+			log.record(ActionLog.CHANGE_SCORE, logSubject, value, 0);
 	}
 	
 	/**
@@ -123,6 +156,8 @@ public class Player implements Serializable {
 			food.put(foodToAdd, food.get(foodToAdd) + 1);
 		else
 			food.put(foodToAdd, 1);
+		if (log != null)
+			log.record(ActionLog.ADD_FOOD, logSubject, log.getIndex(foodToAdd), 0);
 	}
 
 	/**
@@ -132,6 +167,8 @@ public class Player implements Serializable {
 	 */
 	public void addToy(Toy toy) {
 		toys.add(toy);
+		if (log != null)
+			log.record(ActionLog.ADD_TOY, logSubject, log.getIndex(toy.getToyType()), toy.getDurability());
 	}
 	
 	/**
@@ -143,6 +180,15 @@ public class Player implements Serializable {
 	 */
 	public void feed(Pet pet, FoodType foodType) {
 		pet.eat(foodType);
+		removeFood(foodType);
+		if (log != null)
+			log.record(ActionLog.FEED, logSubject, getPetIndex(pet), log.getIndex(foodType));
+	}
+	
+	/**
+	 * Removes one copy of the given food from the player's inventory.
+	 */
+	void removeFood(FoodType foodType) {
 		food.put(foodType, food.get(foodType)-1);
 		if (food.get(foodType) == 0)
 			food.remove(foodType);
@@ -158,11 +204,34 @@ public class Player implements Serializable {
 	 * True if the toy does not break, false otherwise
 	 */
 	public boolean playWith(Pet pet, Toy toy) {
+		int durability = toy.getDurability();
 		pet.play(toy);
+		if (log != null)
+			log.record(ActionLog.PLAY_WITH, logSubject, toys.indexOf(toy), durability - toy.getDurability());
 		if (toy.getDurability() <= 0) {
 			toys.remove(toy);
 			return false;
 		}
 		return true;
 	}
+	
+	/**
+	 * Damages the toy at an index in the player's inventory, removing it if it breaks.
+	 */
+	void damageToy(int index, int damage) {
+		Toy toy = toys.get(index);
+		toy.changeDurability(-damage);
+		if (toy.getDurability() <= 0)
+			toys.remove(index);
+	}
+	
+	/**
+	 * Gets the index of one of the player's pets.
+	 */
+	private int getPetIndex(Pet pet) {
+		for (int i=0; i<pets.length; i++)
+			if (pets[i] == pet)
+				return i;
+		return -1;
+	}
 }
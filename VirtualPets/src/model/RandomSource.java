@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * A source of random numbers for the model. Random events (pets becoming sick, misbehaving or dying, and the damage pets
+ * do to toys) draw from a RandomSource rather than a global generator, so that a game seeded with the same source plays
+ * out identically every time, regardless of which thread runs it.
+ * Implementations need not be thread safe - each thread or pet should be given its own source using split.
+ * @author Andrew Davidson (ada130)
+ */
+public interface RandomSource {
+	/**
+	 * Generates a random integer in the given range.
+	 * @param origin
+	 * The smallest value that may be returned.
+	 * @param bound
+	 * One more than the largest value that may be returned. Must be greater than origin.
+	 * @return
+	 * A random integer between origin (inclusive) and bound (exclusive).
+	 */
+	public int nextInt(int origin, int bound);
+	
+	/**
+	 * Creates a new, independent source from this one. Splitting the same source in the same order always produces
+	 * the same new sources, so a source may be split once per pet or per worker thread without losing reproducibility.
+	 * @return
+	 * A new RandomSource which shares no state with this one.
+	 */
+	public RandomSource split();
+}
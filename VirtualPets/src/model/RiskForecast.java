@@ -0,0 +1,48 @@
+package model;
+
+/**
+ * A forecast of the end of a pet's turn, made by RiskForecaster.
+ * @author Andrew Davidson (ada130)
+ */
+public class RiskForecast {
+	private int deathChance;
+	private int sicknessChance;
+	private int misbehavingChance;
+	private int score;
+	
+	/**
+	 * Creates a new forecast.
+	 * @param deathChance
+	 * The percentage chance of the pet dying.
+	 * @param sicknessChance
+	 * The percentage chance of the pet getting sick if it does not die, or 0 if it is already sick.
+	 * @param misbehavingChance
+	 * The percentage chance of the pet starting to misbehave if it does not die, or 0 if it is already misbehaving.
+	 * @param score
+	 * The score the pet will get.
+	 */
+	public RiskForecast(int deathChance, int sicknessChance, int misbehavingChance, int score) {
+		this.deathChance = deathChance;
+		this.sicknessChance = sicknessChance;
+		this.misbehavingChance = misbehavingChance;
+		this.score = score;
+	}
+	
+	// Getters
+	public int getDeathChance() {
+		return deathChance;
+	}
+	
+	public int getSicknessChance() {
+		return sicknessChance;
+	}
+	
+	public int getMisbehavingChance() {
+		return misbehavingChance;
+	}
+	
+	public int getScore() {
+		return score;
+	}
+	// End Getters
+}
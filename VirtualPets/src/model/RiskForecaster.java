@@ -0,0 +1,239 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forecasts what will happen to a pet when its turn is finished, without rolling any random events. The chances are
+ * calculated in exactly the same way as in Pet.finishTurn, including how fractional chances are truncated, so each
+ * forecast chance is exactly the probability of that event happening.
+ *
+ * Each chance is made up of independent parts for hunger, energy, happiness and weight. The parts for hunger, energy
+ * and happiness do not depend on the species, so are tabulated once for every stat value. The weight parts depend
+ * only on the species' optimum weight, so are tabulated the first time a species with that optimum weight is
+ * forecast and then cached. Every forecast is then a few table lookups, and the tables are never modified once built
+ * so forecasts can be made from any number of threads at once.
+ * @author Andrew Davidson (ada130)
+ */
+public class RiskForecaster {
+	// Parts of each chance which depend on a single stat, indexed by the value of the stat from 0 to 100
+	private static final int[] DEATH_BY_ENERGY = new int[101];
+	private static final int[] SICKNESS_BY_HUNGER = new int[101];
+	private static final int[] SICKNESS_BY_ENERGY = new int[101];
+	private static final int[] MISBEHAVING_BY_HUNGER = new int[101];
+	private static final int[] MISBEHAVING_BY_HAPPINESS = new int[101];
+	
+	// Weight tables, keyed by optimum weight
+	private static final ConcurrentHashMap<Integer, WeightTable> weightTables = new ConcurrentHashMap<Integer, WeightTable>();
+	
+	static {
+		for (int stat=0; stat<=100; stat++) {
+			DEATH_BY_ENERGY[stat] = deathByEnergy(stat);
+			SICKNESS_BY_HUNGER[stat] = sicknessByHunger(stat);
+			SICKNESS_BY_ENERGY[stat] = sicknessByEnergy(stat);
+			MISBEHAVING_BY_HUNGER[stat] = misbehavingByHunger(stat);
+			MISBEHAVING_BY_HAPPINESS[stat] = misbehavingByHappiness(stat);
+		}
+	}
+	
+	/**
+	 * Forecasts the end of a pet's turn from its current state.
+	 * @param pet
+	 * The pet to forecast.
+	 * @return
+	 * The chance of each random event and the score the pet will get.
+	 */
+	public static RiskForecast forecast(Pet pet) {
+		if (!pet.isAlive())
+			return new RiskForecast(0, 0, 0, 0);
+		Species species = pet.getSpecies();
+		int hunger = pet.getHunger(), energy = pet.getEnergy(), happiness = pet.getHappiness(), weight = pet.getWeight();
+		return new RiskForecast(getDeathChance(species, energy, weight),
+				pet.isHealthy() ? getSicknessChance(species, hunger, energy, weight) : 0,
+				pet.isBehaving() ? getMisbehavingChance(hunger, happiness) : 0,
+				getScore(species, pet.isHealthy(), pet.isBehaving(), hunger, energy, happiness, weight));
+	}
+	
+	/**
+	 * Gets the chance of a living pet dying at the end of its turn.
+	 * @param species
+	 * The pet's species.
+	 * @param energy
+	 * The pet's energy.
+	 * @param weight
+	 * The pet's weight.
+	 * @return
+	 * The chance of dying, as a percentage from 0 to 100.
+	 */
+	public static int getDeathChance(Species species, int energy, int weight) {
+		int chance = inTable(DEATH_BY_ENERGY, energy) ? DEATH_BY_ENERGY[energy] : deathByEnergy(energy);
+		WeightTable table = getWeightTable(species.getOptimumWeight());
+		chance += table.contains(weight) ? table.death[weight] : deathByWeight(species.getOptimumWeight(), weight);
+		return percentage(chance);
+	}
+	
+	/**
+	 * Gets the chance of a healthy pet getting sick at the end of its turn, if it does not die first.
+	 * @param species
+	 * The pet's species.
+	 * @param hunger
+	 * The pet's hunger.
+	 * @param energy
+	 * The pet's energy.
+	 * @param weight
+	 * The pet's weight.
+	 * @return
+	 * The chance of getting sick, as a percentage from 0 to 100.
+	 */
+	public static int getSicknessChance(Species species, int hunger, int energy, int weight) {
+		int chance = inTable(SICKNESS_BY_HUNGER, hunger) ? SICKNESS_BY_HUNGER[hunger] : sicknessByHunger(hunger);
+		chance += inTable(SICKNESS_BY_ENERGY, energy) ? SICKNESS_BY_ENERGY[energy] : sicknessByEnergy(energy);
+		WeightTable table = getWeightTable(species.getOptimumWeight());
+		chance += table.contains(weight) ? table.sickness[weight] : sicknessByWeight(species.getOptimumWeight(), weight);
+		return percentage(chance);
+	}
+	
+	/**
+	 * Gets the chance of a behaving pet starting to misbehave at the end of its turn, if it does not die first.
+	 * @param hunger
+	 * The pet's hunger.
+	 * @param happiness
+	 * The pet's happiness.
+	 * @return
+	 * The chance of misbehaving, as a percentage from 0 to 100.
+	 */
+	public static int getMisbehavingChance(int hunger, int happiness) {
+		int chance = inTable(MISBEHAVING_BY_HUNGER, hunger) ? MISBEHAVING_BY_HUNGER[hunger] : misbehavingByHunger(hunger);
+		chance += inTable(MISBEHAVING_BY_HAPPINESS, happiness) ? MISBEHAVING_BY_HAPPINESS[happiness] : misbehavingByHappiness(happiness);
+		return percentage(chance);
+	}
+	
+	/**
+	 * Gets the score a living pet will get at the end of its turn. The score is worked out before any random events
+	 * happen, so it is known exactly.
+	 * @param species
+	 * The pet's species.
+	 * @param healthy
+	 * Whether the pet is healthy.
+	 * @param behaving
+	 * Whether the pet is behaving.
+	 * @param hunger
+	 * The pet's hunger.
+	 * @param energy
+	 * The pet's energy.
+	 * @param happiness
+	 * The pet's happiness.
+	 * @param weight
+	 * The pet's weight.
+	 * @return
+	 * The score the pet will get.
+	 */
+	public static int getScore(Species species, boolean healthy, boolean behaving, int hunger, int energy, int happiness, int weight) {
+		int score = happiness + energy + (100-hunger) - Math.abs(weight-species.getOptimumWeight())*2;
+		if (!healthy)
+			score -= 50;
+		if (!behaving)
+			score -= 50;
+		return score;
+	}
+	
+	/**
+	 * Gets the weight table for an optimum weight, building it if it has not been built yet. If two threads build the
+	 * same table at once they build identical tables, so it does not matter which one is kept.
+	 */
+	private static WeightTable getWeightTable(int optimumWeight) {
+		WeightTable table = weightTables.get(optimumWeight);
+		if (table == null) {
+			table = new WeightTable(optimumWeight);
+			WeightTable existing = weightTables.putIfAbsent(optimumWeight, table);
+			if (existing != null)
+				table = existing;
+		}
+		return table;
+	}
+	
+	/**
+	 * Checks whether a stat is within a stat table. Stats are always from 0 to 100 during a game, but pets can be
+	 * created with any values.
+	 */
+	private static boolean inTable(int[] table, int value) {
+		return value >= 0 && value < table.length;
+	}
+	
+	/**
+	 * Converts a chance to the probability of the event happening, as random events happen when a random number from
+	 * 0 to 99 is below the chance.
+	 */
+	private static int percentage(int chance) {
+		if (chance < 0)
+			return 0;
+		else if (chance > 100)
+			return 100;
+		return chance;
+	}
+	
+	// The parts of each chance, as they are calculated in Pet.finishTurn
+	private static int deathByEnergy(int energy) {
+		return energy < 10 ? (10-energy)*10 : 0;
+	}
+	
+	private static int sicknessByHunger(int hunger) {
+		return hunger > 65 ? (hunger-65)*5 : 0;
+	}
+	
+	private static int sicknessByEnergy(int energy) {
+		return energy < 30 ? (30-energy)*10 : 0;
+	}
+	
+	private static int misbehavingByHunger(int hunger) {
+		return hunger > 70 ? (90-hunger)*5 : 0;
+	}
+	
+	private static int misbehavingByHappiness(int happiness) {
+		return happiness < 40 ? (40-happiness)*5 : 0;
+	}
+	
+	/**
+	 * The part of the chance of dying from being too far from the optimum weight. Pet.finishTurn adds this to the
+	 * whole number energy part as a fraction and then truncates, so the fraction must be kept until then.
+	 */
+	private static double deathByWeight(int optimumWeight, int weight) {
+		double optWeight = optimumWeight;
+		if (Math.abs(weight-optWeight) > optWeight/2)
+			return (Math.abs(weight-optWeight) - optWeight/2)/(optWeight/6)*100;
+		return 0;
+	}
+	
+	/**
+	 * The part of the chance of getting sick from being too far from the optimum weight, kept as a fraction for the
+	 * same reason as deathByWeight.
+	 */
+	private static double sicknessByWeight(int optimumWeight, int weight) {
+		double optWeight = optimumWeight;
+		if (Math.abs(weight-optWeight) > optWeight/3)
+			return (Math.abs(weight-optWeight) - optWeight/3)/(optWeight/6)*100;
+		return 0;
+	}
+	
+	/**
+	 * The weight parts of the chances of dying and getting sick for one optimum weight, for every weight from 0 to
+	 * twice the optimum weight. Pets cannot be fed above 5/3 of their optimum weight, so this covers every weight a
+	 * pet can reach in a game.
+	 */
+	private static class WeightTable {
+		private double[] death;
+		private double[] sickness;
+		
+		WeightTable(int optimumWeight) {
+			death = new double[optimumWeight*2 + 1];
+			sickness = new double[optimumWeight*2 + 1];
+			for (int weight=0; weight<death.length; weight++) {
+				death[weight] = deathByWeight(optimumWeight, weight);
+				sickness[weight] = sicknessByWeight(optimumWeight, weight);
+			}
+		}
+		
+		boolean contains(int weight) {
+			return weight >= 0 && weight < death.length;
+		}
+	}
+}
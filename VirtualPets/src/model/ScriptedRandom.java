@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * A random source which returns a fixed sequence of numbers, ignoring the range asked for. Used to finish a pet's
+ * turn with chosen random events, e.g. to work out which state a pet ends up in if it gets sick.
+ * @author Andrew Davidson (ada130)
+ */
+public class ScriptedRandom implements RandomSource {
+	private int[] values;
+	private int next = 0;
+	
+	/**
+	 * Creates a source which returns the given numbers in order.
+	 * @param values
+	 * The numbers to return.
+	 */
+	public ScriptedRandom(int... values) {
+		this.values = values;
+	}
+	
+	/**
+	 * Returns the next number in the sequence.
+	 * @throws IllegalStateException
+	 * If every number in the sequence has already been returned.
+	 */
+	@Override
+	public int nextInt(int origin, int bound) {
+		if (next == values.length)
+			throw new IllegalStateException("No more scripted random numbers.");
+		return values[next++];
+	}
+	
+	/**
+	 * Returns this source, as scripted sources cannot be split.
+	 */
+	@Override
+	public RandomSource split() {
+		return this;
+	}
+}
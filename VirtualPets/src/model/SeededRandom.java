@@ -0,0 +1,115 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * A fast, seedable and splittable random source, using the same SplitMix64 algorithm as java.util.SplittableRandom.
+ * Unlike SplittableRandom its state can be read and restored, and it can be saved along with the pets that use it,
+ * so a saved game continues with exactly the same random events as it would have had it not been saved.
+ * @author Andrew Davidson (ada130)
+ */
+public class SeededRandom implements RandomSource, Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	
+	private long seed;
+	private final long gamma;
+	
+	/**
+	 * Creates a new source from a seed. Sources created from the same seed produce the same sequence of numbers.
+	 * @param seed
+	 * The seed for the source, for example chosen once per game.
+	 */
+	public SeededRandom(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+	
+	/**
+	 * Restores a source to a state previously read through getSeed and getGamma.
+	 * @param seed
+	 * The current seed of the source.
+	 * @param gamma
+	 * The increment of the source. Must be odd, and is forced to be so if it is not.
+	 */
+	public SeededRandom(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma | 1L;
+	}
+	
+	// Getters
+	public long getSeed() {
+		return seed;
+	}
+	
+	public long getGamma() {
+		return gamma;
+	}
+	// End Getters
+	
+	/**
+	 * Refer to interface RandomSource
+	 */
+	@Override
+	public int nextInt(int origin, int bound) {
+		if (origin >= bound)
+			throw new IllegalArgumentException("bound must be greater than origin");
+		
+		int r = mix32(nextSeed());
+		int n = bound - origin;
+		int m = n - 1;
+		// Power of two ranges can simply be masked, other ranges reject values which would bias the result
+		if ((n & m) == 0)
+			return (r & m) + origin;
+		else if (n > 0) {
+			for (int u = r >>> 1; u + m - (r = u % n) < 0; u = mix32(nextSeed()) >>> 1);
+			return r + origin;
+		}
+		else {
+			// The range does not fit in an int, so draw until a value falls within it
+			while (r < origin || r >= bound)
+				r = mix32(nextSeed());
+			return r;
+		}
+	}
+	
+	/**
+	 * Generates a random long using every bit of the seed.
+	 * @return
+	 * A uniformly distributed random long.
+	 */
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+	
+	/**
+	 * Refer to interface RandomSource
+	 */
+	@Override
+	public SeededRandom split() {
+		return new SeededRandom(nextLong(), mixGamma(nextSeed()));
+	}
+	
+	private long nextSeed() {
+		return seed += gamma;
+	}
+	
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int)(((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+	
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		// Gammas with too few bit transitions give poorly mixed sequences, so spread their bits out
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
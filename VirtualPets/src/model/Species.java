@@ -1,7 +1,6 @@
 package model;
 
 import java.io.Serializable;
-import java.util.concurrent.ThreadLocalRandom;
 import javax.swing.ImageIcon;
 
 /**
@@ -14,7 +13,7 @@ public class Species implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	private String name;
-	private ImageIcon icon;
+	private transient ImageIcon icon;
 	private int optimumWeight;
 	
 	private int hungerGain;
@@ -23,6 +22,7 @@ public class Species implements Serializable {
 	
 	private int minToyDamage;
 	private int maxToyDamage;
+	private transient String key;
 	
 	/**
 	 * Initialises all variables used by a species instance.
@@ -90,11 +90,33 @@ public class Species implements Serializable {
 	// End Getters
 	
 	/**
-	 * Generates and returns an amount to damage a toy by.
+	 * Gets the key this species is identified by in saved games, made up of its name and a hash of its attributes.
+	 * @return
+	 * The key, which is the same for every species with the same name and attributes.
+	 */
+	public String getKey() {
+		if (key == null)
+			key = AssetKeys.of(name, optimumWeight, hungerGain, energyLoss, happinessLoss, minToyDamage, maxToyDamage);
+		return key;
+	}
+	
+	/**
+	 * Generates and returns an amount to damage a toy by, using an unseeded random source.
 	 * @return 
 	 * A random integer amount of damage between minToyDamage and maxToyDamage, inclusive
 	 */
 	public int genToyDamage() {
-		return ThreadLocalRandom.current().nextInt(minToyDamage, maxToyDamage + 1);
+		return genToyDamage(ThreadLocalRandomSource.INSTANCE);
+	}
+	
+	/**
+	 * Generates and returns an amount to damage a toy by.
+	 * @param random
+	 * The random source to draw the damage from.
+	 * @return 
+	 * A random integer amount of damage between minToyDamage and maxToyDamage, inclusive
+	 */
+	public int genToyDamage(RandomSource random) {
+		return random.nextInt(minToyDamage, maxToyDamage + 1);
 	}
 }
\ No newline at end of file
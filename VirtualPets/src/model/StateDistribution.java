@@ -0,0 +1,67 @@
+package model;
+
+/**
+ * The states a pet could be in after being skipped forward by FastForwarder, with the probability of each one.
+ * @author Andrew Davidson (ada130)
+ */
+public class StateDistribution {
+	private Pet pet;
+	private long[] states;
+	private double[] probabilities;
+	private double expectedScore;
+	
+	/**
+	 * Creates a new distribution.
+	 * @param pet
+	 * The pet which was skipped forward.
+	 * @param states
+	 * The packed states the pet could be in.
+	 * @param probabilities
+	 * The probability of each state.
+	 * @param expectedScore
+	 * The score the pet is expected to have got while being skipped forward.
+	 */
+	StateDistribution(Pet pet, long[] states, double[] probabilities, double expectedScore) {
+		this.pet = pet;
+		this.states = states;
+		this.probabilities = probabilities;
+		this.expectedScore = expectedScore;
+	}
+	
+	// Getters
+	public int size() {
+		return states.length;
+	}
+	
+	public double getProbability(int index) {
+		return probabilities[index];
+	}
+	
+	public double getExpectedScore() {
+		return expectedScore;
+	}
+	
+	/**
+	 * Creates a copy of the pet in one of the possible states.
+	 * @param index
+	 * The index of the state.
+	 * @return
+	 * A new pet with the same name, species and favourites as the pet that was skipped forward.
+	 */
+	public Pet getPet(int index) {
+		return FastForwarder.unpack(states[index], pet);
+	}
+	
+	/**
+	 * @return
+	 * The probability that the pet is still alive.
+	 */
+	public double getSurvivalProbability() {
+		double probability = 0;
+		for (int i=0; i<states.length; i++)
+			if (FastForwarder.isAlive(states[i]))
+				probability += probabilities[i];
+		return probability;
+	}
+	// End Getters
+}
@@ -0,0 +1,31 @@
+package model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An unseeded random source backed by ThreadLocalRandom. Used by pets and species which have not been given a seeded
+ * source, so that they behave as they always have when no reproducibility is required.
+ * @author Andrew Davidson (ada130)
+ */
+public class ThreadLocalRandomSource implements RandomSource {
+	public static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+	
+	private ThreadLocalRandomSource() {
+	}
+	
+	/**
+	 * Refer to interface RandomSource
+	 */
+	@Override
+	public int nextInt(int origin, int bound) {
+		return ThreadLocalRandom.current().nextInt(origin, bound);
+	}
+	
+	/**
+	 * Creates a new seeded source with a random seed.
+	 */
+	@Override
+	public RandomSource split() {
+		return new SeededRandom(ThreadLocalRandom.current().nextLong());
+	}
+}
@@ -11,9 +11,10 @@ public class ToyType implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	private String name;
-	private ImageIcon icon;
+	private transient ImageIcon icon;
 	private int price;
 	private int happinessGain;
+	private transient String key;
 	
 	/**
 	 * Initialises a new ToyType instance based on given values.
@@ -51,4 +52,15 @@ public class ToyType implements Serializable {
 		return this.happinessGain;
 	}
 	// End Getters
+	
+	/**
+	 * Gets the key this toy type is identified by in saved games, made up of its name and a hash of its attributes.
+	 * @return
+	 * The key, which is the same for every toy type with the same name and attributes.
+	 */
+	public String getKey() {
+		if (key == null)
+			key = AssetKeys.of(name, price, happinessGain);
+		return key;
+	}
 }
@@ -0,0 +1,182 @@
+package planning;
+
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RiskForecaster;
+import model.ScriptedRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * The effects and costs of the actions planners can take with a pet, numbered by the action codes in PolicyTable, and
+ * the possible outcomes of ending its turn.
+ * @author Andrew Davidson (ada130)
+ */
+class ActionModel {
+	// The number of outcomes of ending a turn: dying, then surviving with each combination of getting sick and misbehaving
+	static final int OUTCOMES = 5;
+	
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	
+	/**
+	 * Creates a model for the food and toy types available in the shop.
+	 * @param foodTypes
+	 * The food types which may be fed to pets.
+	 * @param toyTypes
+	 * The toy types which may be played with.
+	 */
+	ActionModel(FoodType[] foodTypes, ToyType[] toyTypes) {
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+	}
+	
+	// Getters
+	FoodType[] getFoodTypes() {
+		return foodTypes;
+	}
+	
+	ToyType[] getToyTypes() {
+		return toyTypes;
+	}
+	
+	int getActionCount() {
+		return PolicyTable.FIRST_ITEM + foodTypes.length + toyTypes.length;
+	}
+	// End Getters
+	
+	/**
+	 * Gets the food type fed by an action, or null if the action does not feed the pet.
+	 */
+	FoodType getFoodType(int action) {
+		int item = action - PolicyTable.FIRST_ITEM;
+		return (item >= 0 && item < foodTypes.length) ? foodTypes[item] : null;
+	}
+	
+	/**
+	 * Gets the toy type played with by an action, or null if the action does not play with the pet.
+	 */
+	ToyType getToyType(int action) {
+		int item = action - PolicyTable.FIRST_ITEM - foodTypes.length;
+		return (item >= 0) ? toyTypes[item] : null;
+	}
+	
+	/**
+	 * Applies an action other than ending the turn or reviving to a pet.
+	 * @param pet
+	 * The pet to apply the action to.
+	 * @param action
+	 * The action code.
+	 */
+	void apply(Pet pet, int action) {
+		switch (action) {
+		case PolicyTable.SLEEP:
+			pet.sleep();
+			break;
+		case PolicyTable.TOILET:
+			pet.goToToilet();
+			break;
+		case PolicyTable.CURE:
+			pet.cure();
+			break;
+		case PolicyTable.DISCIPLINE:
+			pet.discipline();
+			break;
+		default:
+			FoodType foodType = getFoodType(action);
+			if (foodType != null)
+				pet.eat(foodType);
+			else {
+				// The damage done to the toy does not affect the pet
+				pet.setRandomSource(new ScriptedRandom(pet.getSpecies().getMinToyDamage()));
+				pet.play(new Toy(getToyType(action)));
+			}
+		}
+	}
+	
+	/**
+	 * Gets the money spent on an action. Playing costs the share of the toy's price used up by the damage done to it,
+	 * averaged over every amount of damage the species can do.
+	 * @param species
+	 * The species of the pet the action is taken with.
+	 * @param action
+	 * The action code.
+	 * @return
+	 * The money spent.
+	 */
+	double getCost(Species species, int action) {
+		if (action == PolicyTable.CURE)
+			return Player.CURE_COST;
+		if (action == PolicyTable.REVIVE)
+			return Player.REVIVE_COST;
+		FoodType foodType = getFoodType(action);
+		if (foodType != null)
+			return foodType.getPrice();
+		ToyType toyType = getToyType(action);
+		if (toyType == null)
+			return 0;
+		double damage = (species.getMinToyDamage() + species.getMaxToyDamage()) / 2.0;
+		return toyType.getPrice() * Math.min(damage, 100) / 100;
+	}
+	
+	/**
+	 * Works out each possible outcome of ending a pet's turn by finishing the turns of copies of it with each
+	 * combination of random events forced.
+	 * @param pet
+	 * The pet to end the turn of, which is not changed.
+	 * @param outcomes
+	 * Filled with the pet in each outcome, or null for outcomes which cannot happen. Must have room for OUTCOMES pets.
+	 * @param probabilities
+	 * Filled with the probability of each outcome. Must have room for OUTCOMES probabilities.
+	 * @return
+	 * The score for ending the turn, which is the same for every outcome.
+	 */
+	static int finishTurn(Pet pet, Pet[] outcomes, double[] probabilities) {
+		Species species = pet.getSpecies();
+		int deathChance = RiskForecaster.getDeathChance(species, pet.getEnergy(), pet.getWeight());
+		int sicknessChance = pet.isHealthy() ? RiskForecaster.getSicknessChance(species, pet.getHunger(), pet.getEnergy(), pet.getWeight()) : -1;
+		int misbehavingChance = pet.isBehaving() ? RiskForecaster.getMisbehavingChance(pet.getHunger(), pet.getHappiness()) : -1;
+		
+		int score = 0;
+		for (int outcome=0; outcome<OUTCOMES; outcome++) {
+			boolean died = outcome == 0;
+			boolean sick = !died && ((outcome - 1) & 1) != 0;
+			boolean misbehaving = !died && ((outcome - 1) & 2) != 0;
+			probabilities[outcome] = died ? deathChance / 100.0 : (100 - deathChance) / 100.0
+					* getProbability(sicknessChance, sick) * getProbability(misbehavingChance, misbehaving);
+			outcomes[outcome] = null;
+			if (probabilities[outcome] == 0)
+				continue;
+			
+			int[] draws = new int[3];
+			int count = 0;
+			draws[count++] = died ? 0 : 99;
+			if (!died && sicknessChance >= 0)
+				draws[count++] = sick ? 0 : 99;
+			if (!died && misbehavingChance >= 0)
+				draws[count++] = misbehaving ? 0 : 99;
+			Pet copy = copy(pet);
+			copy.setRandomSource(new ScriptedRandom(draws));
+			score = copy.finishTurn();
+			outcomes[outcome] = copy;
+		}
+		return score;
+	}
+	
+	/**
+	 * Copies the state and favourites of a pet. The copy has no name.
+	 */
+	static Pet copy(Pet pet) {
+		return new Pet(null, pet.getSpecies(), pet.isHealthy(), pet.isBehaving(), pet.isAlive(), pet.isRevivable(),
+				pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight(), pet.getActionPoints(),
+				pet.getFavouriteToy(), pet.getFavouriteFood());
+	}
+	
+	private static double getProbability(int chance, boolean happens) {
+		if (chance < 0)
+			return happens ? 0 : 1;
+		return (happens ? chance : 100 - chance) / 100.0;
+	}
+}
@@ -0,0 +1,478 @@
+package planning;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.FoodType;
+import model.Pet;
+import model.PetAction;
+import model.Player;
+import model.RiskForecaster;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * A computer player which plans a player's whole turn within a time budget. Each pet's actions are chosen by an
+ * expectimax search: the player picks the actions that maximise the pet's expected score over the coming days, less the
+ * money spent weighted by the money weight, and the random events at the end of each turn are averaged over. The
+ * search deepens one day at a time until the budget runs out, keeping the plan from the deepest search finished.
+ *
+ * The actions for the current turn are split between the threads of a fork-join pool, which share a cache of the
+ * values of pet states already searched. Values depend only on the pet's state and the depth searched, so the cache is
+ * kept between turns. Beyond the current turn the player is assumed to be able to afford anything, and pets which die
+ * are not revived. The damage a toy takes is averaged over into the cost of playing with it.
+ * @author Andrew Davidson (ada130)
+ */
+public class AutoPilot {
+	// The number of candidate plans for a pet's turn each fork-join task searches itself rather than splitting further
+	private static final int CANDIDATE_BATCH = 4;
+	// The deepest search, in days, however much time there is
+	private static final int MAX_DEPTH = 12;
+	// The number of states cached for each kind of pet before the cache is cleared
+	private static final int MAX_CACHED_STATES = 1 << 20;
+	
+	private ActionModel model;
+	private long timeBudget = 200;
+	private double moneyWeight = 1;
+	private int lastDepth;
+	
+	// The values of states searched, for each kind of pet
+	private ConcurrentHashMap<PetKind, ConcurrentHashMap<Long, Double>> cache = new ConcurrentHashMap<PetKind, ConcurrentHashMap<Long, Double>>();
+	
+	/**
+	 * Creates a computer player which can buy the given food and toy types from the shop.
+	 * @param foodTypes
+	 * The food types in the shop.
+	 * @param toyTypes
+	 * The toy types in the shop.
+	 */
+	public AutoPilot(FoodType[] foodTypes, ToyType[] toyTypes) {
+		model = new ActionModel(foodTypes, toyTypes);
+	}
+	
+	// Setters
+	/**
+	 * Sets the time planning a player's whole turn may take, shared between the player's living pets.
+	 * @param timeBudget
+	 * The time budget in milliseconds. At least a one day search is always finished for each pet, however small the
+	 * budget.
+	 */
+	public void setTimeBudget(long timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+	
+	public void setMoneyWeight(double moneyWeight) {
+		this.moneyWeight = moneyWeight;
+		cache.clear();
+	}
+	// End Setters
+	
+	/**
+	 * @return
+	 * The number of days the last search for a pet looked ahead.
+	 */
+	public int getLastDepth() {
+		return lastDepth;
+	}
+	
+	/**
+	 * Plans a player's turn, using the player's food and toys before buying more. Neither the player nor its pets are
+	 * changed.
+	 * @param player
+	 * The player to plan the turn of.
+	 * @param daysLeft
+	 * The number of times pets' turns will finish before the game ends, including this turn.
+	 * @param pool
+	 * The fork-join pool to search in.
+	 * @return
+	 * The steps to take, in order.
+	 */
+	public List<PlannedStep> planTurn(Player player, int daysLeft, ForkJoinPool pool) {
+		List<PlannedStep> steps = new ArrayList<PlannedStep>();
+		int money = player.getMoney();
+		HashMap<FoodType, Integer> food = new HashMap<FoodType, Integer>(player.getFood());
+		HashMap<ToyType, Integer> toys = new HashMap<ToyType, Integer>();
+		for (Toy toy : player.getToys())
+			toys.put(toy.getToyType(), toys.containsKey(toy.getToyType()) ? toys.get(toy.getToyType()) + 1 : 1);
+		
+		Pet[] pets = player.getPets();
+		int petsLeft = 0;
+		for (Pet pet : pets)
+			if (pet.isAlive())
+				petsLeft++;
+		long turnDeadline = System.nanoTime() + timeBudget * 1000000;
+		for (int i=0; i<pets.length; i++) {
+			Pet pet = pets[i];
+			if (!pet.isAlive()) {
+				// A revived pet scores on every day left, which is always worth more than reviving costs
+				if (pet.isRevivable() && money >= Player.REVIVE_COST && daysLeft > 0) {
+					steps.add(new PlannedStep(i, new CareAction(PetAction.REVIVE), false));
+					money -= Player.REVIVE_COST;
+				}
+				continue;
+			}
+			
+			// Share the time left in the turn evenly between the pets still to plan, so time one pet did not need
+			// goes to the rest
+			long now = System.nanoTime();
+			long deadline = now + Math.max(turnDeadline - now, 0) / petsLeft;
+			petsLeft--;
+			int[] plan = planPet(pet, daysLeft, money, food, toys, deadline, pool);
+			for (int action : plan) {
+				boolean buy = false;
+				FoodType foodType = model.getFoodType(action);
+				ToyType toyType = model.getToyType(action);
+				if (foodType != null) {
+					buy = !take(food, foodType);
+					if (buy)
+						money -= foodType.getPrice();
+				}
+				else if (toyType != null) {
+					// Toys are not used up by one game, so one bought now is kept for the rest of the turn
+					buy = !toys.containsKey(toyType);
+					if (buy) {
+						money -= toyType.getPrice();
+						toys.put(toyType, 1);
+					}
+				}
+				else if (action == PolicyTable.CURE)
+					money -= Player.CURE_COST;
+				steps.add(new PlannedStep(i, getCareAction(action), buy));
+			}
+		}
+		return steps;
+	}
+	
+	/**
+	 * Searches for the best actions to take with a pet this turn.
+	 * @param deadline
+	 * The System.nanoTime() after which searches deeper than one day are given up.
+	 * @return
+	 * The action codes to take, in order.
+	 */
+	int[] planPet(Pet pet, int daysLeft, int money, HashMap<FoodType, Integer> food, HashMap<ToyType, Integer> toys, long deadline,
+			ForkJoinPool pool) {
+		List<Candidate> candidates = new ArrayList<Candidate>();
+		candidates.add(new Candidate(new int[0], ActionModel.copy(pet), 0));
+		for (int actions=0; actions<pet.getActionPoints(); actions++) {
+			int count = candidates.size();
+			for (int c=0; c<count; c++) {
+				Candidate candidate = candidates.get(c);
+				if (candidate.actions.length != actions)
+					continue;
+				for (int action : getActions(candidate.pet)) {
+					int spent = candidate.spent + getPrice(candidate.actions, action, food, toys);
+					if (spent > money)
+						continue;
+					Pet next = ActionModel.copy(candidate.pet);
+					model.apply(next, action);
+					int[] sequence = new int[actions + 1];
+					System.arraycopy(candidate.actions, 0, sequence, 0, actions);
+					sequence[actions] = action;
+					candidates.add(new Candidate(sequence, next, spent));
+				}
+			}
+		}
+		
+		int[] best = null;
+		int maxDepth = Math.min(Math.max(daysLeft, 1), MAX_DEPTH);
+		for (int depth=1; depth<=maxDepth; depth++) {
+			// The one day search always finishes so that there is a plan
+			Search search = new Search(depth, daysLeft, (depth == 1) ? Long.MAX_VALUE : deadline);
+			Result result = pool.invoke(search.new CandidateBatch(candidates, 0, candidates.size()));
+			if (search.timedOut)
+				break;
+			best = candidates.get(result.index).actions;
+			lastDepth = depth;
+		}
+		return best;
+	}
+	
+	/**
+	 * Gets the actions which may be taken with a pet. Curing and disciplining are only considered when they change the
+	 * pet's state.
+	 */
+	private List<Integer> getActions(Pet pet) {
+		List<Integer> actions = new ArrayList<Integer>();
+		for (int action=PolicyTable.SLEEP; action<model.getActionCount(); action++) {
+			if (action == PolicyTable.REVIVE || (action == PolicyTable.CURE && pet.isHealthy())
+					|| (action == PolicyTable.DISCIPLINE && pet.isBehaving()))
+				continue;
+			actions.add(action);
+		}
+		return actions;
+	}
+	
+	/**
+	 * Gets the money that must be spent to take an action after a sequence of actions this turn, using the player's
+	 * food and toys first.
+	 */
+	private int getPrice(int[] previous, int action, HashMap<FoodType, Integer> food, HashMap<ToyType, Integer> toys) {
+		if (action == PolicyTable.CURE)
+			return Player.CURE_COST;
+		FoodType foodType = model.getFoodType(action);
+		if (foodType != null) {
+			int used = 0;
+			for (int earlier : previous)
+				if (earlier == action)
+					used++;
+			int owned = food.containsKey(foodType) ? food.get(foodType) : 0;
+			return (used < owned) ? 0 : foodType.getPrice();
+		}
+		ToyType toyType = model.getToyType(action);
+		if (toyType != null) {
+			for (int earlier : previous)
+				if (earlier == action)
+					return 0;
+			return toys.containsKey(toyType) ? 0 : toyType.getPrice();
+		}
+		return 0;
+	}
+	
+	private CareAction getCareAction(int action) {
+		FoodType foodType = model.getFoodType(action);
+		if (foodType != null)
+			return new CareAction(foodType);
+		ToyType toyType = model.getToyType(action);
+		if (toyType != null)
+			return new CareAction(toyType);
+		switch (action) {
+		case PolicyTable.SLEEP:
+			return new CareAction(PetAction.SLEEP);
+		case PolicyTable.TOILET:
+			return new CareAction(PetAction.TOILET);
+		case PolicyTable.CURE:
+			return new CareAction(PetAction.CURE);
+		default:
+			return new CareAction(PetAction.DISCIPLINE);
+		}
+	}
+	
+	/**
+	 * Takes one of a food type from an inventory.
+	 * @return
+	 * Whether there was one to take
+	 */
+	private static boolean take(HashMap<FoodType, Integer> food, FoodType foodType) {
+		Integer count = food.get(foodType);
+		if (count == null)
+			return false;
+		if (count == 1)
+			food.remove(foodType);
+		else
+			food.put(foodType, count - 1);
+		return true;
+	}
+	
+	/**
+	 * Gets the cached values for pets of the same kind as a pet, clearing them if there are too many.
+	 */
+	private ConcurrentHashMap<Long, Double> getCache(Pet pet) {
+		PetKind kind = new PetKind(pet);
+		ConcurrentHashMap<Long, Double> values = cache.get(kind);
+		if (values == null) {
+			values = new ConcurrentHashMap<Long, Double>();
+			ConcurrentHashMap<Long, Double> existing = cache.putIfAbsent(kind, values);
+			if (existing != null)
+				values = existing;
+		}
+		if (values.size() > MAX_CACHED_STATES)
+			values.clear();
+		return values;
+	}
+	
+	/**
+	 * Packs the state of a live pet at the start of its turn, the depth it is searched to, and whether the search ends
+	 * before the game does, into a cache key.
+	 */
+	private static long getKey(Pet pet, int depth, boolean beforeEnd) {
+		long key = pet.getHunger() | pet.getEnergy() << 7 | pet.getHappiness() << 14 | (long)pet.getWeight() << 21;
+		key |= (long)depth << 41 | (beforeEnd ? 1L << 47 : 0);
+		if (pet.isHealthy())
+			key |= 1L << 48;
+		if (pet.isBehaving())
+			key |= 1L << 49;
+		if (pet.isRevivable())
+			key |= 1L << 50;
+		return key;
+	}
+	
+	/**
+	 * A pet's state after taking some actions this turn, and the money that must be spent to take them.
+	 */
+	private static class Candidate {
+		private int[] actions;
+		private Pet pet;
+		private int spent;
+		
+		Candidate(int[] actions, Pet pet, int spent) {
+			this.actions = actions;
+			this.pet = pet;
+			this.spent = spent;
+		}
+	}
+	
+	/**
+	 * The best candidate in a range and its value.
+	 */
+	private static class Result {
+		private int index;
+		private double value;
+		
+		Result(int index, double value) {
+			this.index = index;
+			this.value = value;
+		}
+	}
+	
+	/**
+	 * A search to a fixed depth, which gives up once its deadline passes.
+	 */
+	private class Search {
+		private int depth, daysLeft;
+		private long deadline;
+		private volatile boolean timedOut = false;
+		
+		Search(int depth, int daysLeft, long deadline) {
+			this.depth = depth;
+			this.daysLeft = daysLeft;
+			this.deadline = deadline;
+		}
+		
+		/**
+		 * Gets the expected value of ending a pet's turn and searching the days after it.
+		 * @param days
+		 * The number of days left to search, including this one.
+		 * @param daysLeft
+		 * The number of days left in the game, including this one.
+		 */
+		double endTurn(Pet pet, int days, int daysLeft) {
+			Pet[] outcomes = new Pet[ActionModel.OUTCOMES];
+			double[] probabilities = new double[ActionModel.OUTCOMES];
+			double value = ActionModel.finishTurn(pet, outcomes, probabilities);
+			if (daysLeft <= 1)
+				return value;
+			for (int outcome=0; outcome<ActionModel.OUTCOMES; outcome++) {
+				Pet next = outcomes[outcome];
+				if (next == null || !next.isAlive())
+					continue;
+				if (days > 1)
+					value += probabilities[outcome] * getValue(next, days - 1, daysLeft - 1);
+				else
+					// Past the end of the search, assume the pet scores what it would if left alone for a day
+					value += probabilities[outcome] * RiskForecaster.getScore(next.getSpecies(), next.isHealthy(), next.isBehaving(),
+							next.getHunger(), next.getEnergy(), next.getHappiness(), next.getWeight());
+			}
+			return value;
+		}
+		
+		/**
+		 * Gets the value of a live pet at the start of its turn: the best value of any actions it can take.
+		 */
+		double getValue(Pet pet, int days, int daysLeft) {
+			if (System.nanoTime() > deadline) {
+				timedOut = true;
+				return 0;
+			}
+			ConcurrentHashMap<Long, Double> values = getCache(pet);
+			long key = getKey(pet, days, days < daysLeft);
+			Double cached = values.get(key);
+			if (cached != null)
+				return cached;
+			
+			double best = endTurn(pet, days, daysLeft);
+			for (int first : getActions(pet)) {
+				Pet afterFirst = ActionModel.copy(pet);
+				model.apply(afterFirst, first);
+				double firstCost = model.getCost(pet.getSpecies(), first) * moneyWeight;
+				best = Math.max(best, endTurn(afterFirst, days, daysLeft) - firstCost);
+				for (int second : getActions(afterFirst)) {
+					Pet afterSecond = ActionModel.copy(afterFirst);
+					model.apply(afterSecond, second);
+					double cost = firstCost + model.getCost(pet.getSpecies(), second) * moneyWeight;
+					best = Math.max(best, endTurn(afterSecond, days, daysLeft) - cost);
+				}
+			}
+			// A value worked out after the deadline may be missing parts of its search
+			if (!timedOut)
+				values.putIfAbsent(key, best);
+			return best;
+		}
+		
+		/**
+		 * A range of candidates to search. Ranges larger than a batch are split in half, and ties are broken in favour
+		 * of the earlier candidate, so the plan chosen does not depend on the number of threads.
+		 */
+		private class CandidateBatch extends RecursiveTask<Result> {
+			private static final long serialVersionUID = 1L;
+			
+			private List<Candidate> candidates;
+			private int start, end;
+			
+			CandidateBatch(List<Candidate> candidates, int start, int end) {
+				this.candidates = candidates;
+				this.start = start;
+				this.end = end;
+			}
+			
+			@Override
+			protected Result compute() {
+				if (end - start <= CANDIDATE_BATCH) {
+					Result best = null;
+					for (int c=start; c<end; c++) {
+						Candidate candidate = candidates.get(c);
+						double cost = 0;
+						for (int action : candidate.actions)
+							cost += model.getCost(candidate.pet.getSpecies(), action) * moneyWeight;
+						double value = endTurn(candidate.pet, depth, daysLeft) - cost;
+						if (best == null || value > best.value)
+							best = new Result(c, value);
+					}
+					return best;
+				}
+				
+				int middle = start + (end - start) / 2;
+				CandidateBatch first = new CandidateBatch(candidates, start, middle);
+				CandidateBatch second = new CandidateBatch(candidates, middle, end);
+				first.fork();
+				Result secondResult = second.compute();
+				Result firstResult = first.join();
+				return (secondResult.value > firstResult.value) ? secondResult : firstResult;
+			}
+		}
+	}
+	
+	/**
+	 * The species and favourites of a pet, which along with its state decide what the best actions to take with it are.
+	 */
+	private static class PetKind {
+		private Species species;
+		private ToyType favouriteToy;
+		private FoodType favouriteFood;
+		
+		PetKind(Pet pet) {
+			species = pet.getSpecies();
+			favouriteToy = pet.getFavouriteToy();
+			favouriteFood = pet.getFavouriteFood();
+		}
+		
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof PetKind))
+				return false;
+			PetKind kind = (PetKind)other;
+			return species == kind.species && favouriteToy == kind.favouriteToy && favouriteFood == kind.favouriteFood;
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(species) * 31 * 31 + System.identityHashCode(favouriteToy) * 31
+					+ System.identityHashCode(favouriteFood);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package planning;
+
+import model.FoodType;
+import model.PetAction;
+import model.ToyType;
+
+/**
+ * An action to take with a pet, along with the food to feed it or the type of toy to play with it.
+ * @author Andrew Davidson (ada130)
+ */
+public class CareAction {
+	private PetAction action;
+	private FoodType foodType;
+	private ToyType toyType;
+	
+	/**
+	 * Creates an action which does not need a food or toy.
+	 * @param action
+	 * The action to take.
+	 */
+	public CareAction(PetAction action) {
+		this.action = action;
+	}
+	
+	/**
+	 * Creates an action to feed a pet.
+	 * @param foodType
+	 * The food to feed the pet.
+	 */
+	public CareAction(FoodType foodType) {
+		this.action = PetAction.FEED;
+		this.foodType = foodType;
+	}
+	
+	/**
+	 * Creates an action to play with a pet.
+	 * @param toyType
+	 * The type of toy to play with the pet.
+	 */
+	public CareAction(ToyType toyType) {
+		this.action = PetAction.PLAY;
+		this.toyType = toyType;
+	}
+	
+	// Getters
+	public PetAction getAction() {
+		return action;
+	}
+	
+	public FoodType getFoodType() {
+		return foodType;
+	}
+	
+	public ToyType getToyType() {
+		return toyType;
+	}
+	// End Getters
+	
+	@Override
+	public String toString() {
+		if (foodType != null)
+			return action.getLabel() + " " + foodType.getName();
+		if (toyType != null)
+			return action.getLabel() + " with " + toyType.getName();
+		return action.getLabel();
+	}
+}
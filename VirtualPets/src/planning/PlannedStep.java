@@ -0,0 +1,46 @@
+package planning;
+
+/**
+ * One step of a turn planned by AutoPilot: an action to take with one of the player's pets, and whether the food or toy
+ * it needs must be bought from the shop first.
+ * @author Andrew Davidson (ada130)
+ */
+public class PlannedStep {
+	private int petIndex;
+	private CareAction action;
+	private boolean buy;
+	
+	/**
+	 * Creates a step.
+	 * @param petIndex
+	 * The index of the pet in the player's pets.
+	 * @param action
+	 * The action to take with the pet.
+	 * @param buy
+	 * Whether the food or toy the action needs must be bought first.
+	 */
+	public PlannedStep(int petIndex, CareAction action, boolean buy) {
+		this.petIndex = petIndex;
+		this.action = action;
+		this.buy = buy;
+	}
+	
+	// Getters
+	public int getPetIndex() {
+		return petIndex;
+	}
+	
+	public CareAction getAction() {
+		return action;
+	}
+	
+	public boolean isBuy() {
+		return buy;
+	}
+	// End Getters
+	
+	@Override
+	public String toString() {
+		return "Pet " + petIndex + ": " + action + (buy ? " (bought)" : "");
+	}
+}
@@ -0,0 +1,193 @@
+package planning;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import model.FoodType;
+import model.Pet;
+import model.PetAction;
+import model.Species;
+import model.ToyType;
+
+/**
+ * A set of policy tables, one per species, solved for the same food and toy types. Suggests the best action to take
+ * with any pet of those species in constant time.
+ *
+ * Libraries are saved to a gzipped binary file: a header, the names of the food and toy types the tables' action
+ * codes refer to, then each table's species attributes and one byte per state for each number of actions left.
+ * @author Andrew Davidson (ada130)
+ */
+public class PolicyLibrary {
+	private static final int MAGIC = 0x56505054;
+	private static final int VERSION = 1;
+	
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private PolicyTable[] tables;
+	private CareAction[] actions;
+	
+	// Table for each species already looked up, or NO_TABLE if the library has none for it
+	private static final PolicyTable NO_TABLE = new PolicyTable(new Species("", null, 0, 0, 0, 0, 0, 0), false, null, null);
+	private ConcurrentHashMap<Species, PolicyTable> speciesTables = new ConcurrentHashMap<Species, PolicyTable>();
+	
+	/**
+	 * Creates a library of tables.
+	 * @param foodTypes
+	 * The food types the tables were solved with.
+	 * @param toyTypes
+	 * The toy types the tables were solved with.
+	 * @param tables
+	 * The tables, one per species.
+	 */
+	public PolicyLibrary(FoodType[] foodTypes, ToyType[] toyTypes, PolicyTable[] tables) {
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		this.tables = tables;
+		
+		actions = new CareAction[PolicyTable.FIRST_ITEM + foodTypes.length + toyTypes.length];
+		actions[PolicyTable.END_TURN] = new CareAction(PetAction.END_TURN);
+		actions[PolicyTable.SLEEP] = new CareAction(PetAction.SLEEP);
+		actions[PolicyTable.TOILET] = new CareAction(PetAction.TOILET);
+		actions[PolicyTable.CURE] = new CareAction(PetAction.CURE);
+		actions[PolicyTable.DISCIPLINE] = new CareAction(PetAction.DISCIPLINE);
+		actions[PolicyTable.REVIVE] = new CareAction(PetAction.REVIVE);
+		for (int i=0; i<foodTypes.length; i++)
+			actions[PolicyTable.FIRST_ITEM + i] = new CareAction(foodTypes[i]);
+		for (int i=0; i<toyTypes.length; i++)
+			actions[PolicyTable.FIRST_ITEM + foodTypes.length + i] = new CareAction(toyTypes[i]);
+	}
+	
+	// Getters
+	public PolicyTable[] getTables() {
+		return tables;
+	}
+	// End Getters
+	
+	/**
+	 * Gets the table for a species.
+	 * @param species
+	 * The species to get the table for.
+	 * @return
+	 * The table solved for the species, or null if there is none.
+	 */
+	public PolicyTable getTable(Species species) {
+		PolicyTable table = speciesTables.get(species);
+		if (table == null) {
+			table = NO_TABLE;
+			for (PolicyTable candidate : tables)
+				if (candidate.matches(species))
+					table = candidate;
+			speciesTables.put(species, table);
+		}
+		return (table == NO_TABLE) ? null : table;
+	}
+	
+	/**
+	 * Suggests the best action to take with a pet. Favourite foods and toys are not taken into account.
+	 * @param pet
+	 * The pet to suggest an action for.
+	 * @return
+	 * The suggested action, or null if the library has no table for the pet's species.
+	 */
+	public CareAction suggest(Pet pet) {
+		PolicyTable table = getTable(pet.getSpecies());
+		if (table == null)
+			return null;
+		return actions[table.getActionCode(pet)];
+	}
+	
+	/**
+	 * Gets the action for an action code.
+	 */
+	CareAction getAction(int code) {
+		return actions[code];
+	}
+	
+	/**
+	 * Saves the library to a file.
+	 * @param file
+	 * The file to save to.
+	 * @throws IOException
+	 * If the file cannot be written.
+	 */
+	public void save(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(foodTypes.length);
+			for (FoodType foodType : foodTypes)
+				out.writeUTF(foodType.getName());
+			out.writeInt(toyTypes.length);
+			for (ToyType toyType : toyTypes)
+				out.writeUTF(toyType.getName());
+			out.writeInt(tables.length);
+			for (PolicyTable table : tables)
+				table.write(out);
+		}
+		finally {
+			out.close();
+		}
+	}
+	
+	/**
+	 * Loads a library from a file, matching the food and toy types it was solved with to those in the game by name.
+	 * @param file
+	 * The file to load.
+	 * @param foodTypes
+	 * The food types in the game.
+	 * @param toyTypes
+	 * The toy types in the game.
+	 * @return
+	 * The library loaded.
+	 * @throws IOException
+	 * If the file cannot be read, is not a policy file, or was solved with a food or toy type that is not in the game.
+	 */
+	public static PolicyLibrary load(File file, FoodType[] foodTypes, ToyType[] toyTypes) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+		try {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file.getName() + " is not a policy file.");
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException(file.getName() + " is version " + version + " of the policy file format, expected version " + VERSION + ".");
+			
+			FoodType[] solvedFoodTypes = new FoodType[in.readInt()];
+			for (int i=0; i<solvedFoodTypes.length; i++) {
+				String name = in.readUTF();
+				for (FoodType foodType : foodTypes)
+					if (foodType.getName().equals(name))
+						solvedFoodTypes[i] = foodType;
+				if (solvedFoodTypes[i] == null)
+					throw new IOException("Policies were solved with the food type " + name + ", which is not in this game.");
+			}
+			ToyType[] solvedToyTypes = new ToyType[in.readInt()];
+			for (int i=0; i<solvedToyTypes.length; i++) {
+				String name = in.readUTF();
+				for (ToyType toyType : toyTypes)
+					if (toyType.getName().equals(name))
+						solvedToyTypes[i] = toyType;
+				if (solvedToyTypes[i] == null)
+					throw new IOException("Policies were solved with the toy type " + name + ", which is not in this game.");
+			}
+			
+			int actionCount = PolicyTable.FIRST_ITEM + solvedFoodTypes.length + solvedToyTypes.length;
+			PolicyTable[] tables = new PolicyTable[in.readInt()];
+			for (int i=0; i<tables.length; i++)
+				tables[i] = PolicyTable.read(in, actionCount);
+			return new PolicyLibrary(solvedFoodTypes, solvedToyTypes, tables);
+		}
+		finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,465 @@
+package planning;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import assetshandler.AssetsLoader;
+import model.FoodType;
+import model.Pet;
+import model.Species;
+import model.ToyType;
+
+/**
+ * Works out the best way to care for a pet of each species by value iteration over its discretised states (see
+ * PolicyTable), and saves the resulting policies for the game and simulator to use. Each state is valued as the
+ * discounted score the pet can be expected to earn from it, less the money spent on it weighted by the money weight.
+ *
+ * Every action but ending the turn only changes each of the pet's stats based on that stat's own value, so the effect
+ * of each action is worked out once per level of each stat by applying it to a real pet. Ending the turn is worked
+ * out for every state by finishing the turn of a real pet with each combination of random events forced, weighted by
+ * the chances from RiskForecaster. The solver assumes the player can always afford to buy what it suggests, and does
+ * not give any bonus for favourite food or toys, which differ between pets of the same species.
+ *
+ * Each iteration values the states with no actions left, then one action left, then two, each in parallel across a
+ * fork-join pool. Every state in a sweep only reads values from earlier sweeps, so the policies found are the same
+ * however many threads are used.
+ *
+ * Usage: PolicySolver [--out file] [--discount n] [--money-weight n] [--iterations n] [--threads n] [--assets folder]
+ * @author Andrew Davidson (ada130)
+ */
+public class PolicySolver {
+	// The number of states each fork-join task sweeps itself rather than splitting further
+	private static final int SWEEP_SIZE = 8192;
+	private static final int OUTCOMES = ActionModel.OUTCOMES;
+	// Next states for the outcomes of ending a turn in which the pet dies
+	private static final int DEAD = -1;
+	private static final int DEAD_REVIVABLE = -2;
+	// Sweeps valuing the states with each number of actions left
+	private static final int NO_ACTIONS_LEFT = 0;
+	private static final int ONE_ACTION_LEFT = 1;
+	private static final int TWO_ACTIONS_LEFT = 2;
+	
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private ActionModel model;
+	private double discount = 0.9;
+	private double moneyWeight = 1;
+	private double tolerance = 0.01;
+	private int maxIterations = 500;
+	
+	/**
+	 * Creates a solver for the food and toy types available in the shop.
+	 * @param foodTypes
+	 * The food types the policies may feed pets.
+	 * @param toyTypes
+	 * The toy types the policies may play with pets with.
+	 * @throws IllegalArgumentException
+	 * If there are too many food and toy types to fit every action in a policy table.
+	 */
+	public PolicySolver(FoodType[] foodTypes, ToyType[] toyTypes) {
+		if (PolicyTable.FIRST_ITEM + foodTypes.length + toyTypes.length > Byte.MAX_VALUE)
+			throw new IllegalArgumentException("Cannot solve policies for " + foodTypes.length + " food types and " + toyTypes.length + " toy types.");
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		model = new ActionModel(foodTypes, toyTypes);
+	}
+	
+	// Setters
+	public void setDiscount(double discount) {
+		if (discount < 0 || discount >= 1)
+			throw new IllegalArgumentException("Discount must be at least 0 and less than 1.");
+		this.discount = discount;
+	}
+	
+	public void setMoneyWeight(double moneyWeight) {
+		this.moneyWeight = moneyWeight;
+	}
+	
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+	
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+	// End Setters
+	
+	/**
+	 * Solves the policy for every species.
+	 * @param species
+	 * The species to solve policies for.
+	 * @param pool
+	 * The fork-join pool to solve in.
+	 * @return
+	 * A library of the policies.
+	 */
+	public PolicyLibrary solve(Species[] species, ForkJoinPool pool) {
+		PolicyTable[] tables = new PolicyTable[species.length];
+		for (int i=0; i<species.length; i++)
+			tables[i] = solve(species[i], pool);
+		return new PolicyLibrary(foodTypes, toyTypes, tables);
+	}
+	
+	/**
+	 * Solves the policy for a species.
+	 * @param species
+	 * The species to solve the policy for.
+	 * @param pool
+	 * The fork-join pool to solve in.
+	 * @return
+	 * The policy table for the species.
+	 */
+	public PolicyTable solve(Species species, ForkJoinPool pool) {
+		return new SpeciesSolver(species).solve(pool);
+	}
+	
+	/**
+	 * The model of one species' states and the value iteration over them.
+	 */
+	private class SpeciesSolver {
+		private Species species;
+		private int optimumWeight;
+		private int actionCount;
+		
+		// For each action other than ending the turn and reviving: the level each stat moves to from each level and the
+		// flags each combination of flags becomes, as parts of the index of the next state, and the weighted money spent
+		private int[][] hungerNext, energyNext, happinessNext, weightNext, flagsNext;
+		private double[] actionCost;
+		
+		// For each state: the score for ending the turn, and each outcome's next state and probability
+		private double[] score = new double[PolicyTable.STATES];
+		private int[] outcomeNext = new int[PolicyTable.STATES * OUTCOMES];
+		private float[] outcomeProbability = new float[PolicyTable.STATES * OUTCOMES];
+		private int revived;
+		private double reviveCost;
+		
+		// The value of each state with each number of actions left, and of a dead pet which can be revived
+		private double[][] values = new double[3][PolicyTable.STATES];
+		private double deadRevivableValue;
+		
+		SpeciesSolver(Species species) {
+			this.species = species;
+			optimumWeight = species.getOptimumWeight();
+			actionCount = model.getActionCount();
+			reviveCost = model.getCost(species, PolicyTable.REVIVE) * moneyWeight;
+			
+			hungerNext = new int[actionCount][];
+			energyNext = new int[actionCount][];
+			happinessNext = new int[actionCount][];
+			weightNext = new int[actionCount][];
+			flagsNext = new int[actionCount][];
+			actionCost = new double[actionCount];
+			for (int action=0; action<actionCount; action++)
+				if (action != PolicyTable.END_TURN && action != PolicyTable.REVIVE)
+					tabulateAction(action);
+			
+			Pet pet = new Pet(null, species, true, true, false, true, 0, 0, 0, 0, 0, null, null);
+			pet.revive();
+			revived = getIndex(pet);
+		}
+		
+		/**
+		 * Works out the effect of an action on each level of each stat.
+		 */
+		private void tabulateAction(int action) {
+			int[] hunger = new int[PolicyTable.HUNGER_LEVELS];
+			for (int level=0; level<hunger.length; level++) {
+				Pet pet = createPet(PolicyTable.FLAG_HEALTHY | PolicyTable.FLAG_BEHAVING, level * PolicyTable.HUNGER_STEP, 50, 50, optimumWeight);
+				model.apply(pet, action);
+				hunger[level] = PolicyTable.level(pet.getHunger(), PolicyTable.HUNGER_STEP, PolicyTable.HUNGER_LEVELS);
+			}
+			int[] energy = new int[PolicyTable.ENERGY_LEVELS];
+			for (int level=0; level<energy.length; level++) {
+				Pet pet = createPet(PolicyTable.FLAG_HEALTHY | PolicyTable.FLAG_BEHAVING, 50, level * PolicyTable.ENERGY_STEP, 50, optimumWeight);
+				model.apply(pet, action);
+				energy[level] = PolicyTable.level(pet.getEnergy(), PolicyTable.ENERGY_STEP, PolicyTable.ENERGY_LEVELS);
+			}
+			int[] happiness = new int[PolicyTable.HAPPINESS_LEVELS];
+			for (int level=0; level<happiness.length; level++) {
+				Pet pet = createPet(PolicyTable.FLAG_HEALTHY | PolicyTable.FLAG_BEHAVING, 50, 50, level * PolicyTable.HAPPINESS_STEP, optimumWeight);
+				model.apply(pet, action);
+				happiness[level] = PolicyTable.level(pet.getHappiness(), PolicyTable.HAPPINESS_STEP, PolicyTable.HAPPINESS_LEVELS);
+			}
+			int[] weight = new int[PolicyTable.WEIGHT_LEVELS];
+			for (int level=0; level<weight.length; level++) {
+				Pet pet = createPet(PolicyTable.FLAG_HEALTHY | PolicyTable.FLAG_BEHAVING, 50, 50, 50, PolicyTable.getWeight(level, optimumWeight));
+				model.apply(pet, action);
+				weight[level] = PolicyTable.getWeightLevel(pet.getWeight(), optimumWeight);
+			}
+			int[] flags = new int[PolicyTable.FLAG_COMBINATIONS];
+			for (int combination=0; combination<flags.length; combination++) {
+				Pet pet = createPet(combination, 50, 50, 50, optimumWeight);
+				model.apply(pet, action);
+				flags[combination] = getFlags(pet);
+			}
+			
+			// Each level is stored as its part of the index of the next state, so that the parts can simply be added up
+			for (int level=0; level<energy.length; level++)
+				energy[level] = PolicyTable.getIndex(0, energy[level], 0, 0, 0);
+			for (int level=0; level<happiness.length; level++)
+				happiness[level] = PolicyTable.getIndex(0, 0, happiness[level], 0, 0);
+			for (int level=0; level<weight.length; level++)
+				weight[level] = PolicyTable.getIndex(0, 0, 0, weight[level], 0);
+			for (int combination=0; combination<flags.length; combination++)
+				flags[combination] = PolicyTable.getIndex(0, 0, 0, 0, flags[combination]);
+			hungerNext[action] = hunger;
+			energyNext[action] = energy;
+			happinessNext[action] = happiness;
+			weightNext[action] = weight;
+			flagsNext[action] = flags;
+			actionCost[action] = model.getCost(species, action) * moneyWeight;
+		}
+		
+		/**
+		 * Works out the score and outcomes of ending the turn in every state from start to end.
+		 */
+		private void tabulateEndTurn(int start, int end) {
+			Pet[] outcomes = new Pet[OUTCOMES];
+			double[] probabilities = new double[OUTCOMES];
+			for (int state=start; state<end; state++) {
+				int[] levels = getLevels(state);
+				Pet pet = createPet(levels[4], levels[0] * PolicyTable.HUNGER_STEP, levels[1] * PolicyTable.ENERGY_STEP,
+						levels[2] * PolicyTable.HAPPINESS_STEP, PolicyTable.getWeight(levels[3], optimumWeight));
+				score[state] = ActionModel.finishTurn(pet, outcomes, probabilities);
+				for (int outcome=0; outcome<OUTCOMES; outcome++) {
+					int slot = state * OUTCOMES + outcome;
+					outcomeProbability[slot] = (float)probabilities[outcome];
+					if (outcomes[outcome] == null || !outcomes[outcome].isAlive())
+						outcomeNext[slot] = (outcomes[outcome] != null && outcomes[outcome].isRevivable()) ? DEAD_REVIVABLE : DEAD;
+					else
+						outcomeNext[slot] = getIndex(outcomes[outcome]);
+				}
+			}
+		}
+		
+		/**
+		 * Values every state from start to end for one sweep of an iteration.
+		 * @return
+		 * The largest change in value.
+		 */
+		private double sweep(int sweep, int start, int end) {
+			double[] current = values[sweep];
+			double change = 0;
+			for (int state=start; state<end; state++) {
+				double value;
+				if (sweep == NO_ACTIONS_LEFT) {
+					double expected = 0;
+					for (int slot=state*OUTCOMES; slot<(state+1)*OUTCOMES; slot++) {
+						int next = outcomeNext[slot];
+						if (next >= 0)
+							expected += outcomeProbability[slot] * values[TWO_ACTIONS_LEFT][next];
+						else if (next == DEAD_REVIVABLE)
+							expected += outcomeProbability[slot] * deadRevivableValue;
+					}
+					value = score[state] + discount * expected;
+				}
+				else {
+					// Ending the turn early is always an option
+					value = values[NO_ACTIONS_LEFT][state];
+					double[] afterAction = values[sweep - 1];
+					int[] levels = getLevels(state);
+					for (int action=1; action<actionCount; action++)
+						if (action != PolicyTable.REVIVE)
+							value = Math.max(value, afterAction[getNext(levels, action)] - actionCost[action]);
+				}
+				change = Math.max(change, Math.abs(value - current[state]));
+				current[state] = value;
+			}
+			return change;
+		}
+		
+		/**
+		 * Runs value iteration until the values settle, then picks the best action in every state.
+		 */
+		PolicyTable solve(ForkJoinPool pool) {
+			pool.invoke(new Sweep(-1, 0, PolicyTable.STATES));
+			
+			for (int iteration=0; iteration<maxIterations; iteration++) {
+				double change = pool.invoke(new Sweep(NO_ACTIONS_LEFT, 0, PolicyTable.STATES));
+				change = Math.max(change, pool.invoke(new Sweep(ONE_ACTION_LEFT, 0, PolicyTable.STATES)));
+				change = Math.max(change, pool.invoke(new Sweep(TWO_ACTIONS_LEFT, 0, PolicyTable.STATES)));
+				double deadRevivable = Math.max(discount * deadRevivableValue, values[NO_ACTIONS_LEFT][revived] - reviveCost);
+				change = Math.max(change, Math.abs(deadRevivable - deadRevivableValue));
+				deadRevivableValue = deadRevivable;
+				if (change < tolerance)
+					break;
+			}
+			
+			byte[] oneActionLeft = new byte[PolicyTable.STATES];
+			byte[] twoActionsLeft = new byte[PolicyTable.STATES];
+			for (int state=0; state<PolicyTable.STATES; state++) {
+				oneActionLeft[state] = (byte)getBestAction(state, values[NO_ACTIONS_LEFT]);
+				twoActionsLeft[state] = (byte)getBestAction(state, values[ONE_ACTION_LEFT]);
+			}
+			boolean reviveWhenDead = values[NO_ACTIONS_LEFT][revived] - reviveCost >= discount * deadRevivableValue;
+			return new PolicyTable(species, reviveWhenDead, oneActionLeft, twoActionsLeft);
+		}
+		
+		/**
+		 * Gets the best action in a state, given the values of the states after taking it. Ties go to ending the turn,
+		 * then to the action with the lowest code.
+		 */
+		private int getBestAction(int state, double[] afterAction) {
+			int best = PolicyTable.END_TURN;
+			double bestValue = values[NO_ACTIONS_LEFT][state];
+			int[] levels = getLevels(state);
+			for (int action=1; action<actionCount; action++) {
+				if (action == PolicyTable.REVIVE)
+					continue;
+				double value = afterAction[getNext(levels, action)] - actionCost[action];
+				if (value > bestValue) {
+					best = action;
+					bestValue = value;
+				}
+			}
+			return best;
+		}
+		
+		/**
+		 * Gets the state reached by taking an action from a state with the given levels.
+		 */
+		private int getNext(int[] levels, int action) {
+			return hungerNext[action][levels[0]] + energyNext[action][levels[1]] + happinessNext[action][levels[2]]
+					+ weightNext[action][levels[3]] + flagsNext[action][levels[4]];
+		}
+		
+		/**
+		 * Gets the level of hunger, energy, happiness and weight, then the flags, of a state.
+		 */
+		private int[] getLevels(int state) {
+			int[] levels = new int[5];
+			levels[0] = state % PolicyTable.HUNGER_LEVELS;
+			state /= PolicyTable.HUNGER_LEVELS;
+			levels[1] = state % PolicyTable.ENERGY_LEVELS;
+			state /= PolicyTable.ENERGY_LEVELS;
+			levels[2] = state % PolicyTable.HAPPINESS_LEVELS;
+			state /= PolicyTable.HAPPINESS_LEVELS;
+			levels[3] = state % PolicyTable.WEIGHT_LEVELS;
+			levels[4] = state / PolicyTable.WEIGHT_LEVELS;
+			return levels;
+		}
+		
+		private int getIndex(Pet pet) {
+			return PolicyTable.getIndex(pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight(), optimumWeight,
+					pet.isHealthy(), pet.isBehaving(), pet.isRevivable());
+		}
+		
+		private Pet createPet(int flags, int hunger, int energy, int happiness, int weight) {
+			return new Pet(null, species, (flags & PolicyTable.FLAG_HEALTHY) != 0, (flags & PolicyTable.FLAG_BEHAVING) != 0,
+					true, (flags & PolicyTable.FLAG_REVIVABLE) != 0, hunger, energy, happiness, weight, 2, null, null);
+		}
+		
+		private int getFlags(Pet pet) {
+			return (pet.isHealthy() ? PolicyTable.FLAG_HEALTHY : 0) | (pet.isBehaving() ? PolicyTable.FLAG_BEHAVING : 0)
+					| (pet.isRevivable() ? PolicyTable.FLAG_REVIVABLE : 0);
+		}
+		
+		/**
+		 * A range of states to sweep, or to work out the outcomes of ending the turn in if the sweep is -1. Ranges larger
+		 * than SWEEP_SIZE are split in half.
+		 */
+		private class Sweep extends RecursiveTask<Double> {
+			private static final long serialVersionUID = 1L;
+			
+			private int sweep, start, end;
+			
+			Sweep(int sweep, int start, int end) {
+				this.sweep = sweep;
+				this.start = start;
+				this.end = end;
+			}
+			
+			@Override
+			protected Double compute() {
+				if (end - start <= SWEEP_SIZE) {
+					if (sweep == -1) {
+						tabulateEndTurn(start, end);
+						return 0.0;
+					}
+					return sweep(sweep, start, end);
+				}
+				
+				int middle = start + (end - start) / 2;
+				Sweep first = new Sweep(sweep, start, middle);
+				Sweep second = new Sweep(sweep, middle, end);
+				first.fork();
+				double change = second.compute();
+				return Math.max(change, first.join());
+			}
+		}
+	}
+	
+	/**
+	 * Solves policies for every species from the command line, saving them to a file.
+	 * @param args
+	 * The options described in the class documentation.
+	 */
+	public static void main(String[] args) {
+		try {
+			Species[] species;
+			FoodType[] foodTypes;
+			ToyType[] toyTypes;
+			int assetsIndex = Arrays.asList(args).indexOf("--assets");
+			if (assetsIndex != -1 && assetsIndex + 1 < args.length) {
+				Object[][] customAssets = AssetsLoader.loadCustomAssetsFile(new File(args[assetsIndex + 1]));
+				species = Arrays.copyOf(customAssets[0], customAssets[0].length, Species[].class);
+				foodTypes = Arrays.copyOf(customAssets[1], customAssets[1].length, FoodType[].class);
+				toyTypes = Arrays.copyOf(customAssets[2], customAssets[2].length, ToyType[].class);
+			}
+			else {
+				species = AssetsLoader.loadCustomSpeciesFile(PolicySolver.class.getResourceAsStream("/default_species.txt"));
+				toyTypes = AssetsLoader.loadCustomToyTypesFile(PolicySolver.class.getResourceAsStream("/default_toytypes.txt"));
+				foodTypes = AssetsLoader.loadCustomFoodTypesFile(PolicySolver.class.getResourceAsStream("/default_foodtypes.txt"));
+			}
+			
+			PolicySolver solver = new PolicySolver(foodTypes, toyTypes);
+			File out = new File("policies.bin");
+			int threads = Runtime.getRuntime().availableProcessors();
+			for (int i=0; i+1<args.length; i+=2) {
+				String value = args[i+1];
+				switch (args[i]) {
+				case "--out":
+					out = new File(value);
+					break;
+				case "--discount":
+					solver.setDiscount(Double.parseDouble(value));
+					break;
+				case "--money-weight":
+					solver.setMoneyWeight(Double.parseDouble(value));
+					break;
+				case "--iterations":
+					solver.setMaxIterations(Integer.parseInt(value));
+					break;
+				case "--threads":
+					threads = Integer.parseInt(value);
+					break;
+				case "--assets":
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option '" + args[i] + "'.");
+				}
+			}
+			
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			PolicyTable[] tables = new PolicyTable[species.length];
+			for (int i=0; i<species.length; i++) {
+				long startTime = System.nanoTime();
+				tables[i] = solver.solve(species[i], pool);
+				System.out.println(String.format("Solved %s in %.2f s", species[i].getName(), (System.nanoTime() - startTime) / 1e9));
+			}
+			new PolicyLibrary(foodTypes, toyTypes, tables).save(out);
+			System.out.println("Saved policies to " + out.getPath());
+		}
+		catch (IOException exc) {
+			System.err.println("Could not load assets or save policies: " + exc.getMessage());
+			System.exit(1);
+		}
+		catch (IllegalArgumentException exc) {
+			System.err.println(exc.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package planning;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import model.Pet;
+import model.Species;
+
+/**
+ * The best action to take with a pet of one species in every state, as worked out by PolicySolver. States are
+ * discretised: hunger and energy to the nearest 5, happiness to the nearest 10, and weight to the nearest twelfth of
+ * the species' optimum weight, up to twice the optimum weight. Along with whether the pet is healthy, behaving and
+ * revivable, and how many actions it has left, this gives the index of its action in the table, so looking up an action
+ * takes constant time.
+ * @author Andrew Davidson (ada130)
+ */
+public class PolicyTable {
+	// Discretisation of the state space
+	static final int HUNGER_STEP = 5;
+	static final int HUNGER_LEVELS = 100/HUNGER_STEP + 1;
+	static final int ENERGY_STEP = 5;
+	static final int ENERGY_LEVELS = 100/ENERGY_STEP + 1;
+	static final int HAPPINESS_STEP = 10;
+	static final int HAPPINESS_LEVELS = 100/HAPPINESS_STEP + 1;
+	static final int WEIGHT_DIVISIONS = 12;
+	static final int WEIGHT_LEVELS = WEIGHT_DIVISIONS*2 + 1;
+	static final int FLAG_HEALTHY = 1;
+	static final int FLAG_BEHAVING = 2;
+	static final int FLAG_REVIVABLE = 4;
+	static final int FLAG_COMBINATIONS = 8;
+	static final int STATES = HUNGER_LEVELS * ENERGY_LEVELS * HAPPINESS_LEVELS * WEIGHT_LEVELS * FLAG_COMBINATIONS;
+	
+	// Action codes stored in the table. Codes from FIRST_ITEM onwards feed each food type, then play with each toy type
+	static final int END_TURN = 0;
+	static final int SLEEP = 1;
+	static final int TOILET = 2;
+	static final int CURE = 3;
+	static final int DISCIPLINE = 4;
+	static final int REVIVE = 5;
+	static final int FIRST_ITEM = 6;
+	
+	private String speciesName;
+	private int optimumWeight, hungerGain, energyLoss, happinessLoss, minToyDamage, maxToyDamage;
+	private boolean reviveWhenDead;
+	private byte[] oneActionLeft;
+	private byte[] twoActionsLeft;
+	
+	/**
+	 * Creates a table for a species.
+	 * @param species
+	 * The species the table was solved for.
+	 * @param reviveWhenDead
+	 * Whether a dead pet which can be revived should be.
+	 * @param oneActionLeft
+	 * The action code for each state when the pet has one action left.
+	 * @param twoActionsLeft
+	 * The action code for each state when the pet has two actions left.
+	 */
+	PolicyTable(Species species, boolean reviveWhenDead, byte[] oneActionLeft, byte[] twoActionsLeft) {
+		this(species.getName(), species.getOptimumWeight(), species.getHungerGain(), species.getEnergyLoss(),
+				species.getHappinessLoss(), species.getMinToyDamage(), species.getMaxToyDamage(), reviveWhenDead,
+				oneActionLeft, twoActionsLeft);
+	}
+	
+	private PolicyTable(String speciesName, int optimumWeight, int hungerGain, int energyLoss, int happinessLoss,
+			int minToyDamage, int maxToyDamage, boolean reviveWhenDead, byte[] oneActionLeft, byte[] twoActionsLeft) {
+		this.speciesName = speciesName;
+		this.optimumWeight = optimumWeight;
+		this.hungerGain = hungerGain;
+		this.energyLoss = energyLoss;
+		this.happinessLoss = happinessLoss;
+		this.minToyDamage = minToyDamage;
+		this.maxToyDamage = maxToyDamage;
+		this.reviveWhenDead = reviveWhenDead;
+		this.oneActionLeft = oneActionLeft;
+		this.twoActionsLeft = twoActionsLeft;
+	}
+	
+	// Getters
+	public String getSpeciesName() {
+		return speciesName;
+	}
+	// End Getters
+	
+	/**
+	 * Checks whether this table was solved for a species. Species are matched by name and by every attribute that
+	 * affects how their pets are cared for, so a table is not used for a species that has since been changed.
+	 * @param species
+	 * The species to check.
+	 * @return
+	 * True if the table applies to the species, false otherwise.
+	 */
+	public boolean matches(Species species) {
+		return speciesName.equals(species.getName()) && optimumWeight == species.getOptimumWeight()
+				&& hungerGain == species.getHungerGain() && energyLoss == species.getEnergyLoss()
+				&& happinessLoss == species.getHappinessLoss() && minToyDamage == species.getMinToyDamage()
+				&& maxToyDamage == species.getMaxToyDamage();
+	}
+	
+	/**
+	 * Gets the code of the best action to take with a pet of this table's species.
+	 * @param pet
+	 * The pet to look up.
+	 * @return
+	 * The action code.
+	 */
+	int getActionCode(Pet pet) {
+		if (!pet.isAlive())
+			return (pet.isRevivable() && reviveWhenDead) ? REVIVE : END_TURN;
+		if (pet.getActionPoints() <= 0)
+			return END_TURN;
+		int index = getIndex(pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight(), optimumWeight,
+				pet.isHealthy(), pet.isBehaving(), pet.isRevivable());
+		return (pet.getActionPoints() == 1) ? oneActionLeft[index] : twoActionsLeft[index];
+	}
+	
+	/**
+	 * Gets the index of a state in the table.
+	 */
+	static int getIndex(int hunger, int energy, int happiness, int weight, int optimumWeight, boolean healthy,
+			boolean behaving, boolean revivable) {
+		int flags = (healthy ? FLAG_HEALTHY : 0) | (behaving ? FLAG_BEHAVING : 0) | (revivable ? FLAG_REVIVABLE : 0);
+		return getIndex(level(hunger, HUNGER_STEP, HUNGER_LEVELS), level(energy, ENERGY_STEP, ENERGY_LEVELS),
+				level(happiness, HAPPINESS_STEP, HAPPINESS_LEVELS), getWeightLevel(weight, optimumWeight), flags);
+	}
+	
+	/**
+	 * Gets the index of a state in the table from the level of each stat.
+	 */
+	static int getIndex(int hungerLevel, int energyLevel, int happinessLevel, int weightLevel, int flags) {
+		return (((flags * WEIGHT_LEVELS + weightLevel) * HAPPINESS_LEVELS + happinessLevel) * ENERGY_LEVELS + energyLevel)
+				* HUNGER_LEVELS + hungerLevel;
+	}
+	
+	/**
+	 * Gets the level a stat is discretised to, rounding to the nearest level.
+	 */
+	static int level(int value, int step, int levels) {
+		int level = (value + step/2) / step;
+		if (level < 0)
+			return 0;
+		return Math.min(level, levels - 1);
+	}
+	
+	/**
+	 * Gets the level a weight is discretised to, in twelfths of the optimum weight.
+	 */
+	static int getWeightLevel(int weight, int optimumWeight) {
+		int level = (int)Math.round((double)weight * WEIGHT_DIVISIONS / Math.max(optimumWeight, 1));
+		if (level < 0)
+			return 0;
+		return Math.min(level, WEIGHT_LEVELS - 1);
+	}
+	
+	/**
+	 * Gets the weight a weight level stands for.
+	 */
+	static int getWeight(int weightLevel, int optimumWeight) {
+		return (int)Math.round((double)weightLevel * optimumWeight / WEIGHT_DIVISIONS);
+	}
+	
+	/**
+	 * Writes the table to a stream.
+	 * @param out
+	 * The stream to write to.
+	 * @throws IOException
+	 * If the stream cannot be written to.
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeUTF(speciesName);
+		out.writeInt(optimumWeight);
+		out.writeInt(hungerGain);
+		out.writeInt(energyLoss);
+		out.writeInt(happinessLoss);
+		out.writeInt(minToyDamage);
+		out.writeInt(maxToyDamage);
+		out.writeBoolean(reviveWhenDead);
+		out.write(oneActionLeft);
+		out.write(twoActionsLeft);
+	}
+	
+	/**
+	 * Reads a table written by write.
+	 * @param in
+	 * The stream to read from.
+	 * @param actionCount
+	 * The number of action codes, used to check that the table is valid.
+	 * @return
+	 * The table read.
+	 * @throws IOException
+	 * If the stream cannot be read, or does not contain a valid table.
+	 */
+	static PolicyTable read(DataInputStream in, int actionCount) throws IOException {
+		String speciesName = in.readUTF();
+		int optimumWeight = in.readInt();
+		int hungerGain = in.readInt();
+		int energyLoss = in.readInt();
+		int happinessLoss = in.readInt();
+		int minToyDamage = in.readInt();
+		int maxToyDamage = in.readInt();
+		boolean reviveWhenDead = in.readBoolean();
+		byte[] oneActionLeft = new byte[STATES];
+		in.readFully(oneActionLeft);
+		byte[] twoActionsLeft = new byte[STATES];
+		in.readFully(twoActionsLeft);
+		
+		for (int i=0; i<STATES; i++)
+			if (oneActionLeft[i] < 0 || oneActionLeft[i] >= actionCount || twoActionsLeft[i] < 0 || twoActionsLeft[i] >= actionCount)
+				throw new IOException("Policy table for " + speciesName + " contains an invalid action.");
+		return new PolicyTable(speciesName, optimumWeight, hungerGain, energyLoss, happinessLoss, minToyDamage,
+				maxToyDamage, reviveWhenDead, oneActionLeft, twoActionsLeft);
+	}
+}
@@ -0,0 +1,181 @@
+package saves;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A view of one game's fixed-size record in a GameArchive, read straight from the mapped archive without copying. A
+ * scan moves a single view from record to record, so the view is only valid until the visitor returns.
+ *
+ * The record holds the first INLINE_PLAYERS players' scores and money, and the first INLINE_PETS pets' owners,
+ * species and final stats. Species are identified by the hash code of their key. Names, round scores, and any
+ * further players and pets are kept in the archive's overflow region, and are read with GameArchive.get.
+ * @author Andrew Davidson (ada130)
+ */
+public class ArchiveRecord {
+	public static final int INLINE_PLAYERS = 3;
+	public static final int INLINE_PETS = 9;
+	
+	static final int SIZE = 256;
+	static final int ID = 0;
+	static final int NUMBER_OF_DAYS = 8;
+	static final int NUMBER_OF_PLAYERS = 12;
+	static final int NUMBER_OF_PETS = 16;
+	static final int OVERFLOW_LENGTH = 20;
+	static final int OVERFLOW_OFFSET = 24;
+	static final int PLAYERS = 32;
+	static final int PLAYER_SIZE = 8;
+	static final int PETS = PLAYERS + INLINE_PLAYERS * PLAYER_SIZE;
+	static final int PET_SIZE = 16;
+	
+	private ByteBuffer block;
+	private int offset;
+	private long index;
+	
+	/**
+	 * Points the view at a record.
+	 */
+	void moveTo(ByteBuffer block, int offset, long index) {
+		this.block = block;
+		this.offset = offset;
+		this.index = index;
+	}
+	
+	/**
+	 * @return
+	 * The index of the record in the archive.
+	 */
+	public long getIndex() {
+		return index;
+	}
+	
+	public long getId() {
+		return block.getLong(offset + ID);
+	}
+	
+	public int getNumberOfDays() {
+		return block.getInt(offset + NUMBER_OF_DAYS);
+	}
+	
+	public int getNumberOfPlayers() {
+		return block.getInt(offset + NUMBER_OF_PLAYERS);
+	}
+	
+	public int getNumberOfPets() {
+		return block.getInt(offset + NUMBER_OF_PETS);
+	}
+	
+	/**
+	 * @param player
+	 * The index of the player, less than INLINE_PLAYERS.
+	 * @return
+	 * The player's final score.
+	 */
+	public int getScore(int player) {
+		return block.getInt(getPlayer(player));
+	}
+	
+	/**
+	 * @param player
+	 * The index of the player, less than INLINE_PLAYERS.
+	 * @return
+	 * The player's money at the end of the game.
+	 */
+	public int getMoney(int player) {
+		return block.getInt(getPlayer(player) + 4);
+	}
+	
+	/**
+	 * @param pet
+	 * The index of the pet among all players' pets, less than INLINE_PETS.
+	 * @return
+	 * The hash code of the key of the pet's species.
+	 */
+	public int getPetSpeciesHash(int pet) {
+		return block.getInt(getPet(pet));
+	}
+	
+	/**
+	 * @param pet
+	 * The index of the pet among all players' pets, less than INLINE_PETS.
+	 * @return
+	 * The index of the player owning the pet.
+	 */
+	public int getPetOwner(int pet) {
+		return block.get(getPet(pet) + 4);
+	}
+	
+	/**
+	 * @param pet
+	 * The index of the pet among all players' pets, less than INLINE_PETS.
+	 * @return
+	 * The pet's status, as GameResult's HEALTHY, BEHAVING, ALIVE and REVIVABLE flags.
+	 */
+	public int getPetFlags(int pet) {
+		return block.get(getPet(pet) + 5);
+	}
+	
+	public int getPetHunger(int pet) {
+		return block.getShort(getPet(pet) + 6);
+	}
+	
+	public int getPetEnergy(int pet) {
+		return block.getShort(getPet(pet) + 8);
+	}
+	
+	public int getPetHappiness(int pet) {
+		return block.getShort(getPet(pet) + 10);
+	}
+	
+	public int getPetWeight(int pet) {
+		return block.getInt(getPet(pet) + 12);
+	}
+	
+	int getOverflowLength() {
+		return block.getInt(offset + OVERFLOW_LENGTH);
+	}
+	
+	long getOverflowOffset() {
+		return block.getLong(offset + OVERFLOW_OFFSET);
+	}
+	
+	private int getPlayer(int player) {
+		if (player < 0 || player >= Math.min(getNumberOfPlayers(), INLINE_PLAYERS))
+			throw new IndexOutOfBoundsException("Player " + player + " is not kept in the record.");
+		return offset + PLAYERS + player * PLAYER_SIZE;
+	}
+	
+	private int getPet(int pet) {
+		if (pet < 0 || pet >= Math.min(getNumberOfPets(), INLINE_PETS))
+			throw new IndexOutOfBoundsException("Pet " + pet + " is not kept in the record.");
+		return offset + PETS + pet * PET_SIZE;
+	}
+	
+	/**
+	 * Writes the fixed-size part of a result into a record.
+	 */
+	static void write(ByteBuffer block, int offset, GameResult result, long overflowOffset, int overflowLength) {
+		int numberOfPlayers = result.getPlayerNames().length;
+		int numberOfPets = result.getPetNames().length;
+		block.putLong(offset + ID, result.getId());
+		block.putInt(offset + NUMBER_OF_DAYS, result.getNumberOfDays());
+		block.putInt(offset + NUMBER_OF_PLAYERS, numberOfPlayers);
+		block.putInt(offset + NUMBER_OF_PETS, numberOfPets);
+		block.putInt(offset + OVERFLOW_LENGTH, overflowLength);
+		block.putLong(offset + OVERFLOW_OFFSET, overflowOffset);
+		for (int i=0; i<Math.min(numberOfPlayers, INLINE_PLAYERS); i++) {
+			block.putInt(offset + PLAYERS + i * PLAYER_SIZE, result.getScores()[i]);
+			block.putInt(offset + PLAYERS + i * PLAYER_SIZE + 4, result.getMoney()[i]);
+		}
+		for (int i=0; i<Math.min(numberOfPets, INLINE_PETS); i++) {
+			int pet = offset + PETS + i * PET_SIZE;
+			int[] stats = result.getPetStats()[i];
+			block.putInt(pet, result.getPetSpecies()[i].hashCode());
+			block.put(pet + 4, (byte)result.getPetOwners()[i]);
+			block.put(pet + 5, (byte)result.getPetFlags()[i]);
+			block.putShort(pet + 6, (short)stats[0]);
+			block.putShort(pet + 8, (short)stats[1]);
+			block.putShort(pet + 10, (short)stats[2]);
+			block.putInt(pet + 12, stats[3]);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package saves;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes autosaves on a background thread, so the game never waits for the disk. Autosaves are kept in a ring of slot
+ * files in a folder, each new autosave replacing the oldest.
+ *
+ * Each autosave is written to a temporary file, forced to disk, then atomically renamed over its slot, so a crash at
+ * any point leaves every slot holding either its old save or its new one, never part of one. If the game autosaves
+ * again before the last autosave has been written, only the newest is written.
+ * @author Andrew Davidson (ada130)
+ */
+public class AutoSaver {
+	private static final String PREFIX = "autosave-";
+	private static final String SUFFIX = ".sav";
+	
+	private File folder;
+	private int slots;
+	private int nextSlot;
+	
+	// The newest snapshot waiting to be written, or null if the writer has taken it
+	private AtomicReference<GameSnapshot> pending = new AtomicReference<GameSnapshot>();
+	private ThreadPoolExecutor writer;
+	
+	/**
+	 * Creates an autosaver which continues the ring of autosaves already in a folder, if there is one.
+	 * @param folder
+	 * The folder to autosave to, which is created when the first autosave is written.
+	 * @param slots
+	 * The number of most recent autosaves to keep.
+	 */
+	public AutoSaver(File folder, int slots) {
+		this.folder = folder;
+		this.slots = slots;
+		File[] autosaves = getAutosaves();
+		nextSlot = (autosaves.length == 0) ? 0 : (getSlot(autosaves[0]) + 1) % slots;
+		
+		// The writer's thread stops when it has been idle for a second, and keeps the program running until then so
+		// that closing the game does not lose a save being written
+		writer = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		writer.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * Gets the autosaves in the folder.
+	 * @return
+	 * The autosave files, newest first.
+	 */
+	public File[] getAutosaves() {
+		ArrayList<File> autosaves = new ArrayList<File>();
+		for (int slot=0; slot<slots; slot++) {
+			File file = getFile(slot);
+			if (file.isFile())
+				autosaves.add(file);
+		}
+		Collections.sort(autosaves, new Comparator<File>() {
+			public int compare(File first, File second) {
+				return Long.compare(second.lastModified(), first.lastModified());
+			}
+		});
+		return autosaves.toArray(new File[autosaves.size()]);
+	}
+	
+	/**
+	 * Autosaves a game in the background. The snapshot is written later, so must not share anything with the game
+	 * which can change; take it with GameSnapshot.copy.
+	 * @param snapshot
+	 * The snapshot to save.
+	 */
+	public void save(GameSnapshot snapshot) {
+		if (pending.getAndSet(snapshot) == null) {
+			writer.execute(new Runnable() {
+				public void run() {
+					write(pending.getAndSet(null));
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Waits for any autosave being written to finish, and stops the autosaver.
+	 * @throws InterruptedException
+	 * If the thread is interrupted while waiting.
+	 */
+	public void close() throws InterruptedException {
+		writer.shutdown();
+		writer.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+	}
+	
+	private void write(GameSnapshot snapshot) {
+		Path slot = getFile(nextSlot).toPath();
+		Path temporary = new File(folder, PREFIX + nextSlot + SUFFIX + ".tmp").toPath();
+		try {
+			Files.createDirectories(folder.toPath());
+			FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				SnapshotCodec.write(snapshot, channel);
+				channel.force(true);
+			}
+			finally {
+				channel.close();
+			}
+			try {
+				Files.move(temporary, slot, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException exc) {
+				Files.move(temporary, slot, StandardCopyOption.REPLACE_EXISTING);
+			}
+			nextSlot = (nextSlot + 1) % slots;
+		}
+		catch (IOException exc) {
+			System.err.println("Autosaving failed: " + exc.getMessage());
+		}
+	}
+	
+	private File getFile(int slot) {
+		return new File(folder, PREFIX + slot + SUFFIX);
+	}
+	
+	private int getSlot(File autosave) {
+		String name = autosave.getName();
+		return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+}
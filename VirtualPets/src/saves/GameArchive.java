@@ -0,0 +1,304 @@
+package saves;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * An archive of finished games in a single memory-mapped file, which games are appended to and can be scanned in
+ * order at memory speed.
+ *
+ * The file starts with a header and an index of blocks. Each block holds BLOCK_RECORDS fixed-size records, one per
+ * game, and is mapped into memory as a whole. Everything which does not fit in a record, such as names and round
+ * scores, is appended to the overflow region after the last block, and the record holds its offset and length. A
+ * new block is placed at the end of the file when the last one fills up, and its offset added to the index.
+ *
+ * The header's count of records is updated after everything else for a game has been written, so if the program
+ * stops part way through appending a game, the archive is left as it was before.
+ * @author Andrew Davidson (ada130)
+ */
+public class GameArchive {
+	private static final int MAGIC = 0x56504152;
+	private static final int VERSION = 1;
+	private static final int BLOCK_RECORDS = 4096;
+	private static final int BLOCK_SIZE = BLOCK_RECORDS * ArchiveRecord.SIZE;
+	private static final int HEADER_SIZE = 1 << 16;
+	
+	// Offsets of the header's fields, with the block index after them
+	private static final int RECORD_SIZE = 8;
+	private static final int RECORDS_PER_BLOCK = 12;
+	private static final int RECORD_COUNT = 16;
+	private static final int END = 24;
+	private static final int INDEX = 64;
+	private static final int MAX_BLOCKS = (HEADER_SIZE - INDEX) / 8;
+	
+	/**
+	 * Looks at each record in a scan of the archive.
+	 */
+	public interface Visitor {
+		/**
+		 * Looks at a record. The record is only valid until the method returns.
+		 * @param record
+		 * The record being visited.
+		 */
+		void visit(ArchiveRecord record);
+	}
+	
+	private FileChannel channel;
+	private MappedByteBuffer header;
+	private ArrayList<MappedByteBuffer> blocks = new ArrayList<MappedByteBuffer>();
+	private long recordCount;
+	private long end;
+	
+	/**
+	 * Opens an archive, creating it if the file does not exist or is empty.
+	 * @param file
+	 * The archive file.
+	 * @throws IOException
+	 * If the file cannot be opened, or is not an archive.
+	 */
+	public GameArchive(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			boolean created = channel.size() == 0;
+			if (!created && channel.size() < HEADER_SIZE)
+				throw new IOException("The file is not a game archive.");
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			if (created) {
+				header.putInt(0, MAGIC);
+				header.putInt(4, VERSION);
+				header.putInt(RECORD_SIZE, ArchiveRecord.SIZE);
+				header.putInt(RECORDS_PER_BLOCK, BLOCK_RECORDS);
+				header.putLong(RECORD_COUNT, 0);
+				header.putLong(END, HEADER_SIZE);
+			}
+			else if (header.getInt(0) != MAGIC)
+				throw new IOException("The file is not a game archive.");
+			else if (header.getInt(4) != VERSION || header.getInt(RECORD_SIZE) != ArchiveRecord.SIZE
+					|| header.getInt(RECORDS_PER_BLOCK) != BLOCK_RECORDS)
+				throw new IOException("The archive is version " + header.getInt(4) + " of the archive format, expected version " + VERSION + ".");
+			
+			recordCount = header.getLong(RECORD_COUNT);
+			end = header.getLong(END);
+			if (recordCount < 0 || recordCount > (long)MAX_BLOCKS * BLOCK_RECORDS || end < HEADER_SIZE || end > channel.size())
+				throw new IOException("The archive is corrupt: its header describes " + recordCount + " games ending at " + end + ".");
+			for (int i=0; i<getBlockCount(recordCount); i++)
+				blocks.add(channel.map(FileChannel.MapMode.READ_WRITE, header.getLong(INDEX + i * 8), BLOCK_SIZE));
+		}
+		catch (IOException exc) {
+			channel.close();
+			throw exc;
+		}
+	}
+	
+	/**
+	 * @return
+	 * The number of games in the archive.
+	 */
+	public synchronized long size() {
+		return recordCount;
+	}
+	
+	/**
+	 * Appends a finished game to the archive.
+	 * @param result
+	 * The result of the game.
+	 * @return
+	 * The index of the game's record.
+	 * @throws IOException
+	 * If writing to the archive fails, or it is full.
+	 */
+	public synchronized long append(GameResult result) throws IOException {
+		if (recordCount == (long)MAX_BLOCKS * BLOCK_RECORDS)
+			throw new IOException("The archive is full.");
+		int block = (int)(recordCount / BLOCK_RECORDS);
+		if (block == blocks.size()) {
+			// Blocks are aligned to pages, so that each is mapped from the start of a page
+			long offset = (end + 4095) & ~4095L;
+			blocks.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, BLOCK_SIZE));
+			header.putLong(INDEX + block * 8, offset);
+			end = offset + BLOCK_SIZE;
+		}
+		
+		ByteBuffer overflow = ByteBuffer.wrap(writeOverflow(result));
+		long overflowOffset = end;
+		while (overflow.hasRemaining())
+			channel.write(overflow, overflowOffset + overflow.position());
+		end += overflow.limit();
+		
+		ArchiveRecord.write(blocks.get(block), (int)(recordCount % BLOCK_RECORDS) * ArchiveRecord.SIZE, result,
+				overflowOffset, overflow.limit());
+		header.putLong(END, end);
+		header.putLong(RECORD_COUNT, recordCount + 1);
+		return recordCount++;
+	}
+	
+	/**
+	 * Visits every game in the archive in order, reading only their fixed-size records.
+	 * @param visitor
+	 * The visitor to show each record to.
+	 */
+	public void scan(Visitor visitor) {
+		long count;
+		synchronized (this) {
+			count = recordCount;
+		}
+		ArchiveRecord record = new ArchiveRecord();
+		for (long index=0; index<count; index++) {
+			ByteBuffer block = getBlock(index);
+			record.moveTo(block, (int)(index % BLOCK_RECORDS) * ArchiveRecord.SIZE, index);
+			visitor.visit(record);
+		}
+	}
+	
+	/**
+	 * Reads the whole result of a game, from its record and the overflow region.
+	 * @param index
+	 * The index of the game's record.
+	 * @return
+	 * The result of the game.
+	 * @throws IOException
+	 * If reading the archive fails.
+	 */
+	public GameResult get(long index) throws IOException {
+		synchronized (this) {
+			if (index < 0 || index >= recordCount)
+				throw new IndexOutOfBoundsException("The archive has no game " + index + ".");
+		}
+		ArchiveRecord record = new ArchiveRecord();
+		record.moveTo(getBlock(index), (int)(index % BLOCK_RECORDS) * ArchiveRecord.SIZE, index);
+		int overflowLength = record.getOverflowLength();
+		if (overflowLength < 0)
+			throw new IOException("The archive is corrupt: game " + index + " has " + overflowLength + " bytes of overflow.");
+		ByteBuffer overflow = ByteBuffer.allocate(overflowLength);
+		while (overflow.hasRemaining())
+			if (channel.read(overflow, record.getOverflowOffset() + overflow.position()) < 0)
+				throw new IOException("The archive is corrupt: game " + index + " ends after the end of the file.");
+		return readResult(record, new SnapshotInput(Channels.newChannel(new ByteArrayInputStream(overflow.array()))), overflowLength);
+	}
+	
+	/**
+	 * Writes everything in the archive to disk.
+	 * @throws IOException
+	 * If writing fails.
+	 */
+	public synchronized void flush() throws IOException {
+		for (MappedByteBuffer block : blocks)
+			block.force();
+		channel.force(false);
+		header.force();
+	}
+	
+	/**
+	 * Writes everything in the archive to disk and closes it.
+	 * @throws IOException
+	 * If writing fails.
+	 */
+	public synchronized void close() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	private synchronized ByteBuffer getBlock(long index) {
+		// Each reader gets its own view, so that readers on different threads do not share a position
+		return blocks.get((int)(index / BLOCK_RECORDS)).duplicate();
+	}
+	
+	private static int getBlockCount(long recordCount) {
+		return (int)((recordCount + BLOCK_RECORDS - 1) / BLOCK_RECORDS);
+	}
+	
+	/**
+	 * Writes the parts of a result which are not kept in its record: the names of the players and pets, the pets'
+	 * species keys, the players and pets which did not fit in the record, and the round scores.
+	 */
+	private static byte[] writeOverflow(GameResult result) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotOutput out = new SnapshotOutput(Channels.newChannel(bytes));
+		for (String name : result.getPlayerNames())
+			out.writeString(name);
+		for (int i=0; i<result.getPetNames().length; i++) {
+			out.writeString(result.getPetNames()[i]);
+			out.writeString(result.getPetSpecies()[i]);
+		}
+		for (int i=ArchiveRecord.INLINE_PLAYERS; i<result.getPlayerNames().length; i++) {
+			out.writeInt(result.getScores()[i]);
+			out.writeInt(result.getMoney()[i]);
+		}
+		for (int i=ArchiveRecord.INLINE_PETS; i<result.getPetNames().length; i++) {
+			out.writeInt(result.getPetOwners()[i]);
+			out.writeByte(result.getPetFlags()[i]);
+			for (int stat : result.getPetStats()[i])
+				out.writeInt(stat);
+		}
+		int[][] roundScores = result.getRoundScores();
+		out.writeInt(roundScores.length);
+		for (int[] round : roundScores) {
+			out.writeInt(round.length);
+			for (int score : round)
+				out.writeInt(score);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+	
+	private static GameResult readResult(ArchiveRecord record, SnapshotInput in, int overflowLength) throws IOException {
+		int numberOfPlayers = record.getNumberOfPlayers();
+		int numberOfPets = record.getNumberOfPets();
+		if (numberOfPlayers < 0 || numberOfPets < 0)
+			throw new IOException("The archive is corrupt: game " + record.getIndex() + " has " + numberOfPlayers + " players and " + numberOfPets + " pets.");
+		String[] playerNames = new String[numberOfPlayers];
+		for (int i=0; i<numberOfPlayers; i++)
+			playerNames[i] = in.readString();
+		String[] petNames = new String[numberOfPets];
+		String[] petSpecies = new String[numberOfPets];
+		for (int i=0; i<numberOfPets; i++) {
+			petNames[i] = in.readString();
+			petSpecies[i] = in.readString();
+		}
+		
+		int[] scores = new int[numberOfPlayers];
+		int[] money = new int[numberOfPlayers];
+		for (int i=0; i<numberOfPlayers; i++) {
+			boolean inline = i < ArchiveRecord.INLINE_PLAYERS;
+			scores[i] = inline ? record.getScore(i) : in.readInt();
+			money[i] = inline ? record.getMoney(i) : in.readInt();
+		}
+		int[] petOwners = new int[numberOfPets];
+		int[] petFlags = new int[numberOfPets];
+		int[][] petStats = new int[numberOfPets][];
+		for (int i=0; i<numberOfPets; i++) {
+			if (i < ArchiveRecord.INLINE_PETS) {
+				petOwners[i] = record.getPetOwner(i);
+				petFlags[i] = record.getPetFlags(i);
+				petStats[i] = new int[] {record.getPetHunger(i), record.getPetEnergy(i), record.getPetHappiness(i), record.getPetWeight(i)};
+			}
+			else {
+				petOwners[i] = in.readInt();
+				petFlags[i] = in.readByte();
+				petStats[i] = new int[] {in.readInt(), in.readInt(), in.readInt(), in.readInt()};
+			}
+		}
+		
+		// Every round takes at least four bytes, which bounds the count of a corrupt record
+		int[][] roundScores = new int[in.readCount(overflowLength / 4)][];
+		for (int i=0; i<roundScores.length; i++) {
+			roundScores[i] = new int[in.readCount(numberOfPlayers)];
+			for (int j=0; j<roundScores[i].length; j++)
+				roundScores[i][j] = in.readInt();
+		}
+		return new GameResult(record.getId(), record.getNumberOfDays(), playerNames, scores, money, roundScores,
+				petOwners, petNames, petSpecies, petFlags, petStats);
+	}
+}
@@ -0,0 +1,164 @@
+package saves;
+
+import model.Pet;
+import model.Player;
+
+/**
+ * The final state of a finished game, as kept in a GameArchive: each player's name, score and money, each pet's final
+ * stats, and every player's score at the end of each round. Pets refer to their species by key rather than holding
+ * it, so results can be read back without the game's assets.
+ * @author Andrew Davidson (ada130)
+ */
+public class GameResult {
+	// Flags each pet's status attributes are packed into
+	public static final int HEALTHY = 1;
+	public static final int BEHAVING = 2;
+	public static final int ALIVE = 4;
+	public static final int REVIVABLE = 8;
+	
+	private long id;
+	private int numberOfDays;
+	private String[] playerNames;
+	private int[] scores;
+	private int[] money;
+	private int[][] roundScores;
+	
+	// The pets of every player in turn, and the index of each pet's owner
+	private int[] petOwners;
+	private String[] petNames;
+	private String[] petSpecies;
+	private int[] petFlags;
+	private int[][] petStats;
+	
+	/**
+	 * Creates a result from its parts, as read from an archive.
+	 * @param id
+	 * The id the game was archived under.
+	 * @param numberOfDays
+	 * The number of days the game went for.
+	 * @param playerNames
+	 * The name of each player.
+	 * @param scores
+	 * Each player's final score.
+	 * @param money
+	 * Each player's money at the end of the game.
+	 * @param roundScores
+	 * Each player's score at the end of each round, indexed by round then player.
+	 * @param petOwners
+	 * The index of the player owning each pet.
+	 * @param petNames
+	 * The name of each pet.
+	 * @param petSpecies
+	 * The key of each pet's species.
+	 * @param petFlags
+	 * Each pet's status, as HEALTHY, BEHAVING, ALIVE and REVIVABLE flags.
+	 * @param petStats
+	 * Each pet's final hunger, energy, happiness and weight, in that order.
+	 */
+	public GameResult(long id, int numberOfDays, String[] playerNames, int[] scores, int[] money, int[][] roundScores,
+			int[] petOwners, String[] petNames, String[] petSpecies, int[] petFlags, int[][] petStats) {
+		this.id = id;
+		this.numberOfDays = numberOfDays;
+		this.playerNames = playerNames;
+		this.scores = scores;
+		this.money = money;
+		this.roundScores = roundScores;
+		this.petOwners = petOwners;
+		this.petNames = petNames;
+		this.petSpecies = petSpecies;
+		this.petFlags = petFlags;
+		this.petStats = petStats;
+	}
+	
+	/**
+	 * Creates the result of a game from its players at the end of the game.
+	 * @param id
+	 * The id to archive the game under, such as its seed or its index in a batch of games.
+	 * @param numberOfDays
+	 * The number of days the game went for.
+	 * @param players
+	 * The players at the end of the game.
+	 * @param roundScores
+	 * Each player's score at the end of each round, indexed by round then player.
+	 * @return
+	 * The result of the game.
+	 */
+	public static GameResult of(long id, int numberOfDays, Player[] players, int[][] roundScores) {
+		String[] playerNames = new String[players.length];
+		int[] scores = new int[players.length];
+		int[] money = new int[players.length];
+		int numberOfPets = 0;
+		for (int i=0; i<players.length; i++) {
+			playerNames[i] = players[i].getName();
+			scores[i] = players[i].getScore();
+			money[i] = players[i].getMoney();
+			numberOfPets += players[i].getPets().length;
+		}
+		
+		int[] petOwners = new int[numberOfPets];
+		String[] petNames = new String[numberOfPets];
+		String[] petSpecies = new String[numberOfPets];
+		int[] petFlags = new int[numberOfPets];
+		int[][] petStats = new int[numberOfPets][];
+		int index = 0;
+		for (int i=0; i<players.length; i++) {
+			for (Pet pet : players[i].getPets()) {
+				petOwners[index] = i;
+				petNames[index] = pet.getName();
+				petSpecies[index] = pet.getSpecies().getKey();
+				petFlags[index] = (pet.isHealthy() ? HEALTHY : 0) | (pet.isBehaving() ? BEHAVING : 0)
+						| (pet.isAlive() ? ALIVE : 0) | (pet.isRevivable() ? REVIVABLE : 0);
+				petStats[index] = new int[] {pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight()};
+				index++;
+			}
+		}
+		return new GameResult(id, numberOfDays, playerNames, scores, money, roundScores, petOwners, petNames, petSpecies,
+				petFlags, petStats);
+	}
+	
+	// Getters
+	public long getId() {
+		return id;
+	}
+	
+	public int getNumberOfDays() {
+		return numberOfDays;
+	}
+	
+	public String[] getPlayerNames() {
+		return playerNames;
+	}
+	
+	public int[] getScores() {
+		return scores;
+	}
+	
+	public int[] getMoney() {
+		return money;
+	}
+	
+	public int[][] getRoundScores() {
+		return roundScores;
+	}
+	
+	public int[] getPetOwners() {
+		return petOwners;
+	}
+	
+	public String[] getPetNames() {
+		return petNames;
+	}
+	
+	public String[] getPetSpecies() {
+		return petSpecies;
+	}
+	
+	public int[] getPetFlags() {
+		return petFlags;
+	}
+	
+	public int[][] getPetStats() {
+		return petStats;
+	}
+	// End Getters
+}
@@ -0,0 +1,124 @@
+package saves;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RandomSource;
+import model.SeededRandom;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * The state of a game in progress, without any of the gui: the players with their pets and inventories, the food and
+ * toy types in the shop, and how far through the game it is. Used to save and load games.
+ * @author Andrew Davidson (ada130)
+ */
+public class GameSnapshot {
+	private Player[] players;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private int numberOfDays;
+	private int incomePerTurn;
+	private int currentDay;
+	private int activePlayerIndex;
+	private int[] previousScores;
+	
+	/**
+	 * Creates a snapshot of a game.
+	 * @param players
+	 * The players in the game, in turn order.
+	 * @param foodTypes
+	 * The food types sold in the shop.
+	 * @param toyTypes
+	 * The toy types sold in the shop.
+	 * @param numberOfDays
+	 * The number of days the game goes for.
+	 * @param incomePerTurn
+	 * The money each player is given at the end of their turn.
+	 * @param currentDay
+	 * The day the game is on, starting from 1.
+	 * @param activePlayerIndex
+	 * The index of the player whose turn it is.
+	 * @param previousScores
+	 * Each player's score at the end of the previous round, shown in the round overview.
+	 */
+	public GameSnapshot(Player[] players, FoodType[] foodTypes, ToyType[] toyTypes, int numberOfDays, int incomePerTurn,
+			int currentDay, int activePlayerIndex, int[] previousScores) {
+		this.players = players;
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		this.numberOfDays = numberOfDays;
+		this.incomePerTurn = incomePerTurn;
+		this.currentDay = currentDay;
+		this.activePlayerIndex = activePlayerIndex;
+		this.previousScores = previousScores;
+	}
+	
+	// Getters
+	public Player[] getPlayers() {
+		return players;
+	}
+	
+	public FoodType[] getFoodTypes() {
+		return foodTypes;
+	}
+	
+	public ToyType[] getToyTypes() {
+		return toyTypes;
+	}
+	
+	public int getNumberOfDays() {
+		return numberOfDays;
+	}
+	
+	public int getIncomePerTurn() {
+		return incomePerTurn;
+	}
+	
+	public int getCurrentDay() {
+		return currentDay;
+	}
+	
+	public int getActivePlayerIndex() {
+		return activePlayerIndex;
+	}
+	
+	public int[] getPreviousScores() {
+		return previousScores;
+	}
+	// End Getters
+	
+	/**
+	 * Copies the snapshot along with its players, their inventories and pets, so that it can be written on another
+	 * thread while the game continues. Food, toy and species types are shared, as they never change.
+	 * @return
+	 * A copy of the snapshot which shares no changeable state with the game.
+	 */
+	public GameSnapshot copy() {
+		Player[] copies = new Player[players.length];
+		for (int i=0; i<players.length; i++) {
+			Player player = players[i];
+			Pet[] pets = new Pet[player.getPets().length];
+			for (int j=0; j<pets.length; j++) {
+				Pet pet = player.getPets()[j];
+				pets[j] = new Pet(pet.getName(), pet.getSpecies(), pet.isHealthy(), pet.isBehaving(), pet.isAlive(),
+						pet.isRevivable(), pet.getHunger(), pet.getEnergy(), pet.getHappiness(), pet.getWeight(),
+						pet.getActionPoints(), pet.getFavouriteToy(), pet.getFavouriteFood());
+				RandomSource random = pet.getRandomSource();
+				if (random instanceof SeededRandom)
+					pets[j].setRandomSource(new SeededRandom(((SeededRandom)random).getSeed(), ((SeededRandom)random).getGamma()));
+			}
+			ArrayList<Toy> toys = new ArrayList<Toy>(player.getToys().size());
+			for (Toy toy : player.getToys())
+				toys.add(new Toy(toy.getToyType(), toy.getDurability()));
+			copies[i] = new Player(player.getName(), pets, new HashMap<FoodType, Integer>(player.getFood()), toys,
+					player.getMoney(), player.getScore());
+			copies[i].setComputer(player.isComputer());
+		}
+		return new GameSnapshot(copies, foodTypes, toyTypes, numberOfDays, incomePerTurn, currentDay, activePlayerIndex,
+				previousScores.clone());
+	}
+}
@@ -0,0 +1,70 @@
+package saves;
+
+import model.PetAction;
+
+/**
+ * An action taken by a player during their turn, as written to a RecoveryLog. Actions with a pet are logged with the
+ * index of the pet among the player's pets. A purchase from the shop is logged as the action the item is bought for,
+ * FEED for food and PLAY for toys, with no pet.
+ * @author Andrew Davidson (ada130)
+ */
+public class LoggedAction {
+	private PetAction action;
+	private int petIndex;
+	private int item;
+	
+	/**
+	 * Creates an action.
+	 * @param action
+	 * The action taken. END_TURN is not logged, as the log is started again each turn.
+	 * @param petIndex
+	 * The index of the pet among the player's pets, or -1 for a purchase.
+	 * @param item
+	 * For feeding or buying food, the index of the food type in the shop. For playing, the index of the toy in the
+	 * player's toys, and for buying a toy, the index of its type in the shop. Otherwise 0.
+	 */
+	public LoggedAction(PetAction action, int petIndex, int item) {
+		if (action == PetAction.END_TURN)
+			throw new IllegalArgumentException("Ending the turn is not logged.");
+		if (petIndex < 0 && action != PetAction.FEED && action != PetAction.PLAY)
+			throw new IllegalArgumentException("Only food and toys can be bought.");
+		this.action = action;
+		this.petIndex = Math.max(petIndex, -1);
+		this.item = item;
+	}
+	
+	/**
+	 * Creates the action of buying an item from the shop.
+	 * @param action
+	 * FEED to buy food, or PLAY to buy a toy.
+	 * @param typeIndex
+	 * The index of the food or toy type in the shop.
+	 * @return
+	 * The purchase.
+	 */
+	public static LoggedAction purchase(PetAction action, int typeIndex) {
+		return new LoggedAction(action, -1, typeIndex);
+	}
+	
+	// Getters
+	public PetAction getAction() {
+		return action;
+	}
+	
+	public int getPetIndex() {
+		return petIndex;
+	}
+	
+	public int getItem() {
+		return item;
+	}
+	
+	/**
+	 * @return
+	 * True if the action is buying an item from the shop, rather than an action with a pet.
+	 */
+	public boolean isPurchase() {
+		return petIndex < 0;
+	}
+	// End Getters
+}
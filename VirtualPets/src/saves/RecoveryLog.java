@@ -0,0 +1,245 @@
+package saves;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import model.Pet;
+import model.PetAction;
+import model.Player;
+
+/**
+ * A write-ahead log of the actions taken during the current turn, so that if the game stops before the turn ends, the
+ * turn can be recovered by taking the actions again on top of the game as it was saved when the turn started.
+ *
+ * The file starts with a header: its magic number, version, and the day, active player and a fingerprint of the game
+ * the actions apply to. Then come the actions, each a fixed size record of the action, pet and item. A record which
+ * was only partly written when the game stopped is ignored when reading.
+ *
+ * Logging an action does not wait for the disk. Actions are collected and written together, then forced to disk, a
+ * short interval after the first of them was logged, so a burst of clicks costs one write.
+ * @author Andrew Davidson (ada130)
+ */
+public class RecoveryLog {
+	private static final int MAGIC = 0x5650574C;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 20;
+	private static final int RECORD_SIZE = 9;
+	
+	private File file;
+	private long commitInterval;
+	private FileChannel channel;
+	
+	// The actions logged since the last commit, and whether the log is to be started again with a new header first
+	private ByteArrayOutputStream batch = new ByteArrayOutputStream();
+	private boolean restart;
+	private byte[] header;
+	private boolean commitScheduled;
+	private ScheduledThreadPoolExecutor writer;
+	
+	/**
+	 * Creates a log which writes to a file. The file is left as it is until the first turn is begun, so it can be read
+	 * to recover the last game first.
+	 * @param file
+	 * The file to write the log to.
+	 * @param commitInterval
+	 * The number of milliseconds after an action is logged that it is written to disk.
+	 */
+	public RecoveryLog(File file, long commitInterval) {
+		this.file = file;
+		this.commitInterval = commitInterval;
+		writer = new ScheduledThreadPoolExecutor(1);
+		writer.setKeepAliveTime(1, TimeUnit.SECONDS);
+		writer.allowCoreThreadTimeOut(true);
+	}
+	
+	// Getters
+	public File getFile() {
+		return file;
+	}
+	// End Getters
+	
+	/**
+	 * Starts the log again for a new turn, discarding the actions of the last turn.
+	 * @param game
+	 * A snapshot of the game at the start of the turn, as it has been saved.
+	 */
+	public synchronized void begin(GameSnapshot game) {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(game.getCurrentDay());
+		buffer.putInt(game.getActivePlayerIndex());
+		buffer.putInt(fingerprint(game));
+		header = buffer.array();
+		restart = true;
+		batch.reset();
+		scheduleCommit();
+	}
+	
+	/**
+	 * Empties the log, once there is no turn left to recover.
+	 */
+	public synchronized void end() {
+		header = null;
+		restart = true;
+		batch.reset();
+		scheduleCommit();
+	}
+	
+	/**
+	 * Logs an action taken during the turn. The action is written to disk shortly after, in the background.
+	 * @param action
+	 * The action taken.
+	 */
+	public synchronized void append(LoggedAction action) {
+		ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+		record.put((byte)(action.getAction().ordinal() + 1));
+		record.putInt(action.getPetIndex());
+		record.putInt(action.getItem());
+		batch.write(record.array(), 0, RECORD_SIZE);
+		scheduleCommit();
+	}
+	
+	/**
+	 * Writes any actions still waiting to be committed, and closes the log.
+	 * @throws InterruptedException
+	 * If the thread is interrupted while waiting.
+	 */
+	public void close() throws InterruptedException {
+		writer.shutdown();
+		writer.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		try {
+			if (channel != null)
+				channel.close();
+		}
+		catch (IOException exc) {
+			System.err.println("Closing the recovery log failed: " + exc.getMessage());
+		}
+	}
+	
+	private void scheduleCommit() {
+		if (commitScheduled)
+			return;
+		commitScheduled = true;
+		writer.schedule(new Runnable() {
+			public void run() {
+				commit();
+			}
+		}, commitInterval, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Writes everything logged since the last commit and forces it to disk. Only called on the writer's thread.
+	 */
+	private void commit() {
+		boolean restart;
+		byte[] header, actions;
+		synchronized (this) {
+			restart = this.restart;
+			header = this.header;
+			actions = batch.toByteArray();
+			this.restart = false;
+			batch.reset();
+			commitScheduled = false;
+		}
+		try {
+			if (channel == null) {
+				Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				channel.position(channel.size());
+			}
+			if (restart) {
+				channel.truncate(0);
+				channel.position(0);
+				if (header != null)
+					write(ByteBuffer.wrap(header));
+			}
+			write(ByteBuffer.wrap(actions));
+			channel.force(false);
+		}
+		catch (IOException exc) {
+			System.err.println("Writing the recovery log failed: " + exc.getMessage());
+		}
+	}
+	
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+	
+	/**
+	 * Reads the actions in a log, if they apply to a game.
+	 * @param file
+	 * The log file.
+	 * @param game
+	 * The game as it was saved, which the actions are to be taken on.
+	 * @return
+	 * The actions logged, or no actions if the log is empty or was begun for a different game or turn.
+	 * @throws IOException
+	 * If the log cannot be read, or is corrupt.
+	 */
+	public static LoggedAction[] read(File file, GameSnapshot game) throws IOException {
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		if (bytes.length < HEADER_SIZE)
+			return new LoggedAction[0];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		if (buffer.getInt() != MAGIC)
+			throw new IOException(file.getName() + " is not a recovery log.");
+		int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException(file.getName() + " is version " + version + " of the recovery log format, expected version " + VERSION + ".");
+		if (buffer.getInt() != game.getCurrentDay() || buffer.getInt() != game.getActivePlayerIndex()
+				|| buffer.getInt() != fingerprint(game))
+			return new LoggedAction[0];
+		
+		PetAction[] petActions = PetAction.values();
+		ArrayList<LoggedAction> actions = new ArrayList<LoggedAction>();
+		while (buffer.remaining() >= RECORD_SIZE) {
+			int tag = buffer.get() - 1;
+			int petIndex = buffer.getInt();
+			int item = buffer.getInt();
+			// A record of zeros is space the file system allocated before the record was written
+			if (tag < 0)
+				break;
+			if (tag >= petActions.length)
+				throw new IOException("The recovery log is corrupt: found action " + (tag + 1) + ".");
+			try {
+				actions.add(new LoggedAction(petActions[tag], petIndex, item));
+			}
+			catch (IllegalArgumentException exc) {
+				throw new IOException("The recovery log is corrupt: " + exc.getMessage());
+			}
+		}
+		return actions.toArray(new LoggedAction[actions.size()]);
+	}
+	
+	/**
+	 * Sums up the players and pets of a game, so a log is not taken on a different game which is on the same turn.
+	 */
+	private static int fingerprint(GameSnapshot game) {
+		int hash = game.getNumberOfDays();
+		for (Player player : game.getPlayers()) {
+			hash = 31*hash + player.getName().hashCode();
+			hash = 31*hash + player.getMoney();
+			hash = 31*hash + player.getScore();
+			hash = 31*hash + player.getToys().size();
+			for (Pet pet : player.getPets()) {
+				hash = 31*hash + pet.getName().hashCode();
+				hash = 31*hash + pet.getHunger();
+				hash = 31*hash + pet.getEnergy();
+				hash = 31*hash + pet.getHappiness();
+				hash = 31*hash + pet.getWeight();
+				hash = 31*hash + pet.getActionPoints();
+			}
+		}
+		return hash;
+	}
+}
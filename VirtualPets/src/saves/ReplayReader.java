@@ -0,0 +1,232 @@
+package saves;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import assetshandler.AssetRegistry;
+import model.ActionLog;
+import model.Player;
+
+/**
+ * Reads a replay written by a ReplayRecorder, rebuilding the game as it was at the end of any recorded day. Opening a
+ * replay only reads the headers of its records, to index where each keyframe and day end is, so seeking to a day reads
+ * just the keyframe before it and the turns in between.
+ * @author Andrew Davidson (ada130)
+ */
+public class ReplayReader {
+	private File file;
+	private FileChannel channel;
+	private AssetRegistry assets;
+	private int keyframeInterval;
+	private int numberOfDays;
+	
+	// The offset of every keyframe, in the order they were written
+	private ArrayList<Long> keyframes = new ArrayList<Long>();
+	// The offset of each day's end and each player's score then, indexed by day from the first day recorded
+	private int firstDay = -1;
+	private ArrayList<Long> dayEnds = new ArrayList<Long>();
+	private ArrayList<int[]> dayScores = new ArrayList<int[]>();
+	
+	/**
+	 * Opens a replay and indexes its records. A record which was only partly written, and everything after it, is
+	 * ignored.
+	 * @param file
+	 * The replay file.
+	 * @param assets
+	 * The assets loaded in the game, which the keyframes' types are looked up in.
+	 * @throws IOException
+	 * If the file cannot be read, or is not a replay.
+	 */
+	public ReplayReader(File file, AssetRegistry assets) throws IOException {
+		this.file = file;
+		this.assets = assets;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.HEADER_SIZE);
+			if (!readFully(header, 0) || header.getInt(0) != ReplayRecorder.MAGIC)
+				throw new IOException(file.getName() + " is not a replay.");
+			int version = header.getInt(4);
+			if (version != ReplayRecorder.VERSION)
+				throw new IOException(file.getName() + " is version " + version + " of the replay format, expected version " + ReplayRecorder.VERSION + ".");
+			keyframeInterval = header.getInt(8);
+			index();
+			if (keyframes.isEmpty())
+				throw new IOException(file.getName() + " ends before its first keyframe.");
+			numberOfDays = readKeyframe(keyframes.get(0)).getNumberOfDays();
+		}
+		catch (IOException exc) {
+			channel.close();
+			throw exc;
+		}
+	}
+	
+	// Getters
+	public File getFile() {
+		return file;
+	}
+	
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+	
+	public int getNumberOfDays() {
+		return numberOfDays;
+	}
+	
+	/**
+	 * @return
+	 * The first day whose end was recorded, which is 0 for the start of a game recorded from the beginning, or -1 if
+	 * no day ended while the game was recorded.
+	 */
+	public int getFirstDay() {
+		return firstDay;
+	}
+	
+	/**
+	 * @return
+	 * The last day whose end was recorded, or -1 if no day ended while the game was recorded.
+	 */
+	public int getLastDay() {
+		return (firstDay < 0) ? -1 : firstDay + dayEnds.size() - 1;
+	}
+	
+	/**
+	 * @param day
+	 * A day between the first and last days recorded.
+	 * @return
+	 * Each player's score at the end of the day.
+	 */
+	public int[] getScores(int day) {
+		checkDay(day);
+		return dayScores.get(day - firstDay).clone();
+	}
+	// End Getters
+	
+	/**
+	 * Rebuilds the game as it was at the end of a day, from the last keyframe before the day ended and the turns
+	 * played since. The snapshot's previous scores are those at the end of the day before, as a RoundOverview shows.
+	 * @param day
+	 * A day between the first and last days recorded.
+	 * @return
+	 * The game at the end of the day.
+	 * @throws IOException
+	 * If reading the replay fails, or it is corrupt.
+	 */
+	public GameSnapshot seek(int day) throws IOException {
+		checkDay(day);
+		long dayEnd = dayEnds.get(day - firstDay);
+		long keyframe = keyframes.get(0);
+		for (long offset : keyframes)
+			if (offset < dayEnd)
+				keyframe = offset;
+		
+		GameSnapshot snapshot = readKeyframe(keyframe);
+		Player[] players = snapshot.getPlayers();
+		ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.RECORD_HEADER_SIZE);
+		long offset = keyframe;
+		while (offset < dayEnd) {
+			header.clear();
+			readFully(header, offset);
+			int length = header.getInt(5);
+			if (header.get(0) == ReplayRecorder.EVENTS) {
+				ByteBuffer events = ByteBuffer.allocate(length);
+				readFully(events, offset + ReplayRecorder.RECORD_HEADER_SIZE);
+				events.flip();
+				try {
+					ActionLog.replay(events, players, snapshot.getFoodTypes(), snapshot.getToyTypes());
+				}
+				catch (IllegalStateException exc) {
+					throw new IOException("The replay is corrupt: " + exc.getMessage());
+				}
+			}
+			offset += ReplayRecorder.RECORD_HEADER_SIZE + length;
+		}
+		
+		int[] previousScores = new int[Math.max(players.length, 3)];
+		if (day > firstDay) {
+			int[] scores = dayScores.get(day - firstDay - 1);
+			System.arraycopy(scores, 0, previousScores, 0, Math.min(scores.length, players.length));
+		}
+		return new GameSnapshot(players, snapshot.getFoodTypes(), snapshot.getToyTypes(), snapshot.getNumberOfDays(),
+				snapshot.getIncomePerTurn(), Math.min(day + 1, snapshot.getNumberOfDays()), 0, previousScores);
+	}
+	
+	/**
+	 * Closes the replay file.
+	 * @throws IOException
+	 * If closing fails.
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	/**
+	 * Reads the header of every record, noting where the keyframes and day ends are, and the scores at each day end.
+	 */
+	private void index() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.RECORD_HEADER_SIZE);
+		long offset = ReplayRecorder.HEADER_SIZE;
+		long size = channel.size();
+		while (true) {
+			header.clear();
+			if (!readFully(header, offset))
+				return;
+			int tag = header.get(0);
+			int day = header.getInt(1);
+			int length = header.getInt(5);
+			long contents = offset + ReplayRecorder.RECORD_HEADER_SIZE;
+			if (length < 0 || contents + length > size)
+				return;
+			if (tag == ReplayRecorder.KEYFRAME)
+				keyframes.add(offset);
+			else if (tag == ReplayRecorder.END_OF_DAY) {
+				// Days must follow on from each other, so a day's place in the index is its offset from the first
+				if (keyframes.isEmpty() || (firstDay >= 0 && day != getLastDay() + 1))
+					return;
+				ByteBuffer scores = ByteBuffer.allocate(length);
+				readFully(scores, contents);
+				int[] dayScore = new int[length / 4];
+				for (int i=0; i<dayScore.length; i++)
+					dayScore[i] = scores.getInt(i * 4);
+				if (firstDay < 0)
+					firstDay = day;
+				dayEnds.add(offset);
+				dayScores.add(dayScore);
+			}
+			else if (tag != ReplayRecorder.EVENTS)
+				return;
+			offset = contents + length;
+		}
+	}
+	
+	private GameSnapshot readKeyframe(long offset) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.RECORD_HEADER_SIZE);
+		readFully(header, offset);
+		ByteBuffer contents = ByteBuffer.allocate(header.getInt(5));
+		readFully(contents, offset + ReplayRecorder.RECORD_HEADER_SIZE);
+		return SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(contents.array())), assets);
+	}
+	
+	private void checkDay(int day) {
+		if (firstDay < 0 || day < firstDay || day > getLastDay())
+			throw new IndexOutOfBoundsException("Day " + day + " is not in the replay.");
+	}
+	
+	/**
+	 * Fills a buffer from the replay, starting at an offset.
+	 * @return
+	 * True if the buffer was filled, or false if the file ended first.
+	 */
+	private boolean readFully(ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, offset + buffer.position()) < 0)
+				return false;
+		return true;
+	}
+}
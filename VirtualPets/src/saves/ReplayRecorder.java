@@ -0,0 +1,315 @@
+package saves;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import model.ActionLog;
+import model.Player;
+
+/**
+ * Records whole games as replay files, so they can be reviewed later with a ReplayReader. A replay holds a keyframe
+ * of the whole game every few days, and between keyframes the stream of events recorded by an ActionLog, so any day
+ * can be rebuilt from the keyframe before it without replaying the whole game.
+ *
+ * The file starts with a header: its magic number, version and keyframe interval. Then come records, each a tag, the
+ * day it belongs to and the length of its contents:
+ *   KEYFRAME   - the game as a snapshot, written with SnapshotCodec.
+ *   EVENTS     - the events of one turn, as written by an ActionLog.
+ *   END_OF_DAY - each player's score at the end of the day.
+ * A keyframe is written at the start of the game, and before the end of every day which is a multiple of the interval,
+ * so the game at the end of any day is the last keyframe before that day's end, with the events after it applied.
+ *
+ * Each game is recorded to a new file in the recorder's folder, named after the time it started, and only the most
+ * recent replays are kept. Records are written on a background thread as each turn ends, so the game never waits for
+ * the disk, and a record which was only partly written when the game stopped is ignored when reading. The gui only
+ * records replays when the virtualpets.recordReplays system property is set to true.
+ * @author Andrew Davidson (ada130)
+ */
+public class ReplayRecorder {
+	static final int MAGIC = 0x5650524C;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 12;
+	static final int RECORD_HEADER_SIZE = 9;
+	
+	// Tags of the records in a replay
+	static final int KEYFRAME = 1;
+	static final int EVENTS = 2;
+	static final int END_OF_DAY = 3;
+	
+	private static final String PROPERTY = "virtualpets.recordReplays";
+	private static final String PREFIX = "replay-";
+	private static final String SUFFIX = ".replay";
+	
+	// The number of events buffered before they are copied to the turn's record
+	private static final int LOG_CAPACITY = 1024;
+	
+	private File folder;
+	private int keyframeInterval;
+	private int replaysKept;
+	
+	// The log of the game being recorded and the events of its current turn. Only used by the thread playing the game
+	private ActionLog log;
+	private ByteArrayOutputStream events = new ByteArrayOutputStream();
+	
+	// The replay being written, or null if none is or writing it failed. Only changed by the writer's thread
+	private volatile File file;
+	private FileChannel channel;
+	private ThreadPoolExecutor writer;
+	
+	/**
+	 * Creates a recorder which records games to files in a folder.
+	 * @param folder
+	 * The folder to write replays to, which is created if needed.
+	 * @param keyframeInterval
+	 * The number of days between keyframes. Shorter intervals make replays larger but quicker to seek.
+	 * @param replaysKept
+	 * The number of most recent replays to keep in the folder, including the one being recorded.
+	 */
+	public ReplayRecorder(File folder, int keyframeInterval, int replaysKept) {
+		if (keyframeInterval < 1)
+			throw new IllegalArgumentException("Keyframes must be at least one day apart.");
+		if (replaysKept < 1)
+			throw new IllegalArgumentException("At least one replay must be kept.");
+		this.folder = folder;
+		this.keyframeInterval = keyframeInterval;
+		this.replaysKept = replaysKept;
+		
+		// As with autosaves, the writer's thread keeps the program running until the replay has been written
+		writer = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		writer.allowCoreThreadTimeOut(true);
+	}
+	
+	// Getters
+	/**
+	 * @return
+	 * The file the game is being recorded to, or null if no game is being recorded or its file has not been created
+	 * yet. Once close has returned, it is the file of the last game recorded, unless writing that failed.
+	 */
+	public File getFile() {
+		return file;
+	}
+	// End Getters
+	
+	/**
+	 * Gets whether replays should be recorded: only if the virtualpets.recordReplays system property is true, for
+	 * example -Dvirtualpets.recordReplays=true.
+	 * @return
+	 * True if replays should be recorded.
+	 */
+	public static boolean isEnabled() {
+		return Boolean.getBoolean(PROPERTY);
+	}
+	
+	/**
+	 * Starts recording a game to a new replay file, finishing the file of any game recorded before, and attaches the
+	 * recorder's action log to the game's players. The file is created, and the oldest replays beyond those kept are
+	 * deleted, in the background.
+	 * @param game
+	 * A snapshot sharing the game's players, a copy of which is written as the first keyframe.
+	 */
+	public void start(GameSnapshot game) {
+		// Games are resumed part way through a day, so the keyframe is only the end of a day at the start of one
+		final int day = game.getCurrentDay() - 1;
+		final GameSnapshot keyframe = game.copy();
+		final byte[] scores = (game.getActivePlayerIndex() == 0) ? getScores(game.getPlayers()) : null;
+		writer.execute(new Runnable() {
+			public void run() {
+				closeFile();
+				try {
+					openFile();
+					writeKeyframe(day, keyframe);
+					if (scores != null)
+						writeRecord(END_OF_DAY, day, scores);
+					deleteOldReplays();
+				}
+				catch (IOException exc) {
+					fail("Starting the replay failed: ", exc);
+				}
+			}
+		});
+		
+		events.reset();
+		log = new ActionLog(Channels.newChannel(events), game.getFoodTypes(), game.getToyTypes(), LOG_CAPACITY);
+		log.attach(game.getPlayers());
+	}
+	
+	/**
+	 * Writes the events of the turn which has just ended, in the background.
+	 * @param day
+	 * The day the turn was in.
+	 * @throws IOException
+	 * If the turn's events cannot be taken from the action log.
+	 */
+	public void endTurn(int day) throws IOException {
+		if (log == null)
+			return;
+		log.flush();
+		queueRecord(EVENTS, day, events.toByteArray());
+		events.reset();
+	}
+	
+	/**
+	 * Marks the end of a day, after the last turn of the day has ended, writing a keyframe first if the day is a
+	 * multiple of the keyframe interval. The keyframe is a copy of the game, encoded in the background.
+	 * @param day
+	 * The day which has ended.
+	 * @param game
+	 * A snapshot sharing the game's players, at the end of the day.
+	 */
+	public void endDay(final int day, GameSnapshot game) {
+		if (log == null)
+			return;
+		if (day % keyframeInterval == 0) {
+			final GameSnapshot keyframe = game.copy();
+			writer.execute(new Runnable() {
+				public void run() {
+					try {
+						if (channel != null)
+							writeKeyframe(day, keyframe);
+					}
+					catch (IOException exc) {
+						fail("Writing the replay failed: ", exc);
+					}
+				}
+			});
+		}
+		queueRecord(END_OF_DAY, day, getScores(game.getPlayers()));
+	}
+	
+	/**
+	 * Waits for the replay being recorded, if any, to be written, and finishes its file.
+	 * @throws InterruptedException
+	 * If the thread is interrupted while waiting.
+	 */
+	public void close() throws InterruptedException {
+		log = null;
+		Future<?> closed = writer.submit(new Runnable() {
+			public void run() {
+				closeFile();
+			}
+		});
+		try {
+			closed.get();
+		}
+		catch (ExecutionException exc) {
+			throw new IllegalStateException("Finishing the replay failed.", exc.getCause());
+		}
+	}
+	
+	private void queueRecord(final int tag, final int day, final byte[] contents) {
+		writer.execute(new Runnable() {
+			public void run() {
+				try {
+					if (channel != null)
+						writeRecord(tag, day, contents);
+				}
+				catch (IOException exc) {
+					fail("Writing the replay failed: ", exc);
+				}
+			}
+		});
+	}
+	
+	private void openFile() throws IOException {
+		Files.createDirectories(folder.toPath());
+		String name = PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		File newFile = new File(folder, name + SUFFIX);
+		for (int i=2; newFile.exists(); i++)
+			newFile = new File(folder, name + "-" + i + SUFFIX);
+		channel = FileChannel.open(newFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		file = newFile;
+		
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(keyframeInterval);
+		header.flip();
+		while (header.hasRemaining())
+			channel.write(header);
+	}
+	
+	/**
+	 * Deletes the oldest replays in the folder, other than the one being recorded, so only the most recent are kept.
+	 */
+	private void deleteOldReplays() {
+		ArrayList<File> replays = new ArrayList<File>();
+		File[] files = folder.listFiles();
+		if (files == null)
+			return;
+		for (File replay : files)
+			if (replay.isFile() && replay.getName().startsWith(PREFIX) && replay.getName().endsWith(SUFFIX)
+					&& !replay.equals(file))
+				replays.add(replay);
+		Collections.sort(replays, new Comparator<File>() {
+			public int compare(File first, File second) {
+				return Long.compare(second.lastModified(), first.lastModified());
+			}
+		});
+		for (int i=replaysKept-1; i<replays.size(); i++)
+			if (!replays.get(i).delete())
+				System.err.println("Deleting the old replay " + replays.get(i).getName() + " failed.");
+	}
+	
+	private void closeFile() {
+		if (channel == null)
+			return;
+		try {
+			channel.close();
+		}
+		catch (IOException exc) {
+			System.err.println("Finishing the replay failed: " + exc.getMessage());
+		}
+		finally {
+			channel = null;
+		}
+	}
+	
+	/**
+	 * Stops writing the replay after a write failed, leaving the records written before it readable.
+	 */
+	private void fail(String message, IOException exc) {
+		System.err.println(message + exc.getMessage());
+		closeFile();
+		file = null;
+	}
+	
+	private void writeKeyframe(int day, GameSnapshot game) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotCodec.write(game, Channels.newChannel(bytes));
+		writeRecord(KEYFRAME, day, bytes.toByteArray());
+	}
+	
+	private static byte[] getScores(Player[] players) {
+		ByteBuffer scores = ByteBuffer.allocate(players.length * 4);
+		for (Player player : players)
+			scores.putInt(player.getScore());
+		return scores.array();
+	}
+	
+	private void writeRecord(int tag, int day, byte[] contents) throws IOException {
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + contents.length);
+		record.put((byte)tag);
+		record.putInt(day);
+		record.putInt(contents.length);
+		record.put(contents);
+		record.flip();
+		while (record.hasRemaining())
+			channel.write(record);
+	}
+}
@@ -0,0 +1,73 @@
+package saves;
+
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * The ways the body of a snapshot can be compressed, recorded in its header so it is read back the same way. Both
+ * compressed codecs are DEFLATE: FAST at its quickest level for saving every turn or round, and SMALL at its highest
+ * level for hosts which store many games and are limited by disk rather than processor time.
+ *
+ * The codec used when none is given can be chosen with the virtualpets.saveCompression system property, set to the
+ * name of a codec, for example -Dvirtualpets.saveCompression=small.
+ * @author Andrew Davidson (ada130)
+ */
+public enum SaveCompression {
+	NONE(0, Deflater.NO_COMPRESSION),
+	FAST(1, Deflater.BEST_SPEED),
+	SMALL(2, Deflater.BEST_COMPRESSION);
+	
+	private static final String PROPERTY = "virtualpets.saveCompression";
+	
+	private int id;
+	private int level;
+	
+	private SaveCompression(int id, int level) {
+		this.id = id;
+		this.level = level;
+	}
+	
+	// Getters
+	public int getId() {
+		return id;
+	}
+	
+	public int getLevel() {
+		return level;
+	}
+	// End Getters
+	
+	/**
+	 * Gets the codec recorded in a snapshot's header.
+	 * @param id
+	 * The id of the codec.
+	 * @return
+	 * The codec with the id.
+	 * @throws IOException
+	 * If no codec has the id.
+	 */
+	public static SaveCompression fromId(int id) throws IOException {
+		for (SaveCompression compression : values())
+			if (compression.id == id)
+				return compression;
+		throw new IOException("The save file is compressed with unknown codec " + id + ".");
+	}
+	
+	/**
+	 * Gets the codec snapshots are compressed with when none is given: the one named by the virtualpets.saveCompression
+	 * system property, or FAST if it is not set.
+	 * @return
+	 * The default codec.
+	 * @throws IllegalArgumentException
+	 * If the property does not name a codec.
+	 */
+	public static SaveCompression getDefault() {
+		String name = System.getProperty(PROPERTY);
+		if (name == null)
+			return FAST;
+		for (SaveCompression compression : values())
+			if (compression.name().equalsIgnoreCase(name.trim()))
+				return compression;
+		throw new IllegalArgumentException("Unknown save compression '" + name + "' in " + PROPERTY + ".");
+	}
+}
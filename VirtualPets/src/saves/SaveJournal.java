@@ -0,0 +1,551 @@
+package saves;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RandomSource;
+import model.SeededRandom;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Saves a game as a base snapshot plus a journal of what has changed since, so that saving after a turn only writes
+ * what the turn changed. Once the journal grows past a threshold it is folded into a new base snapshot.
+ *
+ * The base file holds a header with a generation number, then a snapshot. The journal file, named after the base with
+ * ".journal" added, holds a header with the generation of the base it applies to, then one record per save: its
+ * length, a CRC32 of its contents, then the changes as tagged values. Changes are saved as new values rather than
+ * differences, and a record which was only partly written before a crash is ignored when loading. The summary in the
+ * base is rewritten in place after each record, so listing saves shows the latest turn.
+ *
+ * Saves are written on a background thread. If the game saves again before the last save has been written, only the
+ * newest is written.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveJournal {
+	static final int BASE_MAGIC = 0x5650424A;
+	private static final int JOURNAL_MAGIC = 0x56504A4C;
+	private static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	
+	// Tags of the changes in a journal record
+	private static final int END = 0;
+	private static final int DAY = 1;
+	private static final int PREVIOUS_SCORES = 2;
+	private static final int MONEY = 3;
+	private static final int SCORE = 4;
+	private static final int FOOD = 5;
+	private static final int TOYS = 6;
+	private static final int PET = 7;
+	private static final int RANDOM = 8;
+	
+	// Flags each pet's status attributes are packed into
+	private static final int HEALTHY = 1;
+	private static final int BEHAVING = 2;
+	private static final int ALIVE = 4;
+	private static final int REVIVABLE = 8;
+	
+	private File baseFile;
+	private File journalFile;
+	private long compactionThreshold;
+	
+	// The state the base and journal describe, and the journal being appended to. Only used by the writer's thread
+	private GameSnapshot saved;
+	private FileChannel journal;
+	
+	private AtomicReference<GameSnapshot> pending = new AtomicReference<GameSnapshot>();
+	private ThreadPoolExecutor writer;
+	
+	/**
+	 * Creates a journal which saves to a file. The first save writes a new base snapshot, replacing any save already
+	 * in the file.
+	 * @param file
+	 * The file to save the base snapshot to.
+	 * @param compactionThreshold
+	 * The size in bytes the journal may grow to before it is folded into a new base snapshot.
+	 */
+	public SaveJournal(File file, long compactionThreshold) {
+		this.baseFile = file;
+		this.journalFile = getJournalFile(file);
+		this.compactionThreshold = compactionThreshold;
+		writer = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		writer.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * Saves a game in the background. The snapshot is written later, so must not share anything with the game which
+	 * can change; take it with GameSnapshot.copy.
+	 * @param snapshot
+	 * The snapshot to save.
+	 */
+	public void save(GameSnapshot snapshot) {
+		if (pending.getAndSet(snapshot) == null) {
+			writer.execute(new Runnable() {
+				public void run() {
+					write(pending.getAndSet(null));
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Waits for any save being written to finish, and stops the journal.
+	 * @throws InterruptedException
+	 * If the thread is interrupted while waiting.
+	 */
+	public void close() throws InterruptedException {
+		writer.shutdown();
+		writer.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		try {
+			if (journal != null)
+				journal.close();
+		}
+		catch (IOException exc) {
+			System.err.println("Closing the save journal failed: " + exc.getMessage());
+		}
+	}
+	
+	private void write(GameSnapshot snapshot) {
+		try {
+			if (saved == null || !isSameGame(saved, snapshot) || journal.size() >= compactionThreshold)
+				compact(snapshot);
+			else
+				append(snapshot);
+			saved = snapshot;
+		}
+		catch (IOException exc) {
+			// Start again from a new base next time, as the journal may not match what was saved
+			System.err.println("Saving to the journal failed: " + exc.getMessage());
+			saved = null;
+		}
+	}
+	
+	/**
+	 * Writes a new base snapshot and starts a new, empty journal for it. The base is replaced before the journal, so
+	 * if the game crashes in between, the old journal is ignored as its generation does not match the new base's.
+	 */
+	private void compact(GameSnapshot snapshot) throws IOException {
+		long generation = ThreadLocalRandom.current().nextLong();
+		File folder = baseFile.getAbsoluteFile().getParentFile();
+		Files.createDirectories(folder.toPath());
+		
+		Path temporary = new File(folder, baseFile.getName() + ".tmp").toPath();
+		FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			writeHeader(channel, BASE_MAGIC, generation);
+			SnapshotCodec.write(snapshot, channel);
+			channel.force(true);
+		}
+		finally {
+			channel.close();
+		}
+		replace(temporary, baseFile.toPath());
+		
+		if (journal != null)
+			journal.close();
+		temporary = new File(folder, journalFile.getName() + ".tmp").toPath();
+		channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			writeHeader(channel, JOURNAL_MAGIC, generation);
+			channel.force(true);
+		}
+		finally {
+			channel.close();
+		}
+		replace(temporary, journalFile.toPath());
+		journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+	
+	/**
+	 * Appends a record of the changes between the saved state and a snapshot to the journal.
+	 */
+	private void append(GameSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotOutput out = new SnapshotOutput(Channels.newChannel(bytes));
+		writeChanges(saved, snapshot, out);
+		out.flush();
+		byte[] changes = bytes.toByteArray();
+		
+		CRC32 crc = new CRC32();
+		crc.update(changes);
+		ByteBuffer record = ByteBuffer.allocate(8 + changes.length);
+		record.putInt(changes.length);
+		record.putInt((int)crc.getValue());
+		record.put(changes);
+		record.flip();
+		while (record.hasRemaining())
+			journal.write(record);
+		journal.force(false);
+		
+		// Keep the base's summary up to date, so the save is listed as it is now. It is only used for listing saves,
+		// so is not forced to disk
+		ByteBuffer summary = ByteBuffer.wrap(SaveSummary.toBytes(snapshot, System.currentTimeMillis()));
+		FileChannel base = FileChannel.open(baseFile.toPath(), StandardOpenOption.WRITE);
+		try {
+			while (summary.hasRemaining())
+				base.write(summary, HEADER_SIZE + SnapshotCodec.SUMMARY_OFFSET + summary.position());
+		}
+		finally {
+			base.close();
+		}
+	}
+	
+	/**
+	 * Checks that two snapshots are of the same game, with the same players, pets and shop, so that the changes
+	 * between them can be written to the journal.
+	 */
+	private static boolean isSameGame(GameSnapshot saved, GameSnapshot snapshot) {
+		if (saved.getFoodTypes() != snapshot.getFoodTypes() || saved.getToyTypes() != snapshot.getToyTypes()
+				|| saved.getNumberOfDays() != snapshot.getNumberOfDays() || saved.getIncomePerTurn() != snapshot.getIncomePerTurn()
+				|| saved.getPlayers().length != snapshot.getPlayers().length)
+			return false;
+		for (int i=0; i<saved.getPlayers().length; i++) {
+			Player savedPlayer = saved.getPlayers()[i];
+			Player player = snapshot.getPlayers()[i];
+			if (!savedPlayer.getName().equals(player.getName()) || savedPlayer.isComputer() != player.isComputer()
+					|| savedPlayer.getPets().length != player.getPets().length)
+				return false;
+			for (int j=0; j<player.getPets().length; j++) {
+				Pet savedPet = savedPlayer.getPets()[j];
+				Pet pet = player.getPets()[j];
+				if (!savedPet.getName().equals(pet.getName()) || savedPet.getSpecies() != pet.getSpecies()
+						|| savedPet.getFavouriteToy() != pet.getFavouriteToy() || savedPet.getFavouriteFood() != pet.getFavouriteFood())
+					return false;
+			}
+			// Inventories are journalled as indices into the shop's types
+			for (FoodType foodType : player.getFood().keySet())
+				if (indexOf(snapshot.getFoodTypes(), foodType) < 0)
+					return false;
+			for (Toy toy : player.getToys())
+				if (indexOf(snapshot.getToyTypes(), toy.getToyType()) < 0)
+					return false;
+		}
+		return true;
+	}
+	
+	private static void writeChanges(GameSnapshot saved, GameSnapshot snapshot, SnapshotOutput out) throws IOException {
+		if (saved.getCurrentDay() != snapshot.getCurrentDay() || saved.getActivePlayerIndex() != snapshot.getActivePlayerIndex()) {
+			out.writeByte(DAY);
+			out.writeInt(snapshot.getCurrentDay());
+			out.writeInt(snapshot.getActivePlayerIndex());
+		}
+		int[] previousScores = snapshot.getPreviousScores();
+		if (!Arrays.equals(saved.getPreviousScores(), previousScores)) {
+			out.writeByte(PREVIOUS_SCORES);
+			out.writeInt(previousScores.length);
+			for (int score : previousScores)
+				out.writeInt(score);
+		}
+		
+		for (int i=0; i<snapshot.getPlayers().length; i++) {
+			Player savedPlayer = saved.getPlayers()[i];
+			Player player = snapshot.getPlayers()[i];
+			if (savedPlayer.getMoney() != player.getMoney()) {
+				out.writeByte(MONEY);
+				out.writeInt(i);
+				out.writeInt(player.getMoney());
+			}
+			if (savedPlayer.getScore() != player.getScore()) {
+				out.writeByte(SCORE);
+				out.writeInt(i);
+				out.writeInt(player.getScore());
+			}
+			
+			FoodType[] foodTypes = snapshot.getFoodTypes();
+			for (int type=0; type<foodTypes.length; type++) {
+				int count = getCount(player.getFood(), foodTypes[type]);
+				if (getCount(savedPlayer.getFood(), foodTypes[type]) != count) {
+					out.writeByte(FOOD);
+					out.writeInt(i);
+					out.writeInt(type);
+					out.writeInt(count);
+				}
+			}
+			
+			if (!isSameToys(savedPlayer.getToys(), player.getToys())) {
+				out.writeByte(TOYS);
+				out.writeInt(i);
+				out.writeInt(player.getToys().size());
+				for (Toy toy : player.getToys()) {
+					out.writeInt(indexOf(snapshot.getToyTypes(), toy.getToyType()));
+					out.writeInt(toy.getDurability());
+				}
+			}
+			
+			for (int j=0; j<player.getPets().length; j++) {
+				Pet savedPet = savedPlayer.getPets()[j];
+				Pet pet = player.getPets()[j];
+				if (getFlags(savedPet) != getFlags(pet) || savedPet.getHunger() != pet.getHunger()
+						|| savedPet.getEnergy() != pet.getEnergy() || savedPet.getHappiness() != pet.getHappiness()
+						|| savedPet.getWeight() != pet.getWeight() || savedPet.getActionPoints() != pet.getActionPoints()) {
+					out.writeByte(PET);
+					out.writeInt(i);
+					out.writeInt(j);
+					out.writeByte(getFlags(pet));
+					out.writeInt(pet.getHunger());
+					out.writeInt(pet.getEnergy());
+					out.writeInt(pet.getHappiness());
+					out.writeInt(pet.getWeight());
+					out.writeInt(pet.getActionPoints());
+				}
+				RandomSource savedRandom = savedPet.getRandomSource();
+				RandomSource random = pet.getRandomSource();
+				if (random instanceof SeededRandom && !(savedRandom instanceof SeededRandom
+						&& ((SeededRandom)savedRandom).getSeed() == ((SeededRandom)random).getSeed()
+						&& ((SeededRandom)savedRandom).getGamma() == ((SeededRandom)random).getGamma())) {
+					out.writeByte(RANDOM);
+					out.writeInt(i);
+					out.writeInt(j);
+					out.writeLong(((SeededRandom)random).getSeed());
+					out.writeLong(((SeededRandom)random).getGamma());
+				}
+			}
+		}
+		out.writeByte(END);
+	}
+	
+	/**
+	 * Checks whether a file holds a base snapshot written by a journal.
+	 * @param file
+	 * The file to check.
+	 * @return
+	 * True if the file starts with a journal's base snapshot header.
+	 * @throws IOException
+	 * If the file cannot be read.
+	 */
+	public static boolean isJournalled(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			ByteBuffer magic = ByteBuffer.allocate(4);
+			while (magic.hasRemaining() && channel.read(magic) >= 0);
+			return !magic.hasRemaining() && magic.getInt(0) == BASE_MAGIC;
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Loads a game saved by a journal: its base snapshot, with every complete record in the journal applied.
+	 * @param file
+	 * The file the base snapshot is saved in.
+	 * @param assets
+	 * The assets loaded in the game, which the snapshot's types are looked up in.
+	 * @return
+	 * The saved game.
+	 * @throws IOException
+	 * If the base snapshot cannot be read.
+	 */
+	public static GameSnapshot load(File file, AssetRegistry assets) throws IOException {
+		GameSnapshot snapshot;
+		long generation;
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			generation = readHeader(channel, BASE_MAGIC);
+			snapshot = SnapshotCodec.read(channel, assets);
+		}
+		finally {
+			channel.close();
+		}
+		
+		File journalFile = getJournalFile(file);
+		if (!journalFile.isFile())
+			return snapshot;
+		channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ);
+		try {
+			// A journal left over from before the base was last replaced is out of date
+			if (readHeader(channel, JOURNAL_MAGIC) != generation)
+				return snapshot;
+			ByteBuffer header = ByteBuffer.allocate(8);
+			while (true) {
+				header.clear();
+				if (!readFully(channel, header))
+					break;
+				int length = header.getInt(0);
+				if (length < 0 || length > channel.size())
+					break;
+				ByteBuffer changes = ByteBuffer.allocate(length);
+				if (!readFully(channel, changes))
+					break;
+				CRC32 crc = new CRC32();
+				crc.update(changes.array());
+				if ((int)crc.getValue() != header.getInt(4))
+					break;
+				snapshot = applyChanges(snapshot, new SnapshotInput(Channels.newChannel(new ByteArrayInputStream(changes.array()))));
+			}
+		}
+		finally {
+			channel.close();
+		}
+		return snapshot;
+	}
+	
+	private static GameSnapshot applyChanges(GameSnapshot snapshot, SnapshotInput in) throws IOException {
+		int currentDay = snapshot.getCurrentDay();
+		int activePlayerIndex = snapshot.getActivePlayerIndex();
+		int[] previousScores = snapshot.getPreviousScores();
+		Player[] players = snapshot.getPlayers();
+		int tag;
+		while ((tag = in.readByte()) != END) {
+			switch (tag) {
+			case DAY:
+				currentDay = in.readInt();
+				activePlayerIndex = in.readInt();
+				break;
+			case PREVIOUS_SCORES:
+				previousScores = new int[in.readCount(players.length + 3)];
+				for (int i=0; i<previousScores.length; i++)
+					previousScores[i] = in.readInt();
+				break;
+			case MONEY:
+				Player player = getPlayer(players, in.readInt());
+				player.changeMoney(in.readInt() - player.getMoney());
+				break;
+			case SCORE:
+				player = getPlayer(players, in.readInt());
+				player.changeScore(in.readInt() - player.getScore());
+				break;
+			case FOOD:
+				HashMap<FoodType, Integer> food = getPlayer(players, in.readInt()).getFood();
+				FoodType foodType = getType(snapshot.getFoodTypes(), in.readInt());
+				int count = in.readInt();
+				if (count == 0)
+					food.remove(foodType);
+				else
+					food.put(foodType, count);
+				break;
+			case TOYS:
+				ArrayList<Toy> toys = getPlayer(players, in.readInt()).getToys();
+				toys.clear();
+				int toyCount = in.readCount(1 << 20);
+				for (int i=0; i<toyCount; i++)
+					toys.add(new Toy(getType(snapshot.getToyTypes(), in.readInt()), in.readInt()));
+				break;
+			case PET:
+				Pet[] pets = getPlayer(players, in.readInt()).getPets();
+				int index = in.readInt();
+				Pet pet = getType(pets, index);
+				int flags = in.readByte();
+				pets[index] = new Pet(pet.getName(), pet.getSpecies(), (flags & HEALTHY) != 0, (flags & BEHAVING) != 0,
+						(flags & ALIVE) != 0, (flags & REVIVABLE) != 0, in.readInt(), in.readInt(), in.readInt(),
+						in.readInt(), in.readInt(), pet.getFavouriteToy(), pet.getFavouriteFood());
+				pets[index].setRandomSource(pet.getRandomSource());
+				break;
+			case RANDOM:
+				pets = getPlayer(players, in.readInt()).getPets();
+				getType(pets, in.readInt()).setRandomSource(new SeededRandom(in.readLong(), in.readLong()));
+				break;
+			default:
+				throw new IOException("The save journal is corrupt: found change " + tag + ".");
+			}
+		}
+		return new GameSnapshot(players, snapshot.getFoodTypes(), snapshot.getToyTypes(), snapshot.getNumberOfDays(),
+				snapshot.getIncomePerTurn(), currentDay, activePlayerIndex, previousScores);
+	}
+	
+	private static File getJournalFile(File file) {
+		return new File(file.getPath() + ".journal");
+	}
+	
+	private static void writeHeader(FileChannel channel, int magic, long generation) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(magic);
+		header.putInt(VERSION);
+		header.putLong(generation);
+		header.flip();
+		while (header.hasRemaining())
+			channel.write(header);
+	}
+	
+	private static long readHeader(FileChannel channel, int magic) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		if (!readFully(channel, header) || header.getInt(0) != magic)
+			throw new IOException("The file is not a journalled saved game.");
+		int version = header.getInt(4);
+		if (version != VERSION)
+			throw new IOException("The file is version " + version + " of the save journal format, expected version " + VERSION + ".");
+		return header.getLong(8);
+	}
+	
+	/**
+	 * Fills a buffer from a channel.
+	 * @return
+	 * True if the buffer was filled, or false if the channel ended first.
+	 */
+	private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			if (channel.read(buffer) < 0)
+				return false;
+		return true;
+	}
+	
+	private static void replace(Path temporary, Path target) throws IOException {
+		try {
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException exc) {
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	private static Player getPlayer(Player[] players, int index) throws IOException {
+		return getType(players, index);
+	}
+	
+	private static <T> T getType(T[] types, int index) throws IOException {
+		if (index < 0 || index >= types.length)
+			throw new IOException("The save journal is corrupt: found a reference to missing item " + index + ".");
+		return types[index];
+	}
+	
+	private static <T> int indexOf(T[] types, T type) {
+		for (int i=0; i<types.length; i++)
+			if (types[i] == type)
+				return i;
+		return -1;
+	}
+	
+	private static int getCount(HashMap<FoodType, Integer> food, FoodType foodType) {
+		Integer count = food.get(foodType);
+		return (count == null) ? 0 : count;
+	}
+	
+	private static boolean isSameToys(ArrayList<Toy> saved, ArrayList<Toy> toys) {
+		if (saved.size() != toys.size())
+			return false;
+		for (int i=0; i<toys.size(); i++)
+			if (saved.get(i).getToyType() != toys.get(i).getToyType() || saved.get(i).getDurability() != toys.get(i).getDurability())
+				return false;
+		return true;
+	}
+	
+	private static int getFlags(Pet pet) {
+		return (pet.isHealthy() ? HEALTHY : 0) | (pet.isBehaving() ? BEHAVING : 0) | (pet.isAlive() ? ALIVE : 0)
+				| (pet.isRevivable() ? REVIVABLE : 0);
+	}
+}
@@ -0,0 +1,191 @@
+package saves;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+import model.Player;
+
+/**
+ * A summary of a saved game, for listing saves without loading them: who is playing, how far through the game they
+ * are, their scores, and when the game was saved.
+ *
+ * Every snapshot holds its summary in a block of a fixed size straight after its header, so a save's summary is always
+ * at the same place in the file and can be read by mapping only the start of the file. The first MAX_PLAYERS players'
+ * names and scores are kept, with names cut short to fit.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveSummary {
+	static final int SIZE = 256;
+	static final int MAX_PLAYERS = 4;
+	private static final int NAME_SIZE = 46;
+	
+	private File file;
+	private long timestamp;
+	private int currentDay;
+	private int numberOfDays;
+	private int numberOfPlayers;
+	private String[] playerNames;
+	private int[] scores;
+	
+	private SaveSummary(File file, long timestamp, int currentDay, int numberOfDays, int numberOfPlayers,
+			String[] playerNames, int[] scores) {
+		this.file = file;
+		this.timestamp = timestamp;
+		this.currentDay = currentDay;
+		this.numberOfDays = numberOfDays;
+		this.numberOfPlayers = numberOfPlayers;
+		this.playerNames = playerNames;
+		this.scores = scores;
+	}
+	
+	// Getters
+	public File getFile() {
+		return file;
+	}
+	
+	public long getTimestamp() {
+		return timestamp;
+	}
+	
+	public int getCurrentDay() {
+		return currentDay;
+	}
+	
+	public int getNumberOfDays() {
+		return numberOfDays;
+	}
+	
+	public int getNumberOfPlayers() {
+		return numberOfPlayers;
+	}
+	
+	public String[] getPlayerNames() {
+		return playerNames;
+	}
+	
+	public int[] getScores() {
+		return scores;
+	}
+	// End Getters
+	
+	/**
+	 * Writes the summary of a snapshot, taking exactly SIZE bytes.
+	 * @param snapshot
+	 * The snapshot being saved.
+	 * @param timestamp
+	 * When the snapshot is being saved, in milliseconds since the epoch.
+	 * @return
+	 * The summary's bytes.
+	 */
+	static byte[] toBytes(GameSnapshot snapshot, long timestamp) {
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+		Player[] players = snapshot.getPlayers();
+		buffer.putLong(timestamp);
+		buffer.putInt(snapshot.getCurrentDay());
+		buffer.putInt(snapshot.getNumberOfDays());
+		buffer.putInt(players.length);
+		CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+		ByteBuffer name = ByteBuffer.allocate(NAME_SIZE);
+		for (int i=0; i<Math.min(players.length, MAX_PLAYERS); i++) {
+			// Encoding stops before the first character which does not fit, so names are never cut mid-character
+			name.clear();
+			encoder.reset();
+			encoder.encode(CharBuffer.wrap(players[i].getName()), name, true);
+			name.flip();
+			buffer.put((byte)name.remaining());
+			buffer.put(name);
+			buffer.position(buffer.position() + NAME_SIZE - name.limit());
+			buffer.putInt(players[i].getScore());
+		}
+		return buffer.array();
+	}
+	
+	/**
+	 * Reads the summary of a saved game, mapping only the start of the file.
+	 * @param file
+	 * The save file, which may be a snapshot or the base of a save journal.
+	 * @return
+	 * The save's summary.
+	 * @throws IOException
+	 * If the file cannot be read, or is not a saved game of the current version.
+	 */
+	public static SaveSummary read(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long length = Math.min(channel.size(), SaveJournal.HEADER_SIZE + SnapshotCodec.SUMMARY_OFFSET + SIZE);
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			int start = 0;
+			if (length >= 4 && header.getInt(0) == SaveJournal.BASE_MAGIC)
+				start = SaveJournal.HEADER_SIZE;
+			if (length < start + SnapshotCodec.SUMMARY_OFFSET + SIZE || header.getInt(start) != SnapshotCodec.MAGIC)
+				throw new IOException("The file is not a saved game.");
+			int version = header.getInt(start + 4);
+			if (version != SnapshotCodec.VERSION)
+				throw new IOException("The file is version " + version + " of the saved game format, expected version " + SnapshotCodec.VERSION + ".");
+			
+			header.position(start + SnapshotCodec.SUMMARY_OFFSET);
+			long timestamp = header.getLong();
+			int currentDay = header.getInt();
+			int numberOfDays = header.getInt();
+			int numberOfPlayers = header.getInt();
+			if (numberOfPlayers < 0)
+				throw new IOException("The save file is corrupt: found " + numberOfPlayers + " players.");
+			String[] playerNames = new String[Math.min(numberOfPlayers, MAX_PLAYERS)];
+			int[] scores = new int[playerNames.length];
+			byte[] name = new byte[NAME_SIZE];
+			for (int i=0; i<playerNames.length; i++) {
+				int nameLength = header.get() & 0xFF;
+				if (nameLength > NAME_SIZE)
+					throw new IOException("The save file is corrupt: found a name of " + nameLength + " bytes.");
+				header.get(name);
+				playerNames[i] = new String(name, 0, nameLength, StandardCharsets.UTF_8);
+				scores[i] = header.getInt();
+			}
+			return new SaveSummary(file, timestamp, currentDay, numberOfDays, numberOfPlayers, playerNames, scores);
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Lists the saved games in folders. Files which are not saved games, or cannot be read, are left out.
+	 * @param folders
+	 * The folders to look in. Subfolders are not searched.
+	 * @return
+	 * The summaries of the saved games, most recently saved first.
+	 */
+	public static SaveSummary[] list(File... folders) {
+		ArrayList<SaveSummary> summaries = new ArrayList<SaveSummary>();
+		for (File folder : folders) {
+			File[] files = folder.listFiles();
+			if (files == null)
+				continue;
+			for (File file : files) {
+				if (!file.isFile())
+					continue;
+				try {
+					summaries.add(read(file));
+				}
+				catch (IOException exc) {
+				}
+			}
+		}
+		Collections.sort(summaries, new Comparator<SaveSummary>() {
+			public int compare(SaveSummary first, SaveSummary second) {
+				return Long.compare(second.timestamp, first.timestamp);
+			}
+		});
+		return summaries.toArray(new SaveSummary[summaries.size()]);
+	}
+}
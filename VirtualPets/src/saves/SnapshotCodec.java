@@ -0,0 +1,444 @@
+package saves;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import javax.swing.ImageIcon;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RandomSource;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Writes game snapshots in a compact binary format and reads them back in a single pass.
+ *
+ * A snapshot file is a header naming the codec its body is compressed with, a summary of a fixed size for listing
+ * saves, then the body: the game's counters, tables of the species, food types and toy types in the game, then
+ * each player with their inventory and pets. Pets and inventories refer to types by their index in the tables. Types
+ * are saved as their keys and attributes, but not their icons: when a snapshot is read each type is looked up by key
+ * in the registry of loaded assets, so it keeps its icon.
+ * @author Andrew Davidson (ada130)
+ */
+public class SnapshotCodec {
+	static final int MAGIC = 0x56504753;
+	static final int VERSION = 4;
+	
+	// Where each snapshot's summary starts, straight after the header
+	static final int SUMMARY_OFFSET = 12;
+	
+	// The size of the buffers compressed bodies are streamed through
+	private static final int STREAM_BUFFER_SIZE = 1 << 16;
+	
+	// Upper limit on every count in a snapshot, so that corrupt files fail before allocating huge arrays
+	private static final int MAX_COUNT = 1 << 20;
+	
+	// Flags each pet's status attributes are packed into
+	private static final int HEALTHY = 1;
+	private static final int BEHAVING = 2;
+	private static final int ALIVE = 4;
+	private static final int REVIVABLE = 8;
+	
+	/**
+	 * Writes a snapshot to a file, replacing anything already in it, compressed with the default codec.
+	 * @param snapshot
+	 * The snapshot to write.
+	 * @param file
+	 * The file to write to.
+	 * @throws IOException
+	 * If the file cannot be written.
+	 */
+	public static void write(GameSnapshot snapshot, File file) throws IOException {
+		write(snapshot, file, SaveCompression.getDefault());
+	}
+	
+	/**
+	 * Writes a snapshot to a file, replacing anything already in it.
+	 * @param snapshot
+	 * The snapshot to write.
+	 * @param file
+	 * The file to write to.
+	 * @param compression
+	 * The codec to compress the snapshot's body with.
+	 * @throws IOException
+	 * If the file cannot be written.
+	 */
+	public static void write(GameSnapshot snapshot, File file, SaveCompression compression) throws IOException {
+		FileChannel channel = new FileOutputStream(file).getChannel();
+		try {
+			write(snapshot, channel, compression);
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Writes a snapshot to a channel, compressed with the default codec.
+	 * @param snapshot
+	 * The snapshot to write.
+	 * @param channel
+	 * The channel to write to, which is not closed.
+	 * @throws IOException
+	 * If writing to the channel fails.
+	 */
+	public static void write(GameSnapshot snapshot, WritableByteChannel channel) throws IOException {
+		write(snapshot, channel, SaveCompression.getDefault());
+	}
+	
+	/**
+	 * Writes a snapshot to a channel. The header and summary are never compressed, so saves can be listed without
+	 * decompressing them.
+	 * @param snapshot
+	 * The snapshot to write.
+	 * @param channel
+	 * The channel to write to, which is not closed.
+	 * @param compression
+	 * The codec to compress the snapshot's body with.
+	 * @throws IOException
+	 * If writing to the channel fails.
+	 */
+	public static void write(GameSnapshot snapshot, WritableByteChannel channel, SaveCompression compression) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(SUMMARY_OFFSET + SaveSummary.SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(compression.getId());
+		header.put(SaveSummary.toBytes(snapshot, System.currentTimeMillis()));
+		header.flip();
+		while (header.hasRemaining())
+			channel.write(header);
+		
+		if (compression == SaveCompression.NONE) {
+			writeBody(snapshot, new SnapshotOutput(channel));
+			return;
+		}
+		// The stream is finished rather than closed, so that the channel is left open
+		Deflater deflater = new Deflater(compression.getLevel());
+		try {
+			DeflaterOutputStream stream = new DeflaterOutputStream(Channels.newOutputStream(channel), deflater, STREAM_BUFFER_SIZE);
+			writeBody(snapshot, new SnapshotOutput(Channels.newChannel(stream)));
+			stream.finish();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+	
+	private static void writeBody(GameSnapshot snapshot, SnapshotOutput out) throws IOException {
+		out.writeInt(snapshot.getNumberOfDays());
+		out.writeInt(snapshot.getIncomePerTurn());
+		out.writeInt(snapshot.getCurrentDay());
+		out.writeInt(snapshot.getActivePlayerIndex());
+		
+		// Number every type the game uses, starting with the shop's so they keep their order
+		Map<Species, Integer> species = new IdentityHashMap<Species, Integer>();
+		Map<FoodType, Integer> foodTypes = new IdentityHashMap<FoodType, Integer>();
+		Map<ToyType, Integer> toyTypes = new IdentityHashMap<ToyType, Integer>();
+		for (FoodType foodType : snapshot.getFoodTypes())
+			number(foodTypes, foodType);
+		for (ToyType toyType : snapshot.getToyTypes())
+			number(toyTypes, toyType);
+		for (Player player : snapshot.getPlayers()) {
+			for (FoodType foodType : player.getFood().keySet())
+				number(foodTypes, foodType);
+			for (Toy toy : player.getToys())
+				number(toyTypes, toy.getToyType());
+			for (Pet pet : player.getPets()) {
+				number(species, pet.getSpecies());
+				number(foodTypes, pet.getFavouriteFood());
+				number(toyTypes, pet.getFavouriteToy());
+			}
+		}
+		
+		out.writeInt(species.size());
+		for (Species type : order(species, new Species[species.size()])) {
+			out.writeString(type.getKey());
+			out.writeInt(type.getOptimumWeight());
+			out.writeInt(type.getHungerGain());
+			out.writeInt(type.getEnergyLoss());
+			out.writeInt(type.getHappinessLoss());
+			out.writeInt(type.getMinToyDamage());
+			out.writeInt(type.getMaxToyDamage());
+		}
+		out.writeInt(foodTypes.size());
+		out.writeInt(snapshot.getFoodTypes().length);
+		for (FoodType type : order(foodTypes, new FoodType[foodTypes.size()])) {
+			out.writeString(type.getKey());
+			out.writeInt(type.getPrice());
+			out.writeInt(type.getNutrition());
+			out.writeInt(type.getTastiness());
+			out.writeInt(type.getWeight());
+		}
+		out.writeInt(toyTypes.size());
+		out.writeInt(snapshot.getToyTypes().length);
+		for (ToyType type : order(toyTypes, new ToyType[toyTypes.size()])) {
+			out.writeString(type.getKey());
+			out.writeInt(type.getPrice());
+			out.writeInt(type.getHappinessGain());
+		}
+		
+		Player[] players = snapshot.getPlayers();
+		out.writeInt(players.length);
+		for (int i=0; i<players.length; i++) {
+			Player player = players[i];
+			out.writeString(player.getName());
+			out.writeInt(player.getMoney());
+			out.writeInt(player.getScore());
+			out.writeBoolean(player.isComputer());
+			out.writeInt(snapshot.getPreviousScores()[i]);
+			
+			out.writeInt(player.getFood().size());
+			for (Map.Entry<FoodType, Integer> food : player.getFood().entrySet()) {
+				out.writeInt(foodTypes.get(food.getKey()));
+				out.writeInt(food.getValue());
+			}
+			out.writeInt(player.getToys().size());
+			for (Toy toy : player.getToys()) {
+				out.writeInt(toyTypes.get(toy.getToyType()));
+				out.writeInt(toy.getDurability());
+			}
+			
+			out.writeInt(player.getPets().length);
+			for (Pet pet : player.getPets()) {
+				out.writeString(pet.getName());
+				out.writeInt(species.get(pet.getSpecies()));
+				out.writeByte((pet.isHealthy() ? HEALTHY : 0) | (pet.isBehaving() ? BEHAVING : 0)
+						| (pet.isAlive() ? ALIVE : 0) | (pet.isRevivable() ? REVIVABLE : 0));
+				out.writeInt(pet.getHunger());
+				out.writeInt(pet.getEnergy());
+				out.writeInt(pet.getHappiness());
+				out.writeInt(pet.getWeight());
+				out.writeInt(pet.getActionPoints());
+				out.writeInt(getIndex(toyTypes, pet.getFavouriteToy()));
+				out.writeInt(getIndex(foodTypes, pet.getFavouriteFood()));
+				
+				// Seeded sources are saved so the game continues with the same random events
+				RandomSource random = pet.getRandomSource();
+				out.writeBoolean(random instanceof SeededRandom);
+				if (random instanceof SeededRandom) {
+					out.writeLong(((SeededRandom)random).getSeed());
+					out.writeLong(((SeededRandom)random).getGamma());
+				}
+			}
+		}
+		out.flush();
+	}
+	
+	/**
+	 * Reads a snapshot from a file.
+	 * @param file
+	 * The file to read.
+	 * @param assets
+	 * The assets loaded in the game, which the snapshot's types are looked up in.
+	 * @return
+	 * The snapshot read.
+	 * @throws IOException
+	 * If the file cannot be read, or is not a snapshot.
+	 */
+	public static GameSnapshot read(File file, AssetRegistry assets) throws IOException {
+		FileChannel channel = new FileInputStream(file).getChannel();
+		try {
+			return read(channel, assets);
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Reads a snapshot from a channel.
+	 * @param channel
+	 * The channel to read from, which is not closed.
+	 * @param assets
+	 * The assets loaded in the game, which the snapshot's types are looked up in.
+	 * @return
+	 * The snapshot read.
+	 * @throws IOException
+	 * If reading from the channel fails, or it does not hold a snapshot.
+	 */
+	public static GameSnapshot read(ReadableByteChannel channel, AssetRegistry assets) throws IOException {
+		// The header is read exactly, so that the body can be read through a decompressing stream
+		ByteBuffer header = ByteBuffer.allocate(SUMMARY_OFFSET + SaveSummary.SIZE);
+		while (header.hasRemaining())
+			if (channel.read(header) < 0)
+				throw new IOException("The file is not a saved game.");
+		if (header.getInt(0) != MAGIC)
+			throw new IOException("The file is not a saved game.");
+		int version = header.getInt(4);
+		if (version != VERSION)
+			throw new IOException("The file is version " + version + " of the saved game format, expected version " + VERSION + ".");
+		SaveCompression compression = SaveCompression.fromId(header.getInt(8));
+		
+		if (compression == SaveCompression.NONE)
+			return readBody(new SnapshotInput(channel), assets);
+		Inflater inflater = new Inflater();
+		try {
+			InflaterInputStream stream = new InflaterInputStream(Channels.newInputStream(channel), inflater, STREAM_BUFFER_SIZE);
+			return readBody(new SnapshotInput(Channels.newChannel(stream)), assets);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+	
+	private static GameSnapshot readBody(SnapshotInput in, AssetRegistry assets) throws IOException {
+		int numberOfDays = in.readInt();
+		int incomePerTurn = in.readInt();
+		int currentDay = in.readInt();
+		int activePlayerIndex = in.readInt();
+		
+		Species[] savedSpecies = new Species[in.readCount(MAX_COUNT)];
+		for (int i=0; i<savedSpecies.length; i++) {
+			String key = in.readString();
+			Species type = new Species(getName(key), null, in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+			savedSpecies[i] = assets.getSpecies(key);
+			if (savedSpecies[i] == null)
+				savedSpecies[i] = restore(type, assets);
+		}
+		FoodType[] savedFoodTypes = new FoodType[in.readCount(MAX_COUNT)];
+		FoodType[] shopFoodTypes = new FoodType[in.readCount(savedFoodTypes.length)];
+		for (int i=0; i<savedFoodTypes.length; i++) {
+			String key = in.readString();
+			FoodType type = new FoodType(getName(key), null, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+			savedFoodTypes[i] = assets.getFoodType(key);
+			if (savedFoodTypes[i] == null)
+				savedFoodTypes[i] = restore(type, assets);
+		}
+		System.arraycopy(savedFoodTypes, 0, shopFoodTypes, 0, shopFoodTypes.length);
+		ToyType[] savedToyTypes = new ToyType[in.readCount(MAX_COUNT)];
+		ToyType[] shopToyTypes = new ToyType[in.readCount(savedToyTypes.length)];
+		for (int i=0; i<savedToyTypes.length; i++) {
+			String key = in.readString();
+			ToyType type = new ToyType(getName(key), null, in.readInt(), in.readInt());
+			savedToyTypes[i] = assets.getToyType(key);
+			if (savedToyTypes[i] == null)
+				savedToyTypes[i] = restore(type, assets);
+		}
+		System.arraycopy(savedToyTypes, 0, shopToyTypes, 0, shopToyTypes.length);
+		
+		Player[] players = new Player[in.readCount(MAX_COUNT)];
+		int[] previousScores = new int[Math.max(players.length, 3)];
+		for (int i=0; i<players.length; i++) {
+			String name = in.readString();
+			int money = in.readInt();
+			int score = in.readInt();
+			boolean computer = in.readBoolean();
+			previousScores[i] = in.readInt();
+			
+			int foodCount = in.readCount(MAX_COUNT);
+			HashMap<FoodType, Integer> food = new HashMap<FoodType, Integer>();
+			for (int j=0; j<foodCount; j++)
+				food.put(get(savedFoodTypes, in.readInt()), in.readInt());
+			int toyCount = in.readCount(MAX_COUNT);
+			ArrayList<Toy> toys = new ArrayList<Toy>(toyCount);
+			for (int j=0; j<toyCount; j++)
+				toys.add(new Toy(get(savedToyTypes, in.readInt()), in.readInt()));
+			
+			Pet[] pets = new Pet[in.readCount(MAX_COUNT)];
+			for (int j=0; j<pets.length; j++) {
+				String petName = in.readString();
+				Species petSpecies = get(savedSpecies, in.readInt());
+				int flags = in.readByte();
+				int hunger = in.readInt();
+				int energy = in.readInt();
+				int happiness = in.readInt();
+				int weight = in.readInt();
+				int actionPoints = in.readInt();
+				int favouriteToy = in.readInt();
+				int favouriteFood = in.readInt();
+				pets[j] = new Pet(petName, petSpecies, (flags & HEALTHY) != 0, (flags & BEHAVING) != 0,
+						(flags & ALIVE) != 0, (flags & REVIVABLE) != 0, hunger, energy, happiness, weight, actionPoints,
+						(favouriteToy < 0) ? null : get(savedToyTypes, favouriteToy),
+						(favouriteFood < 0) ? null : get(savedFoodTypes, favouriteFood));
+				if (in.readBoolean())
+					pets[j].setRandomSource(new SeededRandom(in.readLong(), in.readLong()));
+			}
+			
+			players[i] = new Player(name, pets, food, toys, money, score);
+			players[i].setComputer(computer);
+		}
+		if (activePlayerIndex < 0 || activePlayerIndex >= players.length)
+			throw new IOException("The save file is corrupt: player " + activePlayerIndex + " is taking their turn.");
+		return new GameSnapshot(players, shopFoodTypes, shopToyTypes, numberOfDays, incomePerTurn, currentDay,
+				activePlayerIndex, previousScores);
+	}
+	
+	private static <T> void number(Map<T, Integer> numbers, T type) {
+		if (type != null && !numbers.containsKey(type))
+			numbers.put(type, numbers.size());
+	}
+	
+	private static <T> T[] order(Map<T, Integer> numbers, T[] types) {
+		for (Map.Entry<T, Integer> entry : numbers.entrySet())
+			types[entry.getValue()] = entry.getKey();
+		return types;
+	}
+	
+	private static <T> int getIndex(Map<T, Integer> numbers, T type) {
+		return (type == null) ? -1 : numbers.get(type);
+	}
+	
+	private static <T> T get(T[] types, int index) throws IOException {
+		if (index < 0 || index >= types.length)
+			throw new IOException("The save file is corrupt: found a reference to missing type " + index + ".");
+		return types[index];
+	}
+	
+	/**
+	 * Gets the name of an asset from its key.
+	 */
+	private static String getName(String key) {
+		int hash = key.lastIndexOf('#');
+		return (hash < 0) ? key : key.substring(0, hash);
+	}
+	
+	/**
+	 * Recreates a saved species which is not loaded, or whose attributes have changed since the game was saved. It
+	 * takes the icon of the loaded species with the same name, if there is one.
+	 */
+	private static Species restore(Species saved, AssetRegistry assets) {
+		Species named = assets.getSpeciesNamed(saved.getName());
+		return new Species(saved.getName(), (named == null) ? new ImageIcon() : named.getIcon(), saved.getOptimumWeight(),
+				saved.getHungerGain(), saved.getEnergyLoss(), saved.getHappinessLoss(), saved.getMinToyDamage(), saved.getMaxToyDamage());
+	}
+	
+	/**
+	 * Recreates a saved food type which is not loaded, or whose attributes have changed since the game was saved. It
+	 * takes the icon of the loaded food type with the same name, if there is one.
+	 */
+	private static FoodType restore(FoodType saved, AssetRegistry assets) {
+		FoodType named = assets.getFoodTypeNamed(saved.getName());
+		return new FoodType(saved.getName(), (named == null) ? new ImageIcon() : named.getIcon(), saved.getPrice(),
+				saved.getNutrition(), saved.getTastiness(), saved.getWeight());
+	}
+	
+	/**
+	 * Recreates a saved toy type which is not loaded, or whose attributes have changed since the game was saved. It
+	 * takes the icon of the loaded toy type with the same name, if there is one.
+	 */
+	private static ToyType restore(ToyType saved, AssetRegistry assets) {
+		ToyType named = assets.getToyTypeNamed(saved.getName());
+		return new ToyType(saved.getName(), (named == null) ? new ImageIcon() : named.getIcon(), saved.getPrice(),
+				saved.getHappinessGain());
+	}
+}
@@ -0,0 +1,70 @@
+package saves;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads primitive values written by SnapshotOutput from a channel through a buffer, refilling the buffer whenever it
+ * runs out.
+ * @author Andrew Davidson (ada130)
+ */
+class SnapshotInput {
+	private ReadableByteChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocate(SnapshotOutput.BUFFER_SIZE);
+	
+	SnapshotInput(ReadableByteChannel channel) {
+		this.channel = channel;
+		buffer.flip();
+	}
+	
+	int readByte() throws IOException {
+		ensure(1);
+		return buffer.get();
+	}
+	
+	boolean readBoolean() throws IOException {
+		return readByte() != 0;
+	}
+	
+	int readInt() throws IOException {
+		ensure(4);
+		return buffer.getInt();
+	}
+	
+	long readLong() throws IOException {
+		ensure(8);
+		return buffer.getLong();
+	}
+	
+	String readString() throws IOException {
+		ensure(2);
+		int length = buffer.getShort() & 0xFFFF;
+		ensure(length);
+		String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+	
+	/**
+	 * Reads a count, checking it is not negative or unreasonably large so corrupt files fail cleanly.
+	 */
+	int readCount(int max) throws IOException {
+		int count = readInt();
+		if (count < 0 || count > max)
+			throw new IOException("The save file is corrupt: found a count of " + count + ".");
+		return count;
+	}
+	
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes)
+			return;
+		buffer.compact();
+		while (buffer.position() < bytes)
+			if (channel.read(buffer) < 0)
+				throw new EOFException("The save file ends unexpectedly.");
+		buffer.flip();
+	}
+}
@@ -0,0 +1,69 @@
+package saves;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes primitive values to a channel through a buffer, writing the buffer out whenever it fills up.
+ * @author Andrew Davidson (ada130)
+ */
+class SnapshotOutput {
+	static final int BUFFER_SIZE = 1 << 17;
+	
+	private WritableByteChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	
+	SnapshotOutput(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+	
+	void writeByte(int value) throws IOException {
+		ensure(1);
+		buffer.put((byte)value);
+	}
+	
+	void writeBoolean(boolean value) throws IOException {
+		writeByte(value ? 1 : 0);
+	}
+	
+	void writeInt(int value) throws IOException {
+		ensure(4);
+		buffer.putInt(value);
+	}
+	
+	void writeLong(long value) throws IOException {
+		ensure(8);
+		buffer.putLong(value);
+	}
+	
+	/**
+	 * Writes a string as its length in bytes then its UTF-8 bytes.
+	 * @throws IOException
+	 * If the string is longer than 65535 bytes, or writing to the channel fails.
+	 */
+	void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > 0xFFFF)
+			throw new IOException("The string " + value.substring(0, 20) + "... is too long to save.");
+		ensure(2 + bytes.length);
+		buffer.putShort((short)bytes.length);
+		buffer.put(bytes);
+	}
+	
+	/**
+	 * Writes everything buffered to the channel.
+	 */
+	void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+	
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			flush();
+	}
+}
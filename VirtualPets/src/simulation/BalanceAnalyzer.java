@@ -0,0 +1,285 @@
+package simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import assetshandler.AssetsLoader;
+import model.FoodType;
+import model.Player;
+import model.SeededRandom;
+import model.Species;
+import model.ToyType;
+import planning.PolicyLibrary;
+import saves.GameArchive;
+import saves.GameResult;
+
+/**
+ * A command line tool for balancing the asset catalogs. Plays a large number of simulated games across every core
+ * using fork-join, and reports how each species, food and toy performs. Each game is played by a care policy, either
+ * scripted (playing sensibly), random, or following a table of policies solved by PolicySolver. Results are
+ * aggregated as games finish, so memory use stays flat however many games are played, and the same seed always gives
+ * the same report regardless of the number of threads used.
+ * Every finished game can also be kept in a GameArchive, under its index in the run, for later analysis.
+ * 
+ * Usage: BalanceAnalyzer [--games n] [--days n] [--pets n] [--money n] [--income n] [--policy scripted|random|table]
+ *                        [--policies file] [--seed n] [--threads n] [--assets folder] [--archive file]
+ * @author Andrew Davidson (ada130)
+ */
+public class BalanceAnalyzer {
+	// The number of games each fork-join task plays itself rather than splitting further
+	private static final int BATCH_SIZE = 256;
+	
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private long games = 100000;
+	private int days = 20;
+	private int petsPerPlayer = 1;
+	private int startingMoney = 150;
+	private int incomePerTurn = 35;
+	private String policy = "scripted";
+	private PolicyLibrary policies;
+	private long seed = 201;
+	private GameArchive archive;
+	
+	/**
+	 * Creates an analyzer for the given catalogs, with default game settings matching those of GameSetup.
+	 * @param species
+	 * The species to simulate.
+	 * @param foodTypes
+	 * The food types available in the shop.
+	 * @param toyTypes
+	 * The toy types available in the shop.
+	 */
+	public BalanceAnalyzer(Species[] species, FoodType[] foodTypes, ToyType[] toyTypes) {
+		this.species = species;
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+	}
+	
+	// Setters
+	public void setGames(long games) {
+		this.games = games;
+	}
+	
+	public void setDays(int days) {
+		this.days = days;
+	}
+	
+	public void setPetsPerPlayer(int petsPerPlayer) {
+		this.petsPerPlayer = petsPerPlayer;
+	}
+	
+	public void setStartingMoney(int startingMoney) {
+		this.startingMoney = startingMoney;
+	}
+	
+	public void setIncomePerTurn(int incomePerTurn) {
+		this.incomePerTurn = incomePerTurn;
+	}
+	
+	public void setPolicy(String policy) {
+		if (!policy.equals("scripted") && !policy.equals("random") && !policy.equals("table"))
+			throw new IllegalArgumentException("Unknown policy '" + policy + "', expected 'scripted', 'random' or 'table'.");
+		this.policy = policy;
+	}
+	
+	public void setPolicyLibrary(PolicyLibrary policies) {
+		this.policies = policies;
+	}
+	
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	public void setArchive(GameArchive archive) {
+		this.archive = archive;
+	}
+	// End Setters
+	
+	/**
+	 * Plays every game and aggregates the results.
+	 * @param pool
+	 * The fork-join pool to play the games in.
+	 * @return
+	 * The report for all games played.
+	 * @throws IllegalStateException
+	 * If games are to be played by the table policy but no policies have been set.
+	 * @throws UncheckedIOException
+	 * If a game cannot be appended to the archive.
+	 */
+	public BalanceReport analyse(ForkJoinPool pool) {
+		if (policy.equals("table") && policies == null)
+			throw new IllegalStateException("The table policy needs policies to follow.");
+		return pool.invoke(new GameBatch(0, games, new SeededRandom(seed)));
+	}
+	
+	/**
+	 * Creates the policy used to play each game. Policies hold no state, but each batch has its own anyway.
+	 */
+	private CarePolicy createPolicy() {
+		if (policy.equals("random"))
+			return new RandomPolicy();
+		if (policy.equals("table"))
+			return new TablePolicy(policies);
+		return new ScriptedPolicy();
+	}
+	
+	/**
+	 * Plays a single game and records it in the given report, and in the archive if there is one.
+	 */
+	private void playGame(long gameIndex, SeededRandom random, CarePolicy carePolicy, BalanceReport report) {
+		// Species are assigned in turn rather than randomly so that every species is played an equal number of times
+		Species[] petSpecies = new Species[petsPerPlayer];
+		for (int i=0; i<petsPerPlayer; i++)
+			petSpecies[i] = species[(int)((gameIndex * petsPerPlayer + i) % species.length)];
+		
+		SimulatedGame game = SimulatedGame.create(petSpecies, foodTypes, toyTypes, random, days, startingMoney, incomePerTurn);
+		game.play(carePolicy);
+		report.record(game);
+		if (archive != null) {
+			int[][] roundScores = new int[days][];
+			for (int day=1; day<=days; day++)
+				roundScores[day - 1] = new int[] {game.getRoundScore(day)};
+			try {
+				archive.append(GameResult.of(gameIndex, days, new Player[] {game.getPlayer()}, roundScores));
+			}
+			catch (IOException exc) {
+				throw new UncheckedIOException(exc);
+			}
+		}
+	}
+	
+	/**
+	 * A range of games to play. Ranges larger than a batch are split in half, and each half given a source split from
+	 * this one. The shape of the split depends only on the range, so each game's random source is the same no matter
+	 * which thread ends up playing it.
+	 */
+	private class GameBatch extends RecursiveTask<BalanceReport> {
+		private static final long serialVersionUID = 1L;
+		
+		private long start, end;
+		private SeededRandom random;
+		
+		GameBatch(long start, long end, SeededRandom random) {
+			this.start = start;
+			this.end = end;
+			this.random = random;
+		}
+		
+		@Override
+		protected BalanceReport compute() {
+			if (end - start <= BATCH_SIZE) {
+				BalanceReport report = new BalanceReport(species, foodTypes, toyTypes);
+				CarePolicy carePolicy = createPolicy();
+				for (long gameIndex=start; gameIndex<end; gameIndex++)
+					playGame(gameIndex, random.split(), carePolicy, report);
+				return report;
+			}
+			
+			long middle = start + (end - start) / 2;
+			GameBatch first = new GameBatch(start, middle, random.split());
+			GameBatch second = new GameBatch(middle, end, random.split());
+			first.fork();
+			BalanceReport report = second.compute();
+			report.merge(first.join());
+			return report;
+		}
+	}
+	
+	/**
+	 * Runs the analyzer from the command line, printing the report to standard output.
+	 * @param args
+	 * The options described in the class documentation.
+	 */
+	public static void main(String[] args) {
+		try {
+			Species[] species;
+			FoodType[] foodTypes;
+			ToyType[] toyTypes;
+			int assetsIndex = Arrays.asList(args).indexOf("--assets");
+			if (assetsIndex != -1 && assetsIndex + 1 < args.length) {
+				Object[][] customAssets = AssetsLoader.loadCustomAssetsFile(new File(args[assetsIndex + 1]));
+				species = Arrays.copyOf(customAssets[0], customAssets[0].length, Species[].class);
+				foodTypes = Arrays.copyOf(customAssets[1], customAssets[1].length, FoodType[].class);
+				toyTypes = Arrays.copyOf(customAssets[2], customAssets[2].length, ToyType[].class);
+			}
+			else {
+				species = AssetsLoader.loadCustomSpeciesFile(BalanceAnalyzer.class.getResourceAsStream("/default_species.txt"));
+				toyTypes = AssetsLoader.loadCustomToyTypesFile(BalanceAnalyzer.class.getResourceAsStream("/default_toytypes.txt"));
+				foodTypes = AssetsLoader.loadCustomFoodTypesFile(BalanceAnalyzer.class.getResourceAsStream("/default_foodtypes.txt"));
+			}
+			
+			BalanceAnalyzer analyzer = new BalanceAnalyzer(species, foodTypes, toyTypes);
+			int threads = Runtime.getRuntime().availableProcessors();
+			for (int i=0; i+1<args.length; i+=2) {
+				String value = args[i+1];
+				switch (args[i]) {
+				case "--games":
+					analyzer.setGames(Long.parseLong(value));
+					break;
+				case "--days":
+					analyzer.setDays(Integer.parseInt(value));
+					break;
+				case "--pets":
+					analyzer.setPetsPerPlayer(Integer.parseInt(value));
+					break;
+				case "--money":
+					analyzer.setStartingMoney(Integer.parseInt(value));
+					break;
+				case "--income":
+					analyzer.setIncomePerTurn(Integer.parseInt(value));
+					break;
+				case "--policy":
+					analyzer.setPolicy(value);
+					break;
+				case "--policies":
+					analyzer.setPolicyLibrary(PolicyLibrary.load(new File(value), foodTypes, toyTypes));
+					break;
+				case "--seed":
+					analyzer.setSeed(Long.parseLong(value));
+					break;
+				case "--threads":
+					threads = Integer.parseInt(value);
+					break;
+				case "--archive":
+					analyzer.setArchive(new GameArchive(new File(value)));
+					break;
+				case "--assets":
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option '" + args[i] + "'.");
+				}
+			}
+			
+			long startTime = System.nanoTime();
+			BalanceReport report = analyzer.analyse(new ForkJoinPool(threads));
+			double seconds = (System.nanoTime() - startTime) / 1e9;
+			
+			report.print(System.out);
+			System.out.println();
+			System.out.println(String.format("Played %d games on %d threads in %.2f s (%.0f games/s)", 
+					report.getGames(), threads, seconds, report.getGames() / seconds));
+			if (analyzer.archive != null) {
+				analyzer.archive.close();
+				System.out.println("Archived " + analyzer.archive.size() + " games in total");
+			}
+		}
+		catch (IOException exc) {
+			System.err.println("Could not load assets or policies, or use the archive: " + exc.getMessage());
+			System.exit(1);
+		}
+		catch (UncheckedIOException exc) {
+			System.err.println("Could not archive a game: " + exc.getCause().getMessage());
+			System.exit(1);
+		}
+		catch (IllegalArgumentException | IllegalStateException exc) {
+			System.err.println(exc.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package simulation;
+
+import java.io.PrintStream;
+
+import model.FoodType;
+import model.Pet;
+import model.Species;
+import model.ToyType;
+
+/**
+ * The aggregated results of many simulated games, broken down by Species, and by FoodType and ToyType through the
+ * pets which have them as favourites. Also counts how many of each food and toy were bought. Reports from separate
+ * batches of games can be merged, so memory use depends only on the size of the catalogs, not the number of games.
+ * @author Andrew Davidson (ada130)
+ */
+public class BalanceReport {
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	
+	private long games = 0;
+	private OutcomeStatistics[] bySpecies;
+	private OutcomeStatistics[] byFavouriteFood;
+	private OutcomeStatistics[] byFavouriteToy;
+	private long[] foodBought;
+	private long[] toysBought;
+	
+	/**
+	 * Creates an empty report for the given catalogs.
+	 * @param species
+	 * Every species that pets may have
+	 * @param foodTypes
+	 * Every food type in the shop
+	 * @param toyTypes
+	 * Every toy type in the shop
+	 */
+	public BalanceReport(Species[] species, FoodType[] foodTypes, ToyType[] toyTypes) {
+		this.species = species;
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		bySpecies = createStatistics(species.length);
+		byFavouriteFood = createStatistics(foodTypes.length);
+		byFavouriteToy = createStatistics(toyTypes.length);
+		foodBought = new long[foodTypes.length];
+		toysBought = new long[toyTypes.length];
+	}
+	
+	// Getters
+	public long getGames() {
+		return games;
+	}
+	
+	public OutcomeStatistics getSpeciesStatistics(int speciesIndex) {
+		return bySpecies[speciesIndex];
+	}
+	
+	public OutcomeStatistics getFoodTypeStatistics(int foodIndex) {
+		return byFavouriteFood[foodIndex];
+	}
+	
+	public OutcomeStatistics getToyTypeStatistics(int toyIndex) {
+		return byFavouriteToy[toyIndex];
+	}
+	
+	public long getFoodBought(int foodIndex) {
+		return foodBought[foodIndex];
+	}
+	
+	public long getToysBought(int toyIndex) {
+		return toysBought[toyIndex];
+	}
+	// End Getters
+	
+	/**
+	 * Records the outcome of a finished game.
+	 * @param game
+	 * The finished game.
+	 */
+	public void record(SimulatedGame game) {
+		games++;
+		Pet[] pets = game.getPlayer().getPets();
+		for (int i=0; i<pets.length; i++) {
+			bySpecies[indexOf(species, pets[i].getSpecies())].record(game, i);
+			byFavouriteFood[indexOf(foodTypes, pets[i].getFavouriteFood())].record(game, i);
+			byFavouriteToy[indexOf(toyTypes, pets[i].getFavouriteToy())].record(game, i);
+		}
+		for (int i=0; i<foodBought.length; i++)
+			foodBought[i] += game.getFoodBought(i);
+		for (int i=0; i<toysBought.length; i++)
+			toysBought[i] += game.getToysBought(i);
+	}
+	
+	/**
+	 * Adds every result recorded by another report, for the same catalogs, to this one.
+	 * @param other
+	 * The report to merge into this one.
+	 */
+	public void merge(BalanceReport other) {
+		games += other.games;
+		for (int i=0; i<bySpecies.length; i++)
+			bySpecies[i].merge(other.bySpecies[i]);
+		for (int i=0; i<byFavouriteFood.length; i++) {
+			byFavouriteFood[i].merge(other.byFavouriteFood[i]);
+			foodBought[i] += other.foodBought[i];
+		}
+		for (int i=0; i<byFavouriteToy.length; i++) {
+			byFavouriteToy[i].merge(other.byFavouriteToy[i]);
+			toysBought[i] += other.toysBought[i];
+		}
+	}
+	
+	/**
+	 * Prints the report as a set of plain text tables.
+	 * @param out
+	 * The stream to print to.
+	 */
+	public void print(PrintStream out) {
+		out.println(String.format("Results of %d simulated games", games));
+		out.println();
+		out.println("By species");
+		printHeader(out, "");
+		for (int i=0; i<species.length; i++)
+			printRow(out, species[i].getName(), bySpecies[i], "");
+		
+		out.println();
+		out.println("By favourite food");
+		printHeader(out, String.format(" %10s %12s", "bought", "spent"));
+		for (int i=0; i<foodTypes.length; i++)
+			printRow(out, foodTypes[i].getName(), byFavouriteFood[i], 
+					String.format(" %10d %12d", foodBought[i], foodBought[i] * foodTypes[i].getPrice()));
+		
+		out.println();
+		out.println("By favourite toy");
+		printHeader(out, String.format(" %10s %12s", "bought", "spent"));
+		for (int i=0; i<toyTypes.length; i++)
+			printRow(out, toyTypes[i].getName(), byFavouriteToy[i], 
+					String.format(" %10d %12d", toysBought[i], toysBought[i] * toyTypes[i].getPrice()));
+	}
+	
+	private static void printHeader(PrintStream out, String extra) {
+		out.println(String.format("%-16s %10s %9s %9s %18s %8s %8s %8s %14s%s", "name", "pets", "survival", "sickness",
+				"score/day (sd)", "p10", "p50", "p90", "money/day", extra));
+	}
+	
+	private static void printRow(PrintStream out, String name, OutcomeStatistics statistics, String extra) {
+		Distribution score = statistics.getScorePerDay();
+		Distribution money = statistics.getMoneyPerDay();
+		out.println(String.format("%-16s %10d %8.1f%% %8.1f%% %8.1f (%7.1f) %8.1f %8.1f %8.1f %14.2f%s", name, 
+				statistics.getPets(), statistics.getSurvivalRate()*100, statistics.getSicknessRate()*100, 
+				score.getMean(), score.getStandardDeviation(), score.getPercentile(10), score.getPercentile(50), 
+				score.getPercentile(90), money.getMean(), extra));
+	}
+	
+	private static OutcomeStatistics[] createStatistics(int length) {
+		OutcomeStatistics[] statistics = new OutcomeStatistics[length];
+		for (int i=0; i<length; i++)
+			statistics[i] = new OutcomeStatistics();
+		return statistics;
+	}
+	
+	/**
+	 * Finds an item in a catalog by reference. Catalogs are small, so a linear search is quicker than a map lookup.
+	 */
+	private static int indexOf(Object[] catalog, Object item) {
+		for (int i=0; i<catalog.length; i++)
+			if (catalog[i] == item)
+				return i;
+		throw new IllegalArgumentException("Item is not in the report's catalog.");
+	}
+}
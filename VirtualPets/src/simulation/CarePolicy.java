@@ -0,0 +1,15 @@
+package simulation;
+
+/**
+ * A way of playing a simulated game. Each turn the policy may buy from the shop and use each pet's action points,
+ * through the methods of SimulatedGame, before the turn is ended for it.
+ * @author Andrew Davidson (ada130)
+ */
+public interface CarePolicy {
+	/**
+	 * Takes the player's turn for the current day. The turn is ended by the caller once this returns.
+	 * @param game
+	 * The game to take the turn in.
+	 */
+	public void takeTurn(SimulatedGame game);
+}
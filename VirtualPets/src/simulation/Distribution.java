@@ -0,0 +1,117 @@
+package simulation;
+
+/**
+ * A streaming summary of a set of values: the count, mean, standard deviation, extremes, and a fixed width histogram
+ * from which percentiles are estimated. The memory used does not depend on how many values are added, and two
+ * distributions over the same range can be merged, so that summaries built on separate threads can be combined.
+ * @author Andrew Davidson (ada130)
+ */
+public class Distribution {
+	private double low, binWidth;
+	private long[] bins;
+	private long count = 0;
+	private double sum = 0, sumOfSquares = 0;
+	private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+	
+	/**
+	 * Creates an empty distribution whose histogram covers the given range. Values outside the range are still counted,
+	 * but fall into the first or last bin.
+	 * @param low
+	 * The lowest value expected.
+	 * @param high
+	 * The highest value expected.
+	 * @param numberOfBins
+	 * The number of bins to divide the range into.
+	 */
+	public Distribution(double low, double high, int numberOfBins) {
+		this.low = low;
+		this.binWidth = (high - low) / numberOfBins;
+		this.bins = new long[numberOfBins];
+	}
+	
+	// Getters
+	public long getCount() {
+		return count;
+	}
+	
+	public double getMean() {
+		return (count == 0) ? 0 : sum / count;
+	}
+	
+	public double getStandardDeviation() {
+		if (count < 2)
+			return 0;
+		double mean = getMean();
+		return Math.sqrt(Math.max(0, (sumOfSquares - count*mean*mean) / (count - 1)));
+	}
+	
+	public double getMin() {
+		return (count == 0) ? 0 : min;
+	}
+	
+	public double getMax() {
+		return (count == 0) ? 0 : max;
+	}
+	// End Getters
+	
+	/**
+	 * Adds a value to the distribution.
+	 * @param value
+	 * The value to add.
+	 */
+	public void add(double value) {
+		count++;
+		sum += value;
+		sumOfSquares += value*value;
+		if (value < min)
+			min = value;
+		if (value > max)
+			max = value;
+		
+		int bin = (int)((value - low) / binWidth);
+		if (bin < 0)
+			bin = 0;
+		else if (bin >= bins.length)
+			bin = bins.length - 1;
+		bins[bin]++;
+	}
+	
+	/**
+	 * Adds every value summarised by another distribution to this one. Both must have been created with the same range
+	 * and number of bins.
+	 * @param other
+	 * The distribution to merge into this one.
+	 */
+	public void merge(Distribution other) {
+		count += other.count;
+		sum += other.sum;
+		sumOfSquares += other.sumOfSquares;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		for (int i=0; i<bins.length; i++)
+			bins[i] += other.bins[i];
+	}
+	
+	/**
+	 * Estimates a percentile of the values added, to within the width of one bin.
+	 * @param percentile
+	 * The percentile to estimate, between 0 and 100.
+	 * @return
+	 * The estimated value below which the given percentage of values lie.
+	 */
+	public double getPercentile(double percentile) {
+		if (count == 0)
+			return 0;
+		double target = count * percentile / 100;
+		long seen = 0;
+		for (int i=0; i<bins.length; i++) {
+			if (seen + bins[i] >= target && bins[i] > 0) {
+				// Interpolate within the bin, but never report a value outside those actually seen
+				double value = low + binWidth * (i + (target - seen) / bins[i]);
+				return Math.min(max, Math.max(min, value));
+			}
+			seen += bins[i];
+		}
+		return max;
+	}
+}
@@ -0,0 +1,70 @@
+package simulation;
+
+/**
+ * Aggregated outcomes for a group of simulated pets, for example every pet of one species: how many survived to the
+ * end of their game, how often they were sick, and the distributions of their score and the money spent on them.
+ * Scores and money are summarised per day, so that games of different lengths can be compared.
+ * @author Andrew Davidson (ada130)
+ */
+public class OutcomeStatistics {
+	private long pets = 0;
+	private long survived = 0;
+	private long turnsAlive = 0;
+	private long turnsSick = 0;
+	private Distribution scorePerDay = new Distribution(-300, 300, 120);
+	private Distribution moneyPerDay = new Distribution(0, 200, 100);
+	
+	// Getters
+	public long getPets() {
+		return pets;
+	}
+	
+	public Distribution getScorePerDay() {
+		return scorePerDay;
+	}
+	
+	public Distribution getMoneyPerDay() {
+		return moneyPerDay;
+	}
+	
+	public double getSurvivalRate() {
+		return (pets == 0) ? 0 : (double)survived / pets;
+	}
+	
+	public double getSicknessRate() {
+		return (turnsAlive == 0) ? 0 : (double)turnsSick / turnsAlive;
+	}
+	// End Getters
+	
+	/**
+	 * Records the outcome of one pet in a finished game.
+	 * @param game
+	 * The finished game.
+	 * @param petIndex
+	 * The index of the pet in the game.
+	 */
+	public void record(SimulatedGame game, int petIndex) {
+		int days = game.getNumberOfDays();
+		pets++;
+		if (game.getPlayer().getPets()[petIndex].isAlive())
+			survived++;
+		turnsAlive += game.getPetTurnsAlive(petIndex);
+		turnsSick += game.getPetTurnsSick(petIndex);
+		scorePerDay.add((double)game.getPetScore(petIndex) / days);
+		moneyPerDay.add((double)game.getPetMoneySpent(petIndex) / days);
+	}
+	
+	/**
+	 * Adds every outcome recorded by another set of statistics to this one.
+	 * @param other
+	 * The statistics to merge into this one.
+	 */
+	public void merge(OutcomeStatistics other) {
+		pets += other.pets;
+		survived += other.survived;
+		turnsAlive += other.turnsAlive;
+		turnsSick += other.turnsSick;
+		scorePerDay.merge(other.scorePerDay);
+		moneyPerDay.merge(other.moneyPerDay);
+	}
+}
@@ -0,0 +1,404 @@
+package simulation;
+
+import java.util.Arrays;
+
+import model.FoodType;
+import model.Pet;
+import model.RandomSource;
+import model.Species;
+import model.ThreadLocalRandomSource;
+import model.ToyType;
+
+/**
+ * A headless store for a whole population of pets, used for balance studies outside of the GUI. Rather than holding
+ * one Pet object per pet, the state of every pet is kept in parallel primitive arrays so that end of turn processing
+ * is a single tight loop over contiguous memory. The rules applied in finishTurn are exactly those of Pet.finishTurn,
+ * so a population produces the same scores as the equivalent Pet objects would.
+ * @author Andrew Davidson (ada130)
+ */
+public class PetPopulation {
+	// Bits used in the packed status flags of each pet
+	public static final byte HEALTHY = 1;
+	public static final byte BEHAVING = 2;
+	public static final byte ALIVE = 4;
+	public static final byte REVIVABLE = 8;
+
+	private int size = 0;
+
+	// Hot per pet state, touched on every turn
+	private int[] hunger;
+	private int[] energy;
+	private int[] happiness;
+	private int[] weight;
+	private int[] actionPoints;
+	private byte[] flags;
+	private int[] speciesIndex;
+
+	// Per species parameters, indexed by speciesIndex
+	private int speciesCount = 0;
+	private Species[] speciesTable;
+	private int[] optimumWeight;
+	private int[] hungerGain;
+	private int[] energyLoss;
+	private int[] happinessLoss;
+
+	// Cold per pet data, only used when converting back to Pet objects
+	private String[] names;
+	private ToyType[] favouriteToys;
+	private FoodType[] favouriteFoods;
+
+	/**
+	 * Creates an empty population with room for the given number of pets. The population grows if more pets are added.
+	 * @param capacity
+	 * The number of pets to allocate room for initially.
+	 */
+	public PetPopulation(int capacity) {
+		capacity = Math.max(capacity, 1);
+		hunger = new int[capacity];
+		energy = new int[capacity];
+		happiness = new int[capacity];
+		weight = new int[capacity];
+		actionPoints = new int[capacity];
+		flags = new byte[capacity];
+		speciesIndex = new int[capacity];
+		names = new String[capacity];
+		favouriteToys = new ToyType[capacity];
+		favouriteFoods = new FoodType[capacity];
+
+		speciesTable = new Species[4];
+		optimumWeight = new int[4];
+		hungerGain = new int[4];
+		energyLoss = new int[4];
+		happinessLoss = new int[4];
+	}
+
+	/**
+	 * Creates a population holding a copy of the state of each of the given pets, in the same order.
+	 * @param pets
+	 * The pets to copy into the population.
+	 * @return
+	 * The new population.
+	 */
+	public static PetPopulation fromPets(Pet[] pets) {
+		PetPopulation population = new PetPopulation(pets.length);
+		for (Pet pet : pets)
+			population.add(pet);
+		return population;
+	}
+
+	// Getters
+	public int size() {
+		return size;
+	}
+
+	public Species getSpecies(int index) {
+		return speciesTable[speciesIndex[index]];
+	}
+
+	public int getHunger(int index) {
+		return hunger[index];
+	}
+
+	public int getEnergy(int index) {
+		return energy[index];
+	}
+
+	public int getHappiness(int index) {
+		return happiness[index];
+	}
+
+	public int getWeight(int index) {
+		return weight[index];
+	}
+
+	public int getActionPoints(int index) {
+		return actionPoints[index];
+	}
+
+	public byte getFlags(int index) {
+		return flags[index];
+	}
+
+	public boolean isHealthy(int index) {
+		return (flags[index] & HEALTHY) != 0;
+	}
+
+	public boolean isBehaving(int index) {
+		return (flags[index] & BEHAVING) != 0;
+	}
+
+	public boolean isAlive(int index) {
+		return (flags[index] & ALIVE) != 0;
+	}
+
+	public boolean isRevivable(int index) {
+		return (flags[index] & REVIVABLE) != 0;
+	}
+	// End Getters
+
+	/**
+	 * Copies the state of a pet into the end of the population.
+	 * @param pet
+	 * The pet to copy.
+	 * @return
+	 * The index of the pet within the population.
+	 */
+	public int add(Pet pet) {
+		if (size == hunger.length)
+			grow(size * 2);
+
+		int index = size++;
+		hunger[index] = pet.getHunger();
+		energy[index] = pet.getEnergy();
+		happiness[index] = pet.getHappiness();
+		weight[index] = pet.getWeight();
+		actionPoints[index] = pet.getActionPoints();
+		flags[index] = packFlags(pet.isHealthy(), pet.isBehaving(), pet.isAlive(), pet.isRevivable());
+		speciesIndex[index] = indexOfSpecies(pet.getSpecies());
+		names[index] = pet.getName();
+		favouriteToys[index] = pet.getFavouriteToy();
+		favouriteFoods[index] = pet.getFavouriteFood();
+		return index;
+	}
+
+	/**
+	 * Creates a Pet object holding the current state of a pet in the population.
+	 * @param index
+	 * The index of the pet within the population.
+	 * @return
+	 * A new Pet with the same state.
+	 */
+	public Pet toPet(int index) {
+		return new Pet(names[index], speciesTable[speciesIndex[index]], isHealthy(index), isBehaving(index),
+				isAlive(index), isRevivable(index), hunger[index], energy[index], happiness[index], weight[index],
+				actionPoints[index], favouriteToys[index], favouriteFoods[index]);
+	}
+
+	/**
+	 * Creates Pet objects for every pet in the population, in population order.
+	 * @return
+	 * An array of new Pets with the same state as the population.
+	 */
+	public Pet[] toPets() {
+		Pet[] pets = new Pet[size];
+		for (int i=0; i<size; i++)
+			pets[i] = toPet(i);
+		return pets;
+	}
+
+	/**
+	 * Finishes the turn for every pet in the population using an unseeded random source.
+	 * @param scores
+	 * An array of at least size() elements which will receive the score of each pet for this turn, or null if
+	 * individual scores are not needed.
+	 * @return
+	 * The total score of all pets in the population for this turn.
+	 */
+	public long finishTurn(int[] scores) {
+		return finishTurn(scores, ThreadLocalRandomSource.INSTANCE);
+	}
+	
+	/**
+	 * Finishes the turn for every pet in the population, following the same rules as Pet.finishTurn. Pets are processed
+	 * in index order and consume random numbers in the same order as the equivalent Pet objects would, so given
+	 * identically seeded sources a population and its Pets produce identical results.
+	 * @param scores
+	 * An array of at least size() elements which will receive the score of each pet for this turn, or null if
+	 * individual scores are not needed.
+	 * @param random
+	 * The random source to draw every pet's random events from.
+	 * @return
+	 * The total score of all pets in the population for this turn.
+	 */
+	public long finishTurn(int[] scores, RandomSource random) {
+		long total = 0;
+
+		for (int i=0; i<size; i++) {
+			int flag = flags[i];
+			int score = 0;
+
+			if ((flag & ALIVE) != 0) {
+				int h = hunger[i];
+				int e = energy[i];
+				int p = happiness[i];
+				int w = weight[i];
+				int opt = optimumWeight[speciesIndex[i]];
+
+				//Generate score for this round based on stats before adjusting them and generating random events
+				score = p + e + (100-h) - Math.abs(w-opt)*2;
+				if ((flag & HEALTHY) == 0)
+					score -= 50;
+				if ((flag & BEHAVING) == 0)
+					score -= 50;
+
+				double optWeight = opt;
+				double deviation = Math.abs(w-optWeight);
+				int chance = 0;
+
+				//Chance to die
+				if (e < 10)
+					chance += (10-e)*10;
+				if (deviation > optWeight/2)
+					chance += (deviation - optWeight/2)/(optWeight/6)*100;
+				if (random.nextInt(0, 100) < chance) {
+					flag = (flag & REVIVABLE) | HEALTHY | BEHAVING;
+					h = 0;
+					e = 0;
+					p = 0;
+					w = 0;
+					actionPoints[i] = 0;
+				}
+				else {
+					//Chance to get sick
+					if ((flag & HEALTHY) != 0) {
+						chance = 0;
+						if (h > 65)
+							chance += (h-65)*5;
+						if (e < 30)
+							chance += (30-e)*10;
+						if (deviation > optWeight/3)
+							chance += (deviation - optWeight/3)/(optWeight/6)*100;
+						if (random.nextInt(0, 100) < chance)
+							flag &= ~HEALTHY;
+					}
+
+					//Chance to start misbehaving
+					if ((flag & BEHAVING) != 0) {
+						chance = 0;
+						if (h > 70)
+							chance += (90-h)*5;
+						if (p < 40)
+							chance += (40-p)*5;
+						if (random.nextInt(0, 100) < chance)
+							flag &= ~BEHAVING;
+					}
+
+					//Change stats by species attribute values
+					int s = speciesIndex[i];
+					h = clamp(h + hungerGain[s]);
+					e = clamp(e - energyLoss[s]);
+					p = clamp(p - happinessLoss[s]);
+					actionPoints[i] = 2;
+
+					//If the pet is starving, sharply decrease stats
+					if (h >= 90) {
+						w -= opt/3;
+						if (w < opt*1/3)
+							w = opt*1/3;
+						e = clamp(e - 25);
+						p = clamp(p - 35);
+					}
+
+					//If pet is sick, decrease energy and happiness
+					if ((flag & HEALTHY) == 0) {
+						e = clamp(e - 10);
+						p = clamp(p - 10);
+					}
+
+					//If pet is misbehaving, decrease happiness
+					if ((flag & BEHAVING) == 0)
+						p = clamp(p - 20);
+				}
+
+				hunger[i] = h;
+				energy[i] = e;
+				happiness[i] = p;
+				weight[i] = w;
+				flags[i] = (byte)flag;
+			}
+
+			if (scores != null)
+				scores[i] = score;
+			total += score;
+		}
+		return total;
+	}
+
+	/**
+	 * Packs the boolean status attributes of a pet into a single byte.
+	 * @param healthy
+	 * Whether the pet is healthy.
+	 * @param behaving
+	 * Whether the pet is behaving.
+	 * @param alive
+	 * Whether the pet is alive.
+	 * @param revivable
+	 * Whether the pet can still be revived.
+	 * @return
+	 * The packed status flags.
+	 */
+	public static byte packFlags(boolean healthy, boolean behaving, boolean alive, boolean revivable) {
+		int flag = 0;
+		if (healthy)
+			flag |= HEALTHY;
+		if (behaving)
+			flag |= BEHAVING;
+		if (alive)
+			flag |= ALIVE;
+		if (revivable)
+			flag |= REVIVABLE;
+		return (byte)flag;
+	}
+
+	/**
+	 * Clamps a stat to the range 0 to 100, as Pet does whenever hunger, energy or happiness change.
+	 * @param value
+	 * The unclamped value.
+	 * @return
+	 * The value moved onto the nearest boundary if it was out of range.
+	 */
+	private static int clamp(int value) {
+		if (value > 100)
+			return 100;
+		else if (value < 0)
+			return 0;
+		return value;
+	}
+
+	/**
+	 * Finds the index of a species in the species table, adding it if it is not there already. Species are compared
+	 * by reference, as they are in the rest of the model.
+	 * @param species
+	 * The species to look up.
+	 * @return
+	 * The index of the species in the species table.
+	 */
+	private int indexOfSpecies(Species species) {
+		for (int i=0; i<speciesCount; i++)
+			if (speciesTable[i] == species)
+				return i;
+
+		if (speciesCount == speciesTable.length) {
+			int capacity = speciesCount * 2;
+			speciesTable = Arrays.copyOf(speciesTable, capacity);
+			optimumWeight = Arrays.copyOf(optimumWeight, capacity);
+			hungerGain = Arrays.copyOf(hungerGain, capacity);
+			energyLoss = Arrays.copyOf(energyLoss, capacity);
+			happinessLoss = Arrays.copyOf(happinessLoss, capacity);
+		}
+		speciesTable[speciesCount] = species;
+		optimumWeight[speciesCount] = species.getOptimumWeight();
+		hungerGain[speciesCount] = species.getHungerGain();
+		energyLoss[speciesCount] = species.getEnergyLoss();
+		happinessLoss[speciesCount] = species.getHappinessLoss();
+		return speciesCount++;
+	}
+
+	/**
+	 * Grows every per pet array to the given capacity.
+	 * @param capacity
+	 * The new capacity of the population.
+	 */
+	private void grow(int capacity) {
+		hunger = Arrays.copyOf(hunger, capacity);
+		energy = Arrays.copyOf(energy, capacity);
+		happiness = Arrays.copyOf(happiness, capacity);
+		weight = Arrays.copyOf(weight, capacity);
+		actionPoints = Arrays.copyOf(actionPoints, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		speciesIndex = Arrays.copyOf(speciesIndex, capacity);
+		names = Arrays.copyOf(names, capacity);
+		favouriteToys = Arrays.copyOf(favouriteToys, capacity);
+		favouriteFoods = Arrays.copyOf(favouriteFoods, capacity);
+	}
+}
@@ -0,0 +1,77 @@
+package simulation;
+
+import java.util.ArrayList;
+
+import model.FoodType;
+import model.Pet;
+import model.RandomSource;
+import model.Toy;
+
+/**
+ * A policy which plays with no strategy at all: it sometimes buys a random item, then spends every action point on a
+ * random action the pet can currently take. Used as a baseline for how forgiving the species, foods and toys are.
+ * @author Andrew Davidson (ada130)
+ */
+public class RandomPolicy implements CarePolicy {
+	// The possible actions, in the order they are chosen from
+	private static final int FEED = 0, PLAY = 1, SLEEP = 2, TOILET = 3, CURE = 4, DISCIPLINE = 5;
+	
+	/**
+	 * Refer to interface CarePolicy
+	 */
+	@Override
+	public void takeTurn(SimulatedGame game) {
+		RandomSource random = game.getRandom();
+		
+		// Buy a random food and a random toy half of the time each, if they are affordable
+		if (random.nextInt(0, 2) == 0)
+			game.buyFood(random.nextInt(0, game.getFoodTypes().length));
+		if (random.nextInt(0, 2) == 0)
+			game.buyToy(random.nextInt(0, game.getToyTypes().length));
+		
+		Pet[] pets = game.getPlayer().getPets();
+		for (int i=0; i<pets.length; i++) {
+			Pet pet = pets[i];
+			if (!pet.isAlive()) {
+				if (pet.isRevivable())
+					game.revive(i);
+				continue;
+			}
+			while (pet.getActionPoints() > 0) {
+				switch (random.nextInt(0, 6)) {
+				case FEED:
+					// Foods are listed in shop order rather than inventory order so that the choice is reproducible
+					ArrayList<FoodType> foods = new ArrayList<FoodType>();
+					for (FoodType food : game.getFoodTypes())
+						if (game.getPlayer().getFood().containsKey(food))
+							foods.add(food);
+					if (foods.isEmpty())
+						game.sleep(i);
+					else
+						game.feed(i, foods.get(random.nextInt(0, foods.size())));
+					break;
+				case PLAY:
+					ArrayList<Toy> toys = game.getPlayer().getToys();
+					if (toys.isEmpty())
+						game.sleep(i);
+					else
+						game.play(i, toys.get(random.nextInt(0, toys.size())));
+					break;
+				case SLEEP:
+					game.sleep(i);
+					break;
+				case TOILET:
+					game.goToToilet(i);
+					break;
+				case CURE:
+					if (pet.isHealthy() || !game.cure(i))
+						game.sleep(i);
+					break;
+				case DISCIPLINE:
+					game.discipline(i);
+					break;
+				}
+			}
+		}
+	}
+}
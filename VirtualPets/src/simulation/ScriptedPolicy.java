@@ -0,0 +1,123 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import model.FoodType;
+import model.Pet;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * A policy which plays the way a sensible player would: revive and cure whenever it can be afforded, feed pets before
+ * they get hungry, rest them before they get tired, discipline them when they misbehave, and otherwise keep them happy
+ * with toys. Food and toys are bought as they are needed, choosing the most filling food for its weight and the best
+ * value toy that can be afforded.
+ * @author Andrew Davidson (ada130)
+ */
+public class ScriptedPolicy implements CarePolicy {
+	// Thresholds at which the policy starts to look after a pet's stats
+	private static final int HUNGRY = 50;
+	private static final int EXHAUSTED = 25;
+	private static final int TIRED = 45;
+	private static final int SAD = 60;
+	
+	/**
+	 * Refer to interface CarePolicy
+	 */
+	@Override
+	public void takeTurn(SimulatedGame game) {
+		Pet[] pets = game.getPlayer().getPets();
+		for (int i=0; i<pets.length; i++) {
+			Pet pet = pets[i];
+			if (!pet.isAlive()) {
+				if (!pet.isRevivable() || !game.revive(i))
+					continue;
+			}
+			int optimumWeight = pet.getSpecies().getOptimumWeight();
+			while (pet.getActionPoints() > 0) {
+				if (!pet.isHealthy() && game.cure(i))
+					continue;
+				// Low energy and being too heavy are the quickest ways to kill a pet, so deal with them before hunger
+				if (pet.getEnergy() < EXHAUSTED)
+					game.sleep(i);
+				else if (pet.getWeight() > optimumWeight * 7/6)
+					game.goToToilet(i);
+				else if (pet.getHunger() >= HUNGRY && feed(game, i))
+					continue;
+				else if (pet.getEnergy() < TIRED)
+					game.sleep(i);
+				else if (!pet.isBehaving())
+					game.discipline(i);
+				else if (pet.getHappiness() < SAD && play(game, i))
+					continue;
+				else if (pet.getWeight() > optimumWeight)
+					game.goToToilet(i);
+				else
+					game.sleep(i);
+			}
+		}
+	}
+	
+	/**
+	 * Feeds a pet, preferring its favourite food, and buying the food which removes the most hunger for the weight it
+	 * adds if there is none.
+	 * @return
+	 * Whether the pet could be fed
+	 */
+	private boolean feed(SimulatedGame game, int petIndex) {
+		HashMap<FoodType, Integer> inventory = game.getPlayer().getFood();
+		FoodType favourite = game.getPlayer().getPets()[petIndex].getFavouriteFood();
+		if (inventory.containsKey(favourite)) {
+			game.feed(petIndex, favourite);
+			return true;
+		}
+		if (inventory.isEmpty()) {
+			FoodType[] foodTypes = game.getFoodTypes();
+			int best = -1;
+			for (int f=0; f<foodTypes.length; f++) {
+				if (foodTypes[f].getPrice() > game.getPlayer().getMoney())
+					continue;
+				if (best == -1 || foodTypes[f].getNutrition() * Math.max(foodTypes[best].getWeight(), 1) > foodTypes[best].getNutrition() * Math.max(foodTypes[f].getWeight(), 1))
+					best = f;
+			}
+			if (best == -1 || !game.buyFood(best))
+				return false;
+		}
+		// Feed the first food owned in shop order, so that the choice does not depend on the inventory's ordering
+		for (FoodType food : game.getFoodTypes()) {
+			if (inventory.containsKey(food)) {
+				game.feed(petIndex, food);
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Plays with a pet using the most durable toy owned, buying the most enjoyable toy per dollar if there is none.
+	 * @return
+	 * Whether the pet could be played with
+	 */
+	private boolean play(SimulatedGame game, int petIndex) {
+		ArrayList<Toy> toys = game.getPlayer().getToys();
+		if (toys.isEmpty()) {
+			ToyType[] toyTypes = game.getToyTypes();
+			int best = -1;
+			for (int t=0; t<toyTypes.length; t++) {
+				if (toyTypes[t].getPrice() > game.getPlayer().getMoney())
+					continue;
+				if (best == -1 || toyTypes[t].getHappinessGain() * toyTypes[best].getPrice() > toyTypes[best].getHappinessGain() * toyTypes[t].getPrice())
+					best = t;
+			}
+			if (best == -1 || game.buyToy(best) == null)
+				return false;
+		}
+		Toy toy = toys.get(0);
+		for (Toy owned : toys)
+			if (owned.getDurability() > toy.getDurability())
+				toy = owned;
+		game.play(petIndex, toy);
+		return true;
+	}
+}
@@ -0,0 +1,306 @@
+package simulation;
+
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.RandomSource;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * A headless game for a single player, following the same rules as the Game panel: buying from the shop, interacting
+ * with pets, paying for cures and revives, and ending turns. Care policies play the game through these methods, and
+ * the game records what happened to each pet and what was spent on it so that the results can be aggregated.
+ * @author Andrew Davidson (ada130)
+ */
+public class SimulatedGame {
+	private Player player;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private RandomSource random;
+	private int incomePerTurn;
+	private int numberOfDays;
+	private int currentDay = 1;
+	
+	// What happened to each pet, indexed the same as the player's pets
+	private int[] petScores;
+	private int[] petMoneySpent;
+	private int[] petTurnsAlive;
+	private int[] petTurnsSick;
+	
+	// What was bought from the shop, indexed the same as the food and toy type arrays
+	private int[] foodBought;
+	private int[] toysBought;
+	
+	// The player's score at the end of each day
+	private int[] roundScores;
+	
+	/**
+	 * Creates a new game for a player whose pets have already been generated.
+	 * @param player
+	 * The player to play the game with
+	 * @param foodTypes
+	 * All food types available in the shop
+	 * @param toyTypes
+	 * All toy types available in the shop
+	 * @param random
+	 * The game's random source, split once per pet so that each pet has its own random events
+	 * @param numberOfDays
+	 * The number of days the game will go for
+	 * @param incomePerTurn
+	 * The player's income per day
+	 */
+	public SimulatedGame(Player player, FoodType[] foodTypes, ToyType[] toyTypes, RandomSource random, int numberOfDays, int incomePerTurn) {
+		this.player = player;
+		this.foodTypes = foodTypes;
+		this.toyTypes = toyTypes;
+		this.random = random;
+		this.numberOfDays = numberOfDays;
+		this.incomePerTurn = incomePerTurn;
+		
+		int numberOfPets = player.getPets().length;
+		petScores = new int[numberOfPets];
+		petMoneySpent = new int[numberOfPets];
+		petTurnsAlive = new int[numberOfPets];
+		petTurnsSick = new int[numberOfPets];
+		foodBought = new int[foodTypes.length];
+		toysBought = new int[toyTypes.length];
+		roundScores = new int[Math.max(numberOfDays, 0)];
+		
+		for (Pet pet : player.getPets())
+			pet.setRandomSource(random.split());
+	}
+	
+	/**
+	 * Creates a new game for one player, generating pets of the given species with random favourites in the same way
+	 * that PetSetup does.
+	 * @param species
+	 * The species of each pet the player will own
+	 * @param foodTypes
+	 * All food types available in the shop
+	 * @param toyTypes
+	 * All toy types available in the shop
+	 * @param random
+	 * The game's random source
+	 * @param numberOfDays
+	 * The number of days the game will go for
+	 * @param startingMoney
+	 * The amount of money the player starts with
+	 * @param incomePerTurn
+	 * The player's income per day
+	 * @return
+	 * The new game
+	 */
+	public static SimulatedGame create(Species[] species, FoodType[] foodTypes, ToyType[] toyTypes, RandomSource random,
+			int numberOfDays, int startingMoney, int incomePerTurn) {
+		Pet[] pets = new Pet[species.length];
+		for (int i=0; i<species.length; i++) {
+			ToyType favouriteToy = toyTypes[random.nextInt(0, toyTypes.length)];
+			FoodType favouriteFood = foodTypes[random.nextInt(0, foodTypes.length)];
+			pets[i] = new Pet("Pet "+(i+1), species[i], favouriteToy, favouriteFood);
+		}
+		return new SimulatedGame(new Player("Player", pets, startingMoney), foodTypes, toyTypes, random, numberOfDays, incomePerTurn);
+	}
+	
+	// Getters
+	public Player getPlayer() {
+		return player;
+	}
+	
+	public FoodType[] getFoodTypes() {
+		return foodTypes;
+	}
+	
+	public ToyType[] getToyTypes() {
+		return toyTypes;
+	}
+	
+	public RandomSource getRandom() {
+		return random;
+	}
+	
+	public int getCurrentDay() {
+		return currentDay;
+	}
+	
+	public int getNumberOfDays() {
+		return numberOfDays;
+	}
+	
+	public boolean isFinished() {
+		return currentDay > numberOfDays;
+	}
+	
+	public int getPetScore(int petIndex) {
+		return petScores[petIndex];
+	}
+	
+	public int getPetMoneySpent(int petIndex) {
+		return petMoneySpent[petIndex];
+	}
+	
+	public int getPetTurnsAlive(int petIndex) {
+		return petTurnsAlive[petIndex];
+	}
+	
+	public int getPetTurnsSick(int petIndex) {
+		return petTurnsSick[petIndex];
+	}
+	
+	public int getFoodBought(int foodIndex) {
+		return foodBought[foodIndex];
+	}
+	
+	public int getToysBought(int toyIndex) {
+		return toysBought[toyIndex];
+	}
+	
+	public int getRoundScore(int day) {
+		return roundScores[day - 1];
+	}
+	// End Getters
+	
+	/**
+	 * Buys one of a food type from the shop, if the player can afford it.
+	 * @param foodIndex
+	 * The index of the food type in the shop
+	 * @return
+	 * Whether the food was bought
+	 */
+	public boolean buyFood(int foodIndex) {
+		FoodType food = foodTypes[foodIndex];
+		if (player.getMoney() < food.getPrice())
+			return false;
+		player.changeMoney(-food.getPrice());
+		player.addFood(food);
+		foodBought[foodIndex]++;
+		return true;
+	}
+	
+	/**
+	 * Buys a new toy of a toy type from the shop, if the player can afford it.
+	 * @param toyIndex
+	 * The index of the toy type in the shop
+	 * @return
+	 * The toy bought, or null if the player could not afford it
+	 */
+	public Toy buyToy(int toyIndex) {
+		ToyType toyType = toyTypes[toyIndex];
+		if (player.getMoney() < toyType.getPrice())
+			return null;
+		player.changeMoney(-toyType.getPrice());
+		Toy toy = new Toy(toyType);
+		player.addToy(toy);
+		toysBought[toyIndex]++;
+		return toy;
+	}
+	
+	/**
+	 * Feeds a pet a food from the player's inventory. The price of the food is counted towards the money spent on the pet.
+	 * @param petIndex
+	 * The index of the pet to feed
+	 * @param food
+	 * The food to feed the pet, which must be in the player's inventory
+	 */
+	public void feed(int petIndex, FoodType food) {
+		player.feed(player.getPets()[petIndex], food);
+		petMoneySpent[petIndex] += food.getPrice();
+	}
+	
+	/**
+	 * Plays with a pet using a toy from the player's inventory. The share of the toy's price used up by the damage done
+	 * to it is counted towards the money spent on the pet.
+	 * @param petIndex
+	 * The index of the pet to play with
+	 * @param toy
+	 * The toy to play with, which must be in the player's inventory
+	 * @return
+	 * True if the toy does not break, false otherwise
+	 */
+	public boolean play(int petIndex, Toy toy) {
+		int durability = toy.getDurability();
+		boolean intact = player.playWith(player.getPets()[petIndex], toy);
+		int damage = Math.min(durability, durability - toy.getDurability());
+		petMoneySpent[petIndex] += toy.getToyType().getPrice() * damage / 100;
+		return intact;
+	}
+	
+	public void sleep(int petIndex) {
+		player.getPets()[petIndex].sleep();
+	}
+	
+	public void goToToilet(int petIndex) {
+		player.getPets()[petIndex].goToToilet();
+	}
+	
+	public void discipline(int petIndex) {
+		player.getPets()[petIndex].discipline();
+	}
+	
+	/**
+	 * Cures a pet, if the player can afford to.
+	 * @param petIndex
+	 * The index of the pet to cure
+	 * @return
+	 * Whether the pet was cured
+	 */
+	public boolean cure(int petIndex) {
+		if (player.getMoney() < Player.CURE_COST)
+			return false;
+		player.getPets()[petIndex].cure();
+		player.changeMoney(-Player.CURE_COST);
+		petMoneySpent[petIndex] += Player.CURE_COST;
+		return true;
+	}
+	
+	/**
+	 * Revives a pet, if the player can afford to.
+	 * @param petIndex
+	 * The index of the pet to revive
+	 * @return
+	 * Whether the pet was revived
+	 */
+	public boolean revive(int petIndex) {
+		if (player.getMoney() < Player.REVIVE_COST)
+			return false;
+		player.getPets()[petIndex].revive();
+		player.changeMoney(-Player.REVIVE_COST);
+		petMoneySpent[petIndex] += Player.REVIVE_COST;
+		return true;
+	}
+	
+	/**
+	 * Ends the player's turn in the same way as Game: gives the player their income, finishes the turn for each pet
+	 * adding its score to the player, records the player's score for the day, and moves on to the next day.
+	 */
+	public void endTurn() {
+		player.changeMoney(incomePerTurn);
+		Pet[] pets = player.getPets();
+		for (int i=0; i<pets.length; i++) {
+			int score = pets[i].finishTurn();
+			player.changeScore(score);
+			petScores[i] += score;
+			if (pets[i].isAlive()) {
+				petTurnsAlive[i]++;
+				if (!pets[i].isHealthy())
+					petTurnsSick[i]++;
+			}
+		}
+		if (currentDay <= numberOfDays)
+			roundScores[currentDay - 1] = player.getScore();
+		currentDay++;
+	}
+	
+	/**
+	 * Plays the game through to the end, letting a policy take every turn.
+	 * @param policy
+	 * The policy deciding what the player does each turn
+	 */
+	public void play(CarePolicy policy) {
+		while (!isFinished()) {
+			policy.takeTurn(this);
+			endTurn();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package simulation;
+
+import java.util.ArrayList;
+
+import model.FoodType;
+import model.Pet;
+import model.PetAction;
+import model.Toy;
+import model.ToyType;
+import planning.CareAction;
+import planning.PolicyLibrary;
+
+/**
+ * A policy which follows the actions suggested by policies solved with PolicySolver, buying food and toys as they are
+ * suggested. If a suggestion cannot be afforded the pet sleeps instead, and pets of species with no solved policy are
+ * looked after by a ScriptedPolicy.
+ * @author Andrew Davidson (ada130)
+ */
+public class TablePolicy implements CarePolicy {
+	private PolicyLibrary policies;
+	private ScriptedPolicy fallback = new ScriptedPolicy();
+	
+	/**
+	 * Creates a policy following the given policies.
+	 * @param policies
+	 * The policies to follow.
+	 */
+	public TablePolicy(PolicyLibrary policies) {
+		this.policies = policies;
+	}
+	
+	/**
+	 * Refer to interface CarePolicy
+	 */
+	@Override
+	public void takeTurn(SimulatedGame game) {
+		Pet[] pets = game.getPlayer().getPets();
+		for (int i=0; i<pets.length; i++) {
+			if (policies.getTable(pets[i].getSpecies()) == null) {
+				fallback.takeTurn(game);
+				return;
+			}
+		}
+		
+		for (int i=0; i<pets.length; i++) {
+			Pet pet = pets[i];
+			while (true) {
+				CareAction suggestion = policies.suggest(pet);
+				PetAction action = suggestion.getAction();
+				if (action == PetAction.END_TURN)
+					break;
+				if (action == PetAction.REVIVE) {
+					if (!game.revive(i))
+						break;
+					continue;
+				}
+				
+				switch (action) {
+				case FEED:
+					if (!feed(game, i, suggestion.getFoodType()))
+						game.sleep(i);
+					break;
+				case PLAY:
+					if (!play(game, i, suggestion.getToyType()))
+						game.sleep(i);
+					break;
+				case CURE:
+					if (!game.cure(i))
+						game.sleep(i);
+					break;
+				case DISCIPLINE:
+					game.discipline(i);
+					break;
+				case TOILET:
+					game.goToToilet(i);
+					break;
+				default:
+					game.sleep(i);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Feeds a pet a food, buying it first if the player has none.
+	 * @return
+	 * Whether the pet could be fed
+	 */
+	private boolean feed(SimulatedGame game, int petIndex, FoodType food) {
+		if (!game.getPlayer().getFood().containsKey(food)) {
+			FoodType[] foodTypes = game.getFoodTypes();
+			for (int f=0; f<foodTypes.length; f++)
+				if (foodTypes[f] == food && game.buyFood(f))
+					break;
+			if (!game.getPlayer().getFood().containsKey(food))
+				return false;
+		}
+		game.feed(petIndex, food);
+		return true;
+	}
+	
+	/**
+	 * Plays with a pet using the most durable toy of a type owned, buying one if the player has none.
+	 * @return
+	 * Whether the pet could be played with
+	 */
+	private boolean play(SimulatedGame game, int petIndex, ToyType toyType) {
+		ArrayList<Toy> toys = game.getPlayer().getToys();
+		Toy toy = null;
+		for (Toy owned : toys)
+			if (owned.getToyType() == toyType && (toy == null || owned.getDurability() > toy.getDurability()))
+				toy = owned;
+		if (toy == null) {
+			ToyType[] toyTypes = game.getToyTypes();
+			for (int t=0; t<toyTypes.length && toy == null; t++)
+				if (toyTypes[t] == toyType)
+					toy = game.buyToy(t);
+			if (toy == null)
+				return false;
+		}
+		game.play(petIndex, toy);
+		return true;
+	}
+}
@@ -0,0 +1,187 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.swing.ImageIcon;
+
+import model.ActionLog;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Tests that ActionLog records every change to players and pets, and that replaying the events rebuilds the game.
+ * @author Andrew Davidson (ada130)
+ */
+public class ActionLogTest {
+	private Species testSpecies;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	
+	@Before
+	public void setUp() {
+		testSpecies = new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 70);
+		foodTypes = new FoodType[] {new FoodType("Test food type", new ImageIcon(), 15, 30, 5, 10),
+				new FoodType("Test food type2", new ImageIcon(), 5, 10, 20, 5)};
+		toyTypes = new ToyType[] {new ToyType("Test toy type", new ImageIcon(), 20, 30)};
+	}
+	
+	private Player[] createPlayers() {
+		Player[] players = new Player[2];
+		for (int i=0; i<players.length; i++) {
+			Pet[] pets = new Pet[i+1];
+			for (int j=0; j<pets.length; j++)
+				pets[j] = new Pet("Test pet "+i+j, testSpecies, toyTypes[0], foodTypes[j%2]);
+			players[i] = new Player("Test player "+i, pets, 100);
+		}
+		return players;
+	}
+	
+	/**
+	 * Plays a number of days, taking random actions with every pet.
+	 */
+	private void play(Player[] players, int days) {
+		SeededRandom random = new SeededRandom(7);
+		for (Player player : players)
+			for (Pet pet : player.getPets())
+				pet.setRandomSource(random.split());
+		for (int day=0; day<days; day++) {
+			for (Player player : players) {
+				for (Pet pet : player.getPets()) {
+					if (!pet.isAlive() && pet.isRevivable()) {
+						pet.revive();
+						player.changeMoney(-30);
+					}
+					while (pet.isAlive() && pet.getActionPoints() > 0) {
+						switch (random.nextInt(0, 6)) {
+						case 0:
+							FoodType food = foodTypes[random.nextInt(0, foodTypes.length)];
+							player.changeMoney(-food.getPrice());
+							player.addFood(food);
+							player.feed(pet, food);
+							break;
+						case 1:
+							if (player.getToys().isEmpty())
+								player.addToy(new Toy(toyTypes[0]));
+							player.playWith(pet, player.getToys().get(0));
+							break;
+						case 2:
+							pet.sleep();
+							break;
+						case 3:
+							pet.goToToilet();
+							break;
+						case 4:
+							pet.cure();
+							break;
+						default:
+							pet.discipline();
+						}
+					}
+				}
+				player.changeMoney(35);
+				for (Pet pet : player.getPets())
+					player.changeScore(pet.finishTurn());
+			}
+		}
+	}
+	
+	private void assertSameState(Player[] expected, Player[] actual) {
+		for (int i=0; i<expected.length; i++) {
+			assertEquals(actual[i].getMoney(), expected[i].getMoney());
+			assertEquals(actual[i].getScore(), expected[i].getScore());
+			assertEquals(actual[i].getFood(), expected[i].getFood());
+			assertEquals(actual[i].getToys().size(), expected[i].getToys().size());
+			for (int j=0; j<expected[i].getToys().size(); j++)
+				assertEquals(actual[i].getToys().get(j).getDurability(), expected[i].getToys().get(j).getDurability());
+			for (int j=0; j<expected[i].getPets().length; j++) {
+				Pet expectedPet = expected[i].getPets()[j];
+				Pet actualPet = actual[i].getPets()[j];
+				assertEquals(actualPet.isAlive(), expectedPet.isAlive());
+				assertEquals(actualPet.isRevivable(), expectedPet.isRevivable());
+				assertEquals(actualPet.isHealthy(), expectedPet.isHealthy());
+				assertEquals(actualPet.isBehaving(), expectedPet.isBehaving());
+				assertEquals(actualPet.getHunger(), expectedPet.getHunger());
+				assertEquals(actualPet.getEnergy(), expectedPet.getEnergy());
+				assertEquals(actualPet.getHappiness(), expectedPet.getHappiness());
+				assertEquals(actualPet.getWeight(), expectedPet.getWeight());
+				assertEquals(actualPet.getActionPoints(), expectedPet.getActionPoints());
+			}
+		}
+	}
+	
+	@Test
+	public void testReplay() {
+		Player[] players = createPlayers();
+		ActionLog log = new ActionLog(foodTypes, toyTypes, 10000);
+		log.attach(players);
+		play(players, 20);
+		assertTrue(log.getEventCount() > 100);
+		
+		Player[] replayed = createPlayers();
+		log.replay(replayed);
+		assertSameState(players, replayed);
+	}
+	
+	@Test
+	public void testReplayFromFile() throws IOException {
+		File file = File.createTempFile("actions", ".log");
+		try {
+			// A small buffer is written to the file many times
+			Player[] players = createPlayers();
+			ActionLog log = new ActionLog(file, foodTypes, toyTypes, 16);
+			log.attach(players);
+			play(players, 20);
+			log.close();
+			
+			Player[] replayed = createPlayers();
+			assertEquals(ActionLog.replay(file, replayed, foodTypes, toyTypes), log.getEventCount());
+			assertSameState(players, replayed);
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void testDetach() {
+		Player[] players = createPlayers();
+		ActionLog log = new ActionLog(foodTypes, toyTypes, 100);
+		log.attach(players);
+		players[0].changeMoney(5);
+		ActionLog.detach(players);
+		players[0].changeMoney(5);
+		players[0].getPets()[0].sleep();
+		assertEquals(log.getEventCount(), 1);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testReplayAfterEventsDropped() {
+		Player[] players = createPlayers();
+		ActionLog log = new ActionLog(foodTypes, toyTypes, 10);
+		log.attach(players);
+		play(players, 5);
+		log.replay(createPlayers());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testReplayOntoDifferentPlayers() {
+		Player[] players = createPlayers();
+		ActionLog log = new ActionLog(foodTypes, toyTypes, 10000);
+		log.attach(players);
+		play(players, 5);
+		
+		Player[] replayed = createPlayers();
+		replayed[0].getPets()[0].sleep();
+		log.replay(replayed);
+	}
+}
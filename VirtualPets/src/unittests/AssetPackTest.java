@@ -0,0 +1,127 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import assetshandler.AssetPack;
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+
+/**
+ * Tests that AssetPack compiles an asset folder into a pack which gives back the same assets.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetPackTest {
+	private File folder;
+	private File packFile;
+	
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("assets").toFile();
+		File images = new File(folder, "images");
+		images.mkdir();
+		// Fill the cat's icon with noise, so it is much larger than the rest of the pack
+		BufferedImage cat = new BufferedImage(64, 48, BufferedImage.TYPE_INT_ARGB);
+		Random random = new Random(7);
+		for (int x=0; x<cat.getWidth(); x++)
+			for (int y=0; y<cat.getHeight(); y++)
+				cat.setRGB(x, y, random.nextInt());
+		ImageIO.write(cat, "png", new File(images, "Cat.png"));
+		ImageIO.write(new BufferedImage(3, 5, BufferedImage.TYPE_INT_ARGB), "png", new File(images, "Ball.png"));
+		Files.write(new File(folder, "config.txt").toPath(), Arrays.asList(
+				"@Species",
+				"$Cat",
+				"\tname=\"Cat\"",
+				"\ticon=\"/images/Cat.png\"",
+				"\toptimumWeight=60", "\thungerGain=20", "\tenergyLoss=15", "\thappinessLoss=5", "\tminToyDamage=40", "\tmaxToyDamage=70",
+				"/Cat",
+				"@Species",
+				"@FoodTypes",
+				"$Fish",
+				"\tname=\"Fish\"",
+				"\ticon=\"/images/Cat.png\"",
+				"\tprice=15", "\tnutrition=30", "\ttastiness=5", "\tweight=10",
+				"/Fish",
+				"@FoodTypes",
+				"@ToyTypes",
+				"$Ball",
+				"\tname=\"Ball\"",
+				"\ticon=\"/images/Ball.png\"",
+				"\tprice=20", "\thappinessGain=30",
+				"/Ball",
+				"@ToyTypes"));
+		packFile = new File(folder, "assets.pack");
+	}
+	
+	@After
+	public void tearDown() {
+		for (File file : new File(folder, "images").listFiles())
+			file.delete();
+		for (File file : folder.listFiles())
+			file.delete();
+		folder.delete();
+	}
+	
+	@Test
+	public void testAssetsAreKept() throws IOException {
+		AssetPack.compile(folder, packFile);
+		AssetPack pack = AssetPack.open(packFile);
+		
+		Species[] species = pack.getSpecies();
+		assertEquals(species.length, 1);
+		assertEquals(species[0].getName(), "Cat");
+		assertEquals(species[0].getOptimumWeight(), 60);
+		assertEquals(species[0].getHungerGain(), 20);
+		assertEquals(species[0].getEnergyLoss(), 15);
+		assertEquals(species[0].getHappinessLoss(), 5);
+		assertEquals(species[0].getIcon().getIconWidth(), 64);
+		assertEquals(species[0].getIcon().getIconHeight(), 48);
+		
+		FoodType[] foodTypes = pack.getFoodTypes();
+		assertEquals(foodTypes.length, 1);
+		assertEquals(foodTypes[0].getName(), "Fish");
+		assertEquals(foodTypes[0].getPrice(), 15);
+		assertEquals(foodTypes[0].getNutrition(), 30);
+		assertEquals(foodTypes[0].getTastiness(), 5);
+		assertEquals(foodTypes[0].getWeight(), 10);
+		
+		ToyType[] toyTypes = pack.getToyTypes();
+		assertEquals(toyTypes.length, 1);
+		assertEquals(toyTypes[0].getName(), "Ball");
+		assertEquals(toyTypes[0].getPrice(), 20);
+		assertEquals(toyTypes[0].getIcon().getIconWidth(), 3);
+	}
+	
+	@Test
+	public void testSharedIconIsPackedOnce() throws IOException {
+		AssetPack.compile(folder, packFile);
+		long catSize = new File(folder, "images/Cat.png").length();
+		long ballSize = new File(folder, "images/Ball.png").length();
+		// Two of the three assets use the same icon
+		assertTrue(packFile.length() < 2*catSize + ballSize);
+	}
+	
+	@Test(expected=IOException.class)
+	public void testMissingIcon() throws IOException {
+		new File(folder, "images/Ball.png").delete();
+		AssetPack.compile(folder, packFile);
+	}
+	
+	@Test(expected=IOException.class)
+	public void testNotAPack() throws IOException {
+		Files.write(packFile.toPath(), new byte[64]);
+		AssetPack.open(packFile);
+	}
+}
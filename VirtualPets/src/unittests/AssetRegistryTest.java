@@ -0,0 +1,118 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javax.swing.ImageIcon;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+
+/**
+ * Tests that AssetRegistry finds assets by name and id, and merges custom assets without name conflicts.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetRegistryTest {
+	private static Species species(String name) {
+		return new Species(name, new ImageIcon(), 60, 20, 15, 5, 40, 70);
+	}
+	
+	private static FoodType foodType(String name) {
+		return new FoodType(name, new ImageIcon(), 15, 30, 5, 10);
+	}
+	
+	private static ToyType toyType(String name) {
+		return new ToyType(name, new ImageIcon(), 20, 30);
+	}
+	
+	@Test
+	public void testIds() {
+		AssetRegistry assets = new AssetRegistry(new Species[] {species("Cat"), species("Dog"), species("Cat")},
+				new FoodType[] {foodType("Fish")}, new ToyType[0]);
+		assertEquals(assets.getSpeciesId("Dog"), 1);
+		assertEquals(assets.getSpeciesId("Cat"), 0);
+		assertEquals(assets.getSpeciesId("Horse"), -1);
+		assertSame(assets.getSpecies(1), assets.getSpeciesNamed("Dog"));
+		assertSame(assets.getFoodType(0), assets.getFoodTypeNamed("Fish"));
+		assertNull(assets.getToyTypeNamed("Ball"));
+	}
+	
+	@Test
+	public void testMergeLeavesOutConflicts() {
+		Species cat = species("Cat");
+		AssetRegistry assets = new AssetRegistry(new Species[] {cat}, new FoodType[] {foodType("Fish")}, new ToyType[0]);
+		Species[] before = assets.getSpecies();
+		Species horse = species("Horse");
+		ToyType ball = toyType("Ball");
+		AssetRegistry merged = assets.merge(new Species[] {species("Cat"), horse, species("Horse")},
+				new FoodType[] {foodType("Fish")}, new ToyType[] {ball});
+		
+		assertArrayEquals(merged.getSpecies(), new Species[] {cat, horse});
+		assertEquals(merged.getFoodTypes().length, 1);
+		assertSame(merged.getToyTypeNamed("Ball"), ball);
+		assertEquals(merged.getSpeciesId("Horse"), 1);
+		assertSame(merged.getSpecies(horse.getKey()), horse);
+		// The registry merged into is not changed
+		assertArrayEquals(assets.getSpecies(), before);
+		assertEquals(before.length, 1);
+		assertNull(assets.getSpeciesNamed("Horse"));
+	}
+	
+	@Test
+	public void testMergeReportsLeftOut() {
+		// As the asset creator adds the assets a player made
+		ArrayList<Species> created = new ArrayList<Species>();
+		created.add(species("Cat"));
+		created.add(species("Horse"));
+		AssetRegistry assets = new AssetRegistry(new Species[] {species("Cat")}, new FoodType[] {foodType("Fish")},
+				new ToyType[0]);
+		assertTrue(assets.getLeftOut().isEmpty());
+		AssetRegistry merged = assets.merge(created.toArray(new Species[created.size()]),
+				new FoodType[] {foodType("Fish"), foodType("Seed")}, new ToyType[] {toyType("Ball"), toyType("Ball")});
+		
+		assertEquals(merged.getLeftOut(), Arrays.asList("Cat", "Fish", "Ball"));
+		assertEquals(merged.getSpecies().length, 2);
+		assertTrue(assets.getLeftOut().isEmpty());
+		assertTrue(merged.merge(new Species[0], new FoodType[0], new ToyType[0]).getLeftOut().isEmpty());
+	}
+	
+	@Test
+	public void testArraysAreCopies() {
+		Species cat = species("Cat");
+		AssetRegistry assets = new AssetRegistry(new Species[] {cat, species("Dog")}, new FoodType[] {foodType("Fish")},
+				new ToyType[] {toyType("Ball")});
+		assets.getSpecies()[0] = species("Horse");
+		assets.getFoodTypes()[0] = null;
+		assets.getToyTypes()[0] = null;
+		assertSame(assets.getSpecies(0), cat);
+		assertSame(assets.getSpeciesNamed("Cat"), cat);
+		assertEquals(assets.getFoodTypes()[0].getName(), "Fish");
+		assertEquals(assets.getToyTypes()[0].getName(), "Ball");
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testLeftOutCannotBeChanged() {
+		AssetRegistry assets = new AssetRegistry(new Species[] {species("Cat")}, new FoodType[0], new ToyType[0]);
+		assets.merge(new Species[] {species("Cat")}, new FoodType[0], new ToyType[0]).getLeftOut().clear();
+	}
+	
+	@Test(timeout=5000)
+	public void testLargeMerge() {
+		Species[] species = new Species[100000];
+		Species[] customSpecies = new Species[100000];
+		for (int i=0; i<species.length; i++) {
+			species[i] = species("Species " + i);
+			// Every other custom species has the name of one already loaded
+			customSpecies[i] = species("Species " + (i % 2 == 0 ? i : species.length + i));
+		}
+		AssetRegistry merged = new AssetRegistry(species, new FoodType[0], new ToyType[0])
+				.merge(customSpecies, new FoodType[0], new ToyType[0]);
+		assertEquals(merged.getSpecies().length, 150000);
+		assertEquals(merged.getSpeciesId("Species 100001"), 100000);
+	}
+}
@@ -0,0 +1,91 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import assetshandler.AssetFormatException;
+import assetshandler.AssetTokenizer;
+
+/**
+ * Tests that AssetTokenizer splits asset files into tokens, and finds where they are laid out wrongly.
+ * @author Andrew Davidson (ada130)
+ */
+public class AssetTokenizerTest {
+	private AssetFormatException getError(String file) throws IOException {
+		AssetTokenizer tokenizer = new AssetTokenizer(new StringReader(file));
+		try {
+			while (tokenizer.next() != AssetTokenizer.END);
+		}
+		catch (AssetFormatException exc) {
+			return exc;
+		}
+		fail("The file was read without an error.");
+		return null;
+	}
+	
+	@Test
+	public void testTokens() throws IOException {
+		AssetTokenizer tokenizer = new AssetTokenizer(new StringReader(
+				"@Species\r\n$Cat\r\n\tname=\"Cat=Dog\"\r\n\tnot an attribute\r\n\ticon=\"/images/Cat.png\"  \r\n/Cat\r\n@Species\r\n"));
+		assertEquals(tokenizer.next(), AssetTokenizer.SECTION);
+		assertEquals(tokenizer.getName(), "Species");
+		assertEquals(tokenizer.next(), AssetTokenizer.BLOCK_START);
+		assertEquals(tokenizer.getName(), "Cat");
+		assertEquals(tokenizer.getLine(), 2);
+		assertEquals(tokenizer.next(), AssetTokenizer.ATTRIBUTE);
+		assertEquals(tokenizer.getName(), "name");
+		assertEquals(tokenizer.getValue(), "\"Cat=Dog\"");
+		assertEquals(tokenizer.getColumn(), 2);
+		assertEquals(tokenizer.next(), AssetTokenizer.ATTRIBUTE);
+		assertEquals(tokenizer.getName(), "icon");
+		assertEquals(tokenizer.getValue(), "\"/images/Cat.png\"");
+		assertEquals(tokenizer.getLine(), 5);
+		assertEquals(tokenizer.next(), AssetTokenizer.BLOCK_END);
+		assertEquals(tokenizer.next(), AssetTokenizer.SECTION);
+		assertEquals(tokenizer.next(), AssetTokenizer.END);
+	}
+	
+	@Test
+	public void testFileLargerThanBuffer() throws IOException {
+		StringBuilder file = new StringBuilder();
+		for (int i=0; i<2000; i++)
+			file.append("$Block").append(i).append("\n  value=").append(i).append("\r/Block").append(i).append("\n");
+		AssetTokenizer tokenizer = new AssetTokenizer(new StringReader(file.toString()));
+		for (int i=0; i<2000; i++) {
+			assertEquals(tokenizer.next(), AssetTokenizer.BLOCK_START);
+			assertEquals(tokenizer.next(), AssetTokenizer.ATTRIBUTE);
+			assertEquals(tokenizer.getValue(), Integer.toString(i));
+			assertEquals(tokenizer.getLine(), 3*i + 2);
+			assertEquals(tokenizer.getColumn(), 3);
+			assertEquals(tokenizer.next(), AssetTokenizer.BLOCK_END);
+		}
+		assertEquals(tokenizer.next(), AssetTokenizer.END);
+	}
+	
+	@Test
+	public void testBlockNotClosed() throws IOException {
+		AssetFormatException exc = getError("$Cat\n\tname=\"Cat\"\n\n  $Dog\n/Dog\n");
+		assertEquals(exc.getLine(), 4);
+		assertEquals(exc.getColumn(), 3);
+		exc = getError("$Cat\n\tname=\"Cat\"\n");
+		assertEquals(exc.getLine(), 1);
+		assertEquals(exc.getColumn(), 1);
+	}
+	
+	@Test
+	public void testWrongBlockEnd() throws IOException {
+		AssetFormatException exc = getError("$Cat\n\tname=\"Cat\"\n\t/Dog\n");
+		assertEquals(exc.getLine(), 3);
+		assertEquals(exc.getColumn(), 2);
+	}
+	
+	@Test
+	public void testAttributeWithoutValue() throws IOException {
+		AssetFormatException exc = getError("$Cat\n\tname=\n/Cat\n");
+		assertEquals(exc.getLine(), 2);
+		assertEquals(exc.getColumn(), 7);
+	}
+}
@@ -0,0 +1,84 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import assetshandler.AttributeSchema;
+import assetshandler.AttributeValues;
+
+/**
+ * Tests that AttributeSchema finds attributes by name, and AttributeValues parses and checks their values.
+ * @author Andrew Davidson (ada130)
+ */
+public class AttributeSchemaTest {
+	private static final AttributeSchema SCHEMA = new AttributeSchema(new String[] {"name", "icon"},
+			new String[] {"optimumWeight", "hungerGain", "energyLoss", "happinessLoss", "minToyDamage", "maxToyDamage"});
+	
+	private static boolean set(AttributeValues values, String line) {
+		char[] chars = ("  " + line + "  ").toCharArray();
+		int equals = line.indexOf('=') + 2;
+		return values.set(chars, 2, equals, equals + 1, chars.length - 2);
+	}
+	
+	@Test
+	public void testFind() {
+		char[] chars = "xxhungerGainxxhungerGaixxnamexx".toCharArray();
+		assertEquals(SCHEMA.find(chars, 2, 12), 3);
+		assertEquals(SCHEMA.find(chars, 14, 23), -1);
+		assertEquals(SCHEMA.find(chars, 25, 29), 0);
+		for (int i=0; i<SCHEMA.getCount(); i++) {
+			char[] name = SCHEMA.getName(i).toCharArray();
+			assertEquals(SCHEMA.find(name, 0, name.length), i);
+		}
+	}
+	
+	@Test
+	public void testCompleteValues() {
+		AttributeValues values = new AttributeValues(SCHEMA);
+		assertTrue(set(values, "name=\"Cat\""));
+		assertTrue(set(values, "icon=\"/images/Cat.png\""));
+		assertTrue(set(values, "optimumWeight=60"));
+		assertTrue(set(values, "hungerGain=+20"));
+		assertTrue(set(values, "energyLoss=-15"));
+		assertTrue(set(values, "colour=\"Grey\""));
+		assertFalse(values.isComplete());
+		assertEquals(values.getMissing(), "happinessLoss, minToyDamage, maxToyDamage");
+		assertTrue(set(values, "happinessLoss=5"));
+		assertTrue(set(values, "minToyDamage=-2147483648"));
+		assertTrue(set(values, "maxToyDamage=2147483647"));
+		assertTrue(values.isComplete());
+		assertEquals(values.getText(0), "Cat");
+		assertEquals(values.getText(1), "/images/Cat.png");
+		assertEquals(values.getNumber(3), 20);
+		assertEquals(values.getNumber(4), -15);
+		assertEquals(values.getNumber(6), Integer.MIN_VALUE);
+		assertEquals(values.getNumber(7), Integer.MAX_VALUE);
+		
+		AttributeValues copy = values.copy();
+		values.clear();
+		assertFalse(values.isComplete());
+		assertNull(values.getText(0));
+		assertTrue(copy.isComplete());
+		assertEquals(copy.getText(0), "Cat");
+	}
+	
+	@Test
+	public void testInvalidNumbers() {
+		AttributeValues values = new AttributeValues(SCHEMA);
+		assertFalse(set(values, "optimumWeight=2147483648"));
+		assertFalse(set(values, "hungerGain=-2147483649"));
+		assertFalse(set(values, "energyLoss=1.5"));
+		assertFalse(set(values, "happinessLoss=-"));
+		assertFalse(set(values, "name=\""));
+		assertEquals(values.getMissing(), "name, icon, optimumWeight, hungerGain, energyLoss, happinessLoss, minToyDamage, maxToyDamage");
+		// A later valid value replaces an invalid one
+		assertTrue(set(values, "optimumWeight=12"));
+		assertEquals(values.getNumber(2), 12);
+		assertFalse(values.getMissing().contains("optimumWeight"));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNameGivenTwice() {
+		new AttributeSchema(new String[] {"name"}, new String[] {"price", "name"});
+	}
+}
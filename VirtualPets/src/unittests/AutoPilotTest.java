@@ -0,0 +1,127 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Pet;
+import model.PetAction;
+import model.Player;
+import model.Species;
+import model.ToyType;
+import planning.AutoPilot;
+import planning.PlannedStep;
+
+/**
+ * Tests that AutoPilot plans sensible turns which the player can afford.
+ * @author Andrew Davidson (ada130)
+ */
+public class AutoPilotTest {
+	Species testSpecies;
+	FoodType testFoodType;
+	ToyType testToyType;
+	AutoPilot autoPilot;
+	ForkJoinPool pool;
+	
+	@Before
+	public void setUp() {
+		testSpecies = new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 70);
+		testFoodType = new FoodType("Test food type", new ImageIcon(), 15, 30, 5, 10);
+		testToyType = new ToyType("Test toy type", new ImageIcon(), 20, 30);
+		autoPilot = new AutoPilot(new FoodType[] {testFoodType}, new ToyType[] {testToyType});
+		autoPilot.setTimeBudget(0);
+		pool = new ForkJoinPool(2);
+	}
+	
+	private Pet createPet(int hunger, int energy, int happiness) {
+		return new Pet("Test pet", testSpecies, true, true, true, true, hunger, energy, happiness, 60, 2, testToyType, testFoodType);
+	}
+	
+	@Test
+	public void testFeedsStarvingPet() {
+		Player player = new Player("Test player", new Pet[] {createPet(100, 80, 80)}, 100);
+		List<PlannedStep> steps = autoPilot.planTurn(player, 10, pool);
+		assertEquals(steps.get(0).getAction().getAction(), PetAction.FEED);
+		assertTrue(steps.get(0).isBuy());
+	}
+	
+	@Test
+	public void testUsesOwnedFood() {
+		Player player = new Player("Test player", new Pet[] {createPet(100, 80, 80)}, 0);
+		player.addFood(testFoodType);
+		List<PlannedStep> steps = autoPilot.planTurn(player, 10, pool);
+		int fed = 0;
+		for (PlannedStep step : steps) {
+			assertFalse(step.isBuy());
+			if (step.getAction().getAction() == PetAction.FEED)
+				fed++;
+		}
+		assertEquals(fed, 1);
+	}
+	
+	@Test
+	public void testRestsExhaustedPetWithoutMoney() {
+		Player player = new Player("Test player", new Pet[] {createPet(20, 0, 80)}, 0);
+		List<PlannedStep> steps = autoPilot.planTurn(player, 10, pool);
+		assertEquals(steps.get(0).getAction().getAction(), PetAction.SLEEP);
+		for (PlannedStep step : steps)
+			assertFalse(step.isBuy());
+	}
+	
+	@Test
+	public void testPlansEveryPet() {
+		Player player = new Player("Test player", new Pet[] {createPet(20, 0, 80), createPet(20, 0, 80)}, 0);
+		List<PlannedStep> steps = autoPilot.planTurn(player, 10, pool);
+		assertEquals(steps.get(0).getPetIndex(), 0);
+		assertEquals(steps.get(steps.size()-1).getPetIndex(), 1);
+	}
+	
+	@Test
+	public void testDoesNotChangePlayer() {
+		Pet pet = createPet(50, 50, 50);
+		Player player = new Player("Test player", new Pet[] {pet}, 100);
+		autoPilot.planTurn(player, 10, pool);
+		assertEquals(player.getMoney(), 100);
+		assertEquals(pet.getHunger(), 50);
+		assertEquals(pet.getEnergy(), 50);
+		assertEquals(pet.getActionPoints(), 2);
+	}
+	
+	@Test
+	public void testRevivesDeadPet() {
+		Pet pet = new Pet("Test pet", testSpecies, true, true, false, true, 0, 0, 0, 0, 0, testToyType, testFoodType);
+		Player player = new Player("Test player", new Pet[] {pet}, 100);
+		List<PlannedStep> steps = autoPilot.planTurn(player, 10, pool);
+		assertEquals(steps.size(), 1);
+		assertEquals(steps.get(0).getAction().getAction(), PetAction.REVIVE);
+		
+		player = new Player("Test player", new Pet[] {pet}, 99);
+		assertTrue(autoPilot.planTurn(player, 10, pool).isEmpty());
+	}
+	
+	@Test
+	public void testSearchesDeeperWithMoreTime() {
+		autoPilot.setTimeBudget(1000);
+		Player player = new Player("Test player", new Pet[] {createPet(50, 50, 50)}, 100);
+		autoPilot.planTurn(player, 2, pool);
+		assertEquals(autoPilot.getLastDepth(), 2);
+	}
+	
+	@Test
+	public void testBudgetCoversWholeTurn() {
+		autoPilot.setTimeBudget(200);
+		Player player = new Player("Test player", new Pet[] {createPet(20, 70, 40), createPet(50, 50, 50),
+				createPet(80, 30, 60), createPet(40, 90, 20)}, 1000);
+		long start = System.nanoTime();
+		autoPilot.planTurn(player, 30, pool);
+		long taken = (System.nanoTime() - start) / 1000000;
+		// Allow for the one day searches, which always finish, and the searches noticing the deadline
+		assertTrue("The turn took " + taken + "ms", taken < 300);
+	}
+}
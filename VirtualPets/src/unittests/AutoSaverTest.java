@@ -0,0 +1,97 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.Species;
+import model.ToyType;
+import saves.AutoSaver;
+import saves.GameSnapshot;
+import saves.SnapshotCodec;
+
+/**
+ * Tests that AutoSaver keeps a ring of the most recent autosaves, and that autosaved snapshots are copies.
+ * @author Andrew Davidson (ada130)
+ */
+public class AutoSaverTest {
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private File folder;
+	
+	@Before
+	public void setUp() throws IOException {
+		species = new Species[] {SaveFixtures.species()};
+		foodTypes = new FoodType[] {SaveFixtures.foodType()};
+		toyTypes = new ToyType[] {SaveFixtures.toyType()};
+		folder = SaveFixtures.createFolder("autosaves");
+	}
+	
+	@After
+	public void tearDown() {
+		SaveFixtures.deleteFolder(folder);
+	}
+	
+	private GameSnapshot createSnapshot(int day) {
+		Player player = new Player("Test player", new Pet[] {new Pet("Test pet", species[0], toyTypes[0], foodTypes[0])}, 100);
+		return new GameSnapshot(new Player[] {player}, foodTypes, toyTypes, 20, 35, day, 0, new int[3]);
+	}
+	
+	private int readDay(File file) throws IOException {
+		return SnapshotCodec.read(file, new AssetRegistry(species, foodTypes, toyTypes)).getCurrentDay();
+	}
+	
+	@Test
+	public void testRing() throws IOException, InterruptedException {
+		for (int day=1; day<=5; day++) {
+			AutoSaver autoSaver = new AutoSaver(folder, 3);
+			autoSaver.save(createSnapshot(day));
+			autoSaver.close();
+			// Autosaves are ordered by when they were written
+			Thread.sleep(20);
+		}
+		AutoSaver autoSaver = new AutoSaver(folder, 3);
+		File[] autosaves = autoSaver.getAutosaves();
+		assertEquals(autosaves.length, 3);
+		assertEquals(folder.listFiles().length, 3);
+		assertEquals(readDay(autosaves[0]), 5);
+	}
+	
+	@Test
+	public void testNewestIsWritten() throws IOException, InterruptedException {
+		AutoSaver autoSaver = new AutoSaver(folder, 3);
+		for (int day=1; day<=50; day++)
+			autoSaver.save(createSnapshot(day));
+		autoSaver.close();
+		File[] autosaves = autoSaver.getAutosaves();
+		assertTrue(autosaves.length >= 1);
+		assertEquals(readDay(autosaves[0]), 50);
+	}
+	
+	@Test
+	public void testCopy() {
+		GameSnapshot snapshot = createSnapshot(1);
+		GameSnapshot copy = snapshot.copy();
+		Player player = snapshot.getPlayers()[0];
+		player.changeMoney(-50);
+		player.addFood(foodTypes[0]);
+		player.getPets()[0].sleep();
+		snapshot.getPreviousScores()[0] = 10;
+		
+		Player copiedPlayer = copy.getPlayers()[0];
+		assertEquals(copiedPlayer.getMoney(), 100);
+		assertTrue(copiedPlayer.getFood().isEmpty());
+		assertEquals(copiedPlayer.getPets()[0].getActionPoints(), 2);
+		assertEquals(copy.getPreviousScores()[0], 0);
+		assertSame(copiedPlayer.getPets()[0].getSpecies(), species[0]);
+	}
+}
@@ -0,0 +1,79 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+import simulation.BalanceAnalyzer;
+import simulation.BalanceReport;
+
+/**
+ * Tests that the balance analyzer plays every game, and that its report depends only on the seed and not on the
+ * number of threads.
+ * @author Andrew Davidson (ada130)
+ */
+public class BalanceAnalyzerTest {
+	Species[] species;
+	FoodType[] foodTypes;
+	ToyType[] toyTypes;
+	
+	@Before
+	public void setUp() {
+		species = new Species[] {
+			new Species("Light species", new ImageIcon(), 40, 15, 10, 10, 15, 25),
+			new Species("Heavy species", new ImageIcon(), 60, 20, 15, 10, 15, 25)
+		};
+		foodTypes = new FoodType[] {
+			new FoodType("Cheap food", new ImageIcon(), 5, 20, 10, 5),
+			new FoodType("Good food", new ImageIcon(), 15, 45, 10, 10)
+		};
+		toyTypes = new ToyType[] {
+			new ToyType("Test toy type", new ImageIcon(), 25, 30)
+		};
+	}
+	
+	private BalanceReport analyse(String policy, int threads) {
+		BalanceAnalyzer analyzer = new BalanceAnalyzer(species, foodTypes, toyTypes);
+		analyzer.setGames(3000);
+		analyzer.setPolicy(policy);
+		analyzer.setSeed(42);
+		return analyzer.analyse(new ForkJoinPool(threads));
+	}
+	
+	@Test
+	public void testAllGamesPlayed() {
+		BalanceReport report = analyse("scripted", 2);
+		assertEquals(report.getGames(), 3000);
+		assertEquals(report.getSpeciesStatistics(0).getPets(), 1500);
+		assertEquals(report.getSpeciesStatistics(1).getPets(), 1500);
+		assertEquals(report.getFoodTypeStatistics(0).getPets() + report.getFoodTypeStatistics(1).getPets(), 3000);
+		assertEquals(report.getToyTypeStatistics(0).getPets(), 3000);
+	}
+	
+	@Test
+	public void testDeterministic() {
+		for (String policy : new String[] {"scripted", "random"}) {
+			BalanceReport single = analyse(policy, 1);
+			BalanceReport parallel = analyse(policy, 4);
+			for (int i=0; i<species.length; i++) {
+				assertEquals(single.getSpeciesStatistics(i).getSurvivalRate(), parallel.getSpeciesStatistics(i).getSurvivalRate(), 0);
+				assertEquals(single.getSpeciesStatistics(i).getScorePerDay().getMean(), parallel.getSpeciesStatistics(i).getScorePerDay().getMean(), 0);
+				assertEquals(single.getSpeciesStatistics(i).getMoneyPerDay().getMean(), parallel.getSpeciesStatistics(i).getMoneyPerDay().getMean(), 0);
+			}
+			for (int i=0; i<foodTypes.length; i++)
+				assertEquals(single.getFoodBought(i), parallel.getFoodBought(i));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownPolicy() {
+		new BalanceAnalyzer(species, foodTypes, toyTypes).setPolicy("lazy");
+	}
+}
@@ -0,0 +1,112 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.ImageIcon;
+
+import model.FastForwarder;
+import model.FoodType;
+import model.Pet;
+import model.RiskForecaster;
+import model.SeededRandom;
+import model.Species;
+import model.StateDistribution;
+import model.ToyType;
+
+/**
+ * Tests that FastForwarder skips pets forward in the same way as finishing their turns one at a time.
+ * @author Andrew Davidson (ada130)
+ */
+public class FastForwarderTest {
+	Species testSpecies;
+	Species heavySpecies;
+	ToyType testToyType;
+	FoodType testFoodType;
+	FastForwarder forwarder;
+	
+	@Before
+	public void setUp() {
+		testSpecies = new Species("Test species", new ImageIcon(), 40, 10, 10, 10, 15, 25);
+		heavySpecies = new Species("Heavy species", new ImageIcon(), 60, 5, 4, 6, 15, 25);
+		testToyType = new ToyType("Test toy type", new ImageIcon(), 25, 30);
+		testFoodType = new FoodType("Test food type", new ImageIcon(), 10, 12, 8, 5);
+		forwarder = new FastForwarder();
+	}
+	
+	private Pet createPet(int i) {
+		return new Pet("Pet "+i, (i%2 == 0) ? testSpecies : heavySpecies, i%3 != 0, i%5 != 0, true, true,
+				20 + i%70, 100 - i%80, 90 - i%60, 30 + i%40, 2, testToyType, testFoodType);
+	}
+	
+	@Test
+	public void testSkipDaysMatchesFinishTurn() {
+		for (int i=0; i<200; i++) {
+			Pet skipped = createPet(i);
+			skipped.setRandomSource(new SeededRandom(i));
+			Pet finished = createPet(i);
+			finished.setRandomSource(new SeededRandom(i));
+			
+			int days = 1 + i%30;
+			int expectedScore = 0;
+			for (int day=0; day<days; day++)
+				expectedScore += finished.finishTurn();
+			
+			assertEquals(forwarder.skipDays(skipped, days), expectedScore);
+			assertEquals(skipped.getHunger(), finished.getHunger());
+			assertEquals(skipped.getEnergy(), finished.getEnergy());
+			assertEquals(skipped.getHappiness(), finished.getHappiness());
+			assertEquals(skipped.getWeight(), finished.getWeight());
+			assertEquals(skipped.getActionPoints(), finished.getActionPoints());
+			assertEquals(skipped.isHealthy(), finished.isHealthy());
+			assertEquals(skipped.isBehaving(), finished.isBehaving());
+			assertEquals(skipped.isAlive(), finished.isAlive());
+			assertEquals(skipped.isRevivable(), finished.isRevivable());
+			// Both sources must have drawn the same numbers to stay in step
+			assertEquals(skipped.getRandomSource().nextInt(0, 1000000), finished.getRandomSource().nextInt(0, 1000000));
+		}
+	}
+	
+	@Test
+	public void testForecastOneDay() {
+		Pet pet = new Pet("Test pet", heavySpecies, true, true, true, true, 80, 15, 30, 95, 2, testToyType, testFoodType);
+		StateDistribution distribution = forwarder.forecast(pet, 1);
+		
+		double total = 0;
+		for (int i=0; i<distribution.size(); i++)
+			total += distribution.getProbability(i);
+		assertEquals(total, 1, 1e-12);
+		assertEquals(distribution.getSurvivalProbability(), 1 - RiskForecaster.getDeathChance(heavySpecies, 15, 95) / 100.0, 1e-12);
+		assertEquals(distribution.getExpectedScore(), pet.finishTurn(), 1e-9);
+	}
+	
+	@Test
+	public void testForecastMatchesSamples() {
+		Pet pet = new Pet("Test pet", heavySpecies, true, true, true, true, 30, 90, 80, 60, 2, testToyType, testFoodType);
+		int days = 1000;
+		StateDistribution distribution = forwarder.forecast(pet, days);
+		// Idle pets always die eventually, and the forecast should stop once they all have
+		assertEquals(distribution.getSurvivalProbability(), 0, 0);
+		
+		int samples = 20000;
+		double totalScore = 0;
+		for (int i=0; i<samples; i++) {
+			Pet sample = new Pet("Test pet", heavySpecies, true, true, true, true, 30, 90, 80, 60, 2, testToyType, testFoodType);
+			sample.setRandomSource(new SeededRandom(i));
+			totalScore += forwarder.skipDays(sample, days);
+			assertFalse(sample.isAlive());
+		}
+		assertEquals(totalScore / samples, distribution.getExpectedScore(), distribution.getExpectedScore() * 0.02);
+	}
+	
+	@Test
+	public void testDeadPet() {
+		Pet pet = new Pet("Dead pet", testSpecies, true, true, false, true, 0, 0, 0, 0, 0, testToyType, testFoodType);
+		StateDistribution distribution = forwarder.forecast(pet, 5000);
+		assertEquals(distribution.size(), 1);
+		assertEquals(distribution.getExpectedScore(), 0, 0);
+		assertTrue(distribution.getPet(0).isRevivable());
+		assertEquals(forwarder.skipDays(pet, 5000), 0);
+	}
+}
@@ -0,0 +1,162 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.Species;
+import model.ToyType;
+import saves.ArchiveRecord;
+import saves.GameArchive;
+import saves.GameResult;
+
+/**
+ * Tests that GameArchive keeps finished games across reopening, both in their records and their overflow.
+ * @author Andrew Davidson (ada130)
+ */
+public class GameArchiveTest {
+	private Species species;
+	private FoodType foodType;
+	private ToyType toyType;
+	private File folder;
+	private File file;
+	
+	@Before
+	public void setUp() throws IOException {
+		species = SaveFixtures.species();
+		foodType = SaveFixtures.foodType();
+		toyType = SaveFixtures.toyType();
+		folder = SaveFixtures.createFolder("archive");
+		file = new File(folder, "games.archive");
+	}
+	
+	@After
+	public void tearDown() {
+		SaveFixtures.deleteFolder(folder);
+	}
+	
+	private GameResult createResult(long id, int numberOfPlayers, int petsPerPlayer) {
+		Player[] players = new Player[numberOfPlayers];
+		for (int i=0; i<numberOfPlayers; i++) {
+			Pet[] pets = new Pet[petsPerPlayer];
+			for (int j=0; j<petsPerPlayer; j++)
+				pets[j] = new Pet("Pet " + i + "-" + j, species, toyType, foodType);
+			players[i] = new Player("Player " + i, pets, 100 + i);
+			players[i].changeScore((int)id + i);
+		}
+		int[][] roundScores = new int[][] {new int[numberOfPlayers], new int[numberOfPlayers]};
+		for (int i=0; i<numberOfPlayers; i++)
+			roundScores[1][i] = players[i].getScore();
+		return GameResult.of(id, 2, players, roundScores);
+	}
+	
+	private void assertResultEquals(GameResult expected, GameResult actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getNumberOfDays(), actual.getNumberOfDays());
+		assertArrayEquals(expected.getPlayerNames(), actual.getPlayerNames());
+		assertArrayEquals(expected.getScores(), actual.getScores());
+		assertArrayEquals(expected.getMoney(), actual.getMoney());
+		assertArrayEquals(expected.getRoundScores(), actual.getRoundScores());
+		assertArrayEquals(expected.getPetOwners(), actual.getPetOwners());
+		assertArrayEquals(expected.getPetNames(), actual.getPetNames());
+		assertArrayEquals(expected.getPetSpecies(), actual.getPetSpecies());
+		assertArrayEquals(expected.getPetFlags(), actual.getPetFlags());
+		assertArrayEquals(expected.getPetStats(), actual.getPetStats());
+	}
+	
+	@Test
+	public void testGamesAreKept() throws IOException {
+		GameResult small = createResult(7, 1, 2);
+		GameResult large = createResult(8, 4, 3);
+		GameArchive archive = new GameArchive(file);
+		assertEquals(archive.append(small), 0);
+		assertEquals(archive.append(large), 1);
+		archive.close();
+		
+		archive = new GameArchive(file);
+		assertEquals(archive.size(), 2);
+		assertResultEquals(small, archive.get(0));
+		assertResultEquals(large, archive.get(1));
+		archive.close();
+	}
+	
+	@Test
+	public void testScanReadsRecords() throws IOException {
+		GameArchive archive = new GameArchive(file);
+		GameResult large = createResult(3, 4, 3);
+		archive.append(large);
+		final ArrayList<Long> ids = new ArrayList<Long>();
+		archive.scan(new GameArchive.Visitor() {
+			@Override
+			public void visit(ArchiveRecord record) {
+				ids.add(record.getId());
+				assertEquals(record.getNumberOfPlayers(), 4);
+				assertEquals(record.getNumberOfPets(), 12);
+				assertEquals(record.getScore(2), 5);
+				assertEquals(record.getMoney(2), 102);
+				assertEquals(record.getPetOwner(8), 2);
+				assertEquals(record.getPetSpeciesHash(0), species.getKey().hashCode());
+				assertEquals(record.getPetFlags(0), GameResult.HEALTHY | GameResult.BEHAVING | GameResult.ALIVE | GameResult.REVIVABLE);
+			}
+		});
+		assertEquals(ids.size(), 1);
+		archive.close();
+	}
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testOverflowIsNotInRecord() throws IOException {
+		GameArchive archive = new GameArchive(file);
+		try {
+			archive.append(createResult(3, 4, 3));
+			archive.scan(new GameArchive.Visitor() {
+				@Override
+				public void visit(ArchiveRecord record) {
+					record.getScore(ArchiveRecord.INLINE_PLAYERS);
+				}
+			});
+		}
+		finally {
+			archive.close();
+		}
+	}
+	
+	@Test
+	public void testManyBlocks() throws IOException {
+		GameArchive archive = new GameArchive(file);
+		for (int i=0; i<5000; i++)
+			archive.append(createResult(i, 1, 1));
+		archive.close();
+		
+		archive = new GameArchive(file);
+		final long[] total = new long[1];
+		archive.scan(new GameArchive.Visitor() {
+			@Override
+			public void visit(ArchiveRecord record) {
+				assertEquals(record.getId(), record.getIndex());
+				total[0] += record.getScore(0);
+			}
+		});
+		assertEquals(total[0], 4999L * 5000 / 2);
+		assertResultEquals(createResult(4500, 1, 1), archive.get(4500));
+		archive.append(createResult(5000, 1, 1));
+		assertEquals(archive.size(), 5001);
+		archive.close();
+	}
+	
+	@Test(expected=IOException.class)
+	public void testNotAnArchive() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[1 << 16]);
+		out.close();
+		new GameArchive(file);
+	}
+}
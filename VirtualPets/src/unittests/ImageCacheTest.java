@@ -0,0 +1,54 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import javax.swing.ImageIcon;
+
+import gui.ImageCache;
+
+/**
+ * Tests that ImageCache decodes each image once for each size, and lets go of the least recently used images.
+ * @author Andrew Davidson (ada130)
+ */
+public class ImageCacheTest {
+	@Test
+	public void testImageIsShared() {
+		ImageCache cache = new ImageCache(1 << 20);
+		ImageIcon icon = cache.get("/images/statuses/Sick.png", -1, -1);
+		assertSame(cache.get("/images/statuses/Sick.png", -1, -1), icon);
+		assertEquals(cache.getCount(), 1);
+		assertEquals(cache.getSize(), 4L * icon.getIconWidth() * icon.getIconHeight());
+	}
+	
+	@Test
+	public void testSizesAreKeptApart() {
+		ImageCache cache = new ImageCache(1 << 20);
+		ImageIcon full = cache.get("/images/statuses/Sick.png", -1, -1);
+		ImageIcon scaled = cache.get("/images/statuses/Sick.png", 10, 12);
+		assertTrue(full != scaled);
+		assertEquals(scaled.getIconWidth(), 10);
+		assertEquals(scaled.getIconHeight(), 12);
+		assertSame(cache.get("/images/statuses/Sick.png", 10, 12), scaled);
+		assertEquals(cache.getCount(), 2);
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedIsLetGo() {
+		// Room for two 10x10 images
+		ImageCache cache = new ImageCache(800);
+		ImageIcon sick = cache.get("/images/statuses/Sick.png", 10, 10);
+		ImageIcon starving = cache.get("/images/statuses/Starving.png", 10, 10);
+		cache.get("/images/statuses/Sick.png", 10, 10);
+		cache.get("/images/statuses/Misbehaving.png", 10, 10);
+		assertEquals(cache.getCount(), 2);
+		assertEquals(cache.getSize(), 800);
+		assertSame(cache.get("/images/statuses/Sick.png", 10, 10), sick);
+		assertTrue(cache.get("/images/statuses/Starving.png", 10, 10) != starving);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMissingImage() {
+		new ImageCache(1 << 20).get("/images/noSuchImage.png", -1, -1);
+	}
+}
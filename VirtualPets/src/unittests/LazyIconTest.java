@@ -0,0 +1,75 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.MediaTracker;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import assetshandler.LazyIcon;
+
+/**
+ * Tests that LazyIcon only decodes its image once it is used, but knows a PNG's size before then.
+ * @author Andrew Davidson (ada130)
+ */
+public class LazyIconTest {
+	private File folder;
+	
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("icons").toFile();
+	}
+	
+	@After
+	public void tearDown() {
+		for (File file : folder.listFiles())
+			file.delete();
+		folder.delete();
+	}
+	
+	@Test
+	public void testSizeIsReadWithoutDecoding() throws IOException {
+		File file = new File(folder, "icon.png");
+		ImageIO.write(new BufferedImage(30, 20, BufferedImage.TYPE_INT_ARGB), "png", file);
+		LazyIcon icon = new LazyIcon(file.getPath());
+		assertEquals(icon.getIconWidth(), 30);
+		assertEquals(icon.getIconHeight(), 20);
+		// The image has not been decoded yet, so decoding it now finds it missing
+		file.delete();
+		assertEquals(icon.getImageLoadStatus(), MediaTracker.ERRORED);
+	}
+	
+	@Test
+	public void testDecodedOnce() throws IOException {
+		File file = new File(folder, "icon.png");
+		ImageIO.write(new BufferedImage(8, 9, BufferedImage.TYPE_INT_ARGB), "png", file);
+		LazyIcon icon = new LazyIcon(file.toURI().toURL());
+		assertEquals(icon.getImage().getWidth(null), 8);
+		file.delete();
+		assertEquals(icon.getImageLoadStatus(), MediaTracker.COMPLETE);
+		assertEquals(icon.getIconHeight(), 9);
+	}
+	
+	@Test
+	public void testOtherFormatsAreDecodedForSize() throws IOException {
+		ByteArrayOutputStream gif = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(5, 6, BufferedImage.TYPE_INT_RGB), "gif", gif);
+		LazyIcon icon = new LazyIcon(ByteBuffer.wrap(gif.toByteArray()));
+		assertEquals(icon.getIconWidth(), 5);
+		assertEquals(icon.getIconHeight(), 6);
+	}
+	
+	@Test(expected=NullPointerException.class)
+	public void testMissingResource() {
+		new LazyIcon(LazyIconTest.class.getResource("/no/such/icon.png"));
+	}
+}
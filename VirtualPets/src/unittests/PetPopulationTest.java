@@ -0,0 +1,127 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Pet;
+import model.SeededRandom;
+import model.Species;
+import model.ToyType;
+import simulation.PetPopulation;
+
+/**
+ * Tests that PetPopulation follows the same end of turn rules as Pet, and converts to and from Pets without loss.
+ * @author Andrew Davidson (ada130)
+ */
+public class PetPopulationTest {
+	Species testSpecies;
+	Species heavySpecies;
+	ToyType testToyType;
+	FoodType testFoodType;
+
+	@Before
+	public void setUp() {
+		testSpecies = new Species("Test species", new ImageIcon(), 40, 10, 10, 10, 15, 25);
+		heavySpecies = new Species("Heavy species", new ImageIcon(), 60, 10, 10, 10, 15, 25);
+		testToyType = new ToyType("Test toy type", new ImageIcon(), 25, 30);
+		testFoodType = new FoodType("Test food type", new ImageIcon(), 10, 12, 8, 5);
+	}
+
+	/**
+	 * Creates pets whose random events in finishTurn are all either certain or impossible, so that the per-object
+	 * and population results can be compared exactly.
+	 */
+	private Pet[] createPets() {
+		return new Pet[] {
+			new Pet("Default", testSpecies, testToyType, testFoodType),
+			new Pet("Starving", testSpecies, true, true, true, true, 95, 50, 60, 40, 0, testToyType, testFoodType),
+			new Pet("Exhausted", testSpecies, true, true, true, true, 50, 0, 60, 40, 1, testToyType, testFoodType),
+			new Pet("Overweight", heavySpecies, true, true, true, false, 20, 80, 80, 90, 2, testToyType, testFoodType),
+			new Pet("Sick", testSpecies, false, false, true, true, 30, 40, 30, 40, 0, testToyType, testFoodType),
+			new Pet("Dead", testSpecies, true, true, false, false, 0, 0, 0, 0, 0, testToyType, testFoodType)
+		};
+	}
+
+	@Test
+	public void testConversion() {
+		Pet[] pets = createPets();
+		Pet[] converted = PetPopulation.fromPets(pets).toPets();
+
+		assertEquals(converted.length, pets.length);
+		for (int i=0; i<pets.length; i++) {
+			assertEquals(converted[i].getName(), pets[i].getName());
+			assertEquals(converted[i].getSpecies(), pets[i].getSpecies());
+			assertEquals(converted[i].getHunger(), pets[i].getHunger());
+			assertEquals(converted[i].getEnergy(), pets[i].getEnergy());
+			assertEquals(converted[i].getHappiness(), pets[i].getHappiness());
+			assertEquals(converted[i].getWeight(), pets[i].getWeight());
+			assertEquals(converted[i].getActionPoints(), pets[i].getActionPoints());
+			assertEquals(converted[i].isHealthy(), pets[i].isHealthy());
+			assertEquals(converted[i].isBehaving(), pets[i].isBehaving());
+			assertEquals(converted[i].isAlive(), pets[i].isAlive());
+			assertEquals(converted[i].isRevivable(), pets[i].isRevivable());
+			assertEquals(converted[i].getFavouriteToy(), pets[i].getFavouriteToy());
+			assertEquals(converted[i].getFavouriteFood(), pets[i].getFavouriteFood());
+		}
+	}
+
+	@Test
+	public void testFinishTurn() {
+		Pet[] pets = createPets();
+		PetPopulation population = PetPopulation.fromPets(pets);
+		int[] scores = new int[pets.length];
+
+		long total = population.finishTurn(scores);
+		long expectedTotal = 0;
+		for (int i=0; i<pets.length; i++) {
+			int expected = pets[i].finishTurn();
+			expectedTotal += expected;
+			assertEquals(scores[i], expected);
+
+			Pet result = population.toPet(i);
+			assertEquals(result.getHunger(), pets[i].getHunger());
+			assertEquals(result.getEnergy(), pets[i].getEnergy());
+			assertEquals(result.getHappiness(), pets[i].getHappiness());
+			assertEquals(result.getWeight(), pets[i].getWeight());
+			assertEquals(result.getActionPoints(), pets[i].getActionPoints());
+			assertEquals(result.isHealthy(), pets[i].isHealthy());
+			assertEquals(result.isBehaving(), pets[i].isBehaving());
+			assertEquals(result.isAlive(), pets[i].isAlive());
+			assertEquals(result.isRevivable(), pets[i].isRevivable());
+		}
+		assertEquals(total, expectedTotal);
+	}
+	
+	@Test
+	public void testSeededFinishTurn() {
+		// With a shared seeded source both paths make the same random draws, so random events must match too
+		Pet[] pets = new Pet[60];
+		SeededRandom petRandom = new SeededRandom(2018);
+		for (int i=0; i<pets.length; i++) {
+			pets[i] = new Pet("Pet "+i, (i%2 == 0) ? testSpecies : heavySpecies, true, i%3 != 0, true, true, 
+					40 + i, 70 - i, 90 - i, 30 + i/2, 2, testToyType, testFoodType);
+			pets[i].setRandomSource(petRandom);
+		}
+		PetPopulation population = PetPopulation.fromPets(pets);
+		SeededRandom populationRandom = new SeededRandom(2018);
+		int[] scores = new int[pets.length];
+		
+		for (int turn=0; turn<10; turn++) {
+			population.finishTurn(scores, populationRandom);
+			for (int i=0; i<pets.length; i++) {
+				assertEquals(scores[i], pets[i].finishTurn());
+				assertEquals(population.getHunger(i), pets[i].getHunger());
+				assertEquals(population.getEnergy(i), pets[i].getEnergy());
+				assertEquals(population.getHappiness(i), pets[i].getHappiness());
+				assertEquals(population.getWeight(i), pets[i].getWeight());
+				assertEquals(population.isHealthy(i), pets[i].isHealthy());
+				assertEquals(population.isBehaving(i), pets[i].isBehaving());
+				assertEquals(population.isAlive(i), pets[i].isAlive());
+			}
+		}
+	}
+}
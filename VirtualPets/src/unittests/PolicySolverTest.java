@@ -0,0 +1,108 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Pet;
+import model.PetAction;
+import model.Species;
+import model.ToyType;
+import planning.PolicyLibrary;
+import planning.PolicySolver;
+
+/**
+ * Tests that PolicySolver finds sensible policies, and that they can be saved and loaded.
+ * @author Andrew Davidson (ada130)
+ */
+public class PolicySolverTest {
+	// Solving takes a while, so policies are only solved once for every test
+	static Species testSpecies;
+	static FoodType[] foodTypes;
+	static ToyType[] toyTypes;
+	static PolicyLibrary policies;
+	
+	@BeforeClass
+	public static void solve() {
+		testSpecies = new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 70);
+		foodTypes = new FoodType[] {new FoodType("Test food type", new ImageIcon(), 15, 30, 5, 10)};
+		toyTypes = new ToyType[] {new ToyType("Test toy type", new ImageIcon(), 20, 30)};
+		PolicySolver solver = new PolicySolver(foodTypes, toyTypes);
+		solver.setMaxIterations(30);
+		policies = solver.solve(new Species[] {testSpecies}, new ForkJoinPool(2));
+	}
+	
+	private Pet createPet(int hunger, int energy, int happiness, int actionPoints) {
+		return new Pet("Test pet", testSpecies, true, true, true, true, hunger, energy, happiness, 60, actionPoints,
+				toyTypes[0], foodTypes[0]);
+	}
+	
+	@Test
+	public void testFeedsStarvingPet() {
+		assertEquals(policies.suggest(createPet(100, 80, 80, 2)).getAction(), PetAction.FEED);
+		assertEquals(policies.suggest(createPet(100, 80, 80, 2)).getFoodType(), foodTypes[0]);
+	}
+	
+	@Test
+	public void testRestsExhaustedPet() {
+		assertEquals(policies.suggest(createPet(20, 0, 80, 1)).getAction(), PetAction.SLEEP);
+		assertEquals(policies.suggest(createPet(20, 0, 80, 2)).getAction(), PetAction.SLEEP);
+	}
+	
+	@Test
+	public void testEndsTurnWithoutActionPoints() {
+		assertEquals(policies.suggest(createPet(100, 0, 0, 0)).getAction(), PetAction.END_TURN);
+	}
+	
+	@Test
+	public void testDeadPets() {
+		Pet revivable = new Pet("Test pet", testSpecies, true, true, false, true, 0, 0, 0, 0, 0, toyTypes[0], foodTypes[0]);
+		assertEquals(policies.suggest(revivable).getAction(), PetAction.REVIVE);
+		Pet dead = new Pet("Test pet", testSpecies, true, true, false, false, 0, 0, 0, 0, 0, toyTypes[0], foodTypes[0]);
+		assertEquals(policies.suggest(dead).getAction(), PetAction.END_TURN);
+	}
+	
+	@Test
+	public void testUnknownSpecies() {
+		Species otherSpecies = new Species("Test species", new ImageIcon(), 40, 20, 15, 5, 40, 70);
+		Pet pet = new Pet("Test pet", otherSpecies, toyTypes[0], foodTypes[0]);
+		assertNull(policies.suggest(pet));
+	}
+	
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		File file = File.createTempFile("policies", ".bin");
+		try {
+			policies.save(file);
+			PolicyLibrary loaded = PolicyLibrary.load(file, foodTypes, toyTypes);
+			for (int hunger=0; hunger<=100; hunger+=7)
+				for (int energy=0; energy<=100; energy+=9)
+					for (int actionPoints=0; actionPoints<=2; actionPoints++) {
+						Pet pet = createPet(hunger, energy, 100 - hunger/2, actionPoints);
+						assertEquals(loaded.suggest(pet).toString(), policies.suggest(pet).toString());
+					}
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void testLoadWithMissingFoodType() throws IOException {
+		File file = File.createTempFile("policies", ".bin");
+		try {
+			policies.save(file);
+			PolicyLibrary.load(file, new FoodType[0], toyTypes);
+		}
+		finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import model.FoodType;
+import model.Pet;
+import model.PetAction;
+import model.Player;
+import model.Species;
+import model.ToyType;
+import saves.GameSnapshot;
+import saves.LoggedAction;
+import saves.RecoveryLog;
+
+/**
+ * Tests that RecoveryLog keeps the actions of a turn, and only gives them back for the turn they were logged in.
+ * @author Andrew Davidson (ada130)
+ */
+public class RecoveryLogTest {
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private Player[] players;
+	private File folder;
+	private File file;
+	
+	@Before
+	public void setUp() throws IOException {
+		Species species = SaveFixtures.species();
+		foodTypes = new FoodType[] {SaveFixtures.foodType()};
+		toyTypes = new ToyType[] {SaveFixtures.toyType()};
+		players = new Player[] {
+				new Player("Test player", new Pet[] {new Pet("Test pet", species, toyTypes[0], foodTypes[0]),
+						new Pet("Test pet2", species, toyTypes[0], foodTypes[0])}, 100),
+				new Player("Test player2", new Pet[] {new Pet("Test pet3", species, toyTypes[0], foodTypes[0])}, 100)};
+		folder = SaveFixtures.createFolder("recovery");
+		file = new File(folder, "latest-turn.log");
+	}
+	
+	@After
+	public void tearDown() {
+		SaveFixtures.deleteFolder(folder);
+	}
+	
+	private GameSnapshot snapshot(int currentDay, int activePlayerIndex) {
+		return new GameSnapshot(players, foodTypes, toyTypes, 10, 35, currentDay, activePlayerIndex, new int[3]);
+	}
+	
+	@Test
+	public void testActionsAreKept() throws IOException, InterruptedException {
+		RecoveryLog log = new RecoveryLog(file, 10);
+		log.begin(snapshot(3, 1));
+		log.append(LoggedAction.purchase(PetAction.FEED, 0));
+		log.append(new LoggedAction(PetAction.FEED, 1, 0));
+		log.append(new LoggedAction(PetAction.SLEEP, 0, 0));
+		log.close();
+		
+		LoggedAction[] actions = RecoveryLog.read(file, snapshot(3, 1));
+		assertEquals(actions.length, 3);
+		assertTrue(actions[0].isPurchase());
+		assertEquals(actions[0].getAction(), PetAction.FEED);
+		assertEquals(actions[1].getPetIndex(), 1);
+		assertFalse(actions[1].isPurchase());
+		assertEquals(actions[2].getAction(), PetAction.SLEEP);
+	}
+	
+	@Test
+	public void testBeginDiscardsLastTurn() throws IOException, InterruptedException {
+		RecoveryLog log = new RecoveryLog(file, 10);
+		log.begin(snapshot(3, 0));
+		log.append(new LoggedAction(PetAction.TOILET, 0, 0));
+		Thread.sleep(100);
+		log.begin(snapshot(3, 1));
+		log.append(new LoggedAction(PetAction.DISCIPLINE, 0, 0));
+		log.close();
+		
+		assertEquals(RecoveryLog.read(file, snapshot(3, 0)).length, 0);
+		LoggedAction[] actions = RecoveryLog.read(file, snapshot(3, 1));
+		assertEquals(actions.length, 1);
+		assertEquals(actions[0].getAction(), PetAction.DISCIPLINE);
+	}
+	
+	@Test
+	public void testDifferentGameIsNotRecovered() throws IOException, InterruptedException {
+		RecoveryLog log = new RecoveryLog(file, 10);
+		log.begin(snapshot(3, 0));
+		log.append(new LoggedAction(PetAction.SLEEP, 0, 0));
+		log.close();
+		
+		players[0].changeMoney(-10);
+		assertEquals(RecoveryLog.read(file, snapshot(3, 0)).length, 0);
+	}
+	
+	@Test
+	public void testTornActionIsIgnored() throws IOException, InterruptedException {
+		RecoveryLog log = new RecoveryLog(file, 10);
+		log.begin(snapshot(2, 0));
+		log.append(new LoggedAction(PetAction.SLEEP, 0, 0));
+		log.append(new LoggedAction(PetAction.PLAY, 1, 2));
+		log.close();
+		RandomAccessFile torn = new RandomAccessFile(file, "rw");
+		torn.setLength(torn.length() - 4);
+		torn.close();
+		
+		LoggedAction[] actions = RecoveryLog.read(file, snapshot(2, 0));
+		assertEquals(actions.length, 1);
+		assertEquals(actions[0].getAction(), PetAction.SLEEP);
+	}
+	
+	@Test
+	public void testEndEmptiesLog() throws IOException, InterruptedException {
+		RecoveryLog log = new RecoveryLog(file, 10);
+		log.begin(snapshot(10, 1));
+		log.append(new LoggedAction(PetAction.SLEEP, 0, 0));
+		log.end();
+		log.close();
+		
+		assertEquals(file.length(), 0);
+		assertEquals(RecoveryLog.read(file, snapshot(10, 1)).length, 0);
+	}
+}
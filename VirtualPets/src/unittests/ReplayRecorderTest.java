@@ -0,0 +1,226 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+import saves.GameSnapshot;
+import saves.ReplayReader;
+import saves.ReplayRecorder;
+
+/**
+ * Tests that ReplayRecorder records games which ReplayReader can rebuild at the end of any day.
+ * @author Andrew Davidson (ada130)
+ */
+public class ReplayRecorderTest {
+	private static final int DAYS = 10;
+	
+	private Species species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private AssetRegistry assets;
+	private File folder;
+	
+	@Before
+	public void setUp() throws IOException {
+		species = SaveFixtures.species();
+		foodTypes = new FoodType[] {SaveFixtures.foodType(), SaveFixtures.otherFoodType()};
+		toyTypes = new ToyType[] {SaveFixtures.toyType()};
+		assets = new AssetRegistry(new Species[] {species}, foodTypes, toyTypes);
+		folder = SaveFixtures.createFolder("replays");
+	}
+	
+	@After
+	public void tearDown() {
+		SaveFixtures.deleteFolder(folder);
+	}
+	
+	private Player[] createPlayers() {
+		Player[] players = new Player[2];
+		for (int i=0; i<players.length; i++) {
+			Pet[] pets = new Pet[i+1];
+			for (int j=0; j<pets.length; j++)
+				pets[j] = new Pet("Test pet "+i+j, species, toyTypes[0], foodTypes[j%2]);
+			players[i] = new Player("Test player "+i, pets, 100);
+		}
+		return players;
+	}
+	
+	/**
+	 * Records a game, returning a copy of it at the end of each day.
+	 */
+	private GameSnapshot[] record(ReplayRecorder recorder, Player[] players) throws IOException, InterruptedException {
+		SeededRandom random = new SeededRandom(11);
+		for (Player player : players)
+			for (Pet pet : player.getPets())
+				pet.setRandomSource(random.split());
+		GameSnapshot[] days = new GameSnapshot[DAYS + 1];
+		days[0] = new GameSnapshot(players, foodTypes, toyTypes, DAYS, 35, 1, 0, new int[3]);
+		recorder.start(days[0]);
+		days[0] = days[0].copy();
+		for (int day=1; day<=DAYS; day++) {
+			for (Player player : players) {
+				for (Pet pet : player.getPets()) {
+					if (!pet.isAlive() && pet.isRevivable())
+						pet.revive();
+					while (pet.isAlive() && pet.getActionPoints() > 0) {
+						switch (random.nextInt(0, 3)) {
+						case 0:
+							FoodType food = foodTypes[random.nextInt(0, foodTypes.length)];
+							player.changeMoney(-food.getPrice());
+							player.addFood(food);
+							player.feed(pet, food);
+							break;
+						case 1:
+							if (player.getToys().isEmpty())
+								player.addToy(new Toy(toyTypes[0]));
+							player.playWith(pet, player.getToys().get(0));
+							break;
+						default:
+							pet.sleep();
+						}
+					}
+				}
+				player.changeMoney(35);
+				for (Pet pet : player.getPets())
+					player.changeScore(pet.finishTurn());
+				recorder.endTurn(day);
+			}
+			GameSnapshot snapshot = new GameSnapshot(players, foodTypes, toyTypes, DAYS, 35, Math.min(day + 1, DAYS), 0, new int[3]);
+			recorder.endDay(day, snapshot);
+			days[day] = snapshot.copy();
+		}
+		recorder.close();
+		return days;
+	}
+	
+	private void assertSameGame(GameSnapshot expected, GameSnapshot actual) {
+		for (int i=0; i<expected.getPlayers().length; i++) {
+			Player expectedPlayer = expected.getPlayers()[i];
+			Player actualPlayer = actual.getPlayers()[i];
+			assertEquals(actualPlayer.getMoney(), expectedPlayer.getMoney());
+			assertEquals(actualPlayer.getScore(), expectedPlayer.getScore());
+			assertEquals(actualPlayer.getToys().size(), expectedPlayer.getToys().size());
+			for (int j=0; j<expectedPlayer.getPets().length; j++) {
+				Pet expectedPet = expectedPlayer.getPets()[j];
+				Pet actualPet = actualPlayer.getPets()[j];
+				assertEquals(actualPet.isAlive(), expectedPet.isAlive());
+				assertEquals(actualPet.isHealthy(), expectedPet.isHealthy());
+				assertEquals(actualPet.getHunger(), expectedPet.getHunger());
+				assertEquals(actualPet.getEnergy(), expectedPet.getEnergy());
+				assertEquals(actualPet.getHappiness(), expectedPet.getHappiness());
+				assertEquals(actualPet.getWeight(), expectedPet.getWeight());
+			}
+		}
+	}
+	
+	@Test
+	public void testSeekToEveryDay() throws IOException, InterruptedException {
+		ReplayRecorder recorder = new ReplayRecorder(folder, 3, 5);
+		GameSnapshot[] days = record(recorder, createPlayers());
+		
+		ReplayReader reader = new ReplayReader(recorder.getFile(), assets);
+		try {
+			assertEquals(reader.getFirstDay(), 0);
+			assertEquals(reader.getLastDay(), DAYS);
+			assertEquals(reader.getNumberOfDays(), DAYS);
+			// Seek backwards, so every keyframe is read again rather than carried over from the last seek
+			for (int day=DAYS; day>=0; day--) {
+				GameSnapshot snapshot = reader.seek(day);
+				assertSameGame(days[day], snapshot);
+				assertEquals(reader.getScores(day)[1], days[day].getPlayers()[1].getScore());
+				if (day > 0)
+					assertEquals(snapshot.getPreviousScores()[0], days[day - 1].getPlayers()[0].getScore());
+			}
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void testTornRecordIsIgnored() throws IOException, InterruptedException {
+		ReplayRecorder recorder = new ReplayRecorder(folder, 4, 5);
+		GameSnapshot[] days = record(recorder, createPlayers());
+		RandomAccessFile file = new RandomAccessFile(recorder.getFile(), "rw");
+		file.setLength(file.length() - 3);
+		file.close();
+		
+		ReplayReader reader = new ReplayReader(recorder.getFile(), assets);
+		try {
+			assertEquals(reader.getLastDay(), DAYS - 1);
+			assertSameGame(days[DAYS - 1], reader.seek(DAYS - 1));
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testDayNotRecorded() throws IOException, InterruptedException {
+		ReplayRecorder recorder = new ReplayRecorder(folder, 4, 5);
+		record(recorder, createPlayers());
+		ReplayReader reader = new ReplayReader(recorder.getFile(), assets);
+		try {
+			reader.seek(DAYS + 1);
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void testOnlyRecentReplaysAreKept() throws IOException, InterruptedException {
+		ReplayRecorder recorder = new ReplayRecorder(folder, 4, 2);
+		for (int game=0; game<4; game++)
+			record(recorder, createPlayers());
+		File[] replays = folder.listFiles();
+		assertEquals(replays.length, 2);
+		assertTrue(recorder.getFile().isFile());
+		
+		ReplayReader reader = new ReplayReader(recorder.getFile(), assets);
+		try {
+			assertEquals(reader.getLastDay(), DAYS);
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void testRecordingIsOptIn() {
+		String property = System.clearProperty("virtualpets.recordReplays");
+		try {
+			assertFalse(ReplayRecorder.isEnabled());
+			System.setProperty("virtualpets.recordReplays", "true");
+			assertTrue(ReplayRecorder.isEnabled());
+		}
+		finally {
+			if (property == null)
+				System.clearProperty("virtualpets.recordReplays");
+			else
+				System.setProperty("virtualpets.recordReplays", property);
+		}
+	}
+	
+	@Test(expected=IOException.class)
+	public void testNotAReplay() throws IOException {
+		File file = new File(folder, "game.replay");
+		Files.write(file.toPath(), new byte[64]);
+		new ReplayReader(file, assets);
+	}
+}
@@ -0,0 +1,102 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Pet;
+import model.RiskForecast;
+import model.RiskForecaster;
+import model.ScriptedRandom;
+import model.Species;
+import model.ToyType;
+
+/**
+ * Tests that RiskForecaster's chances are exactly the probabilities of the random events in Pet.finishTurn, by
+ * finishing turns with every possible random number and counting how many of them cause each event.
+ * @author Andrew Davidson (ada130)
+ */
+public class RiskForecasterTest {
+	Species[] testSpecies;
+	ToyType testToyType;
+	FoodType testFoodType;
+	
+	@Before
+	public void setUp() {
+		testSpecies = new Species[] {
+			new Species("Light species", new ImageIcon(), 40, 10, 10, 10, 15, 25),
+			new Species("Heavy species", new ImageIcon(), 60, 10, 10, 10, 15, 25),
+			new Species("Odd species", new ImageIcon(), 47, 10, 10, 10, 15, 25)
+		};
+		testToyType = new ToyType("Test toy type", new ImageIcon(), 25, 30);
+		testFoodType = new FoodType("Test food type", new ImageIcon(), 10, 12, 8, 5);
+	}
+	
+	/**
+	 * Counts how many of the random numbers from 0 to 99 cause an event when they are drawn at the given position.
+	 * All other draws are 99, which only causes events that are certain.
+	 */
+	private int countEvents(Species species, boolean healthy, int hunger, int energy, int happiness, int weight, int draw, int event) {
+		int count = 0;
+		for (int number=0; number<100; number++) {
+			int[] values = {99, 99, 99};
+			values[draw] = number;
+			Pet pet = new Pet("Test pet", species, healthy, true, true, true, hunger, energy, happiness, weight, 2, testToyType, testFoodType);
+			pet.setRandomSource(new ScriptedRandom(values));
+			pet.finishTurn();
+			if ((event == 0 && !pet.isAlive()) || (event == 1 && !pet.isHealthy()) || (event == 2 && !pet.isBehaving()))
+				count++;
+		}
+		return count;
+	}
+	
+	@Test
+	public void testDeathChance() {
+		for (Species species : testSpecies)
+			for (int energy=0; energy<=100; energy+=3)
+				for (int weight=0; weight<=species.getOptimumWeight()*2; weight++)
+					assertEquals(countEvents(species, true, 50, energy, 50, weight, 0, 0),
+							RiskForecaster.getDeathChance(species, energy, weight));
+	}
+	
+	@Test
+	public void testSicknessChance() {
+		for (Species species : testSpecies)
+			for (int hunger=0; hunger<=100; hunger+=9)
+				for (int energy=10; energy<=100; energy+=6)
+					for (int weight=0; weight<=species.getOptimumWeight()*2; weight++) {
+						// Pets certain to die never roll for sickness
+						if (RiskForecaster.getDeathChance(species, energy, weight) == 100)
+							continue;
+						assertEquals(countEvents(species, true, hunger, energy, 50, weight, 1, 1),
+								RiskForecaster.getSicknessChance(species, hunger, energy, weight));
+					}
+	}
+	
+	@Test
+	public void testMisbehavingChance() {
+		for (int hunger=0; hunger<=100; hunger++)
+			for (int happiness=0; happiness<=100; happiness+=3)
+				// Sick pets do not roll for sickness, so misbehaving is the second draw
+				assertEquals(countEvents(testSpecies[0], false, hunger, 50, happiness, 40, 1, 2),
+						RiskForecaster.getMisbehavingChance(hunger, happiness));
+	}
+	
+	@Test
+	public void testForecast() {
+		Pet pet = new Pet("Test pet", testSpecies[1], true, false, true, true, 80, 20, 30, 95, 2, testToyType, testFoodType);
+		RiskForecast forecast = RiskForecaster.forecast(pet);
+		assertEquals(forecast.getDeathChance(), RiskForecaster.getDeathChance(testSpecies[1], 20, 95));
+		assertEquals(forecast.getSicknessChance(), RiskForecaster.getSicknessChance(testSpecies[1], 80, 20, 95));
+		assertEquals(forecast.getMisbehavingChance(), 0);
+		assertEquals(forecast.getScore(), pet.finishTurn());
+		
+		Pet deadPet = new Pet("Dead pet", testSpecies[0], true, true, false, false, 0, 0, 0, 0, 0, testToyType, testFoodType);
+		forecast = RiskForecaster.forecast(deadPet);
+		assertEquals(forecast.getDeathChance(), 0);
+		assertEquals(forecast.getScore(), 0);
+	}
+}
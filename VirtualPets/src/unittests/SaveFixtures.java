@@ -0,0 +1,62 @@
+package unittests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.swing.ImageIcon;
+
+import model.FoodType;
+import model.Species;
+import model.ToyType;
+
+/**
+ * The assets and temporary folders shared by the tests of saving and loading games.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveFixtures {
+	private SaveFixtures() {
+	}
+	
+	public static Species species() {
+		return new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 70);
+	}
+	
+	public static FoodType foodType() {
+		return new FoodType("Test food type", new ImageIcon(), 15, 30, 5, 10);
+	}
+	
+	/**
+	 * @return
+	 * A food type different to foodType(), for tests which need more than one.
+	 */
+	public static FoodType otherFoodType() {
+		return new FoodType("Test food type2", new ImageIcon(), 5, 10, 20, 5);
+	}
+	
+	public static ToyType toyType() {
+		return new ToyType("Test toy type", new ImageIcon(), 20, 30);
+	}
+	
+	/**
+	 * Creates an empty temporary folder for a test to save into.
+	 * @param prefix
+	 * The start of the folder's name.
+	 * @return
+	 * The folder.
+	 */
+	public static File createFolder(String prefix) throws IOException {
+		return Files.createTempDirectory(prefix).toFile();
+	}
+	
+	/**
+	 * Deletes a folder made by createFolder, along with the files saved in it.
+	 * @param folder
+	 * The folder to delete.
+	 */
+	public static void deleteFolder(File folder) {
+		for (File file : folder.listFiles())
+			file.delete();
+		folder.delete();
+	}
+}
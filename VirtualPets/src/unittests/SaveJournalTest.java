@@ -0,0 +1,167 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+import saves.GameSnapshot;
+import saves.SaveJournal;
+
+/**
+ * Tests that SaveJournal saves each turn's changes, folds them into a new base, and loads what was last saved.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveJournalTest {
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private File folder;
+	private File file;
+	private Player player;
+	private GameSnapshot snapshot;
+	
+	@Before
+	public void setUp() throws IOException {
+		species = new Species[] {SaveFixtures.species()};
+		foodTypes = new FoodType[] {SaveFixtures.foodType(), SaveFixtures.otherFoodType()};
+		toyTypes = new ToyType[] {SaveFixtures.toyType()};
+		folder = SaveFixtures.createFolder("journal");
+		file = new File(folder, "game.sav");
+		
+		Pet pet = new Pet("Test pet", species[0], toyTypes[0], foodTypes[0]);
+		pet.setRandomSource(new SeededRandom(5));
+		player = new Player("Test player", new Pet[] {pet}, 100);
+		snapshot = new GameSnapshot(new Player[] {player}, foodTypes, toyTypes, 20, 35, 1, 0, new int[3]);
+	}
+	
+	@After
+	public void tearDown() {
+		SaveFixtures.deleteFolder(folder);
+	}
+	
+	private GameSnapshot atDay(int day) {
+		return new GameSnapshot(snapshot.getPlayers(), foodTypes, toyTypes, 20, 35, day, 0, snapshot.getPreviousScores()).copy();
+	}
+	
+	private GameSnapshot load() throws IOException {
+		return SaveJournal.load(file, new AssetRegistry(species, foodTypes, toyTypes));
+	}
+	
+	private void play() {
+		player.changeMoney(-15);
+		player.addFood(foodTypes[1]);
+		player.addToy(new Toy(toyTypes[0]));
+		player.getToys().get(0).changeDurability(-4);
+		player.changeScore(30);
+		Pet pet = player.getPets()[0];
+		pet.sleep();
+		pet.finishTurn();
+	}
+	
+	@Test
+	public void testChangesAreJournalled() throws IOException, InterruptedException {
+		SaveJournal journal = new SaveJournal(new File(folder, "reference.sav"), 1 << 16);
+		journal.save(atDay(1));
+		journal.close();
+		long baseLength = new File(folder, "reference.sav").length();
+		
+		journal = new SaveJournal(file, 1 << 16);
+		journal.save(atDay(1));
+		Thread.sleep(20);
+		for (int day=2; day<=4; day++) {
+			play();
+			snapshot.getPreviousScores()[0] = player.getScore();
+			journal.save(atDay(day));
+			// Let each save be written, rather than only the newest
+			Thread.sleep(20);
+		}
+		journal.close();
+		
+		// The base was not rewritten, and each turn wrote less than the whole game
+		assertEquals(file.length(), baseLength);
+		File journalFile = new File(folder, "game.sav.journal");
+		assertTrue(journalFile.length() < 4 * baseLength);
+		
+		GameSnapshot loaded = load();
+		assertEquals(loaded.getCurrentDay(), 4);
+		assertEquals(loaded.getPreviousScores()[0], player.getScore());
+		Player loadedPlayer = loaded.getPlayers()[0];
+		assertEquals(loadedPlayer.getMoney(), player.getMoney());
+		assertEquals(loadedPlayer.getScore(), player.getScore());
+		assertTrue(loadedPlayer.getFood().get(foodTypes[1]).equals(3));
+		assertEquals(loadedPlayer.getToys().size(), 3);
+		assertEquals(loadedPlayer.getToys().get(0).getDurability(), player.getToys().get(0).getDurability());
+		Pet pet = player.getPets()[0];
+		Pet loadedPet = loadedPlayer.getPets()[0];
+		assertEquals(loadedPet.getName(), "Test pet");
+		assertEquals(loadedPet.getEnergy(), pet.getEnergy());
+		assertEquals(loadedPet.getHunger(), pet.getHunger());
+		assertEquals(loadedPet.isAlive(), pet.isAlive());
+		for (int i=0; i<20; i++)
+			assertEquals(loadedPet.getRandomSource().nextInt(0, 100), pet.getRandomSource().nextInt(0, 100));
+	}
+	
+	@Test
+	public void testCompaction() throws IOException, InterruptedException {
+		SaveJournal journal = new SaveJournal(file, 1);
+		journal.save(atDay(1));
+		Thread.sleep(20);
+		play();
+		journal.save(atDay(2));
+		journal.close();
+		
+		// The journal passed its threshold, so the second save was folded into a new base
+		assertEquals(new File(folder, "game.sav.journal").length(), 16);
+		assertEquals(load().getCurrentDay(), 2);
+		assertEquals(load().getPlayers()[0].getMoney(), player.getMoney());
+	}
+	
+	@Test
+	public void testTornRecordIsIgnored() throws IOException, InterruptedException {
+		SaveJournal journal = new SaveJournal(file, 1 << 16);
+		journal.save(atDay(1));
+		Thread.sleep(20);
+		player.changeMoney(-10);
+		journal.save(atDay(2));
+		Thread.sleep(20);
+		player.changeMoney(-10);
+		journal.save(atDay(3));
+		journal.close();
+		
+		// Cut the last record short, as if the game crashed while writing it
+		RandomAccessFile journalFile = new RandomAccessFile(new File(folder, "game.sav.journal"), "rw");
+		journalFile.setLength(journalFile.length() - 3);
+		journalFile.close();
+		GameSnapshot loaded = load();
+		assertEquals(loaded.getCurrentDay(), 2);
+		assertEquals(loaded.getPlayers()[0].getMoney(), 90);
+	}
+	
+	@Test
+	public void testNewGameReplacesBase() throws IOException, InterruptedException {
+		SaveJournal journal = new SaveJournal(file, 1 << 16);
+		journal.save(atDay(3));
+		Thread.sleep(20);
+		Player other = new Player("Other player", new Pet[] {new Pet("Other pet", species[0], toyTypes[0], foodTypes[1])}, 50);
+		journal.save(new GameSnapshot(new Player[] {other}, foodTypes, toyTypes, 10, 20, 1, 0, new int[3]).copy());
+		journal.close();
+		
+		GameSnapshot loaded = load();
+		assertEquals(loaded.getPlayers()[0].getName(), "Other player");
+		assertEquals(loaded.getNumberOfDays(), 10);
+		assertTrue(SaveJournal.isJournalled(file));
+	}
+}
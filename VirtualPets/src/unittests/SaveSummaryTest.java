@@ -0,0 +1,124 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.Species;
+import model.ToyType;
+import saves.GameSnapshot;
+import saves.SaveJournal;
+import saves.SaveSummary;
+import saves.SnapshotCodec;
+
+/**
+ * Tests that SaveSummary reads the summaries at the start of snapshots and journalled saves, and lists saves.
+ * @author Andrew Davidson (ada130)
+ */
+public class SaveSummaryTest {
+	private Species species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private File folder;
+	
+	@Before
+	public void setUp() throws IOException {
+		species = SaveFixtures.species();
+		foodTypes = new FoodType[] {SaveFixtures.foodType()};
+		toyTypes = new ToyType[] {SaveFixtures.toyType()};
+		folder = SaveFixtures.createFolder("summaries");
+	}
+	
+	@After
+	public void tearDown() {
+		SaveFixtures.deleteFolder(folder);
+	}
+	
+	private GameSnapshot createSnapshot(int day, String... names) {
+		Player[] players = new Player[names.length];
+		for (int i=0; i<names.length; i++) {
+			players[i] = new Player(names[i], new Pet[] {new Pet("Test pet", species, toyTypes[0], foodTypes[0])}, 100);
+			players[i].changeScore(10 * (i + 1));
+		}
+		return new GameSnapshot(players, foodTypes, toyTypes, 15, 35, day, 0, new int[Math.max(names.length, 3)]);
+	}
+	
+	@Test
+	public void testSnapshotSummary() throws IOException {
+		File file = new File(folder, "game.sav");
+		long before = System.currentTimeMillis();
+		SnapshotCodec.write(createSnapshot(6, "Test player", "Test player2"), file);
+		SaveSummary summary = SaveSummary.read(file);
+		assertEquals(summary.getFile(), file);
+		assertEquals(summary.getCurrentDay(), 6);
+		assertEquals(summary.getNumberOfDays(), 15);
+		assertEquals(summary.getNumberOfPlayers(), 2);
+		assertArrayEquals(summary.getPlayerNames(), new String[] {"Test player", "Test player2"});
+		assertArrayEquals(summary.getScores(), new int[] {10, 20});
+		assertTrue(summary.getTimestamp() >= before);
+	}
+	
+	@Test
+	public void testLongNamesAreCut() throws IOException {
+		// Each of these characters takes two bytes, so the name cannot be cut evenly in the middle of one
+		String name = "x";
+		for (int i=0; i<40; i++)
+			name += "\u00e9";
+		File file = new File(folder, "game.sav");
+		SnapshotCodec.write(createSnapshot(1, name, "a", "b", "c", "d"), file);
+		SaveSummary summary = SaveSummary.read(file);
+		String cut = summary.getPlayerNames()[0];
+		assertTrue(name.startsWith(cut));
+		assertEquals(cut.length(), 23);
+		assertEquals(summary.getNumberOfPlayers(), 5);
+		assertEquals(summary.getPlayerNames().length, 4);
+	}
+	
+	@Test
+	public void testJournalSummaryIsKeptUpToDate() throws IOException, InterruptedException {
+		File file = new File(folder, "game.sav");
+		GameSnapshot snapshot = createSnapshot(1, "Test player");
+		SaveJournal journal = new SaveJournal(file, 1 << 16);
+		journal.save(snapshot.copy());
+		Thread.sleep(20);
+		snapshot.getPlayers()[0].changeScore(5);
+		journal.save(new GameSnapshot(snapshot.getPlayers(), foodTypes, toyTypes, 15, 35, 2, 0, new int[3]).copy());
+		journal.close();
+		
+		SaveSummary summary = SaveSummary.read(file);
+		assertEquals(summary.getCurrentDay(), 2);
+		assertEquals(summary.getScores()[0], 15);
+	}
+	
+	@Test
+	public void testList() throws IOException, InterruptedException {
+		SnapshotCodec.write(createSnapshot(1, "Test player"), new File(folder, "first.sav"));
+		Thread.sleep(20);
+		SnapshotCodec.write(createSnapshot(2, "Test player"), new File(folder, "second.sav"));
+		FileOutputStream other = new FileOutputStream(new File(folder, "notes.txt"));
+		other.write("Not a saved game".getBytes("UTF-8"));
+		other.close();
+		
+		SaveSummary[] summaries = SaveSummary.list(folder, new File(folder, "missing"));
+		assertEquals(summaries.length, 2);
+		assertEquals(summaries[0].getFile().getName(), "second.sav");
+		assertEquals(summaries[1].getFile().getName(), "first.sav");
+	}
+	
+	@Test(expected = IOException.class)
+	public void testNotASave() throws IOException {
+		File file = new File(folder, "notes.txt");
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[300]);
+		out.close();
+		SaveSummary.read(file);
+	}
+}
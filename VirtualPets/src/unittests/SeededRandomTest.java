@@ -0,0 +1,75 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import javax.swing.ImageIcon;
+
+import model.Pet;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+
+/**
+ * Tests that SeededRandom is reproducible, stays within its bounds, and makes pets' random events reproducible.
+ * @author Andrew Davidson (ada130)
+ */
+public class SeededRandomTest {
+	
+	@Test
+	public void testReproducible() {
+		SeededRandom first = new SeededRandom(201);
+		SeededRandom second = new SeededRandom(201);
+		for (int i=0; i<1000; i++)
+			assertEquals(first.nextInt(0, 100), second.nextInt(0, 100));
+		
+		// Splitting in the same order gives the same sources, and restoring a state continues the same sequence
+		SeededRandom firstSplit = first.split();
+		SeededRandom secondSplit = second.split();
+		SeededRandom restored = new SeededRandom(firstSplit.getSeed(), firstSplit.getGamma());
+		for (int i=0; i<1000; i++) {
+			int value = firstSplit.nextInt(0, 100);
+			assertEquals(value, secondSplit.nextInt(0, 100));
+			assertEquals(value, restored.nextInt(0, 100));
+		}
+	}
+	
+	@Test
+	public void testBounds() {
+		SeededRandom random = new SeededRandom(42);
+		int value;
+		for (int i=0; i<10000; i++) {
+			value = random.nextInt(15, 26);
+			assertTrue((value >= 15) && (value < 26));
+			value = random.nextInt(0, 64);
+			assertTrue((value >= 0) && (value < 64));
+			value = random.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+			assertTrue(value < Integer.MAX_VALUE);
+		}
+	}
+	
+	@Test
+	public void testPetsReproducible() {
+		Species species = new Species("Test species", new ImageIcon(), 40, 25, 15, 15, 15, 25);
+		ToyType toyType = new ToyType("Test toy type", new ImageIcon(), 25, 30);
+		Pet first = new Pet("First", species, toyType, null);
+		Pet second = new Pet("Second", species, toyType, null);
+		first.setRandomSource(new SeededRandom(7));
+		second.setRandomSource(new SeededRandom(7));
+		
+		for (int turn=0; turn<10; turn++) {
+			Toy firstToy = new Toy(toyType);
+			Toy secondToy = new Toy(toyType);
+			first.play(firstToy);
+			second.play(secondToy);
+			assertEquals(firstToy.getDurability(), secondToy.getDurability());
+			
+			assertEquals(first.finishTurn(), second.finishTurn());
+			assertEquals(first.isAlive(), second.isAlive());
+			assertEquals(first.isHealthy(), second.isHealthy());
+			assertEquals(first.isBehaving(), second.isBehaving());
+			assertEquals(first.getHappiness(), second.getHappiness());
+		}
+	}
+}
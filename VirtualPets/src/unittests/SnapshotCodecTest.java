@@ -0,0 +1,190 @@
+package unittests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import javax.swing.ImageIcon;
+
+import assetshandler.AssetRegistry;
+import model.FoodType;
+import model.Pet;
+import model.Player;
+import model.SeededRandom;
+import model.Species;
+import model.Toy;
+import model.ToyType;
+import saves.GameSnapshot;
+import saves.SaveCompression;
+import saves.SnapshotCodec;
+
+/**
+ * Tests that SnapshotCodec saves and loads every part of a game's state.
+ * @author Andrew Davidson (ada130)
+ */
+public class SnapshotCodecTest {
+	private Species[] species;
+	private FoodType[] foodTypes;
+	private ToyType[] toyTypes;
+	private GameSnapshot snapshot;
+
+	@Before
+	public void setUp() {
+		species = new Species[] {new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 70),
+				new Species("Test species2", new ImageIcon(), 30, 10, 10, 10, 15, 25)};
+		foodTypes = new FoodType[] {new FoodType("Test food type", new ImageIcon(), 15, 30, 5, 10),
+				new FoodType("Test food type2", new ImageIcon(), 5, 10, 20, 5)};
+		toyTypes = new ToyType[] {new ToyType("Test toy type", new ImageIcon(), 20, 30)};
+
+		Pet pet = new Pet("Test pet", species[0], toyTypes[0], foodTypes[1]);
+		pet.setRandomSource(new SeededRandom(3));
+		Pet deadPet = new Pet("Test pet2", species[1], false, true, false, true, 0, 0, 0, 0, 0, toyTypes[0], foodTypes[0]);
+		Player player = new Player("Test player", new Pet[] {pet, deadPet}, 40);
+		player.addFood(foodTypes[1]);
+		player.addFood(foodTypes[1]);
+		player.addToy(new Toy(toyTypes[0], 55));
+		player.changeScore(120);
+		Player computer = new Player("Test player2", new Pet[] {new Pet("Test pet3", species[1], toyTypes[0], foodTypes[0])}, 70);
+		computer.setComputer(true);
+		snapshot = new GameSnapshot(new Player[] {player, computer}, foodTypes, toyTypes, 10, 35, 4, 1, new int[] {100, 90, 0});
+	}
+
+	private GameSnapshot roundTrip(GameSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotCodec.write(snapshot, Channels.newChannel(bytes));
+		return SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), new AssetRegistry(species, foodTypes, toyTypes));
+	}
+
+	@Test
+	public void testGame() throws IOException {
+		GameSnapshot loaded = roundTrip(snapshot);
+		assertEquals(loaded.getNumberOfDays(), 10);
+		assertEquals(loaded.getIncomePerTurn(), 35);
+		assertEquals(loaded.getCurrentDay(), 4);
+		assertEquals(loaded.getActivePlayerIndex(), 1);
+		assertEquals(loaded.getPreviousScores()[0], 100);
+		assertEquals(loaded.getPreviousScores()[1], 90);
+		assertArrayEquals(loaded.getFoodTypes(), foodTypes);
+		assertArrayEquals(loaded.getToyTypes(), toyTypes);
+	}
+
+	@Test
+	public void testPlayers() throws IOException {
+		Player[] players = roundTrip(snapshot).getPlayers();
+		assertEquals(players.length, 2);
+		assertEquals(players[0].getName(), "Test player");
+		assertEquals(players[0].getMoney(), 40);
+		assertEquals(players[0].getScore(), 120);
+		assertFalse(players[0].isComputer());
+		assertTrue(players[1].isComputer());
+		assertEquals(players[0].getFood().size(), 1);
+		assertTrue(players[0].getFood().get(foodTypes[1]).equals(2));
+		assertEquals(players[0].getToys().size(), 1);
+		assertSame(players[0].getToys().get(0).getToyType(), toyTypes[0]);
+		assertEquals(players[0].getToys().get(0).getDurability(), 55);
+	}
+
+	@Test
+	public void testPets() throws IOException {
+		Pet[] pets = roundTrip(snapshot).getPlayers()[0].getPets();
+		assertEquals(pets.length, 2);
+		assertEquals(pets[0].getName(), "Test pet");
+		assertSame(pets[0].getSpecies(), species[0]);
+		assertSame(pets[0].getFavouriteToy(), toyTypes[0]);
+		assertSame(pets[0].getFavouriteFood(), foodTypes[1]);
+		assertEquals(pets[0].getHunger(), 20);
+		assertEquals(pets[0].getWeight(), 60);
+		assertEquals(pets[0].getActionPoints(), 2);
+		assertFalse(pets[1].isHealthy());
+		assertTrue(pets[1].isBehaving());
+		assertFalse(pets[1].isAlive());
+		assertTrue(pets[1].isRevivable());
+	}
+
+	@Test
+	public void testRandomSourceContinues() throws IOException {
+		Pet pet = snapshot.getPlayers()[0].getPets()[0];
+		pet.getRandomSource().nextInt(0, 100);
+		Pet loaded = roundTrip(snapshot).getPlayers()[0].getPets()[0];
+		for (int i=0; i<20; i++)
+			assertEquals(loaded.getRandomSource().nextInt(0, 100), pet.getRandomSource().nextInt(0, 100));
+	}
+
+	@Test
+	public void testChangedAssets() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotCodec.write(snapshot, Channels.newChannel(bytes));
+		ImageIcon icon = new ImageIcon();
+		Species[] changedSpecies = {new Species("Test species", icon, 65, 20, 15, 5, 40, 70), species[1]};
+		GameSnapshot loaded = SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+				new AssetRegistry(changedSpecies, foodTypes, toyTypes));
+
+		// The saved species' attributes are kept, but it gets the icon of the game's species with the same name
+		Species loadedSpecies = loaded.getPlayers()[0].getPets()[0].getSpecies();
+		assertEquals(loadedSpecies.getOptimumWeight(), 60);
+		assertSame(loadedSpecies.getIcon(), icon);
+		assertSame(loaded.getPlayers()[0].getPets()[1].getSpecies(), species[1]);
+	}
+
+	@Test
+	public void testNewIconsAreUsed() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotCodec.write(snapshot, Channels.newChannel(bytes));
+
+		// Assets with the same attributes but different artwork are the same asset
+		Species redrawn = new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 70);
+		assertEquals(redrawn.getKey(), species[0].getKey());
+		GameSnapshot loaded = SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+				new AssetRegistry(new Species[] {redrawn, species[1]}, foodTypes, toyTypes));
+		assertSame(loaded.getPlayers()[0].getPets()[0].getSpecies(), redrawn);
+	}
+
+	@Test
+	public void testKeys() {
+		assertTrue(species[0].getKey().startsWith("Test species#"));
+		assertFalse(species[0].getKey().equals(new Species("Test species", new ImageIcon(), 60, 20, 15, 5, 40, 71).getKey()));
+		assertFalse(foodTypes[0].getKey().equals(foodTypes[1].getKey()));
+	}
+
+	@Test
+	public void testCompression() throws IOException {
+		for (SaveCompression compression : SaveCompression.values()) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			SnapshotCodec.write(snapshot, Channels.newChannel(bytes), compression);
+			GameSnapshot loaded = SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+					new AssetRegistry(species, foodTypes, toyTypes));
+			assertEquals(loaded.getCurrentDay(), 4);
+			assertEquals(loaded.getPlayers()[0].getScore(), 120);
+			assertEquals(loaded.getPlayers()[1].getPets()[0].getName(), "Test pet3");
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownCompression() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotCodec.write(snapshot, Channels.newChannel(bytes), SaveCompression.NONE);
+		byte[] save = bytes.toByteArray();
+		// The codec's id is the third int in the header
+		save[11] = 9;
+		SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(save)), new AssetRegistry(species, foodTypes, toyTypes));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotASave() throws IOException {
+		SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})), new AssetRegistry(species, foodTypes, toyTypes));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedSave() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotCodec.write(snapshot, Channels.newChannel(bytes));
+		byte[] truncated = new byte[bytes.size() - 10];
+		System.arraycopy(bytes.toByteArray(), 0, truncated, 0, truncated.length);
+		SnapshotCodec.read(Channels.newChannel(new ByteArrayInputStream(truncated)), new AssetRegistry(species, foodTypes, toyTypes));
+	}
+}